@@ -15,6 +15,7 @@ package org.apache.pekko.io
 
 import java.io.IOException
 import java.net.{ InetSocketAddress, ServerSocket }
+import java.nio.ByteBuffer
 
 import scala.concurrent.duration._
 import scala.language.postfixOps
@@ -175,6 +176,32 @@ class TcpIntegrationSpec extends PekkoSpec("""
       verifyActorTermination(serverConnection)
     }
 
+    "write direct ByteStrings" in new TestSetup {
+      val (clientHandler, clientConnection, serverHandler, serverConnection) = establishNewClientConnection()
+
+      object Ack extends Event
+
+      val buffer = ByteBuffer.allocateDirect(100000)
+      while (buffer.hasRemaining) buffer.put((buffer.position() % 128).toByte)
+      buffer.flip()
+      val data = ByteString.fromDirectBuffer(buffer)
+      serverHandler.send(serverConnection, Write(data.take(10), NoAck) +: Write(data.drop(10), Ack))
+      serverHandler.expectMsg(Ack)
+      data.release() should ===(true)
+
+      expectReceivedData(clientHandler, 100000)
+
+      override def bindOptions = List(SO.SendBufferSize(1024))
+      override def connectOptions = List(SO.ReceiveBufferSize(1024))
+
+      serverHandler.send(serverConnection, Close)
+      serverHandler.expectMsg(Closed)
+      clientHandler.expectMsg(PeerClosed)
+
+      verifyActorTermination(clientConnection)
+      verifyActorTermination(serverConnection)
+    }
+
     "don't report Connected when endpoint isn't responding" in {
       val connectCommander = TestProbe()
       // a "random" endpoint hopefully unavailable since it's in the test-net IP range
@@ -31,6 +31,7 @@ import org.scalatest.wordspec.AnyWordSpec
 import org.scalatestplus.scalacheck.Checkers
 
 import org.apache.pekko
+import pekko.io.BufferPool
 import pekko.util.ByteString.{ ByteString1, ByteString1C, ByteStrings }
 
 class ByteStringSpec extends AnyWordSpec with Matchers with Checkers {
@@ -489,6 +490,91 @@ class ByteStringSpec extends AnyWordSpec with Matchers with Checkers {
       verify(byteString.copyToArray(_, 3, 3))(0, 0, 0)
     }
   }
+  "DirectByteString" must {
+    def direct(s: String): ByteString.DirectByteString = {
+      val bytes = s.getBytes(StandardCharsets.UTF_8)
+      val buffer = ByteBuffer.allocateDirect(bytes.length + 4)
+      buffer.position(2)
+      buffer.put(bytes)
+      buffer.flip()
+      buffer.position(2)
+      ByteString.fromDirectBuffer(buffer)
+    }
+
+    "contain the remaining bytes of the buffer" in {
+      val bs = direct("abcdef")
+      bs.length should ===(6)
+      bs should ===(ByteString("abcdef"))
+      bs.utf8String should ===("abcdef")
+      bs(2) should ===('c'.toByte)
+      bs.isCompact should ===(false)
+      bs.compact should ===(ByteString("abcdef"))
+      an[IllegalArgumentException] should be thrownBy ByteString.fromDirectBuffer(ByteBuffer.allocate(4))
+    }
+
+    "slice without copying" in {
+      val bs = direct("0123456789")
+      bs.drop(2) shouldBe a[ByteString.DirectByteString]
+      bs.drop(2).take(3) should ===(ByteString("234"))
+      bs.dropRight(4).drop(5) should ===(ByteString("5"))
+      bs.slice(3, 7) should ===(ByteString("3456"))
+      bs.splitAt(4) should ===((ByteString("0123"), ByteString("456789")))
+      bs.drop(10) should ===(ByteString.empty)
+      bs.take(0) should ===(ByteString.empty)
+      bs.indexOf('7'.toByte) should ===(7)
+      bs.drop(3).indexOf('7'.toByte, 2) should ===(4)
+      bs.indexOf('x'.toByte) should ===(-1)
+      bs.indexOfSlice(ByteString("789")) should ===(7)
+    }
+
+    "expose its bytes as a read-only direct buffer" in {
+      val buffer = direct("abcdef").drop(1).asByteBuffer
+      buffer.isDirect should ===(true)
+      buffer.isReadOnly should ===(true)
+      buffer.remaining should ===(5)
+      buffer.get(0) should ===('b'.toByte)
+      val target = ByteBuffer.allocate(3)
+      direct("abcdef").copyToBuffer(target) should ===(3)
+      target.array should ===("abc".getBytes(StandardCharsets.UTF_8))
+    }
+
+    "concatenate, build and serialize as a heap ByteString" in {
+      val bs = direct("abc")
+      bs ++ ByteString("def") should ===(ByteString("abcdef"))
+      ByteString("xyz") ++ bs should ===(ByteString("xyzabc"))
+      ByteString("x") ++ ByteString("y") ++ bs should ===(ByteString("xyabc"))
+      val builder = ByteString.newBuilder
+      builder ++= ByteString("x")
+      builder ++= bs
+      builder.result() should ===(ByteString("xabc"))
+      bs ++ ByteString.empty should be theSameInstanceAs bs
+      deserialize(serialize(bs)) should ===(ByteString("abc"))
+      deserialize(serialize(bs)) shouldBe a[ByteString1C]
+      val array = new Array[Byte](5)
+      bs.copyToArray(array, 1, 3)
+      array should ===(Array[Byte](0, 97, 98, 99, 0))
+    }
+
+    "give the buffer back to the pool when released by all holders" in {
+      var released = List.empty[ByteBuffer]
+      val pool = new BufferPool {
+        def acquire(): ByteBuffer = ByteBuffer.allocateDirect(16)
+        def release(buf: ByteBuffer): Unit = released = buf :: released
+      }
+      val buffer = pool.acquire()
+      buffer.put("abc".getBytes(StandardCharsets.UTF_8)).flip()
+      val bs = ByteString.fromDirectBuffer(buffer, pool)
+      bs.refCount should ===(1)
+      bs.retain().refCount should ===(2)
+      bs.release() should ===(false)
+      released should ===(Nil)
+      bs.release() should ===(true)
+      released.head should be theSameInstanceAs buffer
+      an[IllegalStateException] should be thrownBy bs(0)
+      an[IllegalStateException] should be thrownBy bs.drop(1).utf8String
+      an[IllegalStateException] should be thrownBy bs.release()
+    }
+  }
   "ByteStrings" must {
     "drop" in {
       ByteStrings(ByteString1.fromString(""), ByteString1.fromString("")).drop(Int.MinValue) should ===(ByteString(""))
@@ -717,6 +803,63 @@ class ByteStringSpec extends AnyWordSpec with Matchers with Checkers {
       compact.indexOf('g', 5) should ===(5)
       compact.indexOf('g', 6) should ===(-1)
     }
+    "find positions in strings of many fragments" in {
+      val bytes = Array.tabulate[Byte](1000)(_.toByte)
+      // more than a hundred fragments of 1 to 17 bytes
+      var bss = ByteString.empty
+      var start = 0
+      while (start < bytes.length) {
+        val end = math.min(bytes.length, start + 1 + start % 17)
+        bss ++= ByteString(bytes.slice(start, end))
+        start = end
+      }
+      bss should ===(ByteString(bytes))
+      for (n <- 0 to bytes.length by 7) {
+        if (n < bytes.length) bss(n) should ===(bytes(n))
+        bss.drop(n) should ===(ByteString(bytes.drop(n)))
+        bss.take(n) should ===(ByteString(bytes.take(n)))
+        bss.dropRight(n) should ===(ByteString(bytes.dropRight(n)))
+        bss.slice(n, n + 100) should ===(ByteString(bytes.slice(n, n + 100)))
+        bss.indexOf(bytes(n % bytes.length), n) should ===(bytes.indexOf(bytes(n % bytes.length), n))
+      }
+    }
+    "find positions in strings dropped, taken and sliced from strings of many fragments" in {
+      val bytes = Array.tabulate[Byte](1000)(_.toByte)
+      val bss = bytes.grouped(7).foldLeft(ByteString.empty)((acc, chunk) => acc ++ ByteString(chunk))
+      bss(0) should ===(bytes(0))
+      var buf = bss
+      var expected = bytes
+      while (buf.nonEmpty) {
+        buf should ===(ByteString(expected))
+        buf(buf.length / 2) should ===(expected(expected.length / 2))
+        buf.take(buf.length - 3) should ===(ByteString(expected.take(expected.length - 3)))
+        buf.slice(5, 50).drop(9) should ===(ByteString(expected.slice(5, 50).drop(9)))
+        buf.indexOf(expected.last, 1) should ===(expected.indexOf(expected.last, 1))
+        buf = buf.drop(11).dropRight(2)
+        expected = expected.drop(11).dropRight(2)
+      }
+      expected should be(empty)
+    }
+    "indexOf a byte in the words and the tail of the array" in {
+      val bytes = ByteString(Array.tabulate[Byte](37)(i => (i % 7).toByte))
+      for (from <- 0 to 37; b <- 0 to 7) {
+        bytes.indexOf(b.toByte, from) should ===(bytes.toVector.indexOf(b.toByte, from))
+        bytes.drop(3).indexOf(b.toByte, from) should ===(bytes.drop(3).toVector.indexOf(b.toByte, from))
+      }
+      ByteString(-1, 0, -128, 127).indexOf((-128).toByte) should ===(2)
+      ByteString(Array.fill[Byte](20)(-1)).indexOf((-2).toByte) should ===(-1)
+    }
+    "indexOfSlice" in {
+      val byteStrings = ByteStrings(ByteString1.fromString("aaab"), ByteString1.fromString("aabaab"))
+      byteStrings.indexOfSlice(ByteString("aab")) should ===(1)
+      byteStrings.indexOfSlice(ByteString("aab"), 2) should ===(4)
+      byteStrings.indexOfSlice(ByteString("baa"), 4) should ===(6)
+      byteStrings.indexOfSlice(ByteString("aabb")) should ===(-1)
+      byteStrings.indexOfSlice(ByteString("aab"), 8) should ===(-1)
+      byteStrings.indexOfSlice(ByteString.empty, 3) should ===(3)
+      byteStrings.indexOfSlice(ByteString.empty, 11) should ===(-1)
+      byteStrings.compact.indexOfSlice(ByteString("baab")) should ===(3)
+    }
     "copyToArray" in {
       val byteString = ByteString(1, 2) ++ ByteString(3) ++ ByteString(4)
 
@@ -881,6 +1024,20 @@ class ByteStringSpec extends AnyWordSpec with Matchers with Checkers {
           a.isEmpty || likeVector(a) { _.head }
         }
       }
+      "calling indexOf with a byte" in {
+        check { (a: ByteString, i: Int, from: Int) =>
+          // mostly bytes that occur, so that the match is found at different positions
+          val b: Byte = if (a.isEmpty || i % 8 == 0) i.toByte else a(math.abs(i % a.length))
+          a.indexOf(b, from % 128) == Vector(a: _*).indexOf(b, from % 128)
+        }
+      }
+      "calling indexOfSlice" in {
+        check { (a: ByteString, i: Int, from: Int) =>
+          val start = if (a.isEmpty) 0 else math.abs(i % a.length)
+          val slice = a.slice(start, start + 1 + math.abs(i % 4))
+          a.indexOfSlice(slice, from % 128) == Vector(a: _*).indexOfSlice(slice.toVector, from % 128)
+        }
+      }
       "calling tail" in {
         check { (a: ByteString) =>
           a.isEmpty || likeVector(a) { _.tail }
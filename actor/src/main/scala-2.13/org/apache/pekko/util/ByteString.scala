@@ -25,6 +25,8 @@ import scala.collection.mutable.{ Builder, WrappedArray }
 import scala.jdk.CollectionConverters._
 import scala.reflect.ClassTag
 
+import org.apache.pekko.io.BufferPool
+
 object ByteString {
 
   /**
@@ -147,6 +149,26 @@ object ByteString {
    */
   def fromByteBuffer(buffer: ByteBuffer): ByteString = apply(buffer)
 
+  /**
+   * Wraps the remaining bytes of a direct ByteBuffer without copying them, so that they can be written to
+   * NIO channels without first being copied to a direct buffer. The buffer must not be modified while the
+   * ByteString is in use.
+   *
+   * The returned ByteString holds the buffer with a reference count of one and gives it back to `pool` when
+   * [[ByteString.DirectByteString.release]] brings the count to zero. A ByteString that is never released
+   * doesn't return the buffer to the pool, and the buffer is freed by the garbage collector instead.
+   */
+  def fromDirectBuffer(buffer: ByteBuffer, pool: BufferPool): DirectByteString = {
+    require(buffer.isDirect, "buffer must be a direct ByteBuffer")
+    new DirectByteString(new DirectBufferRef(buffer, pool), buffer.position(), buffer.remaining())
+  }
+
+  /**
+   * Wraps the remaining bytes of a direct ByteBuffer without copying them. The buffer isn't pooled, it's
+   * freed by the garbage collector, see `fromDirectBuffer(buffer, pool)`.
+   */
+  def fromDirectBuffer(buffer: ByteBuffer): DirectByteString = fromDirectBuffer(buffer, null)
+
   val empty: ByteString = ByteString1C.empty
 
   /** Java API */
@@ -230,18 +252,9 @@ object ByteString {
       if (n <= 0) this
       else toByteString1.drop(n)
 
-    override def indexOf[B >: Byte](elem: B, from: Int): Int = {
+    override def indexOf(elem: Byte, from: Int): Int =
       if (from >= length) -1
-      else {
-        var found = -1
-        var i = math.max(from, 0)
-        while (i < length && found == -1) {
-          if (bytes(i) == elem) found = i
-          i += 1
-        }
-        found
-      }
-    }
+      else SWARUtil.indexOf(bytes, elem, math.max(from, 0), length)
 
     override def slice(from: Int, until: Int): ByteString =
       if (from <= 0 && until >= length) this
@@ -418,21 +431,16 @@ object ByteString {
               new ByteString1(bytes, startIndex, length + b.length)
             else ByteStrings(this, b)
           case bs: ByteStrings => ByteStrings(this, bs)
+          case d: DirectByteString => this ++ d.compact
         }
     }
 
-    override def indexOf[B >: Byte](elem: B, from: Int): Int = {
+    override def indexOf(elem: Byte, from: Int): Int =
       if (from >= length) -1
       else {
-        var found = -1
-        var i = math.max(from, 0)
-        while (i < length && found == -1) {
-          if (bytes(startIndex + i) == elem) found = i
-          i += 1
-        }
-        found
+        val found = SWARUtil.indexOf(bytes, elem, startIndex + math.max(from, 0), startIndex + length)
+        if (found == -1) -1 else found - startIndex
       }
-    }
 
     override def copyToArray[B >: Byte](dest: Array[B], start: Int, len: Int): Int = {
       // min of the bytes available to copy, bytes there is room for in dest and the requested number of bytes
@@ -497,6 +505,9 @@ object ByteString {
 
     val SerializationIdentity = 2.toByte
 
+    // up to this number of fragments a position is found by walking the fragments
+    private final val LinearSearchFragments = 16
+
     def readFromInputStream(is: ObjectInputStream): ByteStrings = {
       val nByteStrings = is.readInt()
 
@@ -524,20 +535,95 @@ object ByteString {
     if (bytestrings.isEmpty) throw new IllegalArgumentException("bytestrings must not be empty")
     if (bytestrings.head.isEmpty) throw new IllegalArgumentException("bytestrings.head must not be empty")
 
+    // The end offsets of the fragments, so that the fragment of a position in a string of many fragments
+    // is found by binary search. Computed when first needed, computing it more than once is harmless.
+    // A string taken or dropped from one that has them shares its array instead of computing its own:
+    // the end of fragment `i` is then `fragmentEnds(endsOffset + i) - endsBase`, at most `length`.
+    @volatile @transient private var fragmentEnds: Array[Int] = _
+    @transient private var endsOffset = 0
+    @transient private var endsBase = 0
+
     def apply(idx: Int): Byte = {
       if (0 <= idx && idx < length) {
-        var pos = 0
-        var seen = 0
-        var frag = bytestrings(pos)
-        while (idx >= seen + frag.length) {
-          seen += frag.length
-          pos += 1
-          frag = bytestrings(pos)
+        if (bytestrings.length > ByteStrings.LinearSearchFragments) {
+          val fragment = fragmentContaining(idx)
+          bytestrings(fragment)(idx - fragmentStart(fragment))
+        } else {
+          var pos = 0
+          var seen = 0
+          var frag = bytestrings(pos)
+          while (idx >= seen + frag.length) {
+            seen += frag.length
+            pos += 1
+            frag = bytestrings(pos)
+          }
+          frag(idx - seen)
         }
-        frag(idx - seen)
       } else throw new IndexOutOfBoundsException(idx.toString)
     }
 
+    private def ends: Array[Int] = {
+      var result = fragmentEnds
+      if (result eq null) {
+        result = new Array[Int](bytestrings.length)
+        var end = 0
+        var i = 0
+        while (i < result.length) {
+          end += bytestrings(i).length
+          result(i) = end
+          i += 1
+        }
+        fragmentEnds = result
+      }
+      result
+    }
+
+    private def fragmentStart(fragment: Int): Int =
+      if (fragment == 0) 0 else math.min(ends(endsOffset + fragment - 1) - endsBase, length)
+
+    /** The index of the fragment that contains the byte at `n`, where `0 <= n < length` */
+    private def fragmentContaining(n: Int): Int = {
+      val e = ends
+      val offset = endsOffset
+      val target = n + endsBase
+      var low = 0
+      var high = bytestrings.length - 1
+      while (low < high) {
+        val mid = (low + high) >>> 1
+        if (e(offset + mid) > target) high = mid
+        else low = mid + 1
+      }
+      low
+    }
+
+    /**
+     * Lets `child`, made of this string's fragments from `firstFragment` on without its first `start` bytes,
+     * use the fragment ends of this string, so that a chain of drops or takes never walks all fragments again.
+     */
+    private def sharingEnds(child: ByteStrings, firstFragment: Int, start: Int): ByteStrings = {
+      val e = fragmentEnds
+      if ((e ne null) && child.bytestrings.length > ByteStrings.LinearSearchFragments) {
+        child.endsOffset = endsOffset + firstFragment
+        child.endsBase = endsBase + start
+        child.fragmentEnds = e
+      }
+      child
+    }
+
+    /** The index of the fragment that contains the byte at `n`, and the offset of `n` in that fragment */
+    private def locate(n: Int): (Int, Int) =
+      if (bytestrings.length > ByteStrings.LinearSearchFragments) {
+        val fragment = fragmentContaining(n)
+        (fragment, n - fragmentStart(fragment))
+      } else {
+        @tailrec def go(fragment: Int, remaining: Int): (Int, Int) = {
+          val bs = bytestrings(fragment)
+          if (bs.length > remaining) (fragment, remaining)
+          else go(fragment + 1, remaining - bs.length)
+        }
+        go(0, n)
+      }
+
     /** Avoid `iterator` in performance sensitive code, call ops directly on ByteString instead */
     override def iterator: ByteIterator.MultiByteArrayIterator =
       ByteIterator.MultiByteArrayIterator(bytestrings.to(LazyList).map { _.iterator })
@@ -547,9 +633,10 @@ object ByteString {
       else if (this.isEmpty) that
       else
         that match {
-          case b: ByteString1C => ByteStrings(this, b.toByteString1)
-          case b: ByteString1  => ByteStrings(this, b)
-          case bs: ByteStrings => ByteStrings(this, bs)
+          case b: ByteString1C     => ByteStrings(this, b.toByteString1)
+          case b: ByteString1      => ByteStrings(this, b)
+          case bs: ByteStrings     => ByteStrings(this, bs)
+          case d: DirectByteString => this ++ d.compact
         }
     }
 
@@ -604,17 +691,11 @@ object ByteString {
       else take0(n)
 
     private[pekko] def take0(n: Int): ByteString = {
-      @tailrec def go(last: Int, restToTake: Int): (Int, Int) = {
-        val bs = bytestrings(last)
-        if (bs.length > restToTake) (last, restToTake)
-        else go(last + 1, restToTake - bs.length)
-      }
-
-      val (last, restToTake) = go(0, n)
+      val (last, restToTake) = locate(n)
 
       if (last == 0) bytestrings(last).take(restToTake)
-      else if (restToTake == 0) new ByteStrings(bytestrings.take(last), n)
-      else new ByteStrings(bytestrings.take(last) :+ bytestrings(last).take1(restToTake), n)
+      else if (restToTake == 0) sharingEnds(new ByteStrings(bytestrings.take(last), n), 0, 0)
+      else sharingEnds(new ByteStrings(bytestrings.take(last) :+ bytestrings(last).take1(restToTake), n), 0, 0)
     }
 
     override def dropRight(n: Int): ByteString =
@@ -622,27 +703,7 @@ object ByteString {
       else if (n >= length) ByteString.empty
       else this
 
-    private def dropRight0(n: Int): ByteString = {
-      val byteStringsSize = bytestrings.length
-      @tailrec def dropRightWithFullDropsAndRemainig(fullDrops: Int, remainingToDrop: Int): ByteString = {
-        val bs = bytestrings(byteStringsSize - fullDrops - 1)
-        if (bs.length > remainingToDrop) {
-          if (fullDrops == byteStringsSize - 1)
-            bytestrings(0).dropRight(remainingToDrop)
-          else if (remainingToDrop == 0)
-            new ByteStrings(bytestrings.dropRight(fullDrops), length - n)
-          else
-            new ByteStrings(
-              bytestrings.dropRight(fullDrops + 1) :+ bytestrings(byteStringsSize - fullDrops - 1)
-                .dropRight1(remainingToDrop),
-              length - n)
-        } else {
-          dropRightWithFullDropsAndRemainig(fullDrops + 1, remainingToDrop - bs.length)
-        }
-      }
-
-      dropRightWithFullDropsAndRemainig(0, n)
-    }
+    private def dropRight0(n: Int): ByteString = take0(length - n)
 
     override def slice(from: Int, until: Int): ByteString =
       if (from <= 0 && until >= length) this
@@ -655,27 +716,20 @@ object ByteString {
       else drop0(n)
 
     private def drop0(n: Int): ByteString = {
-      // impl note: could be optimised a bit by using VectorIterator instead,
-      //            however then we're forced to call .toVector which halfs performance
-      //            We can work around that, as there's a Scala private method "remainingVector" which is fast,
-      //            but let's not go into calling private APIs here just yet.
-      @tailrec def findSplit(fullDrops: Int, remainingToDrop: Int): (Int, Int) = {
-        val bs = bytestrings(fullDrops)
-        if (bs.length > remainingToDrop) (fullDrops, remainingToDrop)
-        else findSplit(fullDrops + 1, remainingToDrop - bs.length)
-      }
-
-      val (fullDrops, remainingToDrop) = findSplit(0, n)
+      val (fullDrops, remainingToDrop) = locate(n)
 
       if (remainingToDrop == 0)
-        new ByteStrings(bytestrings.drop(fullDrops), length - n)
+        sharingEnds(new ByteStrings(bytestrings.drop(fullDrops), length - n), fullDrops, n)
       else if (fullDrops == bytestrings.length - 1)
         bytestrings(fullDrops).drop(remainingToDrop)
       else
-        new ByteStrings(bytestrings(fullDrops).drop1(remainingToDrop) +: bytestrings.drop(fullDrops + 1), length - n)
+        sharingEnds(
+          new ByteStrings(bytestrings(fullDrops).drop1(remainingToDrop) +: bytestrings.drop(fullDrops + 1), length - n),
+          fullDrops,
+          n)
     }
 
-    override def indexOf[B >: Byte](elem: B, from: Int): Int = {
+    override def indexOf(elem: Byte, from: Int): Int = {
       if (from >= length) -1
       else {
         val byteStringsSize = bytestrings.size
@@ -698,7 +752,11 @@ object ByteString {
           }
         }
 
-        find(0, math.max(from, 0), 0)
+        if (from <= 0) find(0, 0, 0)
+        else {
+          val (fragment, offset) = locate(from)
+          find(fragment, offset, from - offset)
+        }
       }
     }
 
@@ -722,6 +780,148 @@ object ByteString {
     protected def writeReplace(): AnyRef = new SerializationProxy(this)
   }
 
+  /**
+   * A ByteString backed by a region of a direct ByteBuffer, created with [[ByteString.fromDirectBuffer]].
+   * Slicing it with take, drop and slice doesn't copy, and neither do `asByteBuffer` and `copyToBuffer`.
+   * Other operations, such as concatenating it with another non-empty ByteString, `compact` or iterating
+   * over it, copy the bytes to the heap. So stream operators that buffer or compact their input, such as
+   * the `Framing` stages, emit heap copies of it.
+   *
+   * The buffer is reference counted, and the strings sliced from this one share the count with it.
+   * The bytes must not be accessed after the last `release`, since the buffer may then be reused.
+   */
+  final class DirectByteString private[pekko] (ref: DirectBufferRef, offset: Int, val length: Int)
+      extends ByteString
+      with Serializable {
+
+    def apply(idx: Int): Byte = {
+      if (idx < 0 || idx >= length) throw new IndexOutOfBoundsException(idx.toString)
+      ref.ensureAccessible()
+      ref.buffer.get(offset + idx)
+    }
+
+    /**
+     * The number of holders of the buffer. The buffer is given back to its pool when this drops to zero.
+     */
+    def refCount: Int = ref.refCount
+
+    /**
+     * Adds a holder of the buffer, which must call `release` when done with it.
+     * Throws `IllegalStateException` if the buffer was already released.
+     */
+    def retain(): DirectByteString = {
+      ref.retain()
+      this
+    }
+
+    /**
+     * Removes a holder of the buffer. Returns `true` if it was the last holder, in which case the buffer
+     * was given back to its pool. Throws `IllegalStateException` if the buffer was already released.
+     */
+    def release(): Boolean = ref.release()
+
+    // a duplicate of the buffer limited to the bytes of this string
+    private def bufferView(): ByteBuffer = {
+      ref.ensureAccessible()
+      val buffer = ref.buffer.duplicate()
+      buffer.limit(offset + length)
+      buffer.position(offset)
+      buffer
+    }
+
+    private def copyBytes(): Array[Byte] = {
+      val array = new Array[Byte](length)
+      bufferView().get(array)
+      array
+    }
+
+    private def heapCopy: ByteString1C = ByteString1C(copyBytes())
+
+    // Avoid `iterator` in performance sensitive code, call ops directly on ByteString instead
+    override def iterator: ByteIterator.ByteArrayIterator = heapCopy.iterator
+
+    // serialized as a heap copy
+    private[pekko] def byteStringCompanion = ByteString1C
+
+    private[pekko] def writeToOutputStream(os: ObjectOutputStream): Unit =
+      heapCopy.writeToOutputStream(os)
+
+    def isCompact: Boolean = false
+
+    def compact: CompactByteString =
+      if (isEmpty) CompactByteString.empty else heapCopy
+
+    override def take(n: Int): ByteString =
+      if (n <= 0) ByteString.empty
+      else if (n >= length) this
+      else new DirectByteString(ref, offset, n)
+
+    override def dropRight(n: Int): ByteString =
+      if (n <= 0) this else take(length - n)
+
+    override def drop(n: Int): ByteString =
+      if (n <= 0) this
+      else if (n >= length) ByteString.empty
+      else new DirectByteString(ref, offset + n, length - n)
+
+    override def slice(from: Int, until: Int): ByteString =
+      drop(from).take(until - Math.max(0, from))
+
+    def ++(that: ByteString): ByteString =
+      if (that.isEmpty) this
+      else if (this.isEmpty) that
+      else heapCopy ++ that
+
+    override def indexOf(elem: Byte, from: Int): Int = {
+      ref.ensureAccessible()
+      val buffer = ref.buffer
+      var i = math.max(from, 0)
+      while (i < length && buffer.get(offset + i) != elem) i += 1
+      if (i < length) i else -1
+    }
+
+    override def copyToBuffer(buffer: ByteBuffer): Int = {
+      val copyLength = Math.min(buffer.remaining, length)
+      if (copyLength > 0) {
+        val bytes = bufferView()
+        bytes.limit(offset + copyLength)
+        buffer.put(bytes)
+      }
+      copyLength
+    }
+
+    override def copyToArray[B >: Byte](dest: Array[B], start: Int, len: Int): Int = {
+      val toCopy = math.min(math.min(len, length), dest.length - start)
+      if (toCopy > 0) {
+        (dest: AnyRef) match {
+          case bytes: Array[Byte] => bufferView().get(bytes, start, toCopy)
+          case _                  => Array.copy(copyBytes(), 0, dest, start, toCopy)
+        }
+      }
+      toCopy
+    }
+
+    def asByteBuffer: ByteBuffer = bufferView().slice().asReadOnlyBuffer()
+
+    def asByteBuffers: scala.collection.immutable.Iterable[ByteBuffer] = List(asByteBuffer)
+
+    override def decodeString(charset: String): String =
+      decodeString(Charset.forName(charset))
+
+    override def decodeString(charset: Charset): String =
+      if (isEmpty) "" else charset.decode(bufferView()).toString
+
+    override def decodeBase64: ByteString =
+      if (isEmpty) this else heapCopy.decodeBase64
+
+    override def encodeBase64: ByteString =
+      if (isEmpty) this else heapCopy.encodeBase64
+
+    override def asInputStream: InputStream = new ByteArrayInputStream(copyBytes())
+
+    protected def writeReplace(): AnyRef = new SerializationProxy(this)
+  }
+
   @SerialVersionUID(1L)
   private class SerializationProxy(@transient private var orig: ByteString) extends Serializable {
     private def writeObject(out: ObjectOutputStream): Unit = {
@@ -821,8 +1021,49 @@ sealed abstract class ByteString
 
   override def indexWhere(p: Byte => Boolean, from: Int): Int = iterator.indexWhere(p, from)
 
-  // optimized in subclasses
-  override def indexOf[B >: Byte](elem: B, from: Int): Int = indexOf(elem, from)
+  override def indexOf[B >: Byte](elem: B, from: Int): Int = elem match {
+    case b: Byte => indexOf(b, from)
+    case _       => super.indexOf(elem, from)
+  }
+
+  /**
+   * Finds the index of the first occurrence of the byte in this ByteString at or after `from`,
+   * or -1 if it doesn't occur. Unlike the generic `indexOf` the byte is not boxed, and eight bytes are
+   * compared at a time.
+   */
+  def indexOf(elem: Byte, from: Int): Int
+
+  /**
+   * Finds the index of the first occurrence of the byte in this ByteString, or -1 if it doesn't occur.
+   */
+  def indexOf(elem: Byte): Int = indexOf(elem, 0)
+
+  /**
+   * Finds the index of the first occurrence of `slice` in this ByteString at or after `from`,
+   * or -1 if it doesn't occur. The candidates are found with `indexOf` of the first byte of `slice`.
+   */
+  def indexOfSlice(slice: ByteString, from: Int): Int =
+    if (slice.isEmpty) {
+      if (from > length) -1 else math.max(from, 0)
+    } else {
+      val first = slice.head
+      val last = length - slice.length
+      var i = indexOf(first, from)
+      while (i != -1 && i <= last && !regionMatches(i, slice)) i = indexOf(first, i + 1)
+      if (i > last) -1 else i
+    }
+
+  /**
+   * Finds the index of the first occurrence of `slice` in this ByteString, or -1 if it doesn't occur.
+   */
+  def indexOfSlice(slice: ByteString): Int = indexOfSlice(slice, 0)
+
+  // the first byte of `slice` is already known to match
+  private def regionMatches(index: Int, slice: ByteString): Boolean = {
+    var i = 1
+    while (i < slice.length && apply(index + i) == slice(i)) i += 1
+    i == slice.length
+  }
 
   override def grouped(size: Int): Iterator[ByteString] = {
     if (size <= 0) {
@@ -1178,6 +1419,8 @@ final class ByteStringBuilder extends Builder[Byte, ByteString] {
         case bs: ByteStrings =>
           _builder ++= bs.bytestrings
           _length += bs.length
+        case d: DirectByteString =>
+          addAll(d.compact)
       }
     }
     this
@@ -347,6 +347,10 @@ object Tcp extends ExtensionId[TcpExt] with ExtensionIdProvider {
    * <b>Note that this does not in any way guarantee that the data will be
    * or have been sent!</b> Unfortunately there is no way to determine whether
    * a particular write has been sent by the O/S.
+   *
+   * A [[pekko.util.ByteString.DirectByteString]] is written from its own buffer without
+   * being copied. It isn't released by the connection, it can be released when the ack
+   * of the write is received.
    */
   final case class Write(data: ByteString, ack: Event) extends SimpleWriteCommand
   object Write {
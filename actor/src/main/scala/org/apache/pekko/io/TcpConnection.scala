@@ -34,6 +34,7 @@ import pekko.io.Inet.SocketOption
 import pekko.io.SelectionHandler._
 import pekko.io.Tcp._
 import pekko.util.ByteString
+import pekko.util.ByteString.DirectByteString
 
 /**
  * Base class for TcpIncomingConnection and TcpOutgoingConnection.
@@ -439,6 +440,8 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
     @tailrec def create(head: WriteCommand, tail: WriteCommand): PendingWrite =
       head match {
         case Write.empty                       => if (tail eq Write.empty) EmptyPendingWrite else create(tail, Write.empty)
+        case Write(data: DirectByteString, ack) if data.nonEmpty =>
+          new PendingDirectWrite(commander, data.asByteBuffer, ack, tail)
         case Write(data, ack) if data.nonEmpty => PendingBufferWrite(commander, data, ack, tail)
         case WriteFile(path, offset, count, ack) =>
           PendingWriteFile(commander, Paths.get(path), offset, count, ack, tail)
@@ -504,6 +507,30 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
     def release(): Unit = bufferPool.release(buffer)
   }
 
+  /**
+   * Writes a direct ByteString from its own buffer, without copying it to a pooled buffer first.
+   * The ByteString isn't released here, the commander can release it when the write is acknowledged.
+   */
+  class PendingDirectWrite(val commander: ActorRef, buffer: ByteBuffer, ack: Any, tail: WriteCommand)
+      extends PendingWrite {
+
+    def doWrite(info: ConnectionInfo): PendingWrite =
+      try {
+        val writtenBytes = channel.write(buffer)
+        if (TraceLogging) log.debug("Wrote [{}] bytes to channel", writtenBytes)
+        val next =
+          if (buffer.hasRemaining) this
+          else {
+            if (!ack.isInstanceOf[NoAck]) commander ! ack
+            PendingWrite(commander, tail)
+          }
+        if (next ne EmptyPendingWrite) info.registration.enableInterest(OP_WRITE)
+        next
+      } catch { case e: IOException => handleError(info.handler, e); this }
+
+    def release(): Unit = ()
+  }
+
   def PendingWriteFile(
       commander: ActorRef,
       filePath: Path,
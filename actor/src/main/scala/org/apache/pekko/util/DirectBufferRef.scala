@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.nio.ByteBuffer
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.annotation.tailrec
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.io.BufferPool
+
+/**
+ * INTERNAL API
+ *
+ * The reference counted direct buffer of a [[ByteString.DirectByteString]], shared with the strings that are
+ * sliced from it. The buffer is given back to `pool` when the count drops to zero. Without a pool the buffer
+ * is left to the garbage collector, which frees its memory with the cleaner of the buffer.
+ */
+@InternalApi private[pekko] final class DirectBufferRef(val buffer: ByteBuffer, pool: BufferPool) {
+  private[this] val count = new AtomicInteger(1)
+
+  def refCount: Int = count.get()
+
+  @tailrec def retain(): Unit = {
+    val current = count.get()
+    if (current <= 0) throw released()
+    if (!count.compareAndSet(current, current + 1)) retain()
+  }
+
+  /**
+   * Returns `true` if this was the last reference and the buffer was given back.
+   */
+  @tailrec def release(): Boolean = {
+    val current = count.get()
+    if (current <= 0) throw released()
+    if (count.compareAndSet(current, current - 1)) {
+      if (current == 1 && (pool ne null)) pool.release(buffer)
+      current == 1
+    } else release()
+  }
+
+  def ensureAccessible(): Unit =
+    if (count.get() <= 0) throw released()
+
+  private def released() = new IllegalStateException("The buffer of the ByteString was already released")
+}
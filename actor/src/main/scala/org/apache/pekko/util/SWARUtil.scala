@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.nio.ByteOrder
+
+import org.apache.pekko.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Byte search in arrays that compares eight bytes at a time ("SIMD within a register"), by reading longs from
+ * the array and testing all their bytes at once with a few arithmetic operations. Platforms that don't support
+ * unaligned reads fall back to comparing byte by byte.
+ *
+ * All methods expect `0 <= from <= until <= array.length`.
+ */
+@InternalApi private[pekko] object SWARUtil {
+
+  private val useWords: Boolean = System.getProperty("os.arch", "") match {
+    case "amd64" | "x86_64" | "i386" | "x86" | "aarch64" | "ppc64le" | "s390x" => true
+    case _                                                                     => false
+  }
+  private val littleEndian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN
+  private val ArrayBaseOffset: Long = Unsafe.instance.arrayBaseOffset(classOf[Array[Byte]]).toLong
+
+  private final val Low7Bits = 0x7F7F7F7F7F7F7F7FL
+
+  /** The byte repeated in all eight bytes of a long */
+  def compilePattern(byte: Byte): Long = (byte & 0xFFL) * 0x0101010101010101L
+
+  /**
+   * Sets the high bit of each byte of `word` that is equal to the corresponding byte of `pattern`, and clears
+   * all other bits. Unlike the well-known `haszero` trick there are no false positives above a match.
+   */
+  def applyPattern(word: Long, pattern: Long): Long = {
+    val input = word ^ pattern
+    val tmp = (input & Low7Bits) + Low7Bits
+    ~(tmp | input | Low7Bits)
+  }
+
+  /** The index within the word of the first byte with its high bit set in `mask`, which must not be 0 */
+  def firstIndex(mask: Long): Int =
+    if (littleEndian) java.lang.Long.numberOfTrailingZeros(mask) >>> 3
+    else java.lang.Long.numberOfLeadingZeros(mask) >>> 3
+
+  private def getLong(array: Array[Byte], index: Int): Long =
+    Unsafe.instance.getLong(array, ArrayBaseOffset + index)
+
+  /** The index of the first `value` in `array` from `from` until `until`, or -1 */
+  def indexOf(array: Array[Byte], value: Byte, from: Int, until: Int): Int = {
+    var i = from
+    var found = -1
+    if (useWords) {
+      val pattern = compilePattern(value)
+      val wordsUntil = until - 7
+      while (found == -1 && i < wordsUntil) {
+        val mask = applyPattern(getLong(array, i), pattern)
+        if (mask != 0) found = i + firstIndex(mask)
+        else i += 8
+      }
+    }
+    while (found == -1 && i < until) {
+      if (array(i) == value) found = i
+      i += 1
+    }
+    found
+  }
+
+  /** The index of the first of any of `value1`, `value2` or `value3` in `array` from `from` until `until`, or -1 */
+  def indexOfAny(array: Array[Byte], value1: Byte, value2: Byte, value3: Byte, from: Int, until: Int): Int = {
+    var i = from
+    var found = -1
+    if (useWords) {
+      val pattern1 = compilePattern(value1)
+      val pattern2 = compilePattern(value2)
+      val pattern3 = compilePattern(value3)
+      val wordsUntil = until - 7
+      while (found == -1 && i < wordsUntil) {
+        val word = getLong(array, i)
+        val mask = applyPattern(word, pattern1) | applyPattern(word, pattern2) | applyPattern(word, pattern3)
+        if (mask != 0) found = i + firstIndex(mask)
+        else i += 8
+      }
+    }
+    while (found == -1 && i < until) {
+      val b = array(i)
+      if (b == value1 || b == value2 || b == value3) found = i
+      i += 1
+    }
+    found
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.util;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Hits and misses of the cache lookups of one benchmark thread, reported by JMH next to the throughput. The
+ * counters of the current thread are available from {@link #current} for the compute functions of the caches,
+ * which run on the thread doing the lookup.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class CacheHitCounters {
+  static final ThreadLocal<CacheHitCounters> current = new ThreadLocal<>();
+
+  public long hits;
+  public long misses;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    hits = 0;
+    misses = 0;
+    current.set(this);
+  }
+}
@@ -88,6 +88,7 @@ class CodecBenchmark {
   private var encodeGraph: Flow[String, Unit, NotUsed] = _
   private var decodeGraph: Flow[String, Unit, NotUsed] = _
   private var encodeDecodeGraph: Flow[String, Unit, NotUsed] = _
+  private var encodeDecodeBatchedGraph: Flow[String, Unit, NotUsed] = _
 
   @Setup(Level.Trial)
   def setupTrial(): Unit = {
@@ -167,11 +168,12 @@ class CodecBenchmark {
       Flow.fromGraph(
         new Decoder(
           inboundContext,
-          system.asInstanceOf[ExtendedActorSystem],
-          uniqueLocalAddress,
           inboundContext.settings,
           compressions,
-          inboundEnvelopePool))
+          inboundEnvelopePool,
+          new ActorRefResolveCacheWithAddress(
+            system.asInstanceOf[ExtendedActorSystem].provider.asInstanceOf[RemoteActorRefProvider],
+            uniqueLocalAddress)))
     val deserializer: Flow[InboundEnvelope, InboundEnvelope, NotUsed] =
       Flow.fromGraph(new Deserializer(inboundContext, system.asInstanceOf[ExtendedActorSystem], envelopePool))
     val decoderInput: Flow[String, EnvelopeBuffer, NotUsed] = Flow[String].map { _ =>
@@ -193,6 +195,19 @@ class CodecBenchmark {
       case env: ReusableInboundEnvelope => inboundEnvelopePool.release(env)
       case _                            =>
     }
+
+    val batching = inboundContext.settings.Advanced.Batching
+    encodeDecodeBatchedGraph = encoderInput
+      .via(encoder)
+      .via(new EnvelopeBatcher(envelopePool, batching.MaxBatchSize, batching.MaxMessageSize, batching.MaxLinger))
+      .async
+      .via(new EnvelopeUnbatcher(envelopePool))
+      .via(decoder)
+      .via(deserializer)
+      .map {
+        case env: ReusableInboundEnvelope => inboundEnvelopePool.release(env)
+        case _                            =>
+      }
   }
 
   @TearDown(Level.Trial)
@@ -257,6 +272,21 @@ class CodecBenchmark {
       throw new RuntimeException("Latch didn't complete in time")
   }
 
+  @Benchmark
+  @OperationsPerInvocation(OperationsPerInvocation)
+  def bothBatched(): Unit = {
+    val latch = new CountDownLatch(1)
+    val N = OperationsPerInvocation
+
+    Source
+      .fromGraph(new BenchTestSourceSameElement(N, "elem"))
+      .via(encodeDecodeBatchedGraph)
+      .runWith(new LatchSink(N, latch))
+
+    if (!latch.await(30, TimeUnit.SECONDS))
+      throw new RuntimeException("Latch didn't complete in time")
+  }
+
 }
 
 object CodecBenchmark {
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+
+/**
+ * Acquire and release of pooled envelopes and buffers from several threads,
+ * such as from several inbound lanes.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+class ObjectPoolBenchmark {
+
+  // 0 means shared pool only
+  @Param(Array("0", "16"))
+  var magazineSize = 0
+
+  private var envelopePool: ObjectPool[ReusableInboundEnvelope] = _
+  private var bufferPool: EnvelopeBufferPool = _
+
+  @Setup
+  def setup(): Unit = {
+    envelopePool = new ObjectPool[ReusableInboundEnvelope](
+      capacity = 16,
+      create = () => new ReusableInboundEnvelope,
+      clear = _.clear(),
+      magazineSize)
+    bufferPool = new EnvelopeBufferPool(256 * 1024, 16)
+  }
+
+  @Benchmark
+  def acquireReleaseEnvelope(): Boolean = {
+    val env1 = envelopePool.acquire()
+    val env2 = envelopePool.acquire()
+    envelopePool.release(env1)
+    envelopePool.release(env2)
+  }
+
+  @Benchmark
+  def acquireReleaseSmallBuffer(): Int = {
+    val buf = bufferPool.acquire(200)
+    val capacity = buf.byteBuffer.capacity
+    bufferPool.release(buf)
+    capacity
+  }
+
+  @Benchmark
+  def acquireReleaseMaximumBuffer(): Int = {
+    val buf = bufferPool.acquire()
+    val capacity = buf.byteBuffer.capacity
+    bufferPool.release(buf)
+    capacity
+  }
+
+}
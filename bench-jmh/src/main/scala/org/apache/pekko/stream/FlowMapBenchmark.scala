@@ -78,6 +78,14 @@ class FlowMapBenchmark {
   @Param(Array("1", "5", "10"))
   var numberOfMapOps = 0
 
+  // pass elements in chunks between the map operators, no effect with GraphStages.identity
+  @Param(Array("true", "false"))
+  var chunkedTransport = false
+
+  // fuse the map operators into one operator, no effect with GraphStages.identity
+  @Param(Array("true", "false"))
+  var operatorFusion = false
+
   @Setup
   def setup(): Unit = {
     flow = mkMaps(Source.fromGraph(new BenchTestSource(100000)), numberOfMapOps) {
@@ -85,7 +93,8 @@ class FlowMapBenchmark {
         GraphStages.identity[java.lang.Integer]
       else
         Flow[java.lang.Integer].map(identity)
-    }
+    }.addAttributes(
+      ActorAttributes.chunkedTransport(chunkedTransport) and ActorAttributes.operatorFusion(operatorFusion))
     // eager init of materializer
     SystemMaterializer(system).materializer
   }
@@ -73,16 +73,20 @@ class FramingBenchmark {
   @Param(Array("1", "8", "16", "32", "64", "128"))
   var framePerSeq = 0
 
+  @Param(Array("lf", "crlf"))
+  var delimiterName = ""
+
   @Setup
   def setup(): Unit = {
     SystemMaterializer(system).materializer
 
-    val frame = List.range(0, messageSize, 1).map(_ => Random.nextPrintableChar()).mkString + "\n"
+    val delimiter = if (delimiterName == "crlf") "\r\n" else "\n"
+    val frame = List.range(0, messageSize, 1).map(_ => Random.nextPrintableChar()).mkString + delimiter
     val messageChunk = ByteString(List.range(0, framePerSeq, 1).map(_ => frame).mkString)
 
-    Source
+    flow = Source
       .fromGraph(new BenchTestSourceSameElement(100000, messageChunk))
-      .via(Framing.delimiter(ByteString("\n"), Int.MaxValue))
+      .via(Framing.delimiter(ByteString(delimiter), Int.MaxValue))
   }
 
   @TearDown
@@ -118,6 +118,9 @@ class FusedGraphsBenchmark {
   var chainOfIdentities: RunnableGraph[CountDownLatch] = _
   var singleMap: RunnableGraph[CountDownLatch] = _
   var chainOfMaps: RunnableGraph[CountDownLatch] = _
+  var chainOfMapsChunked: RunnableGraph[CountDownLatch] = _
+  var mapConcatGrouped: RunnableGraph[CountDownLatch] = _
+  var mapConcatGroupedChunked: RunnableGraph[CountDownLatch] = _
   var repeatTakeMapAndFold: RunnableGraph[CountDownLatch] = _
   var singleBuffer: RunnableGraph[CountDownLatch] = _
   var chainOfBuffers: RunnableGraph[CountDownLatch] = _
@@ -173,6 +176,40 @@ class FusedGraphsBenchmark {
         .map(addFunc)
         .toMat(testSink)(Keep.right))
 
+    chainOfMapsChunked = fuse(
+      testSource
+        .via(
+          Flow[MutableElement]
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .map(addFunc)
+            .addAttributes(ActorAttributes.chunkedTransport(true)))
+        .toMat(testSink)(Keep.right))
+
+    val mapConcatGroupedFlow =
+      Flow[MutableElement]
+        .grouped(10)
+        .mapConcat(identity)
+        .map(addFunc)
+        .filter(_.value >= 0)
+        .collect { case x if x.value >= 0 => addFunc(x) }
+        .grouped(10)
+        .mapConcat(identity)
+
+    mapConcatGrouped = fuse(testSource.via(mapConcatGroupedFlow).toMat(testSink)(Keep.right))
+
+    mapConcatGroupedChunked = fuse(
+      testSource
+        .via(mapConcatGroupedFlow.addAttributes(ActorAttributes.chunkedTransport(true)))
+        .toMat(testSink)(Keep.right))
+
     repeatTakeMapAndFold = fuse(
       Source
         .repeat(new MutableElement(0))
@@ -259,6 +296,27 @@ class FusedGraphsBenchmark {
     chainOfMaps.run().await()
   }
 
+  @Benchmark
+  @OperationsPerInvocation(100 * 1000)
+  def chain_of_maps_chunked(blackhole: org.openjdk.jmh.infra.Blackhole): Unit = {
+    FusedGraphsBenchmark.blackhole = blackhole
+    chainOfMapsChunked.run().await()
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100 * 1000)
+  def map_concat_grouped(blackhole: org.openjdk.jmh.infra.Blackhole): Unit = {
+    FusedGraphsBenchmark.blackhole = blackhole
+    mapConcatGrouped.run().await()
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100 * 1000)
+  def map_concat_grouped_chunked(blackhole: org.openjdk.jmh.infra.Blackhole): Unit = {
+    FusedGraphsBenchmark.blackhole = blackhole
+    mapConcatGroupedChunked.run().await()
+  }
+
   @Benchmark
   @OperationsPerInvocation(100 * 1000)
   def repeat_take_map_and_fold(blackhole: org.openjdk.jmh.infra.Blackhole): Unit = {
@@ -15,12 +15,20 @@ package org.apache.pekko.stream
 
 import java.util.concurrent.TimeUnit
 
+import com.fasterxml.jackson.databind.json.JsonMapper
+import com.fasterxml.jackson.module.scala.DefaultScalaModule
 import org.openjdk.jmh.annotations._
 
 import org.apache.pekko
+import pekko.serialization.jackson.JsonValueParser
+import pekko.stream.JsonFramingBenchmark.Person
 import pekko.stream.impl.JsonObjectParser
 import pekko.util.ByteString
 
+object JsonFramingBenchmark {
+  final case class Person(fname: String, name: String, age: Int, id: Long, boardMember: Boolean)
+}
+
 @State(Scope.Benchmark)
 @OutputTimeUnit(TimeUnit.SECONDS)
 @BenchmarkMode(Array(Mode.Throughput))
@@ -40,8 +48,15 @@ class JsonFramingBenchmark {
     ByteString(
       s"""{"fname":"Frank","name":"Smith","age":42,"id":1337,"boardMember":false,"description":"${"a" * 1000000}"}""")
 
+  // the streaming parser doesn't accept commas between values at the root, but unwraps an array at the root
+  val json5Array = ByteString("[") ++ json5 ++ ByteString("]")
+
   val bracket = new JsonObjectParser
 
+  val mapper = JsonMapper.builder().addModule(DefaultScalaModule).build()
+
+  val streaming = new JsonValueParser(mapper, classOf[Person])
+
   @Benchmark
   def counting_1: ByteString = {
     bracket.offer(json)
@@ -65,4 +80,26 @@ class JsonFramingBenchmark {
     bracket.poll().get
   }
 
+  @Benchmark
+  @OperationsPerInvocation(5)
+  def counting_then_binding_5: Person = {
+    bracket.offer(json5Array)
+    mapper.readValue(bracket.poll().get.toArrayUnsafe(), classOf[Person])
+    mapper.readValue(bracket.poll().get.toArrayUnsafe(), classOf[Person])
+    mapper.readValue(bracket.poll().get.toArrayUnsafe(), classOf[Person])
+    mapper.readValue(bracket.poll().get.toArrayUnsafe(), classOf[Person])
+    mapper.readValue(bracket.poll().get.toArrayUnsafe(), classOf[Person])
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(5)
+  def streaming_binding_5: Person = {
+    streaming.offer(json5Array)
+    streaming.poll().get
+    streaming.poll().get
+    streaming.poll().get
+    streaming.poll().get
+    streaming.poll().get
+  }
+
 }
@@ -33,6 +33,7 @@ import pekko.stream.testkit.scaladsl.StreamTestKit
 
 object MapAsyncBenchmark {
   final val OperationsPerInvocation = 100000
+  final val Partitions = 4
 }
 
 @State(Scope.Benchmark)
@@ -97,6 +98,34 @@ class MapAsyncBenchmark {
     awaitLatch(latch)
   }
 
+  @Benchmark
+  @OperationsPerInvocation(OperationsPerInvocation)
+  def mapAsyncPartitioned(): Unit = {
+    val latch = new CountDownLatch(1)
+
+    testSource
+      .mapAsyncPartitioned(parallelism)(_ % Partitions) { (elem, _) =>
+        if (spawn) Future(elem) else Future.successful(elem)
+      }
+      .runWith(new LatchSink(OperationsPerInvocation, latch))
+
+    awaitLatch(latch)
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OperationsPerInvocation)
+  def mapAsyncPartitionedUnorderedPerPartition(): Unit = {
+    val latch = new CountDownLatch(1)
+
+    testSource
+      .mapAsyncPartitionedUnordered(parallelism * 4, parallelism)(_ % Partitions) { (elem, _) =>
+        if (spawn) Future(elem) else Future.successful(elem)
+      }
+      .runWith(new LatchSink(OperationsPerInvocation, latch))
+
+    awaitLatch(latch)
+  }
+
   private def awaitLatch(latch: CountDownLatch): Unit = {
     if (!latch.await(30, TimeUnit.SECONDS)) {
       StreamTestKit.printDebugDump(SystemMaterializer(system).materializer.supervisor)
@@ -110,6 +110,9 @@ class MaterializationBenchmark {
   implicit val system: ActorSystem = ActorSystem("MaterializationBenchmark")
 
   var flowWithMap: RunnableGraph[NotUsed] = _
+  var flowWithFusedMap: RunnableGraph[NotUsed] = _
+  var flowWithMapPrepared: RunnableGraph[NotUsed] = _
+  var graphWithJunctionsImmediatePrepared: RunnableGraph[NotUsed] = _
   var graphWithJunctionsGradual: RunnableGraph[NotUsed] = _
   var graphWithJunctionsImmediate: RunnableGraph[NotUsed] = _
   var graphWithImportedFlow: RunnableGraph[NotUsed] = _
@@ -121,9 +124,12 @@ class MaterializationBenchmark {
   @Setup
   def setup(): Unit = {
     flowWithMap = flowWithMapBuilder(complexity)
+    flowWithFusedMap = flowWithMap.addAttributes(ActorAttributes.operatorFusion(true))
     graphWithJunctionsGradual = graphWithJunctionsGradualBuilder(complexity)
     graphWithJunctionsImmediate = graphWithJunctionsImmediateBuilder(complexity)
     graphWithImportedFlow = graphWithImportedFlowBuilder(complexity)
+    flowWithMapPrepared = flowWithMap.prepared
+    graphWithJunctionsImmediatePrepared = graphWithJunctionsImmediate.prepared
     subStream = subStreamBuilder(complexity)
   }
 
@@ -135,12 +141,21 @@ class MaterializationBenchmark {
   @Benchmark
   def flow_with_map(): NotUsed = flowWithMap.run()
 
+  @Benchmark
+  def flow_with_fused_map(): NotUsed = flowWithFusedMap.run()
+
+  @Benchmark
+  def flow_with_map_prepared(): NotUsed = flowWithMapPrepared.run()
+
   @Benchmark
   def graph_with_junctions_gradual(): NotUsed = graphWithJunctionsGradual.run()
 
   @Benchmark
   def graph_with_junctions_immediate(): NotUsed = graphWithJunctionsImmediate.run()
 
+  @Benchmark
+  def graph_with_junctions_immediate_prepared(): NotUsed = graphWithJunctionsImmediatePrepared.run()
+
   @Benchmark
   def graph_with_imported_flow(): NotUsed = graphWithImportedFlow.run()
 
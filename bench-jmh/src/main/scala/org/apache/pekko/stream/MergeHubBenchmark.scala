@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import com.typesafe.config.ConfigFactory
+import org.openjdk.jmh.annotations._
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.remote.artery.BenchTestSource
+import pekko.remote.artery.LatchSink
+import pekko.stream.scaladsl._
+import pekko.stream.testkit.scaladsl.StreamTestKit
+
+object MergeHubBenchmark {
+  final val OperationsPerInvocation = 100000
+}
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+class MergeHubBenchmark {
+  import MergeHubBenchmark._
+
+  val config = ConfigFactory.parseString("""
+    pekko.actor.default-dispatcher {
+      executor = "fork-join-executor"
+      fork-join-executor {
+        parallelism-factor = 1
+      }
+    }
+    """)
+
+  implicit val system: ActorSystem = ActorSystem("MergeHubBenchmark", config)
+
+  @Param(Array("2", "10", "100"))
+  var NumberOfStreams = 0
+
+  @Param(Array("16"))
+  var PerProducerBufferSize = 0
+
+  @Setup
+  def setup(): Unit = {
+    // eager init of materializer
+    SystemMaterializer(system).materializer
+  }
+
+  @TearDown
+  def shutdown(): Unit = {
+    Await.result(system.terminate(), 5.seconds)
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OperationsPerInvocation)
+  def merge(): Unit = {
+    val latch = new CountDownLatch(1)
+    val elementsPerStream = OperationsPerInvocation / NumberOfStreams
+
+    val sink = MergeHub
+      .source[java.lang.Integer](PerProducerBufferSize)
+      .to(new LatchSink(elementsPerStream * NumberOfStreams, latch))
+      .run()
+
+    for (_ <- 0 until NumberOfStreams)
+      Source.fromGraph(new BenchTestSource(elementsPerStream)).runWith(sink)
+
+    if (!latch.await(30, TimeUnit.SECONDS)) {
+      dumpMaterializer()
+      throw new RuntimeException("Latch didn't complete in time")
+    }
+  }
+
+  private def dumpMaterializer(): Unit = {
+    implicit val ec = system.dispatcher
+    StreamTestKit.printDebugDump(SystemMaterializer(system).materializer.supervisor)
+  }
+
+}
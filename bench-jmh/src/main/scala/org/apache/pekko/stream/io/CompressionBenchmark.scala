@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.io
+
+import java.util.concurrent.TimeUnit
+import java.util.zip.Deflater
+
+import scala.collection.immutable
+import scala.concurrent.Await
+import scala.concurrent.duration._
+import scala.util.Random
+
+import org.openjdk.jmh.annotations._
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.actor.ActorSystem
+import pekko.stream.scaladsl._
+import pekko.util.ByteString
+
+/**
+ * Compresses and decompresses streams of a few chunks, like the entities of HTTP messages, so that both the
+ * cost of the codec and of setting it up for each stream are measured.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+class CompressionBenchmark {
+
+  implicit val system: ActorSystem = ActorSystem("CompressionBenchmark")
+
+  @Param(Array("gzip", "deflate", "deflate-nowrap"))
+  var codec = ""
+
+  @Param(Array("1024", "8192", "65536"))
+  var chunkSize = 0
+
+  @Param(Array("1", "16"))
+  var chunksPerStream = 0
+
+  var chunks: immutable.Seq[ByteString] = _
+  var compressed: immutable.Seq[ByteString] = _
+  var compressFlow: Flow[ByteString, ByteString, NotUsed] = _
+  var decompressFlow: Flow[ByteString, ByteString, NotUsed] = _
+
+  @Setup
+  def setup(): Unit = {
+    codec match {
+      case "gzip" =>
+        compressFlow = Compression.gzip
+        decompressFlow = Compression.gunzip()
+      case "deflate" =>
+        compressFlow = Compression.deflate
+        decompressFlow = Compression.inflate()
+      case "deflate-nowrap" =>
+        compressFlow = Compression.deflate(Deflater.BEST_COMPRESSION, nowrap = true)
+        decompressFlow = Compression.inflate(Compression.MaxBytesPerChunkDefault, nowrap = true)
+    }
+
+    // JSON like text, which compresses about as well as typical payloads
+    val random = new Random(42)
+    val text = Iterator
+      .continually(s"""{"id":${random.nextInt(100000)},"name":"${random.alphanumeric.take(8).mkString}","active":${random.nextBoolean()}}""")
+      .take(chunkSize * chunksPerStream / 40 + 1)
+      .mkString("[", ",", "]")
+    chunks = ByteString(text).take(chunkSize * chunksPerStream).grouped(chunkSize).toList
+    compressed = Await.result(Source(chunks).via(compressFlow).runWith(Sink.seq), 10.seconds)
+  }
+
+  @TearDown
+  def shutdown(): Unit = {
+    Await.result(system.terminate(), 5.seconds)
+  }
+
+  @Benchmark
+  def compress(): Unit =
+    Await.result(Source(chunks).via(compressFlow).runWith(Sink.ignore), 10.seconds)
+
+  @Benchmark
+  def decompress(): Unit =
+    Await.result(Source(compressed).via(decompressFlow).runWith(Sink.ignore), 10.seconds)
+}
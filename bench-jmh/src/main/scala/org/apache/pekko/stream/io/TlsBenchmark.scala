@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.io
+
+import java.security.KeyStore
+import java.security.SecureRandom
+import java.util.concurrent.TimeUnit
+import javax.net.ssl.KeyManagerFactory
+import javax.net.ssl.SSLContext
+import javax.net.ssl.SSLEngine
+import javax.net.ssl.TrustManagerFactory
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import org.openjdk.jmh.annotations._
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.stream.QueueOfferResult
+import pekko.stream.scaladsl._
+import pekko.util.ByteString
+
+/**
+ * Echoes data through a TLS connection over TCP on the loopback interface.
+ * `echo` measures the throughput for many chunks of `chunkSize` bytes, including the handshake of a new connection,
+ * and `roundTrip` the latency of one small message on an established connection.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Array(Mode.AverageTime))
+class TlsBenchmark {
+  import TlsBenchmark._
+
+  implicit val system: ActorSystem = ActorSystem("TlsBenchmark")
+
+  @Param(Array("64", "1024", "16384"))
+  var chunkSize = 0
+
+  private val sslContext: SSLContext = {
+    val password = "changeme".toCharArray
+
+    val keyStore = KeyStore.getInstance(KeyStore.getDefaultType)
+    keyStore.load(getClass.getResourceAsStream("/keystore"), password)
+    val trustStore = KeyStore.getInstance(KeyStore.getDefaultType)
+    trustStore.load(getClass.getResourceAsStream("/truststore"), password)
+
+    val keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm)
+    keyManagerFactory.init(keyStore, password)
+    val trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm)
+    trustManagerFactory.init(trustStore)
+
+    val context = SSLContext.getInstance("TLS")
+    context.init(keyManagerFactory.getKeyManagers, trustManagerFactory.getTrustManagers, new SecureRandom)
+    context
+  }
+
+  private def createSSLEngine(client: Boolean): SSLEngine = {
+    val engine = sslContext.createSSLEngine()
+    engine.setUseClientMode(client)
+    engine
+  }
+
+  private val message = ByteString("x" * 64)
+
+  var chunk: ByteString = _
+  var binding: Tcp.ServerBinding = _
+  var requests: SourceQueueWithComplete[ByteString] = _
+  var responses: SinkQueueWithCancel[ByteString] = _
+
+  private def connection = Tcp().outgoingConnectionWithTls(binding.localAddress, () => createSSLEngine(client = true))
+
+  @Setup
+  def setup(): Unit = {
+    chunk = ByteString(Array.fill[Byte](chunkSize)(1))
+    binding = Await.result(
+      Tcp().bindAndHandleWithTls(Flow[ByteString], "127.0.0.1", 0, () => createSSLEngine(client = false)),
+      3.seconds)
+    val (queue, sinkQueue) = Source.queue[ByteString](1).via(connection).toMat(Sink.queue())(Keep.both).run()
+    requests = queue
+    responses = sinkQueue
+  }
+
+  @TearDown
+  def teardown(): Unit = {
+    requests.complete()
+    responses.cancel()
+    Await.result(binding.unbind(), 3.seconds)
+    Await.result(system.terminate(), 5.seconds)
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TotalBytes / 1024)
+  def echo(): Int = {
+    // the chunks queue up in front of the TLS stage, which gathers them into records
+    val echoed = Source
+      .repeat(chunk)
+      .take(TotalBytes / chunkSize)
+      .concat(Source.never)
+      .via(connection)
+      .scan(0)(_ + _.size)
+      .dropWhile(_ < TotalBytes)
+      .runWith(Sink.head)
+    Await.result(echoed, 30.seconds)
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.SampleTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def roundTrip(): Int = {
+    if (Await.result(requests.offer(message), 3.seconds) != QueueOfferResult.Enqueued)
+      throw new IllegalStateException("message not enqueued")
+    var received = 0
+    while (received < message.size) received += Await.result(responses.pull(), 3.seconds).get.size
+    received
+  }
+}
+
+object TlsBenchmark {
+  // echoed by each invocation of `echo`, which is reported per KiB
+  final val TotalBytes = 4 * 1024 * 1024
+}
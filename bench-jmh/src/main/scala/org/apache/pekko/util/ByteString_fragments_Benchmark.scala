@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+
+/**
+ * Positional operations on compound ByteStrings of many fragments, as built up by appending
+ * the chunks read from a socket or file.
+ */
+@State(Scope.Benchmark)
+@Measurement(timeUnit = TimeUnit.MILLISECONDS)
+class ByteString_fragments_Benchmark {
+
+  @Param(Array("16", "1024", "4096"))
+  var fragments = 0
+
+  var bss: ByteString = _
+  var middle = 0
+
+  @Setup
+  def setup(): Unit = {
+    bss = (0 until fragments).foldLeft(ByteString.empty)((acc, i) => acc ++ ByteString(Array.fill[Byte](100)(i.toByte)))
+    middle = bss.length / 2 + 17
+  }
+
+  @Benchmark
+  def apply_middle: Byte = bss(middle)
+
+  @Benchmark
+  def apply_last: Byte = bss(bss.length - 1)
+
+  @Benchmark
+  def drop_middle: ByteString = bss.drop(middle)
+
+  @Benchmark
+  def take_middle: ByteString = bss.take(middle)
+
+  @Benchmark
+  def dropRight_middle: ByteString = bss.dropRight(middle)
+
+  @Benchmark
+  def slice_middle: ByteString = bss.slice(middle, middle + 1000)
+
+  @Benchmark
+  def splitAt_middle: (ByteString, ByteString) = bss.splitAt(middle)
+
+  @Benchmark
+  def indexOf_from_middle: Int = bss.indexOf((-1).toByte, middle)
+
+  @Benchmark
+  def append_fragment: ByteString = bss ++ ByteString("x")
+
+  // a parser consuming a buffer from its start: every step works on the string dropped in the previous step
+  @Benchmark
+  def drop_chained: Int = {
+    var buf = bss
+    var sum = 0
+    while (buf.nonEmpty) {
+      sum += buf(0)
+      buf = buf.drop(37)
+    }
+    sum
+  }
+
+  @Benchmark
+  def slice_chained: Int = {
+    var buf = bss
+    var sum = 0
+    while (buf.length > 37) {
+      val frame = buf.slice(0, 37)
+      sum += frame(frame.length - 1)
+      buf = buf.slice(37, buf.length)
+    }
+    sum
+  }
+}
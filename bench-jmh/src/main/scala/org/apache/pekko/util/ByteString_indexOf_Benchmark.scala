@@ -25,6 +25,12 @@ class ByteString_indexOf_Benchmark {
 
   val bs = bss.compact // compacted
 
+  // a line of 4 KiB, like the lines scanned by Framing.delimiter
+  val line = ByteString("x" * 4095 + "\n")
+  val lineFragments = line.grouped(512).foldLeft(ByteString.empty)(_ ++ _)
+  val crlf = ByteString("\r\n")
+  val crlfLine = ByteString("x\r" * 2047 + "\r\n")
+
   /*
   original
   ByteString_indexOf_Benchmark.bs1_indexOf_from                 thrpt   20     999335.124 ±  234047.176  ops/s
@@ -52,4 +58,19 @@ class ByteString_indexOf_Benchmark {
   @Benchmark
   def bs1_indexOf_from: Int = bs.indexOf('ö', 5)
 
+  @Benchmark
+  def bss_indexOf_byte_worst_case: Int = bss.indexOf('z'.toByte, 1)
+
+  @Benchmark
+  def bs1_indexOf_byte: Int = bs.indexOf('z'.toByte, 5)
+
+  @Benchmark
+  def line_indexOf_byte: Int = line.indexOf('\n'.toByte)
+
+  @Benchmark
+  def lineFragments_indexOf_byte: Int = lineFragments.indexOf('\n'.toByte)
+
+  @Benchmark
+  def crlfLine_indexOfSlice: Int = crlfLine.indexOfSlice(crlf)
+
 }
@@ -14,6 +14,7 @@
 package org.apache.pekko.util
 
 import java.util
+import java.util.concurrent.ThreadLocalRandom
 import java.util.concurrent.TimeUnit
 
 import scala.util.Random
@@ -21,6 +22,7 @@ import scala.util.Random
 import org.openjdk.jmh.annotations.{ Param, _ }
 
 import org.apache.pekko.remote.artery.LruBoundedCache
+import org.apache.pekko.remote.artery.TinyLfuBoundedCache
 
 @State(Scope.Benchmark)
 @Measurement(timeUnit = TimeUnit.MICROSECONDS)
@@ -34,6 +36,10 @@ class LruBoundedCacheBench {
   @Param(Array("128", "256"))
   var stringSize = 0
   private var lruCache: LruBoundedCache[String, String] = _
+  private var tinyLfuCache: TinyLfuBoundedCache[String] = _
+  private var skewedLruCache: LruBoundedCache[String, String] = _
+  private var skewedTinyLfuCache: TinyLfuBoundedCache[String] = _
+  private var sharedTinyLfuCache: TinyLfuBoundedCache[String] = _
 
   @Param(Array("90", "99"))
   var loadFactor: Int = _
@@ -42,6 +48,9 @@ class LruBoundedCacheBench {
   var toRemove: String = _
   var toGet: String = _
 
+  // skewed access pattern over 4 * count distinct keys, a few hot keys and a long tail
+  private var skewedKeys: Array[String] = _
+
   @Setup
   def setup(): Unit = {
     val loadF: Double = loadFactor / 100.0
@@ -67,8 +76,43 @@ class LruBoundedCacheBench {
 
     toAdd = random.nextString(stringSize)
 
+    tinyLfuCache = new TinyLfuBoundedCache[String](count, shardCount = 16) {
+      override protected def compute(k: String): String = k
+      override protected def isCacheable(v: String): Boolean = true
+      override protected def isKeyCacheable(k: String): Boolean = true
+    }
+    skewedLruCache = new LruBoundedCache[String, String](count, threshold) {
+      override protected def compute(k: String): String = countMiss(k)
+      override protected def hash(k: String): Int = k.hashCode
+      override protected def isCacheable(v: String): Boolean = true
+      override protected def isKeyCacheable(k: String): Boolean = true
+    }
+
+    val universe = Vector.fill(count * 4)(random.nextString(stringSize))
+    skewedKeys = Array.fill(64 * 1024)(universe((universe.size * math.pow(random.nextDouble(), 4)).toInt))
+    skewedTinyLfuCache = newSkewedTinyLfuCache()
+    sharedTinyLfuCache = newSkewedTinyLfuCache()
+  }
+
+  private def newSkewedTinyLfuCache(): TinyLfuBoundedCache[String] =
+    new TinyLfuBoundedCache[String](count, shardCount = 16) {
+      override protected def compute(k: String): String = countMiss(k)
+      override protected def isCacheable(v: String): Boolean = true
+      override protected def isKeyCacheable(k: String): Boolean = true
+    }
+
+  // compute runs on the thread doing the lookup
+  private def countMiss(k: String): String = {
+    CacheHitCounters.current.get().misses += 1
+    k
   }
 
+  private def countHit(counters: CacheHitCounters, missesBefore: Long): Unit =
+    if (counters.misses == missesBefore) counters.hits += 1
+
+  private def nextSkewedKey(): String =
+    skewedKeys(ThreadLocalRandom.current().nextInt(skewedKeys.length))
+
   @Benchmark
   def addOne_lruCache(): String = {
     lruCache.getOrCompute(toAdd)
@@ -87,4 +131,36 @@ class LruBoundedCacheBench {
     javaHashMap.get(toAdd)
   }
 
+  @Benchmark
+  def addOne_tinyLfuCache(): String = {
+    tinyLfuCache.getOrCompute(toAdd)
+  }
+
+  // hits and misses of the skewed access benchmarks are reported as JMH auxiliary counters
+  @Benchmark
+  def skewed_lruCache(counters: CacheHitCounters): String = {
+    val missesBefore = counters.misses
+    val value = skewedLruCache.getOrCompute(nextSkewedKey())
+    countHit(counters, missesBefore)
+    value
+  }
+
+  @Benchmark
+  def skewed_tinyLfuCache(counters: CacheHitCounters): String = {
+    val missesBefore = counters.misses
+    val value = skewedTinyLfuCache.getOrCompute(nextSkewedKey())
+    countHit(counters, missesBefore)
+    value
+  }
+
+  // the LruBoundedCache must only be used by one thread, while the TinyLfuBoundedCache can be shared
+  @Benchmark
+  @Threads(4)
+  def skewed_tinyLfuCache_shared(counters: CacheHitCounters): String = {
+    val missesBefore = counters.misses
+    val value = sharedTinyLfuCache.getOrCompute(nextSkewedKey())
+    countHit(counters, missesBefore)
+    value
+  }
+
 }
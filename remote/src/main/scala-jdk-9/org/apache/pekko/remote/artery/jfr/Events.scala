@@ -192,6 +192,22 @@ final class TransportRestartInbound(_remoteAddress: UniqueAddress, val streamNam
   val remoteAddress = _remoteAddress.toString()
 }
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+@StackTrace(false)
+@Category(Array("Pekko", "Remoting", "Transport")) @Label("Inbound lane utilization")
+final class TransportInboundLaneUtilization(val lane: Int, val queueSize: Long, val messages: Long) extends Event
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+@StackTrace(false)
+@Category(Array("Pekko", "Remoting", "Transport")) @Label("Inbound lane rebalanced")
+final class TransportInboundLaneRebalanced(val fromLane: Int, val toLane: Int) extends Event
+
 // aeron sink events
 
 /**
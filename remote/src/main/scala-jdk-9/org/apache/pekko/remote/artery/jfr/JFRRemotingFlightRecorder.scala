@@ -78,6 +78,12 @@ private[pekko] final class JFRRemotingFlightRecorder() extends RemotingFlightRec
   override def transportRestartInbound(remoteAddress: UniqueAddress, streamName: String): Unit =
     new TransportRestartInbound(remoteAddress, streamName).commit()
 
+  override def transportInboundLaneUtilization(lane: Int, queueSize: Long, messages: Long): Unit =
+    new TransportInboundLaneUtilization(lane, queueSize, messages).commit()
+
+  override def transportInboundLaneRebalanced(fromLane: Int, toLane: Int): Unit =
+    new TransportInboundLaneRebalanced(fromLane, toLane).commit()
+
   override def aeronSinkStarted(channel: String, streamId: Int): Unit =
     new AeronSinkStarted(channel, streamId).commit()
 
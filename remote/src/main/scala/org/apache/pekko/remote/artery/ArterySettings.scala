@@ -15,6 +15,7 @@ package org.apache.pekko.remote.artery
 
 import java.net.InetAddress
 
+import scala.collection.immutable
 import scala.concurrent.duration._
 
 import scala.annotation.nowarn
@@ -76,6 +77,16 @@ private[pekko] final class ArterySettings private (config: Config) {
       tree.insert(segments, NotUsed)
     }
 
+  val HighPriorityMessageDestinations: WildcardIndex[NotUsed] =
+    config.getStringList("high-priority-message-destinations").asScala.foldLeft(WildcardIndex[NotUsed]()) {
+      (tree, entry) =>
+        val segments = entry.split('/').tail
+        tree.insert(segments, NotUsed)
+    }
+
+  val HighPriorityMessageClasses: immutable.Seq[String] =
+    immutableSeq(getStringList("high-priority-message-classes"))
+
   val SSLEngineProviderClassName: String = config.getString("ssl.ssl-engine-provider")
 
   val UntrustedMode: Boolean = getBoolean("untrusted-mode")
@@ -124,6 +135,8 @@ private[pekko] final class ArterySettings private (config: Config) {
     val InboundLanes: Int = getInt("inbound-lanes").requiring(n => n > 0, "inbound-lanes must be greater than zero")
     val SysMsgBufferSize: Int =
       getInt("system-message-buffer-size").requiring(_ > 0, "system-message-buffer-size must be more than zero")
+    val HighPriorityLaneWeight: Int =
+      getInt("high-priority-lane-weight").requiring(_ > 0, "high-priority-lane-weight must be more than zero")
     val OutboundMessageQueueSize: Int =
       getInt("outbound-message-queue-size").requiring(_ > 0, "outbound-message-queue-size must be more than zero")
     val OutboundControlQueueSize: Int =
@@ -210,6 +223,37 @@ private[pekko] final class ArterySettings private (config: Config) {
     final val LargeBufferPoolSize: Int =
       getInt("large-buffer-pool-size").requiring(_ > 0, "large-buffer-pool-size must be greater than 0")
 
+    object Batching {
+      val config: Config = getConfig("batching")
+
+      val Enabled: Boolean = config.getBoolean("enabled")
+      val MaxBatchSize: Int = math
+        .min(config.getBytes("max-batch-size"), MaximumFrameSize.toLong)
+        .toInt
+        .requiring(_ > 0, "batching.max-batch-size must be more than zero")
+      val MaxMessageSize: Int = math
+        .min(config.getBytes("max-message-size"), MaxBatchSize.toLong)
+        .toInt
+        .requiring(_ > 0, "batching.max-message-size must be more than zero")
+      val MaxLinger: FiniteDuration = config
+        .getNanosDuration("max-linger")
+        .requiring(interval => interval >= Duration.Zero, "batching.max-linger must be zero or more")
+    }
+
+    object InboundLanesRebalancing {
+      val config: Config = getConfig("inbound-lanes-rebalancing")
+
+      val Enabled: Boolean = config.getBoolean("enabled") && InboundLanes > 1
+      val QueueSizeThreshold: Int = config
+        .getInt("queue-size-threshold")
+        .requiring(_ > 0, "inbound-lanes-rebalancing.queue-size-threshold must be more than zero")
+      val UtilizationReportInterval: FiniteDuration = config
+        .getMillisDuration("utilization-report-interval")
+        .requiring(
+          interval => interval > Duration.Zero,
+          "inbound-lanes-rebalancing.utilization-report-interval must be more than zero")
+    }
+
     object Aeron {
       val config: Config = getConfig("aeron")
 
@@ -331,6 +331,26 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
     !settings.LargeMessageDestinations.wildcardTree.isEmpty ||
     !settings.LargeMessageDestinations.doubleWildcardTree.isEmpty
 
+  private val highPriorityMessageClasses: Array[Class[_]] =
+    settings.HighPriorityMessageClasses.iterator.map(system.dynamicAccess.getClassFor[AnyRef](_).get).toArray
+
+  val highPriorityLaneEnabled: Boolean =
+    !settings.HighPriorityMessageDestinations.wildcardTree.isEmpty ||
+    !settings.HighPriorityMessageDestinations.doubleWildcardTree.isEmpty ||
+    highPriorityMessageClasses.nonEmpty
+
+  /**
+   * `true` if the message is an instance of one of the configured `high-priority-message-classes`
+   */
+  def isHighPriorityMessage(message: Any): Boolean = {
+    var i = 0
+    while (i < highPriorityMessageClasses.length) {
+      if (highPriorityMessageClasses(i).isInstance(message)) return true
+      i += 1
+    }
+    false
+  }
+
   private val priorityMessageDestinations =
     WildcardIndex[NotUsed]()
       // These destinations are not defined in configuration because it should not
@@ -353,6 +373,9 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
       new EnvelopeBufferPool(0, 2)
 
   private val inboundEnvelopePool = ReusableInboundEnvelope.createObjectPool(capacity = 16)
+  // The actorRefResolveCache is shared among all inbound streams and lanes, lazy since localAddress
+  // is defined when the transport is started
+  private lazy val actorRefResolveCache = new ActorRefResolveCacheWithAddress(provider, localAddress)
   // The outboundEnvelopePool is shared among all outbound associations
   private val outboundEnvelopePool = ReusableOutboundEnvelope.createObjectPool(
     capacity =
@@ -367,6 +390,7 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
       controlSubject,
       settings.LargeMessageDestinations,
       priorityMessageDestinations,
+      settings.HighPriorityMessageDestinations,
       outboundEnvelopePool))
 
   def remoteAddresses: Set[Address] = associationRegistry.allAssociations.map(_.remoteAddress)
@@ -458,10 +482,7 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
   protected val inboundLanePartitioner: InboundEnvelope => Int = env => {
     env.recipient match {
       case OptionVal.Some(r) =>
-        val a = r.path.uid
-        val b = env.originUid
-        val hashA = 23 + a
-        val hash: Int = 23 * hashA + java.lang.Long.hashCode(b)
+        val hash = ArteryTransport.inboundLaneHash(r.path.uid, env.originUid)
         math.abs(hash % inboundLanes)
       case _ =>
         // the lane is set by the DuplicateHandshakeReq stage, otherwise 0
@@ -762,12 +783,29 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
       outboundContext: OutboundContext,
       bufferPool: EnvelopeBufferPool): Sink[OutboundEnvelope, (OutboundCompressionAccess, Future[Done])] = {
 
-    outboundLane(outboundContext, bufferPool, streamId).toMat(
-      outboundTransportSink(outboundContext, streamId, bufferPool))(Keep.both)
+    outboundLane(outboundContext, bufferPool, streamId)
+      .via(outboundBatching(streamId, bufferPool))
+      .toMat(outboundTransportSink(outboundContext, streamId, bufferPool))(Keep.both)
   }
 
   def outboundTransportSink(outboundContext: OutboundContext): Sink[EnvelopeBuffer, Future[Done]] =
-    outboundTransportSink(outboundContext, OrdinaryStreamId, envelopeBufferPool)
+    outboundBatching(OrdinaryStreamId, envelopeBufferPool)
+      .toMat(outboundTransportSink(outboundContext, OrdinaryStreamId, envelopeBufferPool))(Keep.right)
+
+  /**
+   * Coalescing of small envelopes, only used for the ordinary message stream.
+   * The inbound side is handled by `inboundFlow`.
+   */
+  private def outboundBatching(
+      streamId: Int,
+      bufferPool: EnvelopeBufferPool): Flow[EnvelopeBuffer, EnvelopeBuffer, NotUsed] = {
+    val batching = settings.Advanced.Batching
+    if (streamId == OrdinaryStreamId && batching.Enabled)
+      Flow.fromGraph(
+        new EnvelopeBatcher(bufferPool, batching.MaxBatchSize, batching.MaxMessageSize, batching.MaxLinger))
+    else
+      Flow[EnvelopeBuffer]
+  }
 
   protected def outboundTransportSink(
       outboundContext: OutboundContext,
@@ -836,12 +874,23 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
   def createDecoder(
       settings: ArterySettings,
       compressions: InboundCompressions): Flow[EnvelopeBuffer, InboundEnvelope, InboundCompressionAccess] =
-    Flow.fromGraph(new Decoder(this, system, localAddress, settings, compressions, inboundEnvelopePool))
+    Flow.fromGraph(new Decoder(this, settings, compressions, inboundEnvelopePool, actorRefResolveCache))
 
   def createDeserializer(bufferPool: EnvelopeBufferPool): Flow[InboundEnvelope, InboundEnvelope, NotUsed] =
     Flow.fromGraph(new Deserializer(this, system, bufferPool))
 
-  val messageDispatcherSink: Sink[InboundEnvelope, Future[Done]] = Sink.foreach[InboundEnvelope] { m =>
+  val messageDispatcherSink: Sink[InboundEnvelope, Future[Done]] = Sink.foreach[InboundEnvelope](dispatchMessage)
+
+  private def messageDispatcherSink(laneBalancer: InboundLaneBalancer): Sink[InboundEnvelope, Future[Done]] =
+    Sink.foreach[InboundEnvelope] { m =>
+      // the envelope is cleared when released
+      val lane = m.lane
+      val laneSeqNr = m.laneSeqNr
+      dispatchMessage(m)
+      laneBalancer.delivered(lane, laneSeqNr)
+    }
+
+  private def dispatchMessage(m: InboundEnvelope): Unit = {
     messageDispatcher.dispatch(m)
     m match {
       case r: ReusableInboundEnvelope => inboundEnvelopePool.release(r)
@@ -896,24 +945,63 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
   }
 
   def inboundSink(bufferPool: EnvelopeBufferPool): Sink[InboundEnvelope, Future[Done]] =
+    inboundSink(bufferPool, OptionVal.None)
+
+  /**
+   * The partitioner of the inbound lanes and the `Sink` of each lane. Recipients are moved
+   * between the lanes depending on their load if `inbound-lanes-rebalancing` is enabled.
+   */
+  def inboundLanePartitionerAndSink(
+      bufferPool: EnvelopeBufferPool): (InboundEnvelope => Int, Sink[InboundEnvelope, Future[Done]]) = {
+    val rebalancing = settings.Advanced.InboundLanesRebalancing
+    if (rebalancing.Enabled) {
+      val laneBalancer = new InboundLaneBalancer(
+        inboundLanes,
+        rebalancing.QueueSizeThreshold,
+        rebalancing.UtilizationReportInterval,
+        flightRecorder)
+      ((env: InboundEnvelope) => laneBalancer.partition(env), inboundSink(bufferPool, OptionVal.Some(laneBalancer)))
+    } else
+      (inboundLanePartitioner, inboundSink(bufferPool))
+  }
+
+  private def inboundSink(
+      bufferPool: EnvelopeBufferPool,
+      laneBalancer: OptionVal[InboundLaneBalancer]): Sink[InboundEnvelope, Future[Done]] =
     Flow[InboundEnvelope]
+      .via(laneBalancer match {
+        case OptionVal.Some(b) =>
+          // counted before the stages below, which drop some envelopes without delivering them
+          Flow[InboundEnvelope].map { env =>
+            b.received(env.lane, env.laneSeqNr)
+            env
+          }
+        case _ => Flow[InboundEnvelope]
+      })
       .via(createDeserializer(bufferPool))
       .via(if (settings.Advanced.TestMode) new InboundTestStage(this, testState) else Flow[InboundEnvelope])
       .via(flushReplier(expectedAcks = settings.Advanced.InboundLanes))
       .via(terminationHintReplier(inControlStream = false))
       .via(new InboundHandshake(this, inControlStream = false))
       .via(new InboundQuarantineCheck(this))
-      .toMat(messageDispatcherSink)(Keep.right)
+      .toMat(laneBalancer match {
+        case OptionVal.Some(b) => messageDispatcherSink(b)
+        case _                 => messageDispatcherSink
+      })(Keep.right)
 
   def inboundFlow(
       settings: ArterySettings,
       compressions: InboundCompressions): Flow[EnvelopeBuffer, InboundEnvelope, InboundCompressionAccess] = {
-    Flow[EnvelopeBuffer].via(killSwitch.flow).viaMat(createDecoder(settings, compressions))(Keep.right)
+    Flow[EnvelopeBuffer]
+      .via(killSwitch.flow)
+      .via(new EnvelopeUnbatcher(envelopeBufferPool))
+      .viaMat(createDecoder(settings, compressions))(Keep.right)
   }
 
-  // large messages flow does not use compressions, since the message size dominates the size anyway
+  // large messages flow does not use compressions, since the message size dominates the size anyway,
+  // and large messages are never batched
   def inboundLargeFlow(settings: ArterySettings): Flow[EnvelopeBuffer, InboundEnvelope, Any] =
-    inboundFlow(settings, NoInboundCompressions)
+    Flow[EnvelopeBuffer].via(killSwitch.flow).viaMat(createDecoder(settings, NoInboundCompressions))(Keep.right)
 
   def inboundControlSink: Sink[InboundEnvelope, (ControlMessageSubject, Future[Done])] = {
     Flow[InboundEnvelope]
@@ -975,6 +1063,11 @@ private[remote] object ArteryTransport {
   val OrdinaryStreamId = 2
   val LargeStreamId = 3
 
+  def inboundLaneHash(recipientUid: Int, originUid: Long): Int = {
+    val hashA = 23 + recipientUid
+    23 * hashA + java.lang.Long.hashCode(originUid)
+  }
+
   def streamName(streamId: Int): String =
     streamId match {
       case ControlStreamId => "control"
@@ -61,9 +61,12 @@ import pekko.stream.AbruptTerminationException
 import pekko.stream.KillSwitches
 import pekko.stream.Materializer
 import pekko.stream.SharedKillSwitch
+import pekko.stream.SourceShape
 import pekko.stream.StreamTcpException
+import pekko.stream.scaladsl.GraphDSL
 import pekko.stream.scaladsl.Keep
 import pekko.stream.scaladsl.MergeHub
+import pekko.stream.scaladsl.MergePrioritized
 import pekko.stream.scaladsl.Source
 import pekko.util.OptionVal
 import pekko.util.PrettyDuration._
@@ -149,6 +152,7 @@ private[remote] class Association(
     override val controlSubject: ControlMessageSubject,
     largeMessageDestinations: WildcardIndex[NotUsed],
     priorityMessageDestinations: WildcardIndex[NotUsed],
+    highPriorityMessageDestinations: WildcardIndex[NotUsed],
     outboundEnvelopePool: ObjectPool[ReusableOutboundEnvelope])
     extends AbstractAssociation
     with OutboundContext {
@@ -184,7 +188,11 @@ private[remote] class Association(
   private val queueSize = advancedSettings.OutboundMessageQueueSize
   private val largeQueueSize = advancedSettings.OutboundLargeMessageQueueSize
 
-  private[this] val queues: Array[SendQueue.ProducerApi[OutboundEnvelope]] = new Array(2 + outboundLanes)
+  private val highPriorityLaneEnabled = transport.highPriorityLaneEnabled
+  // the high priority lane of the ordinary message stream is placed after the ordinary lanes
+  private val highPriorityQueueIndex = OrdinaryQueueIndex + outboundLanes
+
+  private[this] val queues: Array[SendQueue.ProducerApi[OutboundEnvelope]] = new Array(3 + outboundLanes)
   queues(ControlQueueIndex) = QueueWrapperImpl(createQueue(controlQueueSize, ControlQueueIndex)) // control stream
   queues(LargeQueueIndex) =
     if (transport.largeMessageChannelEnabled) // large messages stream
@@ -195,6 +203,11 @@ private[remote] class Association(
   (0 until outboundLanes).foreach { i =>
     queues(OrdinaryQueueIndex + i) = QueueWrapperImpl(createQueue(queueSize, OrdinaryQueueIndex + i)) // ordinary messages stream
   }
+  queues(highPriorityQueueIndex) =
+    if (highPriorityLaneEnabled) // high priority lane of ordinary messages stream
+      QueueWrapperImpl(createQueue(queueSize, highPriorityQueueIndex))
+    else
+      DisabledQueueWrapper
   @volatile private[this] var queuesVisibility = false
 
   private def controlQueue: SendQueue.ProducerApi[OutboundEnvelope] = queues(ControlQueueIndex)
@@ -438,7 +451,13 @@ private[remote] class Association(
             if (!controlQueue.offer(outboundEnvelope))
               dropped(ControlQueueIndex, controlQueueSize, outboundEnvelope)
           case _ =>
-            val queueIndex = selectQueue(recipient)
+            val recipientQueueIndex = selectQueue(recipient)
+            // the class only moves messages from the ordinary lanes, large message and priority
+            // destinations keep their own stream
+            val queueIndex =
+              if (highPriorityLaneEnabled && isOrdinaryLane(recipientQueueIndex) &&
+                transport.isHighPriorityMessage(message)) highPriorityQueueIndex
+              else recipientQueueIndex
             val queue = queues(queueIndex)
             val offerOk = queue.offer(outboundEnvelope)
             if (!offerOk)
@@ -456,6 +475,9 @@ private[remote] class Association(
         remoteAddress)
   }
 
+  private def isOrdinaryLane(queueIndex: Int): Boolean =
+    queueIndex >= OrdinaryQueueIndex && queueIndex < OrdinaryQueueIndex + outboundLanes
+
   private def selectQueue(recipient: OptionVal[RemoteActorRef]): Int = {
     recipient match {
       case OptionVal.Some(r) =>
@@ -471,6 +493,9 @@ private[remote] class Association(
               } else if (transport.largeMessageChannelEnabled && largeMessageDestinations.find(elements).isDefined) {
                 log.debug("Using large message stream for {}", r.path)
                 LargeQueueIndex
+              } else if (highPriorityLaneEnabled && highPriorityMessageDestinations.find(elements).isDefined) {
+                log.debug("Using high priority lane of message stream for {}", r.path)
+                highPriorityQueueIndex
               } else if (outboundLanes == 1) {
                 OrdinaryQueueIndex
               } else {
@@ -614,6 +639,9 @@ private[remote] class Association(
       (0 until outboundLanes).foreach { i =>
         queues(OrdinaryQueueIndex + i) = RemovedQueueWrapper
       }
+
+      if (highPriorityLaneEnabled)
+        queues(highPriorityQueueIndex) = RemovedQueueWrapper
       queuesVisibility = true // volatile write for visibility of the queues array
 
       // cleanup
@@ -811,6 +839,43 @@ private[remote] class Association(
     }
   }
 
+  /**
+   * The `SendQueue` of an ordinary lane. For the first lane it is merged with the `SendQueue` of the
+   * high priority lane, if enabled, and then the second materialized value is defined. Elements of the
+   * two queues are picked with weighted preference when both have elements available.
+   */
+  private def ordinarySendQueues(lane: Int): Source[
+    OutboundEnvelope,
+    (SendQueue.QueueValue[OutboundEnvelope], OptionVal[SendQueue.QueueValue[OutboundEnvelope]])] = {
+    val ordinary = Source.fromGraph(new SendQueue[OutboundEnvelope](sendToDeadLetters))
+    if (highPriorityLaneEnabled && lane == 0) {
+      val highPriority = Source.fromGraph(new SendQueue[OutboundEnvelope](sendToDeadLetters))
+      Source.fromGraph(GraphDSL.createGraph(ordinary, highPriority)((o, h) => (o, OptionVal.Some(h))) {
+        implicit b => (o, h) =>
+          import GraphDSL.Implicits._
+          val merge =
+            b.add(MergePrioritized[OutboundEnvelope](List(1, advancedSettings.HighPriorityLaneWeight)))
+          o ~> merge.in(0)
+          h ~> merge.in(1)
+          SourceShape(merge.out)
+      })
+    } else
+      ordinary.mapMaterializedValue(q => (q, OptionVal.None))
+  }
+
+  private def injectHighPriorityQueue(
+      highPriorityQueueValue: OptionVal[SendQueue.QueueValue[OutboundEnvelope]]): Unit = {
+    highPriorityQueueValue match {
+      case OptionVal.Some(q) =>
+        val wrapper = getOrCreateQueueWrapper(highPriorityQueueIndex, queueSize)
+        q.inject(wrapper.queue)
+        // replace with the materialized value, still same underlying queue
+        queues(highPriorityQueueIndex) = q
+        queuesVisibility = true // volatile write for visibility of the queues array
+      case _ =>
+    }
+  }
+
   private def runOutboundOrdinaryMessagesStream(): Unit = {
     if (transport.isShutdown) throw ShuttingDown
 
@@ -823,9 +888,8 @@ private[remote] class Association(
       queues(queueIndex) = wrapper // use new underlying queue immediately for restarts
       queuesVisibility = true // volatile write for visibility of the queues array
 
-      val (queueValue, _, changeCompression, completed) =
-        Source
-          .fromGraph(new SendQueue[OutboundEnvelope](sendToDeadLetters))
+      val ((queueValue, highPriorityQueueValue), _, changeCompression, completed) =
+        ordinarySendQueues(lane = 0)
           .via(streamKillSwitch.flow)
           .viaMat(transport.outboundTestFlow(this))(Keep.both)
           .toMat(transport.outbound(this)) { case ((a, b), (c, d)) => (a, b, c, d) } // "keep all, exploded"
@@ -835,6 +899,7 @@ private[remote] class Association(
       // replace with the materialized value, still same underlying queue
       queues(queueIndex) = queueValue
       queuesVisibility = true // volatile write for visibility of the queues array
+      injectHighPriorityQueue(highPriorityQueueValue)
       outboundCompressionAccess = Vector(changeCompression)
 
       updateStreamMatValues(OrdinaryQueueIndex, streamKillSwitch, completed)
@@ -854,17 +919,17 @@ private[remote] class Association(
         wrapper
       }.toVector
 
-      val lane = Source
-        .fromGraph(new SendQueue[OutboundEnvelope](sendToDeadLetters))
-        .via(streamKillSwitch.flow)
-        .via(transport.outboundTestFlow(this))
-        .viaMat(transport.outboundLane(this))(Keep.both)
-        .watchTermination()(Keep.both)
-        // recover to avoid error logging by MergeHub
-        .recoverWithRetries(-1, { case _: Throwable => Source.empty })
-        .mapMaterializedValue {
-          case ((q, c), w) => (q, c, w)
-        }
+      def lane(i: Int) =
+        ordinarySendQueues(i)
+          .via(streamKillSwitch.flow)
+          .via(transport.outboundTestFlow(this))
+          .viaMat(transport.outboundLane(this))(Keep.both)
+          .watchTermination()(Keep.both)
+          // recover to avoid error logging by MergeHub
+          .recoverWithRetries(-1, { case _: Throwable => Source.empty })
+          .mapMaterializedValue {
+            case (((q, h), c), w) => (q, h, c, w)
+          }
 
       val (mergeHub, transportSinkCompleted) = MergeHub
         .source[EnvelopeBuffer]
@@ -872,14 +937,20 @@ private[remote] class Association(
         .toMat(transport.outboundTransportSink(this))(Keep.both)
         .run()(materializer)
 
-      val values: Vector[(SendQueue.QueueValue[OutboundEnvelope], Encoder.OutboundCompressionAccess, Future[Done])] =
+      val values: Vector[(
+          SendQueue.QueueValue[OutboundEnvelope],
+          OptionVal[SendQueue.QueueValue[OutboundEnvelope]],
+          Encoder.OutboundCompressionAccess,
+          Future[Done])] =
         (0 until outboundLanes).iterator
-          .map { _ =>
-            lane.to(mergeHub).run()(materializer)
+          .map { i =>
+            lane(i).to(mergeHub).run()(materializer)
           }
           .to(Vector)
 
-      val (queueValues, compressionAccessValues, laneCompletedValues) = values.unzip3
+      val queueValues = values.map(_._1)
+      val compressionAccessValues = values.map(_._3)
+      val laneCompletedValues = values.map(_._4)
 
       implicit val ec = transport.system.dispatchers.internalDispatcher
 
@@ -899,6 +970,7 @@ private[remote] class Association(
           queues(OrdinaryQueueIndex + i) = q // replace with the materialized value, still same underlying queue
       }
       queuesVisibility = true // volatile write for visibility of the queues array
+      injectHighPriorityQueue(values.head._2)
 
       outboundCompressionAccess = compressionAccessValues
 
@@ -960,8 +1032,15 @@ private[remote] class Association(
         restart()
       }
 
-      if (!isRemovedAfterQuarantined())
-        queues(queueIndex) = LazyQueueWrapper(createQueue(queueCapacity, queueIndex), wrappedRestartFun)
+      if (!isRemovedAfterQuarantined()) {
+        val lazyWrapper = LazyQueueWrapper(createQueue(queueCapacity, queueIndex), wrappedRestartFun)
+        queues(queueIndex) = lazyWrapper
+        // the high priority lane is part of the ordinary message stream, sharing the same restart
+        if (queueIndex == OrdinaryQueueIndex && highPriorityLaneEnabled)
+          queues(highPriorityQueueIndex) = LazyQueueWrapper(
+            createQueue(queueCapacity, highPriorityQueueIndex),
+            () => lazyWrapper.runMaterialize())
+      }
 
       queuesVisibility = true // volatile write for visibility of the queues array
     }
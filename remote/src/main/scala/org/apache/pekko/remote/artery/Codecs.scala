@@ -349,15 +349,39 @@ private[remote] object Decoder {
 /**
  * INTERNAL API
  */
+private[remote] object ActorRefResolveCacheWithAddress {
+  val Capacity = 4096
+  val Shards = 16
+}
+
+/**
+ * INTERNAL API
+ *
+ * Thread-safe, one instance is shared by the [[Decoder]] of all inbound streams and lanes.
+ */
 private[remote] final class ActorRefResolveCacheWithAddress(
     provider: RemoteActorRefProvider,
     localAddress: UniqueAddress)
-    extends AbstractActorRefResolveCache[InternalActorRef] {
+    extends TinyLfuBoundedCache[InternalActorRef](
+      ActorRefResolveCacheWithAddress.Capacity,
+      ActorRefResolveCacheWithAddress.Shards) {
+
+  /**
+   * Compared to `getOrCompute` this will also invalidate cachedAssociation of RemoteActorRef
+   * if the `Association` is removed.
+   */
+  def resolve(k: String): InternalActorRef = {
+    val ref = getOrCompute(k)
+    AbstractActorRefResolveCache.invalidateRemovedAssociation(ref)
+    ref
+  }
 
   override protected def compute(k: String): InternalActorRef =
     provider.resolveActorRefWithLocalAddress(k, localAddress.address)
 
   override protected def isKeyCacheable(k: String): Boolean = true
+  override protected def isCacheable(ref: InternalActorRef): Boolean =
+    AbstractActorRefResolveCache.isCacheable(ref)
 }
 
 /**
@@ -365,11 +389,10 @@ private[remote] final class ActorRefResolveCacheWithAddress(
  */
 private[remote] class Decoder(
     inboundContext: InboundContext,
-    system: ExtendedActorSystem,
-    uniqueLocalAddress: UniqueAddress,
     settings: ArterySettings,
     inboundCompressions: InboundCompressions,
-    inEnvelopePool: ObjectPool[ReusableInboundEnvelope])
+    inEnvelopePool: ObjectPool[ReusableInboundEnvelope],
+    actorRefResolver: ActorRefResolveCacheWithAddress)
     extends GraphStageWithMaterializedValue[FlowShape[EnvelopeBuffer, InboundEnvelope], InboundCompressionAccess] {
 
   import Decoder.Tick
@@ -388,8 +411,6 @@ private[remote] class Decoder(
       override val compressions = inboundCompressions
 
       private val headerBuilder = HeaderBuilder.in(compressions)
-      private val actorRefResolver: ActorRefResolveCacheWithAddress =
-        new ActorRefResolveCacheWithAddress(system.provider.asInstanceOf[RemoteActorRefProvider], uniqueLocalAddress)
       private val bannedRemoteDeployedActorRefs = new java.util.HashSet[String]
 
       private val retryResolveRemoteDeployedRecipientInterval = 50.millis
@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.nio.ByteOrder
+
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.stream.Attributes
+import pekko.stream.FlowShape
+import pekko.stream.Inlet
+import pekko.stream.Outlet
+import pekko.stream.stage.GraphStage
+import pekko.stream.stage.GraphStageLogic
+import pekko.stream.stage.InHandler
+import pekko.stream.stage.OutHandler
+import pekko.stream.stage.TimerGraphStageLogic
+
+/**
+ * INTERNAL API
+ *
+ * Several small envelopes can be coalesced into one frame by the [[EnvelopeBatcher]]. Such a frame
+ * is identified by the `BatchFlag` in the ordinary flags byte of the envelope header and has the
+ * following layout:
+ * {{{
+ * 0: version (Byte), same as the contained envelopes
+ * 1: flags (Byte), only `BatchFlag` set
+ * 4: number of contained envelopes (Int)
+ * 8: for each envelope: length (Int) followed by the bytes of the envelope
+ * }}}
+ *
+ * A frame with a single envelope is never wrapped in a batch, i.e. it is sent in the ordinary format.
+ */
+private[remote] object EnvelopeBatch {
+  val CountOffset = 4 // Int
+  val EnvelopesOffset = 8
+  val LengthFieldSize = 4
+
+  def isBatch(envelope: EnvelopeBuffer): Boolean = {
+    val byteBuffer = envelope.byteBuffer
+    byteBuffer.limit() >= EnvelopesOffset &&
+    EnvelopeBuffer.BatchFlag.isEnabled(byteBuffer.get(EnvelopeBuffer.FlagsOffset))
+  }
+
+  private case object LingerTimeout
+}
+
+/**
+ * INTERNAL API
+ *
+ * Coalesces encoded envelopes that are not larger than `maxMessageSize` into batch frames of at most
+ * `maxBatchSize` bytes. Envelopes are only held back while downstream is backpressuring, or at most
+ * `maxLinger` after the first envelope of a batch was received. Order of the envelopes is retained.
+ *
+ * `maxBatchSize` must not be greater than the size of the buffers in the `bufferPool`.
+ */
+private[remote] class EnvelopeBatcher(
+    bufferPool: EnvelopeBufferPool,
+    maxBatchSize: Int,
+    maxMessageSize: Int,
+    maxLinger: FiniteDuration)
+    extends GraphStage[FlowShape[EnvelopeBuffer, EnvelopeBuffer]] {
+  import EnvelopeBatch._
+
+  val in: Inlet[EnvelopeBuffer] = Inlet("Artery.EnvelopeBatcher.in")
+  val out: Outlet[EnvelopeBuffer] = Outlet("Artery.EnvelopeBatcher.out")
+  override val shape: FlowShape[EnvelopeBuffer, EnvelopeBuffer] = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new TimerGraphStageLogic(shape) with InHandler with OutHandler {
+
+      // a single pending envelope is kept as is until a second one arrives, so that it can be
+      // sent without the batch framing
+      private var single: EnvelopeBuffer = null
+      private var batch: EnvelopeBuffer = null
+      private var batchCount = 0
+      // envelope that didn't fit in the pending batch, sent after the batch
+      private var next: EnvelopeBuffer = null
+      private var lingerExpired = false
+
+      override def preStart(): Unit = pull(in)
+
+      override def onPush(): Unit = {
+        val envelope = grab(in)
+        if (!hasPending) {
+          if (isBatchable(envelope)) start(envelope)
+          else next = envelope
+        } else if (isBatchable(envelope) && fitsInBatch(envelope)) {
+          add(envelope)
+        } else {
+          next = envelope
+        }
+        tryPush()
+      }
+
+      override def onPull(): Unit = tryPush()
+
+      override def onUpstreamFinish(): Unit = {
+        cancelTimer(LingerTimeout)
+        val remaining = List(takePending(), next).filter(_ ne null)
+        next = null
+        emitMultiple(out, remaining, () => completeStage())
+      }
+
+      override protected def onTimer(timerKey: Any): Unit = {
+        lingerExpired = true
+        tryPush()
+      }
+
+      override def postStop(): Unit = {
+        if (single ne null) bufferPool.release(single)
+        if (batch ne null) bufferPool.release(batch)
+        if (next ne null) bufferPool.release(next)
+        single = null
+        batch = null
+        next = null
+      }
+
+      private def hasPending: Boolean = (single ne null) || (batch ne null)
+
+      private def isBatchable(envelope: EnvelopeBuffer): Boolean =
+        envelope.byteBuffer.remaining <= maxMessageSize
+
+      private def fitsInBatch(envelope: EnvelopeBuffer): Boolean = {
+        val needed = LengthFieldSize + envelope.byteBuffer.remaining
+        if (batch eq null)
+          EnvelopesOffset + LengthFieldSize + single.byteBuffer.remaining + needed <= maxBatchSize
+        else
+          batch.byteBuffer.position() + needed <= maxBatchSize
+      }
+
+      private def start(envelope: EnvelopeBuffer): Unit = {
+        single = envelope
+        if (maxLinger > Duration.Zero) scheduleOnce(LingerTimeout, maxLinger)
+        else lingerExpired = true
+      }
+
+      private def add(envelope: EnvelopeBuffer): Unit = {
+        if (batch eq null) {
+          batch = bufferPool.acquire()
+          val byteBuffer = batch.byteBuffer
+          byteBuffer.put(EnvelopeBuffer.VersionOffset, single.byteBuffer.get(EnvelopeBuffer.VersionOffset))
+          byteBuffer.put(EnvelopeBuffer.FlagsOffset, EnvelopeBuffer.BatchFlag.mask)
+          byteBuffer.putShort(EnvelopeBuffer.FlagsOffset + 1, 0)
+          byteBuffer.position(EnvelopesOffset)
+          append(single)
+          single = null
+        }
+        append(envelope)
+      }
+
+      private def append(envelope: EnvelopeBuffer): Unit = {
+        batch.byteBuffer.putInt(envelope.byteBuffer.remaining)
+        batch.byteBuffer.put(envelope.byteBuffer)
+        batchCount += 1
+        bufferPool.release(envelope)
+      }
+
+      private def takePending(): EnvelopeBuffer = {
+        lingerExpired = false
+        if (batch ne null) {
+          val result = batch
+          result.byteBuffer.putInt(CountOffset, batchCount)
+          result.byteBuffer.flip()
+          batch = null
+          batchCount = 0
+          result
+        } else {
+          val result = single
+          single = null
+          result
+        }
+      }
+
+      private def tryPush(): Unit = {
+        if (isAvailable(out)) {
+          if (hasPending) {
+            if (lingerExpired || (next ne null)) {
+              cancelTimer(LingerTimeout)
+              push(out, takePending())
+              if ((next ne null) && isBatchable(next)) {
+                val envelope = next
+                next = null
+                start(envelope)
+              }
+            }
+          } else if (next ne null) {
+            push(out, next)
+            next = null
+          }
+        }
+        if ((next eq null) && !hasBeenPulled(in) && !isClosed(in)) pull(in)
+      }
+
+      setHandlers(in, out, this)
+    }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Splits batch frames produced by the [[EnvelopeBatcher]] into the contained envelopes. Other
+ * envelopes are passed through as is. Envelopes in a direct (pooled) batch buffer are copied into
+ * buffers from the `bufferPool` so that the batch buffer can be released, while envelopes of
+ * heap batch buffers are emitted as slices of the batch buffer.
+ */
+private[remote] class EnvelopeUnbatcher(bufferPool: EnvelopeBufferPool)
+    extends GraphStage[FlowShape[EnvelopeBuffer, EnvelopeBuffer]] {
+  import EnvelopeBatch._
+
+  val in: Inlet[EnvelopeBuffer] = Inlet("Artery.EnvelopeUnbatcher.in")
+  val out: Outlet[EnvelopeBuffer] = Outlet("Artery.EnvelopeUnbatcher.out")
+  override val shape: FlowShape[EnvelopeBuffer, EnvelopeBuffer] = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new GraphStageLogic(shape) with InHandler with OutHandler {
+
+      private var batch: EnvelopeBuffer = null
+      private var remaining = 0
+
+      override def onPush(): Unit = {
+        val envelope = grab(in)
+        if (isBatch(envelope)) {
+          remaining = envelope.byteBuffer.getInt(CountOffset)
+          if (remaining > 0) {
+            envelope.byteBuffer.position(EnvelopesOffset)
+            batch = envelope
+            pushNext()
+          } else {
+            bufferPool.release(envelope)
+            pull(in)
+          }
+        } else
+          push(out, envelope)
+      }
+
+      override def onPull(): Unit =
+        if (batch ne null) pushNext()
+        else pull(in)
+
+      override def onUpstreamFinish(): Unit =
+        if (batch eq null) completeStage()
+
+      override def postStop(): Unit =
+        if (batch ne null) {
+          bufferPool.release(batch)
+          batch = null
+        }
+
+      private def pushNext(): Unit = {
+        val byteBuffer = batch.byteBuffer
+        val length = byteBuffer.getInt()
+        val src = byteBuffer.duplicate()
+        src.limit(byteBuffer.position() + length)
+        val envelope =
+          if (byteBuffer.isDirect) {
+            val copy = bufferPool.acquire(length)
+            copy.byteBuffer.put(src)
+            copy.byteBuffer.flip()
+            copy
+          } else {
+            new EnvelopeBuffer(src.slice().order(ByteOrder.LITTLE_ENDIAN))
+          }
+        byteBuffer.position(byteBuffer.position() + length)
+
+        remaining -= 1
+        if (remaining == 0) {
+          bufferPool.release(batch)
+          batch = null
+        }
+
+        push(out, envelope)
+        if ((batch eq null) && isClosed(in)) completeStage()
+      }
+
+      setHandlers(in, out, this)
+    }
+}
@@ -31,16 +31,42 @@ private[remote] class OutOfBuffersException extends RuntimeException("Out of usa
 /**
  * INTERNAL API
  */
+private[remote] object EnvelopeBufferPool {
+  val SmallBufferSize: Int = 4 * 1024
+  val MediumBufferSize: Int = 32 * 1024
+}
+
+/**
+ * INTERNAL API
+ *
+ * Buffers are pooled in size classes. `acquire()` returns a buffer of `maximumPayload` size, while
+ * `acquire(size)` returns the smallest buffer that can hold `size` bytes, so that small inbound messages
+ * don't occupy buffers of `maximumPayload` size.
+ */
 private[remote] class EnvelopeBufferPool(maximumPayload: Int, maximumBuffers: Int) {
-  private val availableBuffers = new ManyToManyConcurrentArrayQueue[EnvelopeBuffer](maximumBuffers)
+  import EnvelopeBufferPool._
+
+  private val sizeClasses: Array[Int] =
+    Array(SmallBufferSize, MediumBufferSize).filter(_ < maximumPayload) :+ maximumPayload
+  private val largestSizeClass = sizeClasses.length - 1
+  private val availableBuffers: Array[ManyToManyConcurrentArrayQueue[EnvelopeBuffer]] =
+    Array.fill(sizeClasses.length)(new ManyToManyConcurrentArrayQueue[EnvelopeBuffer](maximumBuffers))
 
-  def acquire(): EnvelopeBuffer = {
-    val buf = availableBuffers.poll()
+  def acquire(): EnvelopeBuffer = acquireFromSizeClass(largestSizeClass)
+
+  def acquire(size: Int): EnvelopeBuffer = {
+    var i = 0
+    while (i < largestSizeClass && sizeClasses(i) < size) i += 1
+    acquireFromSizeClass(i)
+  }
+
+  private def acquireFromSizeClass(sizeClass: Int): EnvelopeBuffer = {
+    val buf = availableBuffers(sizeClass).poll()
     if (buf ne null) {
       buf.byteBuffer.clear()
       buf
     } else {
-      val newBuf = new EnvelopeBuffer(ByteBuffer.allocateDirect(maximumPayload))
+      val newBuf = new EnvelopeBuffer(ByteBuffer.allocateDirect(sizeClasses(sizeClass)))
       newBuf.byteBuffer.order(ByteOrder.LITTLE_ENDIAN)
       newBuf
     }
@@ -48,7 +74,16 @@ private[remote] class EnvelopeBufferPool(maximumPayload: Int, maximumBuffers: In
 
   def release(buffer: EnvelopeBuffer) = {
     // only reuse direct buffers, e.g. not those wrapping ByteString
-    if (buffer.byteBuffer.isDirect && !availableBuffers.offer(buffer)) buffer.tryCleanDirectByteBuffer()
+    if (buffer.byteBuffer.isDirect) {
+      val sizeClass = sizeClassOf(buffer.byteBuffer.capacity)
+      if (sizeClass == -1 || !availableBuffers(sizeClass).offer(buffer)) buffer.tryCleanDirectByteBuffer()
+    }
+  }
+
+  private def sizeClassOf(capacity: Int): Int = {
+    var i = largestSizeClass
+    while (i >= 0 && sizeClasses(i) != capacity) i -= 1
+    i
   }
 
 }
@@ -96,6 +131,8 @@ private[remote] object EnvelopeBuffer {
 
   // Flags (1 byte allocated for them)
   val MetadataPresentFlag = new ByteFlag(0x1)
+  // the frame contains several envelopes, see `EnvelopeBatch`
+  val BatchFlag = new ByteFlag(0x2)
 
   val VersionOffset = 0 // Byte
   val FlagsOffset = 1 // Byte
@@ -64,6 +64,13 @@ private[remote] trait InboundEnvelope extends NoSerializationVerificationNeeded
 
   def lane: Int
   def copyForLane(lane: Int): InboundEnvelope
+
+  /**
+   * Sequence number of the envelope within the inbound lane, assigned by the
+   * [[InboundLaneBalancer]]. 0 when not used.
+   */
+  def laneSeqNr: Long
+  def withLane(lane: Int, laneSeqNr: Long): InboundEnvelope
 }
 
 /**
@@ -89,6 +96,7 @@ private[remote] final class ReusableInboundEnvelope extends InboundEnvelope {
   private var _classManifest: String = null
   private var _flags: Byte = 0
   private var _lane: Int = 0
+  private var _laneSeqNr: Long = 0L
   private var _message: AnyRef = null
   private var _envelopeBuffer: EnvelopeBuffer = null
 
@@ -105,6 +113,7 @@ private[remote] final class ReusableInboundEnvelope extends InboundEnvelope {
   override def flag(byteFlag: ByteFlag): Boolean = byteFlag.isEnabled(_flags)
 
   override def lane: Int = _lane
+  override def laneSeqNr: Long = _laneSeqNr
 
   override def withMessage(message: AnyRef): InboundEnvelope = {
     _message = message
@@ -128,6 +137,7 @@ private[remote] final class ReusableInboundEnvelope extends InboundEnvelope {
     _originUid = 0L
     _association = OptionVal.None
     _lane = 0
+    _laneSeqNr = 0L
   }
 
   def init(
@@ -157,6 +167,12 @@ private[remote] final class ReusableInboundEnvelope extends InboundEnvelope {
     this
   }
 
+  override def withLane(lane: Int, laneSeqNr: Long): InboundEnvelope = {
+    _lane = lane
+    _laneSeqNr = laneSeqNr
+    this
+  }
+
   override def copyForLane(lane: Int): InboundEnvelope = {
     val buf = if (envelopeBuffer eq null) null else envelopeBuffer.copy()
     val env = new ReusableInboundEnvelope
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.util.concurrent.atomic.AtomicLongArray
+
+import scala.concurrent.duration.FiniteDuration
+
+import org.agrona.collections.Int2ObjectHashMap
+
+import org.apache.pekko
+import pekko.util.OptionVal
+
+/**
+ * INTERNAL API
+ */
+private[remote] object InboundLaneBalancer {
+  private final class Assignment(var lane: Int, var lastSeqNr: Long)
+
+  private val ReportCheckMask = 1024 - 1
+  private val PurgeThreshold = 4096
+}
+
+/**
+ * INTERNAL API
+ *
+ * Partitioner of the inbound lanes that may move recipients from a lane with many messages in flight
+ * to a less loaded lane, instead of always using the lane given by the hash of the recipient.
+ *
+ * Every envelope is tagged with its lane and a sequence number within that lane, and the lane reports
+ * the sequence number of the latest delivered envelope with [[delivered]]. A recipient is only moved
+ * when all envelopes that have been assigned to its current lane have been delivered, which retains
+ * message ordering per recipient.
+ *
+ * The load of a lane is the number of envelopes waiting in front of it. The lane reports every envelope
+ * that it takes with [[received]], because the inbound stages of the lane may drop envelopes without
+ * delivering them, for example handshake, flush and quarantined messages or messages that can't be
+ * deserialized.
+ *
+ * `partition` must only be called from the stream stage of the partition hub, while `delivered` is
+ * called by the lanes.
+ */
+private[remote] final class InboundLaneBalancer(
+    lanes: Int,
+    queueSizeThreshold: Int,
+    utilizationReportInterval: FiniteDuration,
+    flightRecorder: RemotingFlightRecorder) {
+  import InboundLaneBalancer._
+
+  // accessed only by the partition hub
+  private val enqueued = new Array[Long](lanes)
+  private val enqueuedAtLastReport = new Array[Long](lanes)
+  private val assignments = new Int2ObjectHashMap[Assignment]
+  private var count = 0L
+  private var lastReportNanos = System.nanoTime()
+  private val reportIntervalNanos = utilizationReportInterval.toNanos
+
+  // updated by the lanes
+  private val deliveredSeqNr = new AtomicLongArray(lanes)
+  private val receivedSeqNr = new AtomicLongArray(lanes)
+
+  def partition(env: InboundEnvelope): Int = {
+    val lane = env.recipient match {
+      case OptionVal.Some(r) =>
+        selectLane(ArteryTransport.inboundLaneHash(r.path.uid, env.originUid))
+      case _ =>
+        // the lane is set by the DuplicateHandshakeReq stage, otherwise 0
+        env.lane
+    }
+    val seqNr = enqueued(lane) + 1
+    enqueued(lane) = seqNr
+    env.withLane(lane, seqNr)
+
+    count += 1
+    if ((count & ReportCheckMask) == 0) {
+      purgeAssignments()
+      reportUtilization()
+    }
+    lane
+  }
+
+  /**
+   * Called by the lane when it takes the envelope, before it may be dropped.
+   */
+  def received(lane: Int, laneSeqNr: Long): Unit =
+    if (laneSeqNr > receivedSeqNr.get(lane)) receivedSeqNr.lazySet(lane, laneSeqNr)
+
+  /**
+   * Called by the lane when the envelope has been delivered.
+   */
+  def delivered(lane: Int, laneSeqNr: Long): Unit =
+    if (laneSeqNr > 0L) {
+      deliveredSeqNr.lazySet(lane, laneSeqNr)
+      received(lane, laneSeqNr)
+    }
+
+  def queueSize(lane: Int): Long =
+    enqueued(lane) - receivedSeqNr.get(lane)
+
+  private def selectLane(hash: Int): Int = {
+    val assignment = assignments.get(hash)
+    if (assignment eq null) {
+      val lane = leastLoadedIfOverloaded(math.abs(hash % lanes))
+      assignments.put(hash, new Assignment(lane, enqueued(lane) + 1))
+      lane
+    } else {
+      // must stay in the same lane until all previous messages have been delivered
+      if (isDelivered(assignment)) {
+        val lane = leastLoadedIfOverloaded(assignment.lane)
+        if (lane != assignment.lane) {
+          flightRecorder.transportInboundLaneRebalanced(assignment.lane, lane)
+          assignment.lane = lane
+        }
+      }
+      assignment.lastSeqNr = enqueued(assignment.lane) + 1
+      assignment.lane
+    }
+  }
+
+  private def isDelivered(assignment: Assignment): Boolean =
+    deliveredSeqNr.get(assignment.lane) >= assignment.lastSeqNr
+
+  private def leastLoadedIfOverloaded(lane: Int): Int = {
+    val size = queueSize(lane)
+    if (size <= queueSizeThreshold) lane
+    else {
+      var leastLoaded = lane
+      var leastSize = size
+      var i = 0
+      while (i < lanes) {
+        val s = queueSize(i)
+        if (s < leastSize) {
+          leastLoaded = i
+          leastSize = s
+        }
+        i += 1
+      }
+      if (leastSize * 2 < size) leastLoaded else lane
+    }
+  }
+
+  // Recipients without messages in flight can be assigned to any lane, and then
+  // their hash lane is used unless it's overloaded.
+  private def purgeAssignments(): Unit =
+    if (assignments.size > PurgeThreshold) {
+      val iter = assignments.values.iterator
+      while (iter.hasNext) {
+        if (isDelivered(iter.next())) iter.remove()
+      }
+    }
+
+  private def reportUtilization(): Unit = {
+    val now = System.nanoTime()
+    if (now - lastReportNanos >= reportIntervalNanos) {
+      lastReportNanos = now
+      var i = 0
+      while (i < lanes) {
+        flightRecorder.transportInboundLaneUtilization(i, queueSize(i), enqueued(i) - enqueuedAtLastReport(i))
+        enqueuedAtLastReport(i) = enqueued(i)
+        i += 1
+      }
+    }
+  }
+}
@@ -18,17 +18,75 @@ import org.agrona.concurrent.ManyToManyConcurrentArrayQueue
 /**
  * INTERNAL API
  */
-private[remote] class ObjectPool[A <: AnyRef](capacity: Int, create: () => A, clear: A => Unit) {
+private[remote] object ObjectPool {
+  val DefaultMagazineSize = 16
+
+  /**
+   * Per thread cache of pooled objects.
+   */
+  private final class Magazine(capacity: Int) {
+    private val objects = new Array[AnyRef](capacity)
+    private var size = 0
+
+    def pop(): AnyRef =
+      if (size == 0) null
+      else {
+        size -= 1
+        val obj = objects(size)
+        objects(size) = null
+        obj
+      }
+
+    def push(obj: AnyRef): Boolean =
+      if (size == capacity) false
+      else {
+        objects(size) = obj
+        size += 1
+        true
+      }
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Objects are first taken from and returned to a small thread local magazine, and only when that is
+ * empty or full the shared pool is used, to reduce contention on the shared pool when it's used from
+ * many threads, e.g. by several lanes. A `magazineSize` of 0 means that only the shared pool is used.
+ */
+private[remote] class ObjectPool[A <: AnyRef](
+    capacity: Int,
+    create: () => A,
+    clear: A => Unit,
+    magazineSize: Int = ObjectPool.DefaultMagazineSize) {
+  import ObjectPool.Magazine
+
   private val pool = new ManyToManyConcurrentArrayQueue[A](capacity)
 
+  private val magazines: ThreadLocal[Magazine] =
+    if (magazineSize > 0)
+      new ThreadLocal[Magazine] {
+        override def initialValue(): Magazine = new Magazine(magazineSize)
+      }
+    else null
+
   def acquire(): A = {
-    val obj = pool.poll()
+    val obj =
+      if (magazines eq null) pool.poll()
+      else {
+        val cached = magazines.get.pop()
+        if (cached eq null) pool.poll() else cached.asInstanceOf[A]
+      }
     if (obj eq null) create()
     else obj
   }
 
+  /**
+   * @return `true` if the object was not pooled, i.e. dropped because the pool is full
+   */
   def release(obj: A): Boolean = {
     clear(obj)
-    !pool.offer(obj)
+    if ((magazines ne null) && magazines.get.push(obj)) false
+    else !pool.offer(obj)
   }
 }
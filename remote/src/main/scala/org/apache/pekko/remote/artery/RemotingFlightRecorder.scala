@@ -63,6 +63,8 @@ private[pekko] trait RemotingFlightRecorder extends Extension {
   def transportRemoveQuarantined(remoteAddress: Address): Unit
   def transportRestartOutbound(remoteAddress: Address, streamName: String): Unit
   def transportRestartInbound(remoteAddress: UniqueAddress, streamName: String): Unit
+  def transportInboundLaneUtilization(lane: Int, queueSize: Long, messages: Long): Unit
+  def transportInboundLaneRebalanced(fromLane: Int, toLane: Int): Unit
 
   def aeronSinkStarted(channel: String, streamId: Int): Unit
   def aeronSinkTaskRunnerRemoved(channel: String, streamId: Int): Unit
@@ -119,6 +121,8 @@ private[pekko] case object NoOpRemotingFlightRecorder extends RemotingFlightReco
   override def transportRestartOutbound(remoteAddress: Address, streamName: String): Unit = ()
   override def transportRestartInbound(remoteAddress: UniqueAddress, streamName: String): Unit = ()
   override def transportSendQueueOverflow(queueIndex: Int): Unit = ()
+  override def transportInboundLaneUtilization(lane: Int, queueSize: Long, messages: Long): Unit = ()
+  override def transportInboundLaneRebalanced(fromLane: Int, toLane: Int): Unit = ()
 
   override def aeronSinkStarted(channel: String, streamId: Int): Unit = ()
   override def aeronSinkTaskRunnerRemoved(channel: String, streamId: Int): Unit = ()
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.locks.ReentrantLock
+
+import org.apache.pekko
+import pekko.util.FrequencySketch
+import pekko.util.OptionVal
+import pekko.util.RecencyList
+import pekko.util.Unsafe
+
+/**
+ * INTERNAL API
+ */
+private[pekko] object TinyLfuBoundedCache {
+
+  private final class Shard[V <: AnyRef](capacity: Int) {
+    // W-TinyLFU: a small admission window in front of the main area
+    private val windowCapacity = math.max(1, capacity / 100)
+    private val mainCapacity = math.max(1, capacity - windowCapacity)
+
+    val entries = new ConcurrentHashMap[String, V](capacity * 2)
+
+    private val lock = new ReentrantLock
+    private val sketch = FrequencySketch[String](capacity)
+    private val window = RecencyList.empty[String]
+    private val main = RecencyList.empty[String]
+
+    /**
+     * Access of cached entry. Skipped if the shard is contended, since frequency and recency are
+     * approximations anyway.
+     */
+    def recordAccess(k: String): Unit =
+      if (lock.tryLock()) {
+        try {
+          sketch.increment(k)
+          if (window.contains(k)) window.update(k)
+          else if (main.contains(k)) main.update(k)
+        } finally lock.unlock()
+      }
+
+    def admit(k: String, v: V): Unit = {
+      lock.lock()
+      try {
+        sketch.increment(k)
+        if (!entries.containsKey(k)) {
+          entries.put(k, v)
+          window.update(k)
+          if (window.size > windowCapacity) {
+            window.leastRecent match {
+              case OptionVal.Some(candidate) =>
+                window.remove(candidate)
+                if (main.size < mainCapacity)
+                  main.update(candidate)
+                else
+                  main.leastRecent match {
+                    case OptionVal.Some(victim) =>
+                      if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+                        main.remove(victim)
+                        entries.remove(victim)
+                        main.update(candidate)
+                      } else {
+                        entries.remove(candidate)
+                      }
+                    case _ =>
+                      main.update(candidate)
+                  }
+              case _ =>
+            }
+          }
+        }
+      } finally lock.unlock()
+    }
+
+    def size: Int = entries.size
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Thread-safe bounded cache that can be shared by several streams, such as all inbound streams and lanes,
+ * contrary to the [[LruBoundedCache]] which must only be used by one thread at a time.
+ *
+ * Lookups of cached entries are lock free reads of a `ConcurrentHashMap`. The cache is divided into shards, each
+ * with its own lock guarding the eviction policy, which is W-TinyLFU: new entries are always admitted into a small
+ * LRU window, and when leaving the window an entry is only admitted into the main LRU area, evicting its least
+ * recently used entry, if it has been used more frequently than that entry according to a [[FrequencySketch]].
+ * That means that a burst of one-off keys doesn't evict the working set. Accesses of cached entries are only
+ * recorded in the policy if the lock of the shard is not contended.
+ *
+ * Note that the value may be computed more than once for the same key by concurrent callers.
+ */
+private[pekko] abstract class TinyLfuBoundedCache[V <: AnyRef](capacity: Int, shardCount: Int) {
+  import TinyLfuBoundedCache.Shard
+
+  require(capacity > 0, "Capacity must be larger than zero")
+  require(shardCount > 0 && (shardCount & (shardCount - 1)) == 0, "Number of shards must be power of two")
+  require(capacity >= shardCount, "Capacity must be larger than or equal to the number of shards")
+
+  private[this] val shardMask = shardCount - 1
+  private[this] val shards: Array[Shard[V]] = Array.fill(shardCount)(new Shard[V](capacity / shardCount))
+
+  private def shardFor(k: String): Shard[V] = {
+    val h = Unsafe.fastHash(k)
+    shards((h ^ (h >>> 16)) & shardMask)
+  }
+
+  final def get(k: String): Option[V] =
+    Option(shardFor(k).entries.get(k))
+
+  final def getOrCompute(k: String): V =
+    if (!isKeyCacheable(k)) {
+      compute(k)
+    } else {
+      val shard = shardFor(k)
+      val cached = shard.entries.get(k)
+      if (cached ne null) {
+        shard.recordAccess(k)
+        cached
+      } else {
+        val value = compute(k)
+        if (isCacheable(value)) shard.admit(k, value)
+        value
+      }
+    }
+
+  /**
+   * Number of cached entries
+   */
+  final def size: Int = {
+    var n = 0
+    var i = 0
+    while (i < shards.length) {
+      n += shards(i).size
+      i += 1
+    }
+    n
+  }
+
+  protected def compute(k: String): V
+
+  protected def isKeyCacheable(k: String): Boolean
+  protected def isCacheable(v: V): Boolean
+
+  override def toString: String = s"TinyLfuBoundedCache(capacity = $capacity, shards = $shardCount, size = $size)"
+}
@@ -387,6 +387,7 @@ private[remote] class ArteryAeronUdpTransport(_system: ExtendedActorSystem, _pro
 
       } else {
         val laneKillSwitch = KillSwitches.shared("laneKillSwitch")
+        val (lanePartitioner, lane) = inboundLanePartitionerAndSink(envelopeBufferPool)
         val laneSource: Source[InboundEnvelope, (AeronLifecycle, InboundCompressionAccess)] =
           aeronSource(OrdinaryStreamId, envelopeBufferPool, inboundChannel)
             .via(laneKillSwitch.flow)
@@ -399,14 +400,13 @@ private[remote] class ArteryAeronUdpTransport(_system: ExtendedActorSystem, _pro
             .toMat(
               Sink.fromGraph(
                 new FixedSizePartitionHub[InboundEnvelope](
-                  inboundLanePartitioner,
+                  lanePartitioner,
                   inboundLanes,
                   settings.Advanced.InboundHubBufferSize))) {
               case ((a, b), c) => (a, b, c)
             }
             .run()(materializer)
 
-        val lane = inboundSink(envelopeBufferPool)
         val completedValues: Vector[Future[Done]] =
           (0 until inboundLanes).iterator
             .map { _ =>
@@ -421,6 +421,7 @@ private[remote] class ArteryTcpTransport(
       } else {
         // TODO perhaps a few more things can be extracted and DRY with AeronUpdTransport.runInboundOrdinaryMessagesStream
         val laneKillSwitch = KillSwitches.shared("laneKillSwitch")
+        val (lanePartitioner, lane) = inboundLanePartitionerAndSink(envelopeBufferPool)
         val laneSource: Source[InboundEnvelope, (Sink[EnvelopeBuffer, NotUsed], InboundCompressionAccess)] =
           MergeHub
             .source[EnvelopeBuffer]
@@ -436,14 +437,13 @@ private[remote] class ArteryTcpTransport(
             .toMat(
               Sink.fromGraph(
                 new FixedSizePartitionHub[InboundEnvelope](
-                  inboundLanePartitioner,
+                  lanePartitioner,
                   inboundLanes,
                   settings.Advanced.InboundHubBufferSize))) {
               case ((a, b), c) => (a, b, c)
             }
             .run()(materializer)
 
-        val lane = inboundSink(envelopeBufferPool)
         val completedValues: Vector[Future[Done]] =
           (0 until inboundLanes).iterator
             .map { _ =>
@@ -82,15 +82,12 @@ private[pekko] final class ActorRefResolveCache(provider: RemoteActorRefProvider
 /**
  * INTERNAL API
  */
-private[pekko] abstract class AbstractActorRefResolveCache[R <: ActorRef: ClassTag]
-    extends LruBoundedCache[String, R](capacity = 1024, evictAgeThreshold = 600) {
+private[pekko] object AbstractActorRefResolveCache {
 
   /**
-   * Compared to `getOrCompute` this will also invalidate cachedAssociation of RemoteActorRef
-   * if the `Association` is removed.
+   * Invalidate cachedAssociation of RemoteActorRef if the `Association` is removed.
    */
-  def resolve(k: String): R = {
-    val ref = getOrCompute(k)
+  def invalidateRemovedAssociation(ref: ActorRef): Unit =
     ref match {
       case r: RemoteActorRef =>
         val cachedAssociation = r.cachedAssociation
@@ -98,6 +95,29 @@ private[pekko] abstract class AbstractActorRefResolveCache[R <: ActorRef: ClassT
           r.cachedAssociation = null
       case _ =>
     }
+
+  def isCacheable(ref: ActorRef): Boolean =
+    ref match {
+      case _: EmptyLocalActorRef => false
+      case _                     =>
+        // "temp" only for one request-response interaction so don't cache
+        !InternalActorRef.isTemporaryRef(ref)
+    }
+}
+
+/**
+ * INTERNAL API
+ */
+private[pekko] abstract class AbstractActorRefResolveCache[R <: ActorRef: ClassTag]
+    extends LruBoundedCache[String, R](capacity = 1024, evictAgeThreshold = 600) {
+
+  /**
+   * Compared to `getOrCompute` this will also invalidate cachedAssociation of RemoteActorRef
+   * if the `Association` is removed.
+   */
+  def resolve(k: String): R = {
+    val ref = getOrCompute(k)
+    AbstractActorRefResolveCache.invalidateRemovedAssociation(ref)
     ref
   }
 
@@ -107,10 +127,5 @@ private[pekko] abstract class AbstractActorRefResolveCache[R <: ActorRef: ClassT
 
   override protected def isKeyCacheable(k: String): Boolean = true
   override protected def isCacheable(ref: R): Boolean =
-    ref match {
-      case _: EmptyLocalActorRef => false
-      case _                     =>
-        // "temp" only for one request-response interaction so don't cache
-        !InternalActorRef.isTemporaryRef(ref)
-    }
+    AbstractActorRefResolveCache.isCacheable(ref)
 }
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.stream.scaladsl.Keep
+import pekko.stream.scaladsl.Source
+import pekko.stream.testkit.TestPublisher
+import pekko.stream.testkit.TestSubscriber
+import pekko.stream.testkit.scaladsl.TestSink
+import pekko.stream.testkit.scaladsl.TestSource
+import pekko.testkit.PekkoSpec
+
+class EnvelopeBatchSpec extends PekkoSpec("""
+      pekko.stream.materializer.debug.fuzzing-mode = on
+  """) {
+
+  private val pool = new EnvelopeBufferPool(64 * 1024, 16)
+
+  private def envelope(s: String): EnvelopeBuffer = {
+    val env = pool.acquire()
+    env.byteBuffer.put(EnvelopeBuffer.VersionOffset, ArteryTransport.HighestVersion)
+    env.byteBuffer.put(EnvelopeBuffer.FlagsOffset, 0.toByte)
+    env.byteBuffer.position(EnvelopeBuffer.FlagsOffset + 1)
+    env.byteBuffer.put(s.getBytes("US-ASCII"))
+    env.byteBuffer.flip()
+    env
+  }
+
+  private def content(env: EnvelopeBuffer): String = {
+    val bytes = new Array[Byte](env.byteBuffer.remaining - EnvelopeBuffer.FlagsOffset - 1)
+    env.byteBuffer.position(EnvelopeBuffer.FlagsOffset + 1)
+    env.byteBuffer.get(bytes)
+    new String(bytes, "US-ASCII")
+  }
+
+  private def setupBatcher(
+      maxBatchSize: Int = 1024,
+      maxMessageSize: Int = 100,
+      maxLinger: FiniteDuration = Duration.Zero)
+      : (TestPublisher.Probe[EnvelopeBuffer], TestSubscriber.Probe[EnvelopeBuffer]) =
+    TestSource
+      .probe[EnvelopeBuffer]
+      .via(new EnvelopeBatcher(pool, maxBatchSize, maxMessageSize, maxLinger))
+      .toMat(TestSink.probe[EnvelopeBuffer])(Keep.both)
+      .run()
+
+  "EnvelopeBatcher" must {
+
+    "pass single envelope without batch framing" in {
+      val (upstream, downstream) = setupBatcher()
+      downstream.request(1)
+      upstream.sendNext(envelope("a"))
+      val env = downstream.expectNext()
+      EnvelopeBatch.isBatch(env) should ===(false)
+      content(env) should ===("a")
+      upstream.sendComplete()
+      downstream.expectComplete()
+    }
+
+    "coalesce envelopes while downstream is backpressuring" in {
+      val (upstream, downstream) = setupBatcher()
+      upstream.sendNext(envelope("a"))
+      upstream.sendNext(envelope("b"))
+      upstream.sendNext(envelope("c"))
+      downstream.request(1)
+      val env = downstream.expectNext()
+      EnvelopeBatch.isBatch(env) should ===(true)
+      env.byteBuffer.getInt(EnvelopeBatch.CountOffset) should ===(3)
+      upstream.sendComplete()
+      downstream.expectComplete()
+    }
+
+    "emit pending envelopes when linger expires" in {
+      val (upstream, downstream) = setupBatcher(maxLinger = 100.millis)
+      downstream.request(1)
+      upstream.sendNext(envelope("a"))
+      upstream.sendNext(envelope("b"))
+      val env = downstream.expectNext(3.seconds)
+      env.byteBuffer.getInt(EnvelopeBatch.CountOffset) should ===(2)
+      upstream.sendComplete()
+      downstream.expectComplete()
+    }
+
+    "not coalesce large envelopes" in {
+      val (upstream, downstream) = setupBatcher(maxMessageSize = 10)
+      upstream.sendNext(envelope("a"))
+      upstream.sendNext(envelope("b" * 20))
+      downstream.request(2)
+      val env1 = downstream.expectNext()
+      EnvelopeBatch.isBatch(env1) should ===(false)
+      content(env1) should ===("a")
+      val env2 = downstream.expectNext()
+      EnvelopeBatch.isBatch(env2) should ===(false)
+      content(env2) should ===("b" * 20)
+      upstream.sendComplete()
+      downstream.expectComplete()
+    }
+  }
+
+  "EnvelopeUnbatcher" must {
+
+    "unpack batched envelopes in order" in {
+      val messages = (1 to 20).map(n => s"msg-$n") ++ List("x" * 40, "y")
+      val downstream = Source(messages.map(envelope))
+        .via(new EnvelopeBatcher(pool, maxBatchSize = 100, maxMessageSize = 30, maxLinger = Duration.Zero))
+        .via(new EnvelopeUnbatcher(pool))
+        .map(content)
+        .runWith(TestSink.probe[String])
+      downstream.request(100)
+      downstream.expectNextN(messages.size) should ===(messages)
+      downstream.expectComplete()
+    }
+
+    "unpack batched envelopes in heap buffers" in {
+      val (upstream, downstream) = TestSource
+        .probe[EnvelopeBuffer]
+        .via(new EnvelopeUnbatcher(pool))
+        .map(content)
+        .toMat(TestSink.probe[String])(Keep.both)
+        .run()
+      val (batchUp, batchDown) = setupBatcher()
+      batchUp.sendNext(envelope("a"))
+      batchUp.sendNext(envelope("b"))
+      batchDown.request(1)
+      val batch = batchDown.expectNext()
+      upstream.sendNext(batch.copy())
+      pool.release(batch)
+      downstream.request(2)
+      downstream.expectNext("a", "b")
+      upstream.sendComplete()
+      downstream.expectComplete()
+    }
+  }
+
+}
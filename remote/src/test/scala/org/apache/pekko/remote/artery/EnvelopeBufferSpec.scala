@@ -244,6 +244,64 @@ class EnvelopeBufferSpec extends PekkoSpec {
     }
   }
 
+  "EnvelopeBufferPool" must {
+
+    "acquire buffers of the smallest size class that fits" in {
+      val pool = new EnvelopeBufferPool(256 * 1024, 4)
+      pool.acquire(100).byteBuffer.capacity should ===(EnvelopeBufferPool.SmallBufferSize)
+      pool.acquire(EnvelopeBufferPool.SmallBufferSize).byteBuffer.capacity should ===(
+        EnvelopeBufferPool.SmallBufferSize)
+      pool.acquire(EnvelopeBufferPool.SmallBufferSize + 1).byteBuffer.capacity should ===(
+        EnvelopeBufferPool.MediumBufferSize)
+      pool.acquire(100 * 1024).byteBuffer.capacity should ===(256 * 1024)
+      pool.acquire().byteBuffer.capacity should ===(256 * 1024)
+      pool.acquire().byteBuffer.order() should ===(ByteOrder.LITTLE_ENDIAN)
+    }
+
+    "reuse released buffers in their size class" in {
+      val pool = new EnvelopeBufferPool(256 * 1024, 4)
+      val small = pool.acquire(100)
+      val large = pool.acquire()
+      pool.release(small)
+      pool.release(large)
+      (pool.acquire() should be).theSameInstanceAs(large)
+      (pool.acquire(200) should be).theSameInstanceAs(small)
+    }
+
+    "not use size classes larger than the maximum payload" in {
+      val pool = new EnvelopeBufferPool(16 * 1024, 4)
+      pool.acquire(100).byteBuffer.capacity should ===(EnvelopeBufferPool.SmallBufferSize)
+      pool.acquire(10 * 1024).byteBuffer.capacity should ===(16 * 1024)
+      pool.acquire().byteBuffer.capacity should ===(16 * 1024)
+    }
+  }
+
+  "ObjectPool" must {
+
+    "reuse released objects from the thread local magazine and the shared pool" in {
+      val pool = new ObjectPool[ReusableInboundEnvelope](
+        capacity = 2,
+        create = () => new ReusableInboundEnvelope,
+        clear = _.clear(),
+        magazineSize = 2)
+      val envelopes = Vector.fill(5)(pool.acquire())
+      // 2 in magazine, 2 in shared pool, last one dropped
+      envelopes.map(pool.release) should ===(Vector(false, false, false, false, true))
+      val reused = Vector.fill(4)(pool.acquire())
+      reused.toSet should ===(envelopes.take(4).toSet)
+    }
+
+    "clear released objects" in {
+      val pool = ReusableInboundEnvelope.createObjectPool(capacity = 2)
+      val env = pool.acquire()
+      env.withLane(1, 17L)
+      pool.release(env)
+      val reused = pool.acquire()
+      reused.lane should ===(0)
+      reused.laneSeqNr should ===(0L)
+    }
+  }
+
   def lengthOfSerializedActorRefPath(ref: ActorRef): Int =
     Serialization.serializedActorPath(ref).length
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import org.apache.pekko
+import pekko.actor.{ Actor, Props }
+import pekko.remote.{ RARP, RemoteActorRef }
+import pekko.testkit.JavaSerializable
+import pekko.testkit.TestProbe
+
+object HighPriorityLaneSpec {
+  final case class Ping(n: Int) extends JavaSerializable
+  final case class Urgent(n: Int) extends JavaSerializable
+  final case class Pong(msg: Any) extends JavaSerializable
+
+  class Echo extends Actor {
+    def receive = {
+      case msg => sender() ! Pong(msg)
+    }
+  }
+}
+
+class HighPriorityLaneSpec
+    extends ArteryMultiNodeSpec(s"""
+    pekko.remote.artery {
+      high-priority-message-destinations = [ "/user/priority*" ]
+      high-priority-message-classes = [ "${classOf[HighPriorityLaneSpec.Urgent].getName}" ]
+      large-message-destinations = [ "/user/large*" ]
+    }
+  """) {
+
+  import HighPriorityLaneSpec._
+
+  private val systemA = localSystem
+  private val systemB = newRemoteSystem()
+
+  private val highPriorityQueueIndex =
+    Association.OrdinaryQueueIndex + RARP(systemA).provider.remoteSettings.Artery.Advanced.OutboundLanes
+
+  "The high priority lane" should {
+
+    "be used for configured destinations" in {
+      val senderProbeA = TestProbe()(systemA)
+      systemB.actorOf(Props(new Echo), "priority1")
+
+      val priorityRemote = awaitResolve(systemA.actorSelection(rootActorPath(systemB) / "user" / "priority1"))
+      (1 to 100).foreach(n => priorityRemote.tell(Ping(n), senderProbeA.ref))
+      (1 to 100).foreach(n => senderProbeA.expectMsg(Pong(Ping(n))))
+
+      // flag should be cached now
+      priorityRemote.asInstanceOf[RemoteActorRef].cachedSendQueueIndex should ===(highPriorityQueueIndex)
+    }
+
+    "not be used for other destinations" in {
+      val senderProbeA = TestProbe()(systemA)
+      systemB.actorOf(Props(new Echo), "regular1")
+
+      val regularRemote = awaitResolve(systemA.actorSelection(rootActorPath(systemB) / "user" / "regular1"))
+      regularRemote.tell(Ping(1), senderProbeA.ref)
+      senderProbeA.expectMsg(Pong(Ping(1)))
+
+      regularRemote.asInstanceOf[RemoteActorRef].cachedSendQueueIndex should ===(Association.OrdinaryQueueIndex)
+    }
+
+    "deliver messages of configured classes interleaved with ordinary messages" in {
+      val senderProbeA = TestProbe()(systemA)
+      systemB.actorOf(Props(new Echo), "regular2")
+
+      val regularRemote = awaitResolve(systemA.actorSelection(rootActorPath(systemB) / "user" / "regular2"))
+      (1 to 100).foreach { n =>
+        regularRemote.tell(Ping(n), senderProbeA.ref)
+        regularRemote.tell(Urgent(n), senderProbeA.ref)
+      }
+      val received = senderProbeA.receiveN(200).collect { case Pong(msg) => msg }
+      // ordering is preserved within each lane
+      received.collect { case p: Ping => p } should ===((1 to 100).map(Ping.apply))
+      received.collect { case u: Urgent => u } should ===((1 to 100).map(Urgent.apply))
+    }
+
+    "not be used for messages of configured classes to large message destinations" in {
+      val senderProbeA = TestProbe()(systemA)
+      systemB.actorOf(Props(new Echo), "large1")
+
+      val largeRemote = awaitResolve(systemA.actorSelection(rootActorPath(systemB) / "user" / "large1"))
+      (1 to 10).foreach(n => largeRemote.tell(Urgent(n), senderProbeA.ref))
+      (1 to 10).foreach(n => senderProbeA.expectMsg(Pong(Urgent(n))))
+
+      largeRemote.asInstanceOf[RemoteActorRef].cachedSendQueueIndex should ===(Association.LargeQueueIndex)
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.actor.InternalActorRef
+import pekko.testkit.PekkoSpec
+import pekko.testkit.TestProbe
+import pekko.util.OptionVal
+
+class InboundLaneBalancerSpec extends PekkoSpec {
+
+  private val lanes = 2
+  private val originUid = 17L
+
+  private def newBalancer(queueSizeThreshold: Int = 4): InboundLaneBalancer =
+    new InboundLaneBalancer(lanes, queueSizeThreshold, 1.second, NoOpRemotingFlightRecorder)
+
+  private def envelope(recipient: InternalActorRef): InboundEnvelope =
+    new ReusableInboundEnvelope()
+      .init(OptionVal.Some(recipient), OptionVal.None, originUid, -1, "", 0, null, OptionVal.None, lane = 0)
+
+  private def hashLane(ref: InternalActorRef): Int =
+    math.abs(ArteryTransport.inboundLaneHash(ref.path.uid, originUid) % lanes)
+
+  private def newRecipient(): InternalActorRef =
+    TestProbe().ref.asInstanceOf[InternalActorRef]
+
+  private def recipientsWithHashLane(lane: Int, n: Int): Vector[InternalActorRef] =
+    Iterator.continually(newRecipient()).filter(hashLane(_) == lane).take(n).toVector
+
+  "InboundLaneBalancer" must {
+
+    "use the hash lane of the recipient when not overloaded" in {
+      val balancer = newBalancer()
+      (1 to 10).foreach { _ =>
+        val ref = newRecipient()
+        balancer.partition(envelope(ref)) should ===(hashLane(ref))
+      }
+    }
+
+    "tag envelopes with lane and sequence number" in {
+      val balancer = newBalancer()
+      val ref = newRecipient()
+      val env1 = envelope(ref)
+      val env2 = envelope(ref)
+      val lane = balancer.partition(env1)
+      balancer.partition(env2) should ===(lane)
+      env1.lane should ===(lane)
+      env1.laneSeqNr should ===(1L)
+      env2.lane should ===(lane)
+      env2.laneSeqNr should ===(2L)
+      balancer.queueSize(lane) should ===(2L)
+      balancer.delivered(lane, env2.laneSeqNr)
+      balancer.queueSize(lane) should ===(0L)
+    }
+
+    "keep the lane of a recipient with messages in flight" in {
+      val balancer = newBalancer()
+      val Vector(hot) = recipientsWithHashLane(0, 1)
+      (1 to 20).foreach { _ =>
+        balancer.partition(envelope(hot)) should ===(0)
+      }
+      balancer.queueSize(0) should ===(20L)
+      balancer.queueSize(1) should ===(0L)
+    }
+
+    "move recipient to a less loaded lane when all its messages have been delivered" in {
+      val balancer = newBalancer()
+      val Vector(hot, other) = recipientsWithHashLane(0, 2)
+
+      val hotEnvelopes = (1 to 5).map(_ => envelope(hot))
+      hotEnvelopes.foreach(env => balancer.partition(env) should ===(0))
+      (1 to 10).foreach(_ => balancer.partition(envelope(other)) should ===(0))
+
+      // lane 0 is overloaded, but not all messages of hot have been delivered
+      balancer.partition(envelope(hot)) should ===(0)
+
+      // all messages of hot delivered, but lane 0 is overloaded by new messages of other
+      balancer.delivered(0, 16L)
+      (1 to 10).foreach(_ => balancer.partition(envelope(other)) should ===(0))
+      balancer.partition(envelope(hot)) should ===(1)
+      // and then stays in the new lane
+      balancer.partition(envelope(hot)) should ===(1)
+    }
+
+    "not count received envelopes that were dropped as queued" in {
+      val balancer = newBalancer()
+      val Vector(hot, other) = recipientsWithHashLane(0, 2)
+
+      (1 to 5).foreach(_ => balancer.partition(envelope(hot)) should ===(0))
+      // the lane took all envelopes and dropped the last one
+      balancer.received(0, 5L)
+      balancer.delivered(0, 4L)
+      balancer.queueSize(0) should ===(0L)
+
+      // lane 0 is overloaded, but the last message of hot has not been delivered
+      (1 to 10).foreach(_ => balancer.partition(envelope(other)) should ===(0))
+      balancer.queueSize(0) should ===(10L)
+      balancer.partition(envelope(hot)) should ===(0)
+    }
+  }
+
+}
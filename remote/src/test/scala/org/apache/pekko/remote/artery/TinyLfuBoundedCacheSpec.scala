@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.Await
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.testkit.PekkoSpec
+
+class TinyLfuBoundedCacheSpec extends PekkoSpec {
+
+  class TestCache(_capacity: Int, _shardCount: Int = 1)
+      extends TinyLfuBoundedCache[String](_capacity, _shardCount) {
+    val computeCount = new AtomicInteger
+
+    override protected def compute(k: String): String =
+      k + ":" + computeCount.getAndIncrement()
+
+    override protected def isCacheable(v: String): Boolean = !v.startsWith("#")
+    override protected def isKeyCacheable(k: String): Boolean = !k.startsWith("!")
+
+    def expectComputed(key: String, value: String): Unit = {
+      get(key) should ===(None)
+      getOrCompute(key) should ===(value)
+      get(key) should ===(Some(value))
+    }
+
+    def expectCached(key: String, value: String): Unit = {
+      get(key) should ===(Some(value))
+      getOrCompute(key) should ===(value)
+      get(key) should ===(Some(value))
+    }
+
+    def expectComputedOnly(key: String, value: String): Unit = {
+      get(key) should ===(None)
+      getOrCompute(key) should ===(value)
+      get(key) should ===(None)
+    }
+  }
+
+  "TinyLfuBoundedCache" must {
+
+    "work in the happy case" in {
+      val cache = new TestCache(4)
+
+      cache.expectComputed("A", "A:0")
+      cache.expectComputed("B", "B:1")
+      cache.expectComputed("C", "C:2")
+      cache.expectComputed("D", "D:3")
+
+      cache.expectCached("A", "A:0")
+      cache.expectCached("B", "B:1")
+      cache.expectCached("C", "C:2")
+      cache.expectCached("D", "D:3")
+    }
+
+    "not cache noncacheable keys and values" in {
+      val cache = new TestCache(4)
+
+      cache.expectComputedOnly("!A", "!A:0")
+      cache.expectComputedOnly("!A", "!A:1")
+      cache.expectComputedOnly("#B", "#B:2")
+      cache.expectComputedOnly("#B", "#B:3")
+
+      cache.expectComputed("C", "C:4")
+      cache.expectCached("C", "C:4")
+    }
+
+    "be bounded by the capacity" in {
+      val cache = new TestCache(64, 4)
+
+      (1 to 1000).foreach(n => cache.getOrCompute(s"key-$n"))
+      cache.size should be <= 64
+    }
+
+    "keep frequently used entries when scanned by one-off keys" in {
+      val cache = new TestCache(100)
+      val hotKeys = (1 to 20).map(n => s"hot-$n")
+
+      (1 to 10).foreach(_ => hotKeys.foreach(cache.getOrCompute))
+      val computedHot = cache.computeCount.get
+      computedHot should ===(hotKeys.size)
+
+      (1 to 1000).foreach(n => cache.getOrCompute(s"cold-$n"))
+
+      hotKeys.foreach(k => cache.get(k) should !==(None))
+      cache.size should be <= 100
+    }
+
+    "be safe to use concurrently" in {
+      import system.dispatcher
+      val cache = new TestCache(128, 8)
+
+      val results = Future.sequence((1 to 8).map { _ =>
+        Future {
+          (1 to 10000).forall { n =>
+            val key = s"key-${n % 300}"
+            cache.getOrCompute(key).startsWith(key + ":")
+          }
+        }
+      })
+
+      Await.result(results, 10.seconds).forall(identity) should ===(true)
+      cache.size should be <= 128
+    }
+  }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.serialization.jackson
+
+import java.nio.ByteBuffer
+
+import scala.annotation.tailrec
+import scala.util.control.NonFatal
+
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.core.async.ByteBufferFeeder
+import com.fasterxml.jackson.core.io.JsonEOFException
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.util.TokenBuffer
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.actor.ClassicActorSystemProvider
+import pekko.annotation.InternalApi
+import pekko.stream.Attributes
+import pekko.stream.FlowShape
+import pekko.stream.Inlet
+import pekko.stream.Outlet
+import pekko.stream.javadsl
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.Framing.FramingException
+import pekko.stream.scaladsl.JsonFraming
+import pekko.stream.stage.GraphStage
+import pekko.stream.stage.GraphStageLogic
+import pekko.stream.stage.InHandler
+import pekko.stream.stage.OutHandler
+import pekko.util.ByteString
+
+/**
+ * Decodes a stream of JSON text into objects with the non-blocking parser of Jackson. Unlike
+ * [[pekko.stream.scaladsl.JsonFraming.objectScanner]] followed by an `ObjectMapper`, the bytes are only
+ * scanned once, and a value that arrives in many chunks is tokenized as the chunks arrive.
+ *
+ * Every value at the root of the stream is decoded, and the values may be separated by whitespace.
+ * The elements of an array at the root are decoded one by one, so that very large arrays can be streamed.
+ * JSON `null` values are skipped.
+ *
+ * If the stream completes in the middle of a value the stream is failed with a
+ * [[pekko.stream.scaladsl.JsonFraming.PartialObjectException]], and invalid JSON fails it with the
+ * exception of Jackson. Like with `JsonFraming.objectScanner`, a value that is longer than `maximumObjectLength`
+ * bytes fails the stream with a [[pekko.stream.scaladsl.Framing.FramingException]], so that the tokens kept
+ * for an incomplete value are bounded.
+ */
+object JsonStreamParser {
+
+  /**
+   * Scala API: Decodes the values with `mapper`.
+   *
+   * @param maximumObjectLength The maximum length of a value in bytes, the stream fails if a value is longer
+   */
+  def objects[T](mapper: ObjectMapper, clazz: Class[T], maximumObjectLength: Int): Flow[ByteString, T, NotUsed] =
+    Flow.fromGraph(new JsonStreamParserStage(mapper, clazz, maximumObjectLength))
+
+  /**
+   * Scala API: Decodes the values with the `ObjectMapper` of the `jackson-json` binding.
+   *
+   * @param maximumObjectLength The maximum length of a value in bytes, the stream fails if a value is longer
+   */
+  def objects[T](
+      system: ClassicActorSystemProvider,
+      clazz: Class[T],
+      maximumObjectLength: Int): Flow[ByteString, T, NotUsed] =
+    objects(JacksonObjectMapperProvider(system).getOrCreate("jackson-json", None), clazz, maximumObjectLength)
+
+  /**
+   * Java API: Decodes the values with `mapper`.
+   *
+   * @param maximumObjectLength The maximum length of a value in bytes, the stream fails if a value is longer
+   */
+  def create[T](mapper: ObjectMapper, clazz: Class[T], maximumObjectLength: Int): javadsl.Flow[ByteString, T, NotUsed] =
+    objects(mapper, clazz, maximumObjectLength).asJava
+
+  /**
+   * Java API: Decodes the values with the `ObjectMapper` of the `jackson-json` binding.
+   *
+   * @param maximumObjectLength The maximum length of a value in bytes, the stream fails if a value is longer
+   */
+  def create[T](
+      system: ClassicActorSystemProvider,
+      clazz: Class[T],
+      maximumObjectLength: Int): javadsl.Flow[ByteString, T, NotUsed] =
+    objects(system, clazz, maximumObjectLength).asJava
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi private[pekko] final class JsonStreamParserStage[T](
+    mapper: ObjectMapper,
+    clazz: Class[T],
+    maximumObjectLength: Int)
+    extends GraphStage[FlowShape[ByteString, T]] {
+  val in = Inlet[ByteString]("JsonStreamParser.in")
+  val out = Outlet[T]("JsonStreamParser.out")
+  override val shape: FlowShape[ByteString, T] = FlowShape(in, out)
+
+  override protected def initialAttributes: Attributes = Attributes.name("jsonStreamParser")
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new GraphStageLogic(shape) with InHandler with OutHandler {
+      private val parser = new JsonValueParser(mapper, clazz, maximumObjectLength)
+
+      setHandlers(in, out, this)
+
+      override def onPush(): Unit = {
+        parser.offer(grab(in))
+        tryPush()
+      }
+
+      override def onPull(): Unit =
+        tryPush()
+
+      override def onUpstreamFinish(): Unit = {
+        parser.endOfInput()
+        if (isAvailable(out)) tryPush()
+      }
+
+      private def tryPush(): Unit =
+        try parser.poll() match {
+            case Some(value) => push(out, value)
+            case None =>
+              if (!isClosed(in)) pull(in)
+              else if (parser.canComplete) completeStage()
+              else failStage(new JsonFraming.PartialObjectException)
+          }
+        catch {
+          // thrown by Jackson when the input ends in the middle of a value
+          case _: JsonEOFException => failStage(new JsonFraming.PartialObjectException)
+          case NonFatal(ex)        => failStage(ex)
+        }
+    }
+
+  override def toString: String = "JsonStreamParser"
+}
+
+/**
+ * INTERNAL API
+ *
+ * Feeds chunks of JSON text to a non-blocking parser and decodes the values at the root, or the elements
+ * of arrays at the root, once all their tokens have arrived. The tokens of an incomplete value are kept
+ * in a `TokenBuffer`. The chunks are fed as the `ByteBuffer`s of the `ByteString`, without copying them.
+ *
+ * A value longer than `maximumObjectLength` bytes throws a `FramingException`. The length is checked for every
+ * token and whenever the parser needs more input, so a value in progress, or a long token the parser is still
+ * collecting, is not kept beyond that length plus the size of the last chunk.
+ */
+@InternalApi private[pekko] final class JsonValueParser[T](
+    mapper: ObjectMapper,
+    clazz: Class[T],
+    maximumObjectLength: Int = Int.MaxValue) {
+  private val parser = mapper.getFactory.createNonBlockingByteBufferParser()
+  private val feeder = parser.getNonBlockingInputFeeder.asInstanceOf[ByteBufferFeeder]
+
+  private var input: Iterator[ByteBuffer] = Iterator.empty
+  private var inputEnded = false
+  private var endOfInputFed = false
+
+  // the tokens of the value that is being parsed, null between values
+  private var tokens: TokenBuffer = null
+  private var depth = 0
+  private var inRootArray = false
+  // the byte offsets of the start of the value that is being parsed and of the end of the previous one
+  private var valueStart = 0L
+  private var previousEnd = 0L
+
+  def offer(bytes: ByteString): Unit =
+    if (bytes.nonEmpty) {
+      val buffers = bytes.asByteBuffers.iterator
+      input = if (input.hasNext) input ++ buffers else buffers
+    }
+
+  /**
+   * No more input will be offered, the remaining values can be polled.
+   */
+  def endOfInput(): Unit = inputEnded = true
+
+  /**
+   * The next value, or `None` if more input is needed.
+   */
+  @tailrec def poll(): Option[T] = {
+    val token = parser.nextToken()
+    if (token eq JsonToken.NOT_AVAILABLE) {
+      checkLength()
+      if (input.hasNext) {
+        feeder.feedInput(input.next())
+        poll()
+      } else if (inputEnded && !endOfInputFed) {
+        endOfInputFed = true
+        feeder.endOfInput()
+        poll()
+      } else None
+    } else if (token eq null) None
+    else {
+      val value = onToken(token)
+      if (value == null) poll() else Some(value)
+    }
+  }
+
+  /**
+   * There is no incomplete value.
+   */
+  def canComplete: Boolean = (tokens eq null) && !inRootArray
+
+  // the decoded value, or null if the value isn't complete yet or was JSON null
+  private def onToken(token: JsonToken): T =
+    if (tokens ne null) append(token)
+    else if ((token eq JsonToken.START_ARRAY) && !inRootArray) {
+      inRootArray = true
+      previousEnd = parser.currentLocation().getByteOffset
+      null.asInstanceOf[T]
+    } else if ((token eq JsonToken.END_ARRAY) && inRootArray) {
+      inRootArray = false
+      previousEnd = parser.currentLocation().getByteOffset
+      null.asInstanceOf[T]
+    } else {
+      tokens = new TokenBuffer(parser)
+      depth = 0
+      valueStart = parser.currentTokenLocation().getByteOffset
+      append(token)
+    }
+
+  private def append(token: JsonToken): T = {
+    tokens.copyCurrentEvent(parser)
+    checkLength()
+    if (token.isStructStart) depth += 1
+    else if (token.isStructEnd) depth -= 1
+    if (depth == 0) {
+      val complete = tokens
+      tokens = null
+      previousEnd = parser.currentLocation().getByteOffset
+      mapper.readValue(complete.asParser(), clazz)
+    } else null.asInstanceOf[T]
+  }
+
+  // before the first token of a value the bytes since the previous value are counted, as they may be
+  // the start of a long token
+  private def checkLength(): Unit = {
+    val start = if (tokens ne null) valueStart else previousEnd
+    if (parser.currentLocation().getByteOffset - start > maximumObjectLength)
+      throw new FramingException(s"JSON element exceeded maximumObjectLength ($maximumObjectLength bytes)!")
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.serialization.jackson
+
+import com.fasterxml.jackson.core.JsonParseException
+import com.fasterxml.jackson.databind.JsonNode
+
+import org.apache.pekko
+import pekko.stream.scaladsl.Framing
+import pekko.stream.scaladsl.JsonFraming
+import pekko.stream.scaladsl.Sink
+import pekko.stream.scaladsl.Source
+import pekko.testkit.PekkoSpec
+import pekko.util.ByteString
+
+object JsonStreamParserSpec {
+  final case class Person(name: String, age: Int)
+}
+
+class JsonStreamParserSpec extends PekkoSpec {
+  import JsonStreamParserSpec.Person
+
+  private def parse[T](clazz: Class[T], chunks: String*): Seq[T] =
+    Source(chunks.toList)
+      .map(ByteString(_))
+      .via(JsonStreamParser.objects(system, clazz, maximumObjectLength = 1024))
+      .runWith(Sink.seq)
+      .futureValue
+
+  private val people = List(Person("Frank", 42), Person("Bob", 21), Person("Hank", 7))
+
+  private val json = """{"name":"Frank","age":42} {"name":"Bob","age":21}""" + "\n" + """{"name":"Hank","age":7}"""
+
+  "JsonStreamParser" must {
+
+    "decode values separated by whitespace" in {
+      parse(classOf[Person], json) should ===(people)
+    }
+
+    "decode the elements of an array at the root" in {
+      parse(classOf[Person], "[" + json.replace("} {", "},{").replace("}\n{", "},{") + "]") should ===(people)
+      parse(classOf[Integer], "[1, 2, 3]", " [4] 5") should ===(List[Integer](1, 2, 3, 4, 5))
+    }
+
+    "decode values that arrive in chunks of any size" in {
+      for (size <- 1 to 10) {
+        parse(classOf[Person], json.grouped(size).toSeq: _*) should ===(people)
+      }
+    }
+
+    "decode nested arrays and objects as trees" in {
+      val nodes = parse(classOf[JsonNode], """[{"a":[1,{"b":"]}"}]},[true]]""")
+      nodes.map(_.toString) should ===(List("""{"a":[1,{"b":"]}"}]}""", "[true]"))
+    }
+
+    "skip null values" in {
+      parse(classOf[Person], """[{"name":"Frank","age":42},null]""") should ===(List(people.head))
+    }
+
+    "fail if the stream completes in the middle of a value" in {
+      Source
+        .single(ByteString("""{"name":"Frank","age":42} {"name":"Bob""""))
+        .via(JsonStreamParser.objects(system, classOf[Person], maximumObjectLength = 1024))
+        .runWith(Sink.seq)
+        .failed
+        .futureValue shouldBe a[JsonFraming.PartialObjectException]
+    }
+
+    "fail on invalid JSON" in {
+      Source
+        .single(ByteString("""{"name":"Frank","age":42} {"name"}"""))
+        .via(JsonStreamParser.objects(system, classOf[Person], maximumObjectLength = 1024))
+        .runWith(Sink.seq)
+        .failed
+        .futureValue shouldBe a[JsonParseException]
+    }
+
+    "fail if a value is longer than maximumObjectLength" in {
+      Source(List(ByteString(json.take(30)), ByteString(json.drop(30))))
+        .via(JsonStreamParser.objects(system, classOf[Person], maximumObjectLength = 24))
+        .runWith(Sink.seq)
+        .failed
+        .futureValue shouldBe a[Framing.FramingException]
+
+      Source
+        .single(ByteString(json))
+        .via(JsonStreamParser.objects(system, classOf[Person], maximumObjectLength = 25))
+        .runWith(Sink.seq)
+        .futureValue should ===(people)
+    }
+
+    "fail if a value that never ends grows beyond maximumObjectLength" in {
+      Source
+        .single(ByteString("""{"name":""""))
+        .concat(Source.repeat(ByteString("x" * 100)))
+        .via(JsonStreamParser.objects(system, classOf[Person], maximumObjectLength = 1024))
+        .runWith(Sink.seq)
+        .failed
+        .futureValue shouldBe a[Framing.FramingException]
+    }
+  }
+}
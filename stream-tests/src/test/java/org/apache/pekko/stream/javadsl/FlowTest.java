@@ -997,6 +997,36 @@ public class FlowTest extends StreamTest {
     probe.expectMsgEquals("2C");
   }
 
+  @Test
+  public void mustBeAbleToUseMapParallel() throws Exception {
+    final Flow<Integer, Integer, NotUsed> flow =
+        Flow.of(Integer.class).mapParallel(3, elem -> elem * 2);
+    final List<Integer> result =
+        Source.from(Arrays.asList(1, 2, 3, 4, 5))
+            .via(flow)
+            .runWith(Sink.seq(), system)
+            .toCompletableFuture()
+            .get(3, TimeUnit.SECONDS);
+    assertEquals(Arrays.asList(2, 4, 6, 8, 10), result);
+  }
+
+  @Test
+  public void mustBeAbleToUseMapParallelPartitioned() throws Exception {
+    final Flow<String, String, NotUsed> flow =
+        Flow.of(String.class)
+            .mapParallelPartitioned(3, elem -> elem.substring(0, 1), String::toUpperCase);
+    final List<String> result =
+        Source.from(Arrays.asList("1a", "2c", "1b"))
+            .via(flow)
+            .runWith(Sink.seq(), system)
+            .toCompletableFuture()
+            .get(3, TimeUnit.SECONDS);
+    assertEquals(
+        Arrays.asList("1A", "1B"),
+        result.stream().filter(s -> s.startsWith("1")).collect(Collectors.toList()));
+    assertTrue(result.contains("2C"));
+  }
+
   @Test
   public void mustBeAbleToUseCollect() {
     Source.from(Arrays.asList(1, 2, 3, 4, 5))
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.apache.pekko
+import pekko.stream.StreamInstrumentation.Island
+import pekko.stream.StreamInstrumentation.IslandProbe
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.Keep
+import pekko.stream.scaladsl.Sink
+import pekko.stream.scaladsl.Source
+import pekko.stream.testkit.StreamSpec
+import pekko.util.ccompat.JavaConverters._
+
+object StreamInstrumentationSpec {
+
+  class RecordingInstrumentation extends StreamInstrumentation {
+    val islands = new ConcurrentLinkedQueue[Island]()
+    val pushes = new AtomicInteger
+    val pulls = new AtomicInteger
+    val batches = new AtomicInteger
+    val stopped = new AtomicInteger
+
+    override def islandStarted(island: Island): IslandProbe = {
+      islands.add(island)
+      new IslandProbe {
+        override def onPush(connection: Int, operator: Int, startNanos: Long, endNanos: Long): Unit = {
+          require(connection < island.connections && operator < island.operators.size && startNanos <= endNanos)
+          pushes.incrementAndGet()
+        }
+        override def onPull(connection: Int, operator: Int, startNanos: Long, endNanos: Long): Unit = {
+          require(connection < island.connections && operator < island.operators.size && startNanos <= endNanos)
+          pulls.incrementAndGet()
+        }
+        override def onBatch(events: Int, startNanos: Long, endNanos: Long): Unit =
+          batches.incrementAndGet()
+        override def islandStopped(): Unit =
+          stopped.incrementAndGet()
+      }
+    }
+  }
+}
+
+class StreamInstrumentationSpec extends StreamSpec {
+  import StreamInstrumentationSpec._
+
+  "Stream instrumentation" must {
+
+    "measure the operators of a stream with the attribute" in {
+      val instrumentation = new RecordingInstrumentation
+      Source(1 to 10)
+        .via(Flow[Int].map(_ * 2).named("double"))
+        .toMat(Sink.seq)(Keep.right)
+        .withAttributes(ActorAttributes.instrumentation(instrumentation))
+        .run()
+        .futureValue should ===(2 to 20 by 2)
+
+      awaitAssert(instrumentation.stopped.get should ===(1))
+      instrumentation.islands.asScala.toList.flatMap(_.operators) should contain("double")
+      // the map and the sink get every element pushed
+      instrumentation.pushes.get should be >= 20
+      instrumentation.pulls.get should be >= 20
+      instrumentation.batches.get should be > 0
+    }
+
+    "not measure streams without the attribute" in {
+      val instrumentation = new RecordingInstrumentation
+      Source(1 to 10).map(_ * 2).runWith(Sink.ignore).futureValue
+      Source(1 to 10)
+        .map(_ * 2)
+        .toMat(Sink.ignore)(Keep.right)
+        .withAttributes(ActorAttributes.instrumentation(instrumentation))
+        .run()
+        .futureValue
+
+      awaitAssert(instrumentation.stopped.get should ===(1))
+      instrumentation.islands.size should ===(1)
+    }
+
+    "measure every island of a stream run by a materializer with the attribute" in {
+      val instrumentation = new RecordingInstrumentation
+      val mat = Materializer(system, ActorAttributes.instrumentation(instrumentation))
+      try {
+        Source(1 to 10).map(_ * 2).async.map(_ + 1).runWith(Sink.ignore)(mat).futureValue
+        awaitAssert(instrumentation.stopped.get should ===(2))
+        instrumentation.islands.size should ===(2)
+      } finally mat.shutdown()
+    }
+
+    "collect metrics per operator with the default instrumentation" in {
+      val instrumentation = DefaultStreamInstrumentation(system)
+      Source(1 to 100)
+        .via(Flow[Int].map(_ * 2).named("double"))
+        .via(Flow[Int].filter(_ % 3 == 0).named("multiplesOfThree"))
+        .toMat(Sink.ignore)(Keep.right)
+        .withAttributes(ActorAttributes.instrumentation(instrumentation))
+        .run()
+        .futureValue
+
+      val double = instrumentation.operatorMetrics("double")
+      double.pushes should ===(100L)
+      double.pushLatency.count should ===(100L)
+      double.pulls should be >= 100L
+      double.pullLatency.count should ===(double.pulls)
+      instrumentation.operatorMetrics("multiplesOfThree").pushes should ===(100L)
+      instrumentation.operatorMetrics.map(_.operator) should contain allOf ("double", "multiplesOfThree")
+      instrumentation.operatorMetrics("unknown") should ===(null)
+    }
+
+    "report percentiles as the upper bound of power of two buckets" in {
+      val histogram = new DefaultStreamInstrumentation.LatencyHistogram
+      histogram.percentile(0.5) should ===(0L)
+      (1 to 90).foreach(_ => histogram.record(100))
+      (1 to 10).foreach(_ => histogram.record(5000))
+      histogram.count should ===(100L)
+      histogram.percentile(0.5) should ===(127L)
+      histogram.percentile(0.9) should ===(127L)
+      histogram.percentile(0.95) should ===(8191L)
+      histogram.percentile(1.0) should ===(8191L)
+    }
+  }
+}
@@ -33,6 +33,7 @@ import pekko.stream.testkit.StreamSpec
 import pekko.stream.testkit.TestPublisher
 import pekko.stream.testkit.TestSubscriber
 import pekko.stream.testkit.Utils._
+import pekko.stream.testkit.scaladsl.TestSink
 import pekko.testkit.EventFilter
 import pekko.testkit.TestLatch
 
@@ -463,6 +464,28 @@ class ActorGraphInterpreterSpec extends StreamSpec {
       propagatedError shouldBe an[AbruptTerminationException]
     }
 
+    "pass all elements across async boundaries in order before completing" in {
+      for (bufferSize <- List(1, 2, 16)) {
+        Source(1 to 10000)
+          .map(identity)
+          .async
+          .map(identity)
+          .async
+          .addAttributes(Attributes.inputBuffer(bufferSize, bufferSize))
+          .runWith(Sink.seq)
+          .futureValue should ===(1 to 10000)
+      }
+    }
+
+    "pass elements across an async boundary to a slow downstream" in {
+      val downstream = Source(1 to 100).async.runWith(TestSink.probe[Int])
+      for (n <- 1 to 100) {
+        if (n % 10 == 0) Thread.sleep(5)
+        downstream.requestNext(n)
+      }
+      downstream.request(1).expectComplete()
+    }
+
     // reproduces #24719
     "not allow a second subscriber" in {
       val done = Promise[Done]()
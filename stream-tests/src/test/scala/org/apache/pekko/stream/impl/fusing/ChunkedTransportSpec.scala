@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.fusing
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import scala.collection.immutable
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.stream.ActorAttributes
+import pekko.stream.Attributes
+import pekko.stream.FlowShape
+import pekko.stream.Inlet
+import pekko.stream.Outlet
+import pekko.stream.Supervision
+import pekko.stream.impl.fusing.ChunkedTransport.{ Chunk, ChunkAwareStage, ChunkOp }
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.Keep
+import pekko.stream.scaladsl.Sink
+import pekko.stream.scaladsl.Source
+import pekko.stream.testkit.StreamSpec
+import pekko.stream.testkit.Utils.TE
+import pekko.stream.stage.GraphStage
+import pekko.stream.stage.GraphStageLogic
+import pekko.stream.stage.InHandler
+import pekko.stream.stage.OutHandler
+import pekko.stream.testkit.scaladsl.TestSink
+import pekko.stream.testkit.scaladsl.TestSource
+import pekko.util.ccompat.JavaConverters._
+
+object ChunkedTransportSpec {
+
+  // passes the elements through and records the sizes of the chunks that it receives
+  final class RecordChunkSizes(sizes: ConcurrentLinkedQueue[Int])
+      extends GraphStage[FlowShape[Int, Int]]
+      with ChunkAwareStage {
+    val in: Inlet[Int] = Inlet("RecordChunkSizes.in")
+    val out: Outlet[Int] = Outlet("RecordChunkSizes.out")
+    override val shape: FlowShape[Int, Int] = FlowShape(in, out)
+
+    override def createChunkOp(inheritedAttributes: Attributes): ChunkOp =
+      new ChunkOp {
+        override def apply(input: Chunk, output: Chunk): Unit = {
+          sizes.add(input.size)
+          var i = 0
+          while (i < input.size) {
+            output.add(input(i))
+            i += 1
+          }
+        }
+      }
+
+    override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+      new GraphStageLogic(shape) with InHandler with OutHandler {
+        override def onPush(): Unit = push(out, grab(in))
+        override def onPull(): Unit = pull(in)
+        setHandlers(in, out, this)
+      }
+  }
+}
+
+class ChunkedTransportSpec extends StreamSpec {
+  import ChunkedTransportSpec._
+
+  private val chunked = ActorAttributes.chunkedTransport(true)
+
+  private val chain: Flow[Int, immutable.Seq[Int], NotUsed] =
+    Flow[Int]
+      .mapConcat(n => List(n, n + 1000))
+      .map(_ * 2)
+      .filter(_ % 3 != 0)
+      .collect { case n if n % 5 != 0 => n + 1 }
+      .grouped(7)
+      .mapConcat(identity)
+      .grouped(3)
+
+  "Chunked transport" must {
+
+    "produce the same elements as element by element transport" in {
+      val expected = Source(1 to 1000).via(chain).runWith(Sink.seq).futureValue
+      Source(1 to 1000).via(chain.addAttributes(chunked)).runWith(Sink.seq).futureValue should ===(expected)
+    }
+
+    "fall back to element by element transport at async boundaries" in {
+      val expected = Source(1 to 1000).via(chain).runWith(Sink.seq).futureValue
+      Source(1 to 1000)
+        .via(Flow[Int].map(_ + 1).map(_ - 1).async.via(chain).addAttributes(chunked))
+        .runWith(Sink.seq)
+        .futureValue should ===(expected)
+    }
+
+    "pass several elements per chunk" in {
+      val sizes = new ConcurrentLinkedQueue[Int]
+      Source(1 to 1000)
+        .map(_ + 1)
+        .via(new RecordChunkSizes(sizes))
+        .addAttributes(chunked)
+        .runWith(Sink.seq)
+        .futureValue should ===(2 to 1001)
+      sizes.asScala.sum should ===(1000)
+      sizes.asScala.max should be > 1
+    }
+
+    "pass collected elements on when upstream has no more available" in {
+      val (upstream, downstream) = TestSource
+        .probe[Int]
+        .map(_ + 1)
+        .map(_ * 2)
+        .addAttributes(chunked)
+        .toMat(TestSink.probe[Int])(Keep.both)
+        .run()
+      downstream.request(5)
+      upstream.sendNext(1)
+      downstream.expectNext(4)
+      upstream.sendNext(2)
+      downstream.expectNext(6)
+      upstream.sendComplete()
+      downstream.expectComplete()
+    }
+
+    "keep mapConcat lazy" in {
+      Source
+        .single(1)
+        .mapConcat(_ => Iterator.from(1))
+        .map(_ * 2)
+        .addAttributes(chunked)
+        .take(5)
+        .runWith(Sink.seq)
+        .futureValue should ===(List(2, 4, 6, 8, 10))
+    }
+
+    "respect backpressure of downstream" in {
+      Source(1 to 3)
+        .mapConcat(n => List.fill(10)(n))
+        .map(_ + 1)
+        .addAttributes(chunked)
+        .runWith(TestSink.probe[Int])
+        .request(2)
+        .expectNext(2, 2)
+        .expectNoMessage()
+        .request(30)
+        .expectNextN(28) should ===(List.fill(8)(2) ++ List.fill(10)(3) ++ List.fill(10)(4))
+    }
+
+    "emit remaining grouped elements when upstream completes" in {
+      Source(1 to 10)
+        .map(identity)
+        .grouped(4)
+        .addAttributes(chunked)
+        .runWith(Sink.seq)
+        .futureValue should ===(List(1 to 4, 5 to 8, 9 to 10))
+    }
+
+    "drop failed elements when resuming" in {
+      Source(1 to 6)
+        .map(n => if (n == 3) throw TE("boom") else n)
+        .filter(n => if (n == 5) throw TE("boom") else true)
+        .map(_ * 10)
+        .addAttributes(chunked)
+        .addAttributes(ActorAttributes.supervisionStrategy(Supervision.resumingDecider))
+        .runWith(Sink.seq)
+        .futureValue should ===(List(10, 20, 40, 60))
+    }
+
+    "fail the stream when stopping" in {
+      Source(1 to 6)
+        .mapConcat(n => List(n, n))
+        .map(n => if (n == 3) throw TE("boom") else n)
+        .addAttributes(chunked)
+        .runWith(TestSink.probe[Int])
+        .request(10)
+        .expectNext(1, 1, 2, 2)
+        .expectError(TE("boom"))
+    }
+
+    "fail the stream on negative weight in grouped" in {
+      Source(List(1, 2, -3))
+        .map(identity)
+        .groupedWeighted(10)(_.toLong)
+        .addAttributes(chunked)
+        .runWith(Sink.seq)
+        .failed
+        .futureValue shouldBe an[IllegalArgumentException]
+    }
+  }
+
+}
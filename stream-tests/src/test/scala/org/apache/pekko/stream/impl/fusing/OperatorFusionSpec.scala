@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.fusing
+
+import org.apache.pekko
+import pekko.stream.ActorAttributes
+import pekko.stream.Materializer
+import pekko.stream.Supervision
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.Keep
+import pekko.stream.scaladsl.Sink
+import pekko.stream.scaladsl.Source
+import pekko.stream.snapshot.MaterializerState
+import pekko.stream.testkit.StreamSpec
+import pekko.stream.testkit.Utils.TE
+import pekko.stream.testkit.scaladsl.TestSink
+
+class OperatorFusionSpec extends StreamSpec {
+
+  private val fusion = ActorAttributes.operatorFusion(true)
+
+  private val flow =
+    Flow[Int]
+      .map(_ * 3)
+      .filter(_ % 2 == 0)
+      .collect { case n if n % 4 != 0 => n.toString }
+      .map(_.length)
+
+  "Operator fusion" must {
+
+    "produce the same elements as the separate operators" in {
+      val expected = Source(1 to 1000).via(flow).runWith(Sink.seq).futureValue
+      Source(1 to 1000).via(flow.addAttributes(fusion)).runWith(Sink.seq).futureValue should ===(expected)
+    }
+
+    "replace adjacent operators with one logic" in {
+      implicit val mat = Materializer(system)
+      try {
+        val (promise, done) = Source.maybe[Int].via(flow.addAttributes(fusion)).toMat(Sink.seq)(Keep.both).run()
+        awaitAssert({
+            val snapshot = MaterializerState.streamSnapshots(mat).futureValue
+            val interpreter = snapshot.head.activeInterpreters.head
+            interpreter.logics should have size 3 // source, fused operators and sink
+            interpreter.connections should have size 2
+          }, remainingOrDefault)
+        promise.success(Some(2))
+        done.futureValue should ===(List(1))
+      } finally {
+        mat.shutdown()
+      }
+    }
+
+    "combine with chunked transport" in {
+      val expected = Source(1 to 1000).mapConcat(n => List(n, n)).via(flow).runWith(Sink.seq).futureValue
+      Source(1 to 1000)
+        .mapConcat(n => List(n, n))
+        .via(flow)
+        .addAttributes(fusion and ActorAttributes.chunkedTransport(true))
+        .runWith(Sink.seq)
+        .futureValue should ===(expected)
+    }
+
+    "use the supervision strategy of each operator" in {
+      Source(1 to 6)
+        .map(n => if (n == 2) throw TE("resumed") else n)
+        .withAttributes(ActorAttributes.supervisionStrategy(Supervision.resumingDecider))
+        .via(Flow[Int].map(n => if (n == 5) throw TE("stopped") else n))
+        .map(_ * 10)
+        .addAttributes(fusion)
+        .runWith(TestSink.probe[Int])
+        .request(10)
+        .expectNext(10, 30, 40)
+        .expectError(TE("stopped"))
+    }
+  }
+
+}
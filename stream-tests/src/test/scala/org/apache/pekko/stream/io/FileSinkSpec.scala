@@ -250,6 +250,45 @@ class FileSinkSpec extends StreamSpec(UnboundedMailboxConfig) with ScalaFutures
     }
   }
 
+  "MappedFileSink" must {
+    // the in-memory file system does not support memory mapping
+    def defaultFsTargetFile(block: Path => Unit): Unit = {
+      val targetFile = Files.createTempFile("mapped-file-sink", ".tmp")
+      try block(targetFile)
+      finally Files.delete(targetFile)
+    }
+
+    "write lines to a file through several windows" in {
+      defaultFsTargetFile { f =>
+        val completion = Source(TestByteStrings).runWith(FileIO.toPathMapped(f, windowSize = 2500))
+
+        completion.futureValue.count should equal(6006)
+        checkFileContents(f, TestLines.mkString(""))
+      }
+    }
+
+    "truncate an existing file" in {
+      defaultFsTargetFile { f =>
+        Files.write(f, ("x" * 10000).getBytes)
+        val completion = Source(TestByteStrings).runWith(FileIO.toPathMapped(f, windowSize = 4096))
+
+        completion.futureValue.count should equal(6006)
+        checkFileContents(f, TestLines.mkString(""))
+      }
+    }
+
+    "truncate the file to the written bytes when upstream fails" in {
+      defaultFsTargetFile { f =>
+        val completion = Source(TestByteStrings)
+          .concat(Source.failed(TE("boom")))
+          .runWith(FileIO.toPathMapped(f, windowSize = 4096))
+
+        completion.failed.futureValue shouldBe an[IOOperationIncompleteException]
+        checkFileContents(f, TestLines.mkString(""))
+      }
+    }
+  }
+
   private def targetFile(block: Path => Unit, create: Boolean = true): Unit = {
     val targetFile = Files.createTempFile(fs.getPath("/"), "synchronous-file-sink", ".tmp")
     if (!create) Files.delete(targetFile)
@@ -30,7 +30,7 @@ import pekko.stream.IOResult._
 import pekko.stream.impl.{ PhasedFusingActorMaterializer, StreamSupervisor }
 import pekko.stream.impl.StreamSupervisor.Children
 import pekko.stream.io.FileSourceSpec.Settings
-import pekko.stream.scaladsl.{ FileIO, Keep, Sink }
+import pekko.stream.scaladsl.{ FileIO, Flow, Keep, Sink, Tcp }
 import pekko.stream.testkit._
 import pekko.stream.testkit.Utils._
 import pekko.stream.testkit.scaladsl.TestSink
@@ -306,6 +306,92 @@ class FileSourceSpec extends StreamSpec(UnboundedMailboxConfig) {
     }
   }
 
+  "MappedFileSource" must {
+    // the in-memory file system does not support memory mapping
+    def defaultFsFile(contents: String)(block: java.nio.file.Path => Unit): Unit = {
+      val f = Files.createTempFile("mapped-file-source-spec", ".tmp")
+      try {
+        Files.write(f, contents.getBytes(UTF_8))
+        block(f)
+      } finally Files.delete(f)
+    }
+
+    "read contents from a file through several windows" in {
+      defaultFsFile(TestText) { f =>
+        val (ioResult, chunks) =
+          FileIO.fromPathMapped(f, chunkSize = 512, windowSize = 1500).toMat(Sink.seq)(Keep.both).run()
+
+        chunks.futureValue.map(_.size).max should be <= 512
+        chunks.futureValue.reduce(_ ++ _).utf8String should ===(TestText)
+        ioResult.futureValue.count should ===(TestText.length.toLong)
+      }
+    }
+
+    "emit slices of the mapped windows without copying them" in {
+      defaultFsFile(TestText) { f =>
+        val chunks = FileIO.fromPathMapped(f, chunkSize = 512, windowSize = 1500).runWith(Sink.seq).futureValue
+
+        all(chunks) shouldBe a[ByteString.DirectByteString]
+        chunks.map(_.utf8String).mkString should ===(TestText)
+      }
+    }
+
+    "complete for an empty file" in {
+      defaultFsFile("") { f =>
+        FileIO.fromPathMapped(f).runWith(TestSink.probe).request(1).expectComplete()
+      }
+    }
+
+    "onError with failure and return a failed IOResult when trying to read from file which does not exist" in {
+      val (r, p) = FileIO.fromPathMapped(notExistingFile).toMat(TestSink.probe)(Keep.both).run()
+      p.request(1)
+      p.expectError().getClass should ===(classOf[NoSuchFileException])
+      r.futureValue.status.isFailure shouldBe true
+    }
+  }
+
+  "FileRegionSource" must {
+    "emit regions that cover the file" in {
+      val (ioResult, regions) = FileIO.fromPathRegions(testFile, regionSize = 2500).toMat(Sink.seq)(Keep.both).run()
+
+      regions.futureValue should ===(
+        List(FileRegion(testFile, 0, 2500), FileRegion(testFile, 2500, 2500), FileRegion(testFile, 5000, 1000)))
+      ioResult.futureValue.count should ===(TestText.length.toLong)
+    }
+
+    "be read when the regions are not sent to a TCP connection" in {
+      FileIO
+        .fromPathRegions(testFile, regionSize = 1000)
+        .via(Tcp.fileTransfer(Flow[ByteString], chunkSize = 300))
+        .runFold(ByteString.empty)(_ ++ _)
+        .futureValue
+        .utf8String should ===(TestText)
+    }
+
+    "use dedicated blocking-io-dispatcher by default" in {
+      val sys = ActorSystem("dispatcher-testing", UnboundedMailboxConfig)
+      val materializer = ActorMaterializer()(sys)
+      try {
+        val p = FileIO.fromPathRegions(testFile).runWith(TestSink.probe)(materializer)
+
+        materializer
+          .asInstanceOf[PhasedFusingActorMaterializer]
+          .supervisor
+          .tell(StreamSupervisor.GetChildren, testActor)
+        val ref = expectMsgType[Children].children.find(_.path.toString contains "fileRegionSource").get
+        try assertDispatcher(ref, ActorAttributes.IODispatcher.dispatcher)
+        finally p.cancel()
+      } finally shutdown(sys)
+    }
+
+    "onError with failure and return a failed IOResult when trying to read from file which does not exist" in {
+      val (r, p) = FileIO.fromPathRegions(notExistingFile).toMat(TestSink.probe)(Keep.both).run()
+      p.request(1)
+      p.expectError().getClass should ===(classOf[NoSuchFileException])
+      r.futureValue.status.isFailure shouldBe true
+    }
+  }
+
   override def afterTermination(): Unit = {
     fs.close()
   }
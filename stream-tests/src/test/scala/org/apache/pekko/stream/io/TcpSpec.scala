@@ -14,6 +14,7 @@
 package org.apache.pekko.stream.io
 
 import java.net._
+import java.nio.file.Files
 import java.security.SecureRandom
 import java.util.concurrent.atomic.AtomicInteger
 
@@ -648,6 +649,18 @@ class TcpSpec extends StreamSpec("""
       binding.whenUnbound.futureValue should be(Done)
     }
 
+    "send files with transferTo" in {
+      EventFilter.debug(start = "Passing file regions to the TCP connection", occurrences = 1).intercept {
+        sendFile(address => Tcp().outgoingConnection(address))
+      }
+    }
+
+    "send files read in chunks when the connection is not fused directly behind the transfer" in {
+      EventFilter.debug(start = "Reading file regions in chunks", occurrences = 1).intercept {
+        sendFile(address => Flow[ByteString].idleTimeout(10.seconds).via(Tcp().outgoingConnection(address)))
+      }
+    }
+
     "work with a chain of echoes" in {
       val serverAddress = temporaryServerAddress()
       val (bindingFuture, echoServerFinish) =
@@ -1071,6 +1084,31 @@ class TcpSpec extends StreamSpec("""
 
   }
 
+  def sendFile(connection: InetSocketAddress => Flow[ByteString, ByteString, Any]): Unit = {
+    val serverAddress = temporaryServerAddress()
+    val (bindingFuture, echoServerFinish) =
+      Tcp().bind(serverAddress.getHostString, serverAddress.getPort).toMat(echoHandler)(Keep.both).run()
+    val binding = bindingFuture.futureValue
+
+    val file = Files.createTempFile("tcp-spec", ".tmp")
+    try {
+      val contents = Array.tabulate(300000)(_.toByte)
+      Files.write(file, contents)
+
+      val (ioResult, resultFuture) = FileIO
+        .fromPathRegions(file, regionSize = 65536)
+        .viaMat(Tcp.fileTransfer(connection(serverAddress)))(Keep.left)
+        .toMat(Sink.fold(ByteString.empty)(_ ++ _))(Keep.both)
+        .run()
+
+      resultFuture.futureValue should ===(ByteString(contents))
+      ioResult.futureValue.count should ===(contents.length.toLong)
+    } finally Files.delete(file)
+
+    binding.unbind().futureValue
+    echoServerFinish.futureValue
+  }
+
   def validateServerClientCommunication(
       testData: ByteString,
       serverConnection: ServerConnection,
@@ -278,6 +278,13 @@ class TlsSpec extends StreamSpec(TlsSpec.configOverrides) with WithLogCapturing
         def output = ByteString(strs.foldRight("")(_ ++ _))
       }
 
+      object ManySmallMessages extends PayloadScenario {
+        // queued chunks are gathered into records
+        val strs = (1 to 2000).map(n => (n % 10).toString * (n % 50 + 1))
+        def inputs = strs.map(s => SendBytes(ByteString(s)))
+        def output = ByteString(strs.mkString)
+      }
+
       object EmptyBytesFirst extends PayloadScenario {
         def inputs = List(ByteString.empty, ByteString("hello")).map(SendBytes.apply)
         def output = ByteString("hello")
@@ -395,6 +402,7 @@ class TlsSpec extends StreamSpec(TlsSpec.configOverrides) with WithLogCapturing
           SingleBytes,
           MediumMessages,
           LargeMessages,
+          ManySmallMessages,
           EmptyBytesFirst,
           EmptyBytesInTheMiddle,
           EmptyBytesLast,
@@ -85,6 +85,18 @@ abstract class CoderSpec(codecName: String) extends AnyWordSpec with CodecSpecSu
           ourDecode(corruptContent)
         }).ultimateCause should be(a[DataFormatException])
       }
+      "decode valid input after failing on corrupt input" in {
+        a[RuntimeException] should be thrownBy ourDecode(corruptContent)
+        ourDecode(ourEncode(smallTextBytes)) should readAs(smallText)
+      }
+    }
+
+    "produce the same data when compressors and decompressors are reused" in {
+      val compressed = (1 to 3).map(_ => ourEncode(largeTextBytes))
+      compressed.distinct should have size 1
+      forAll(compressed) { bytes =>
+        ourDecode(bytes) should readAs(largeText)
+      }
     }
 
     "not throw an error if a subsequent block is corrupt" in {
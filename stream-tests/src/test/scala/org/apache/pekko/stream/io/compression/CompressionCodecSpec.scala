@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.io.compression
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.{ Deflater, Inflater, ZipException }
+
+import org.apache.pekko
+import pekko.stream.{ Compressor, Decompressor }
+import pekko.stream.scaladsl.{ Compression, Keep, Sink, Source }
+import pekko.stream.testkit.StreamSpec
+import pekko.stream.testkit.scaladsl.{ TestSink, TestSource }
+import pekko.util.ByteString
+
+object CompressionCodecSpec {
+
+  // the zlib format, so that the codec can be checked against Compression.deflate and inflate
+  final class ZlibCompressor(closed: AtomicInteger) extends Compressor {
+    private val deflater = new Deflater()
+    private val buffer = new Array[Byte](8192)
+
+    override def compressAndFlush(input: ByteString): ByteString = {
+      deflater.setInput(input.toArray)
+      val result = ByteString.newBuilder
+      var written = buffer.length
+      while (written == buffer.length) {
+        written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)
+        result.putBytes(buffer, 0, written)
+      }
+      result.result()
+    }
+
+    override def finish(): ByteString = {
+      deflater.finish()
+      val result = ByteString.newBuilder
+      while (!deflater.finished()) result.putBytes(buffer, 0, deflater.deflate(buffer))
+      result.result()
+    }
+
+    override def close(): Unit = {
+      deflater.end()
+      closed.incrementAndGet()
+    }
+  }
+
+  final class ZlibDecompressor extends Decompressor {
+    private val inflater = new Inflater()
+
+    override def setInput(input: ByteString): Unit = inflater.setInput(input.toArray)
+
+    override def decompress(maxBytes: Int): ByteString = {
+      val buffer = new Array[Byte](maxBytes)
+      ByteString.fromArray(buffer, 0, inflater.inflate(buffer))
+    }
+
+    override def isFinished: Boolean = inflater.finished()
+
+    override def close(): Unit = inflater.end()
+  }
+}
+
+class CompressionCodecSpec extends StreamSpec {
+  import CompressionCodecSpec._
+
+  private val data = ByteString(Array.tabulate[Byte](100000)(i => (i % 97).toByte))
+  private val chunks = data.grouped(4096).toList
+
+  "Compression.compress" must {
+
+    "compress with the given compressor" in {
+      val closed = new AtomicInteger
+      Source(chunks)
+        .via(Compression.compress(() => new ZlibCompressor(closed)))
+        .via(Compression.inflate())
+        .runWith(Sink.fold(ByteString.empty)(_ ++ _))
+        .futureValue should ===(data)
+      closed.get should ===(1)
+    }
+
+    "flush the compressed bytes of every element" in {
+      val closed = new AtomicInteger
+      val (source, sink) = TestSource[ByteString]()
+        .via(Compression.compress(() => new ZlibCompressor(closed)))
+        .via(Compression.inflate())
+        .toMat(TestSink[ByteString]())(Keep.both)
+        .run()
+
+      sink.request(2)
+      source.sendNext(ByteString("first"))
+      sink.expectNext(ByteString("first"))
+      source.sendNext(ByteString("second"))
+      sink.expectNext(ByteString("second"))
+      sink.cancel()
+      awaitAssert(closed.get should ===(1))
+    }
+  }
+
+  "Compression.decompress" must {
+
+    "decompress with the given decompressor in chunks of at most maxBytesPerChunk" in {
+      val decompressed = Source(chunks)
+        .via(Compression.deflate)
+        .via(Compression.decompress(() => new ZlibDecompressor, maxBytesPerChunk = 1000))
+        .runWith(Sink.seq)
+        .futureValue
+
+      decompressed.map(_.length).max should be <= 1000
+      decompressed.reduce(_ ++ _) should ===(data)
+    }
+
+    "fail when the input ends before the compressed data" in {
+      val compressed = Source(chunks).via(Compression.deflate).runWith(Sink.fold(ByteString.empty)(_ ++ _)).futureValue
+
+      Source
+        .single(compressed.dropRight(4))
+        .via(Compression.decompress(() => new ZlibDecompressor))
+        .runWith(Sink.ignore)
+        .failed
+        .futureValue shouldBe a[ZipException]
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.scaladsl
+
+import scala.collection.immutable
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.stream.EventTimeWindows
+import pekko.stream.testkit.StreamSpec
+import pekko.stream.testkit.scaladsl.TestSink
+
+class AggregateWithEventTimeWindowSpec extends StreamSpec {
+
+  // the elements are their own event time, each window emits its start, end and number of elements
+  private def countPerWindow(
+      windows: EventTimeWindows,
+      times: immutable.Seq[Long]): Source[(Long, Long, Int), NotUsed] =
+    Source(times)
+      .aggregateWithEventTimeWindow(windows, (time: Long) => time)(() => 0)(
+        aggregate = (count, _) => count + 1,
+        merge = _ + _,
+        harvest = (window, count) => (window.start, window.end, count))
+
+  "aggregateWithEventTimeWindow" must {
+
+    "emit tumbling windows when the watermark passes their end" in {
+      countPerWindow(EventTimeWindows.tumbling(10.millis), List(1L, 5L, 12L, 15L, 25L))
+        .runWith(Sink.seq)
+        .futureValue should ===(Seq((0L, 10L, 2), (10L, 20L, 2), (20L, 30L, 1)))
+    }
+
+    "add elements to all their sliding windows" in {
+      countPerWindow(EventTimeWindows.sliding(10.millis, 5.millis), List(1L, 7L, 12L))
+        .runWith(Sink.seq)
+        .futureValue should ===(Seq((-5L, 5L, 1), (0L, 10L, 2), (5L, 15L, 2), (10L, 20L, 1)))
+    }
+
+    "merge the session windows that an element connects" in {
+      Source(List(1L, 18L, 9L, 40L, 45L))
+        .aggregateWithEventTimeWindow(
+          EventTimeWindows.session(10.millis).withMaxOutOfOrderness(20.millis),
+          (time: Long) => time)(() => List.empty[Long])(
+          aggregate = (times, time) => times :+ time,
+          merge = _ ++ _,
+          harvest = (window, times) => (window.start, window.end, times))
+        .runWith(Sink.seq)
+        .futureValue should ===(Seq((1L, 28L, List(1L, 9L, 18L)), (40L, 55L, List(40L, 45L))))
+    }
+
+    "keep windows open for elements within the max out of orderness" in {
+      val windows = EventTimeWindows.tumbling(10.millis).withMaxOutOfOrderness(5.millis)
+      countPerWindow(windows, List(1L, 12L, 8L, 16L, 30L))
+        .runWith(Sink.seq)
+        .futureValue should ===(Seq((0L, 10L, 2), (10L, 20L, 2), (30L, 40L, 1)))
+    }
+
+    "drop elements for windows that have been emitted" in {
+      countPerWindow(EventTimeWindows.tumbling(10.millis), List(1L, 12L, 5L, 13L))
+        .runWith(Sink.seq)
+        .futureValue should ===(Seq((0L, 10L, 1), (10L, 20L, 2)))
+    }
+
+    "emit windows again for late elements within the allowed lateness" in {
+      val windows = EventTimeWindows.tumbling(10.millis).withAllowedLateness(10.millis)
+      countPerWindow(windows, List(1L, 12L, 5L, 25L, 3L))
+        .runWith(Sink.seq)
+        .futureValue should ===(Seq((0L, 10L, 1), (0L, 10L, 2), (10L, 20L, 1), (20L, 30L, 1)))
+    }
+
+    "respect back pressure when the watermark passes several windows" in {
+      val probe = countPerWindow(EventTimeWindows.tumbling(10.millis), List(1L, 11L, 21L, 100L))
+        .runWith(TestSink[(Long, Long, Int)]())
+      probe.request(1)
+      probe.expectNext((0L, 10L, 1))
+      probe.expectNoMessage(100.millis)
+      probe.request(1)
+      probe.expectNext((10L, 20L, 1))
+      probe.request(2)
+      probe.expectNext((20L, 30L, 1), (100L, 110L, 1))
+      probe.expectComplete()
+    }
+
+    "reject slides larger than the window size" in {
+      an[IllegalArgumentException] should be thrownBy EventTimeWindows.sliding(5.millis, 10.millis)
+    }
+  }
+}
@@ -16,9 +16,11 @@ package org.apache.pekko.stream.scaladsl
 import java.util.concurrent.{ CountDownLatch, ThreadLocalRandom }
 import java.util.concurrent.atomic.AtomicLong
 
+import scala.concurrent.Await
 import scala.concurrent.duration._
 
 import org.apache.pekko
+import pekko.Done
 import pekko.stream.QueueOfferResult
 import pekko.stream.testkit.{ StreamSpec, TestSubscriber }
 import pekko.stream.testkit.scaladsl.TestSink
@@ -217,5 +219,75 @@ class BoundedSourceQueueSpec extends StreamSpec("""pekko.loglevel = debug
       }
       queue.size() shouldBe 100
     }
+
+    "enqueue elements with offerAll until the buffer is full" in {
+      val sub = TestSubscriber.probe[Int]()
+      val queue = Source.queue[Int](10).toMat(Sink.fromSubscriber(sub))(Keep.left).run()
+
+      queue.remainingCapacity() shouldBe 10
+      queue.offerAll(1 to 4) shouldBe 4
+      queue.remainingCapacity() shouldBe 6
+      queue.offerAll(5 to 20) shouldBe 6
+      queue.remainingCapacity() shouldBe 0
+
+      sub.request(10)
+      sub.expectNextN(1 to 10)
+      awaitAssert(queue.remainingCapacity() shouldBe 10)
+
+      queue.complete()
+      queue.offerAll(List(11)) shouldBe 0
+      sub.expectComplete()
+    }
+
+    "complete whenCapacityAvailable once half of the buffer is free" in {
+      val sub = TestSubscriber.probe[Int]()
+      val queue = Source.queue[Int](10).toMat(Sink.fromSubscriber(sub))(Keep.left).run()
+
+      queue.whenCapacityAvailable.isCompleted shouldBe true
+      queue.offerAll(1 to 10) shouldBe 10
+      val available = queue.whenCapacityAvailable
+      available.isCompleted shouldBe false
+
+      sub.request(4)
+      sub.expectNextN(1 to 4)
+      available.isCompleted shouldBe false
+
+      sub.request(1)
+      sub.expectNext(5)
+      available.futureValue shouldBe Done
+      queue.remainingCapacity() should be >= 5
+    }
+
+    "complete whenCapacityAvailable when the queue is completed" in {
+      val sub = TestSubscriber.probe[Int]()
+      val queue = Source.queue[Int](2).toMat(Sink.fromSubscriber(sub))(Keep.left).run()
+
+      queue.offerAll(List(1, 2)) shouldBe 2
+      val available = queue.whenCapacityAvailable
+      queue.fail(ex)
+      available.futureValue shouldBe Done
+      queue.offer(3) shouldBe QueueOfferResult.Failure(ex)
+    }
+
+    "not drop elements of producers that wait for capacity" in {
+      val (queue, result) = Source.queue[Int](16).toMat(Sink.seq)(Keep.both).run()
+      val elements = (1 to 10000).toVector
+
+      val producer = new Thread(new Runnable {
+        override def run(): Unit = {
+          var remaining = elements
+          while (remaining.nonEmpty) {
+            val enqueued = queue.offerAll(remaining.take(100))
+            remaining = remaining.drop(enqueued)
+            if (remaining.nonEmpty)
+              Await.result(queue.whenCapacityAvailable, 3.seconds)
+          }
+          queue.complete()
+        }
+      })
+      producer.start()
+
+      result.futureValue shouldBe elements
+    }
   }
 }
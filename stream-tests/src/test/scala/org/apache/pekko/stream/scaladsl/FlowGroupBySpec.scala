@@ -663,6 +663,68 @@ class FlowGroupBySpec extends StreamSpec("""
       }
     }
 
+    "complete the least recently active substream when maxSubstreams is reached with eviction" in {
+      val metrics = new SubstreamMetrics
+      val result = Source(List(1, 2, 1, 3, 2, 1))
+        .groupBy(2, elem => elem, SubstreamEviction.leastRecentlyActive.withMetrics(metrics))
+        .fold(Vector.empty[Int])(_ :+ _)
+        .mergeSubstreams
+        .runWith(Sink.seq)
+
+      // 2 is evicted for 3, 1 for the second 2, and 3 for the third 1
+      val substreams = List(Vector(2), Vector(1, 1), Vector(3), Vector(2), Vector(1))
+      result.futureValue should contain theSameElementsAs substreams
+      metrics.openedSubstreams should ===(5L)
+      metrics.evictedSubstreams should ===(3L)
+      awaitAssert(metrics.openSubstreams should ===(0))
+    }
+
+    "complete idle substreams with eviction and an idle timeout" in {
+      val metrics = SubstreamMetrics.create()
+      val (upstream, downstream) = TestSource
+        .probe[Int]
+        .groupBy(10, _ % 2, SubstreamEviction.leastRecentlyActive.withIdleTimeout(200.millis).withMetrics(metrics))
+        .reduce(_ + _)
+        .mergeSubstreams
+        .toMat(TestSink.probe[Int])(Keep.both)
+        .run()
+
+      downstream.request(10)
+      upstream.sendNext(1)
+      upstream.sendNext(3)
+      upstream.sendNext(2)
+      awaitAssert(metrics.openSubstreams should ===(2))
+      downstream.expectNoMessage(100.millis)
+      downstream.expectNextUnordered(4, 2)
+      metrics.idleSubstreams should ===(2L)
+      metrics.openSubstreams should ===(0)
+
+      upstream.sendNext(5)
+      upstream.sendComplete()
+      downstream.expectNext(5)
+      downstream.expectComplete()
+      metrics.openedSubstreams should ===(3L)
+    }
+
+    "not complete substreams that keep seeing elements with an idle timeout" in {
+      val (upstream, downstream) = TestSource
+        .probe[Int]
+        .groupBy(10, elem => elem, SubstreamEviction.leastRecentlyActive.withIdleTimeout(300.millis))
+        .reduce(_ + _)
+        .mergeSubstreams
+        .toMat(TestSink.probe[Int])(Keep.both)
+        .run()
+
+      downstream.request(10)
+      (1 to 6).foreach { _ =>
+        upstream.sendNext(1)
+        downstream.expectNoMessage(100.millis)
+      }
+      upstream.sendComplete()
+      downstream.expectNext(6)
+      downstream.expectComplete()
+    }
+
     "not block all substreams when one is blocked but has a buffer in front" in {
       case class Elem(id: Int, substream: Int, f: () => Any)
       val queue = Source
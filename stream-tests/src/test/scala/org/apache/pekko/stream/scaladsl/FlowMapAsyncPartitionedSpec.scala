@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.scaladsl
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.stream.ActorAttributes.supervisionStrategy
+import pekko.stream.Supervision.resumingDecider
+import pekko.stream.testkit._
+import pekko.stream.testkit.Utils.TE
+import pekko.stream.testkit.scaladsl.TestSink
+
+class FlowMapAsyncPartitionedSpec extends StreamSpec {
+  import system.dispatcher
+
+  "A Flow with mapAsyncPartitionedUnordered and perPartition" must {
+
+    "retain the order of elements with the same partition key" in {
+      val result = Source(1 to 300)
+        .mapAsyncPartitionedUnordered(16, 4)(_ % 7) { (n, _) =>
+          Future {
+            Thread.sleep(n % 3)
+            n
+          }
+        }
+        .runWith(Sink.seq)
+        .futureValue
+      result.sorted should ===(1 to 300)
+      (0 until 7).foreach { key =>
+        result.filter(_ % 7 == key) should ===((1 to 300).filter(_ % 7 == key))
+      }
+    }
+
+    "not let a slow partition hold back the others" in {
+      val slow = Promise[String]()
+      val probe = Source(List("a1", "b1", "b2", "a2", "b3"))
+        .mapAsyncPartitionedUnordered(8, 2)(_.take(1)) { (elem, _) =>
+          if (elem == "a1") slow.future else Future.successful(elem)
+        }
+        .runWith(TestSink.probe[String])
+
+      probe.request(10).expectNext("b1", "b2", "b3")
+      slow.success("a1")
+      probe.expectNext("a1", "a2").expectComplete()
+    }
+
+    "run at most perPartition futures of a partition at the same time" in {
+      val inFlight = new ConcurrentHashMap[Int, AtomicInteger]()
+      val maxInFlight = new AtomicInteger(0)
+      Source(1 to 200)
+        .mapAsyncPartitionedUnordered(32, 3)(_ % 2) { (n, key) =>
+          val counter = inFlight.computeIfAbsent(key, _ => new AtomicInteger(0))
+          maxInFlight.accumulateAndGet(counter.incrementAndGet(), (a, b) => math.max(a, b))
+          Future {
+            Thread.sleep(1)
+            counter.decrementAndGet()
+            n
+          }
+        }
+        .runWith(Sink.ignore)
+        .futureValue
+      maxInFlight.get should (be > 0 and be <= 3)
+    }
+
+    "drop failed elements and null results when resuming" in {
+      Source(1 to 6)
+        .mapAsyncPartitionedUnordered(4, 2)(_ % 2) { (n, _) =>
+          if (n == 3) throw TE("boom")
+          else if (n == 4) Future.failed(TE("boom"))
+          else if (n == 5) Future.successful(null)
+          else Future.successful(n.toString)
+        }
+        .withAttributes(supervisionStrategy(resumingDecider))
+        .runWith(Sink.seq)
+        .futureValue
+        .sorted should ===(List("1", "2", "6"))
+    }
+
+    "fail the stream when a future fails" in {
+      Source(1 to 6)
+        .mapAsyncPartitionedUnordered(4, 2)(_ % 2) { (n, _) =>
+          if (n == 4) Future.failed(TE("boom")) else Future.successful(n)
+        }
+        .runWith(Sink.seq)
+        .failed
+        .futureValue should ===(TE("boom"))
+    }
+
+    "fail the stream when the partitioner throws" in {
+      Source(1 to 6)
+        .mapAsyncPartitionedUnordered(4, 2)(n => if (n == 3) throw TE("boom") else n % 2)((n, _) =>
+          Future.successful(n))
+        .runWith(Sink.seq)
+        .failed
+        .futureValue should ===(TE("boom"))
+    }
+
+    "complete when upstream is empty" in {
+      Source.empty[Int].mapAsyncPartitionedUnordered(4, 2)(identity)((n, _) => Future.successful(n)).runWith(
+        Sink.seq).futureValue should ===(Nil)
+    }
+  }
+
+  "A Flow with mapAsyncPartitioned" must {
+
+    "keep the upstream order across partitions" in {
+      val slow = Promise[String]()
+      val probe = Source(List("a1", "b1", "b2", "a2", "b3"))
+        .mapAsyncPartitioned(8)(_.take(1)) { (elem, _) =>
+          if (elem == "a1") slow.future else Future.successful(elem)
+        }
+        .runWith(TestSink.probe[String])
+
+      probe.request(10).expectNoMessage(100.millis)
+      slow.success("a1")
+      probe.expectNext("a1", "b1", "b2", "a2", "b3").expectComplete()
+    }
+  }
+
+}
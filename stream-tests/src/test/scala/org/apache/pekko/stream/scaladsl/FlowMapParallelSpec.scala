@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.scaladsl
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ThreadLocalRandom
+
+import org.apache.pekko
+import pekko.stream.ActorAttributes.supervisionStrategy
+import pekko.stream.Supervision.resumingDecider
+import pekko.stream.testkit._
+import pekko.stream.testkit.Utils.TE
+
+class FlowMapParallelSpec extends StreamSpec {
+
+  private def work(n: Int): Int = {
+    // uneven processing time so that the sub-pipelines finish out of order
+    Thread.sleep(ThreadLocalRandom.current().nextInt(3))
+    n * 2
+  }
+
+  "A Flow with mapParallel" must {
+
+    "emit results in upstream order" in {
+      Source(1 to 200).mapParallel(4)(work).runWith(Sink.seq).futureValue should ===((1 to 200).map(_ * 2))
+    }
+
+    "run the function in several actors" in {
+      val threads = ConcurrentHashMap.newKeySet[String]()
+      Source(1 to 200)
+        .mapParallel(4) { n =>
+          threads.add(Thread.currentThread().getName)
+          work(n)
+        }
+        .runWith(Sink.ignore)
+        .futureValue
+      threads.size should be > 1
+    }
+
+    "work with parallelism 1" in {
+      Source(1 to 10).mapParallel(1)(_ + 1).runWith(Sink.seq).futureValue should ===(2 to 11)
+    }
+
+    "fail the stream when the function throws, also when resuming" in {
+      Source(1 to 10)
+        .mapParallel(3)(n => if (n == 5) throw TE("boom") else n)
+        .withAttributes(supervisionStrategy(resumingDecider))
+        .runWith(Sink.seq)
+        .failed
+        .futureValue should ===(TE("boom"))
+    }
+
+    "complete when upstream is empty" in {
+      Source.empty[Int].mapParallel(4)(identity).runWith(Sink.seq).futureValue should ===(Nil)
+    }
+  }
+
+  "A Flow with mapParallelPartitioned" must {
+
+    "retain the order of elements with the same partition key" in {
+      val result = Source(1 to 300).mapParallelPartitioned(4)(_ % 7)(work).runWith(Sink.seq).futureValue
+      result.sorted should ===((1 to 300).map(_ * 2))
+      (0 until 7).foreach { key =>
+        result.filter(n => (n / 2) % 7 == key) should ===((1 to 300).filter(_ % 7 == key).map(_ * 2))
+      }
+    }
+
+    "drop failed elements when resuming" in {
+      Source(1 to 6)
+        .mapParallelPartitioned(2)(_ % 2)(n => if (n == 3) throw TE("boom") else n)
+        .withAttributes(supervisionStrategy(resumingDecider))
+        .runWith(Sink.seq)
+        .futureValue
+        .sorted should ===(List(1, 2, 4, 5, 6))
+    }
+
+    "accept null partition keys" in {
+      Source(1 to 5)
+        .mapParallelPartitioned(3)(_ => null)(identity)
+        .runWith(Sink.seq)
+        .futureValue should ===(1 to 5)
+    }
+  }
+
+}
@@ -172,6 +172,13 @@ class HubSpec extends StreamSpec {
       result.futureValue.sorted should ===(1 to 2000)
     }
 
+    "work with many concurrent producers" in {
+      val (sink, result) = MergeHub.source[Int](4).take(10000).toMat(Sink.seq)(Keep.both).run()
+      (0 until 100).foreach(i => Source(i * 100 + 1 to (i + 1) * 100).runWith(sink))
+
+      result.futureValue.sorted should ===(1 to 10000)
+    }
+
     "work with different producers separated over time" in {
       val downstream = TestSubscriber.probe[immutable.Seq[Int]]()
       val sink = MergeHub.source[Int](16).grouped(100).toMat(Sink.fromSubscriber(downstream))(Keep.left).run()
@@ -329,6 +336,19 @@ class HubSpec extends StreamSpec {
       Await.result(resultTwo, 1.second) should be(1 to 10)
     }
 
+    "broadcast all elements to many consumers that wait for elements" in {
+      val (queue, broadcast) = Source.queue[Int](256).toMat(BroadcastHub.sink(100, 16))(Keep.both).run()
+      val results = (1 to 100).map(_ => broadcast.runWith(Sink.seq))
+      (1 to 200).foreach { i =>
+        // a slow producer, so that the consumers catch up and have to be woken up
+        if (i % 20 == 0) Thread.sleep(10)
+        queue.offer(i)
+      }
+      queue.complete()
+
+      results.foreach(_.futureValue should ===(1 to 200))
+    }
+
     "broadcast all elements to all consumers with hot upstream" in {
       val broadcast = Source(1 to 10).runWith(BroadcastHub.sink[Int](2, 256))
       val resultOne = broadcast.runWith(Sink.seq) // nothing happening yet
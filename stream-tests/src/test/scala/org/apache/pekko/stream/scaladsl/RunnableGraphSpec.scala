@@ -15,7 +15,9 @@ package org.apache.pekko.stream.scaladsl
 
 import org.apache.pekko
 import pekko.NotUsed
+import pekko.stream.ActorAttributes
 import pekko.stream.Attributes
+import pekko.stream.Supervision
 import pekko.stream.javadsl
 import pekko.stream.testkit.StreamSpec
 
@@ -44,5 +46,47 @@ class RunnableGraphSpec extends StreamSpec {
       runnable.run() shouldBe NotUsed
     }
 
+    "materialize a prepared graph several times" in {
+      val graph = Source(1 to 10)
+        .map(_ * 2)
+        .async
+        .filter(_ % 3 != 0)
+        .toMat(Sink.fold(0)(_ + _))(Keep.right)
+        .prepared
+
+      graph.run().futureValue shouldBe 74
+      graph.run().futureValue shouldBe 74
+      graph.mapMaterializedValue(_.map(_ + 1)(system.dispatcher)).run().futureValue shouldBe 75
+    }
+
+    "use the attributes of a prepared graph" in {
+      val graph = Source(1 to 4)
+        .map(n => if (n == 2) throw new IllegalArgumentException("boom") else n)
+        .toMat(Sink.seq)(Keep.right)
+        .prepared
+
+      graph.run().failed.futureValue shouldBe an[IllegalArgumentException]
+      graph
+        .addAttributes(ActorAttributes.supervisionStrategy(Supervision.resumingDecider))
+        .run()
+        .futureValue shouldBe List(1, 3, 4)
+    }
+
+    "keep the name of a prepared named graph" in {
+      val graph = Source
+        .fromMaterializer((_, attributes) => Source.single(attributes.nameLifted))
+        .toMat(Sink.head)(Keep.right)
+        .named("preparedGraph")
+
+      val name = graph.run().futureValue
+      name.exists(_.contains("preparedGraph")) shouldBe true
+      graph.prepared.run().futureValue shouldBe name
+    }
+
+    "not prepare an already prepared graph again" in {
+      val graph = Source.single(1).to(Sink.ignore).prepared
+      graph.prepared should be theSameInstanceAs graph
+    }
+
   }
 }
@@ -527,6 +527,41 @@ class StreamRefsSpec extends PekkoSpec(StreamRefsSpec.config()) {
       elementProbe.expectMsg("<COMPLETE>")
     }
 
+    "receive hundreds of elements in batches via remoting" in {
+      val remoteProbe = TestProbe()(remoteSystem)
+      val elementProbe = TestProbe()(remoteSystem)
+      remoteActor.tell(Command("receive", elementProbe.ref), remoteProbe.ref)
+      val remoteSink: SinkRef[String] = remoteProbe.expectMsgType[SinkRef[String]]
+
+      val msgs = (1 to 100).toList.map(i => s"payload-$i")
+
+      Source(msgs).runWith(
+        remoteSink.sink().addAttributes(
+          StreamRefAttributes.maxBatchSize(7).and(StreamRefAttributes.batchLinger(10.millis))))
+
+      msgs.foreach(t => elementProbe.expectMsg(t))
+      elementProbe.expectMsg("<COMPLETE>")
+    }
+
+    "send a partial batch after the batch linger" in {
+      val remoteProbe = TestProbe()(remoteSystem)
+      val elementProbe = TestProbe()(remoteSystem)
+      remoteActor.tell(Command("receive", elementProbe.ref), remoteProbe.ref)
+      val remoteSink: SinkRef[String] = remoteProbe.expectMsgType[SinkRef[String]]
+
+      val probe = TestSource
+        .probe[String](system)
+        .to(remoteSink.sink().addAttributes(StreamRefAttributes.maxBatchSize(10)))
+        .run()
+
+      probe.sendNext("hello")
+      probe.sendNext("world")
+      elementProbe.expectMsg("hello")
+      elementProbe.expectMsg("world")
+      probe.sendComplete()
+      elementProbe.expectMsg("<COMPLETE>")
+    }
+
     "receive timeout if subscribing too late to the sink ref" in {
       val remoteProbe = TestProbe()(remoteSystem)
       val elementProbe = TestProbe()(remoteSystem)
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.jfr
+
+import jdk.jfr.Category
+import jdk.jfr.Enabled
+import jdk.jfr.Event
+import jdk.jfr.Label
+import jdk.jfr.StackTrace
+import jdk.jfr.Timespan
+
+import org.apache.pekko.annotation.InternalApi
+
+// requires jdk9+ to compile
+// for editing these in IntelliJ, open module settings, change JDK dependency to 11 for only this module
+
+/** INTERNAL API */
+@InternalApi
+@Enabled(true)
+@StackTrace(false)
+@Category(Array("Pekko", "Stream", "Island")) @Label("Island started")
+final class StreamIslandStarted(val island: String, val operators: Int) extends Event
+
+/** INTERNAL API */
+@InternalApi
+@Enabled(true)
+@StackTrace(false)
+@Category(Array("Pekko", "Stream", "Island")) @Label("Island stopped")
+final class StreamIslandStopped(val island: String) extends Event
+
+/** INTERNAL API */
+@InternalApi
+@Enabled(false) // hi frequency event
+@StackTrace(false)
+@Category(Array("Pekko", "Stream", "Island")) @Label("Island batch")
+final class StreamIslandBatch(val island: String, val events: Int, @Timespan(Timespan.NANOSECONDS) val duration: Long)
+    extends Event
+
+/** INTERNAL API */
+@InternalApi
+@Enabled(false) // hi frequency event
+@StackTrace(false)
+@Category(Array("Pekko", "Stream", "Operator")) @Label("Operator onPush")
+final class StreamOperatorPush(
+    val island: String,
+    val operator: String,
+    @Timespan(Timespan.NANOSECONDS) val duration: Long)
+    extends Event
+
+/** INTERNAL API */
+@InternalApi
+@Enabled(false) // hi frequency event
+@StackTrace(false)
+@Category(Array("Pekko", "Stream", "Operator")) @Label("Operator onPull")
+final class StreamOperatorPull(
+    val island: String,
+    val operator: String,
+    @Timespan(Timespan.NANOSECONDS) val duration: Long)
+    extends Event
@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.jfr
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.stream.impl.StreamFlightRecorder
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[pekko] final class JFRStreamFlightRecorder extends StreamFlightRecorder {
+  override def islandStarted(island: String, operators: Int): Unit =
+    new StreamIslandStarted(island, operators).commit()
+  override def islandStopped(island: String): Unit =
+    new StreamIslandStopped(island).commit()
+  override def operatorPush(island: String, operator: String, durationNanos: Long): Unit =
+    new StreamOperatorPush(island, operator, durationNanos).commit()
+  override def operatorPull(island: String, operator: String, durationNanos: Long): Unit =
+    new StreamOperatorPull(island, operator, durationNanos).commit()
+  override def islandBatch(island: String, events: Int, durationNanos: Long): Unit =
+    new StreamIslandBatch(island, events, durationNanos).commit()
+}
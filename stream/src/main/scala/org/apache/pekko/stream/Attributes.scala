@@ -894,6 +894,58 @@ object ActorAttributes {
   def syncProcessingLimit(limit: Int): Attributes =
     Attributes(SyncProcessingLimit(limit))
 
+  /**
+   * Enables chunked element transport between fused operators that support it, such as `map`, `filter`,
+   * `collect` and `grouped`. Such operators that are connected to each other within the same
+   * fused island then pass several elements at a time to each other instead of one element per push,
+   * which reduces the per-element overhead of the interpreter. The first of such operators collects the
+   * elements that upstream has available right away, up to 16, before passing them on. Elements are still
+   * emitted one by one to other operators.
+   *
+   * Use factory method [[#chunkedTransport]] to create.
+   */
+  final case class ChunkedTransport(enabled: Boolean) extends Attribute
+
+  /**
+   * Enables chunked element transport between fused operators that support it, such as `map`, `filter`,
+   * `collect` and `grouped`.
+   */
+  def chunkedTransport(enabled: Boolean): Attributes =
+    Attributes(ChunkedTransport(enabled))
+
+  /**
+   * Enables fusion of adjacent stateless operators, `map`, `filter` and `collect`, into one operator when
+   * the stream is materialized. An element then passes all the fused functions in one step, with fewer
+   * connections between operators. The supervision strategy of each of the operators still applies to
+   * its own function.
+   *
+   * Use factory method [[#operatorFusion]] to create.
+   */
+  final case class OperatorFusion(enabled: Boolean) extends Attribute
+
+  /**
+   * Enables fusion of adjacent stateless operators, `map`, `filter` and `collect`, into one operator when
+   * the stream is materialized.
+   */
+  def operatorFusion(enabled: Boolean): Attributes =
+    Attributes(OperatorFusion(enabled))
+
+  /**
+   * Measures the operators with the given [[StreamInstrumentation]]. The instrumentation is applied to the
+   * fused islands of operators, the most specific attribute of an island is used for all of its operators.
+   *
+   * Use factory method [[#instrumentation]] to create.
+   */
+  @ApiMayChange
+  final case class Instrumentation(instrumentation: StreamInstrumentation) extends Attribute
+
+  /**
+   * Measures the operators with the given [[StreamInstrumentation]].
+   */
+  @ApiMayChange
+  def instrumentation(instrumentation: StreamInstrumentation): Attributes =
+    Attributes(Instrumentation(instrumentation))
+
 }
 
 /**
@@ -917,6 +969,10 @@ object StreamRefAttributes {
   }
   final case class DemandRedeliveryInterval(timeout: FiniteDuration) extends StreamRefAttribute
   final case class FinalTerminationSignalDeadline(timeout: FiniteDuration) extends StreamRefAttribute
+  final case class MaxBatchSize(size: Int) extends StreamRefAttribute {
+    require(size > 0, "Max batch size must be > 0")
+  }
+  final case class BatchLinger(timeout: FiniteDuration) extends StreamRefAttribute
 
   /**
    * Scala API: Specifies the subscription timeout within which the remote side MUST subscribe to the handed out stream reference.
@@ -957,4 +1013,20 @@ object StreamRefAttributes {
   def finalTerminationSignalDeadline(timeout: Duration): Attributes =
     finalTerminationSignalDeadline(timeout.asScala)
 
+  /**
+   * Specifies how many elements the sending side may put into one message. Only enable batching when all nodes
+   * support it, nodes that do not can not receive the batches.
+   */
+  def maxBatchSize(size: Int): Attributes = Attributes(MaxBatchSize(size))
+
+  /**
+   * Scala API: The time that the sending side waits for more elements to fill a batch before it sends a partial one.
+   */
+  def batchLinger(timeout: FiniteDuration): Attributes = Attributes(BatchLinger(timeout))
+
+  /**
+   * Java API: The time that the sending side waits for more elements to fill a batch before it sends a partial one.
+   */
+  def batchLinger(timeout: Duration): Attributes = batchLinger(timeout.asScala)
+
 }
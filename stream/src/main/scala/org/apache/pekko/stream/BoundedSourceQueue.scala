@@ -13,7 +13,13 @@
 
 package org.apache.pekko.stream
 
+import java.util.concurrent.CompletionStage
+
+import scala.collection.immutable
+import scala.concurrent.Future
+
 import org.apache.pekko
+import pekko.Done
 import pekko.annotation.DoNotInherit
 
 /**
@@ -33,6 +39,56 @@ trait BoundedSourceQueue[T] {
    */
   def offer(elem: T): QueueOfferResult
 
+  /**
+   * Scala API: Enqueues the elements in order until the buffer is full and returns the number of elements that
+   * were enqueued. Elements that could not be enqueued can be offered again, for example once
+   * [[whenCapacityAvailable]] has completed.
+   *
+   * Offering many elements at once is cheaper than offering them one by one, since the stream is woken up at most
+   * once for all of them.
+   *
+   * Returns 0 if the queue has been completed, in which case `offer` returns the completion status.
+   */
+  def offerAll(elems: immutable.Iterable[T]): Int
+
+  /**
+   * Java API: Enqueues the elements in order until the buffer is full and returns the number of elements that
+   * were enqueued. Elements that could not be enqueued can be offered again, for example once
+   * [[getWhenCapacityAvailable]] has completed.
+   *
+   * Offering many elements at once is cheaper than offering them one by one, since the stream is woken up at most
+   * once for all of them.
+   *
+   * Returns 0 if the queue has been completed, in which case `offer` returns the completion status.
+   */
+  def offerAll(elems: java.lang.Iterable[T]): Int
+
+  /**
+   * Returns the approximate number of elements that can be offered before the buffer is full. With a single
+   * producer these are credits that can be spent without any of the elements being dropped.
+   */
+  def remainingCapacity(): Int
+
+  /**
+   * Scala API: Returns a future that is completed when at least half of the buffer is free again, or right away if
+   * it already is. It is also completed when the queue is completed, so that the next offer returns the completion
+   * status.
+   *
+   * Together with [[offerAll]] and [[remainingCapacity]] this allows producers to be back-pressured without a
+   * future for every element.
+   */
+  def whenCapacityAvailable: Future[Done]
+
+  /**
+   * Java API: Returns a `CompletionStage` that is completed when at least half of the buffer is free again, or
+   * right away if it already is. It is also completed when the queue is completed, so that the next offer returns
+   * the completion status.
+   *
+   * Together with [[offerAll]] and [[remainingCapacity]] this allows producers to be back-pressured without a
+   * future for every element.
+   */
+  def getWhenCapacityAvailable: CompletionStage[Done]
+
   /**
    * Completes the stream normally.
    */
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.util.ByteString
+
+/**
+ * The compressing side of a codec that is plugged into a stream with `Compression.compress`, for formats
+ * that are not built in, such as zstd or LZ4 through a library of their own.
+ *
+ * A new instance is created for each materialization of the flow and is only called by its stream,
+ * one call at a time.
+ */
+@ApiMayChange
+abstract class Compressor {
+
+  /**
+   * Compresses `input` and returns the compressed bytes, flushed so that all the input passed so far can be
+   * decompressed from the returned bytes without waiting for more.
+   */
+  def compressAndFlush(input: ByteString): ByteString
+
+  /**
+   * Called when the input is complete, returns the remaining compressed bytes, such as the trailer of the format.
+   */
+  def finish(): ByteString
+
+  /**
+   * Releases the resources of the compressor. Called once when the stream stops, whether it finished,
+   * failed or was cancelled.
+   */
+  def close(): Unit
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.util.ByteString
+
+/**
+ * The decompressing side of a codec that is plugged into a stream with `Compression.decompress`, see [[Compressor]].
+ *
+ * A new instance is created for each materialization of the flow and is only called by its stream,
+ * one call at a time. The stream passes the next compressed chunk with `setInput` once `decompress`
+ * returned an empty `ByteString`, so the decompressor doesn't need to buffer its input.
+ */
+@ApiMayChange
+abstract class Decompressor {
+
+  /**
+   * Takes the next chunk of compressed bytes, called when all the previous ones have been decompressed.
+   */
+  def setInput(input: ByteString): Unit
+
+  /**
+   * Returns up to `maxBytes` decompressed bytes, or an empty `ByteString` when more input is needed,
+   * or when the end of the compressed data has been reached. Throws an exception if the input is invalid.
+   */
+  def decompress(maxBytes: Int): ByteString
+
+  /**
+   * Whether the end of the compressed data has been reached. The stream fails if the input completes before.
+   */
+  def isFinished: Boolean
+
+  /**
+   * Releases the resources of the decompressor. Called once when the stream stops, whether it finished,
+   * failed or was cancelled.
+   */
+  def close(): Unit
+}
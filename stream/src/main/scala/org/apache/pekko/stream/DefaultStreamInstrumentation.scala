@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.LongAdder
+
+import scala.collection.immutable
+
+import org.apache.pekko
+import pekko.actor.ClassicActorSystemProvider
+import pekko.annotation.ApiMayChange
+import pekko.stream.StreamInstrumentation.Island
+import pekko.stream.StreamInstrumentation.IslandProbe
+import pekko.stream.impl.StreamFlightRecorder
+import pekko.util.ccompat.JavaConverters._
+
+/**
+ * Instrumentation that counts the events of each operator, records the latency of their `onPush` and `onPull`
+ * handlers in histograms, and emits Java Flight Recorder events for the islands and, when the disabled by default
+ * events of the `Pekko/Stream/Operator` category are enabled, for every handler call.
+ *
+ * The metrics of operators with the same name are combined, so operators that need to be told apart should
+ * be given their own name with `named`.
+ */
+@ApiMayChange
+final class DefaultStreamInstrumentation(system: ClassicActorSystemProvider) extends StreamInstrumentation {
+  import DefaultStreamInstrumentation._
+
+  private val flightRecorder = StreamFlightRecorder(system.classicSystem)
+  private val metrics = new ConcurrentHashMap[String, OperatorMetrics]()
+
+  /**
+   * The durations of the batches of events that the actors run for the islands.
+   */
+  val batchLatency: LatencyHistogram = new LatencyHistogram
+
+  /**
+   * The metrics of all operators that have been run, ordered by name.
+   */
+  def operatorMetrics: immutable.Seq[OperatorMetrics] =
+    metrics.values.asScala.toVector.sortBy(_.operator)
+
+  /**
+   * Java API: The metrics of all operators that have been run, ordered by name.
+   */
+  def getOperatorMetrics: java.util.List[OperatorMetrics] = operatorMetrics.asJava
+
+  /**
+   * The metrics of the operators with the given name, or `null` if no such operator has been run.
+   */
+  def operatorMetrics(operator: String): OperatorMetrics = metrics.get(operator)
+
+  override def islandStarted(island: Island): IslandProbe = {
+    flightRecorder.islandStarted(island.name, island.operators.size)
+    val operators = island.operators.map(name => metrics.computeIfAbsent(name, new OperatorMetrics(_))).toArray
+    new Probe(island.name, operators, island.connections)
+  }
+
+  private final class Probe(island: String, operators: Array[OperatorMetrics], connections: Int)
+      extends IslandProbe {
+    // when the last element that went through each connection was handed to the downstream operator
+    private[this] val pushedAt = new Array[Long](connections)
+
+    override def onPush(connection: Int, operator: Int, startNanos: Long, endNanos: Long): Unit = {
+      val metrics = operators(operator)
+      metrics._pushes.increment()
+      metrics.pushLatency.record(endNanos - startNanos)
+      if (connection < pushedAt.length) pushedAt(connection) = endNanos
+      flightRecorder.operatorPush(island, metrics.operator, endNanos - startNanos)
+    }
+
+    override def onPull(connection: Int, operator: Int, startNanos: Long, endNanos: Long): Unit = {
+      val metrics = operators(operator)
+      metrics._pulls.increment()
+      metrics.pullLatency.record(endNanos - startNanos)
+      val pushed = if (connection < pushedAt.length) pushedAt(connection) else 0L
+      if (pushed != 0L) {
+        metrics._backpressuredNanos.add(startNanos - pushed)
+        pushedAt(connection) = 0L
+      }
+      flightRecorder.operatorPull(island, metrics.operator, endNanos - startNanos)
+    }
+
+    override def onBatch(events: Int, startNanos: Long, endNanos: Long): Unit = {
+      batchLatency.record(endNanos - startNanos)
+      flightRecorder.islandBatch(island, events, endNanos - startNanos)
+    }
+
+    override def islandStopped(): Unit =
+      flightRecorder.islandStopped(island)
+  }
+}
+
+@ApiMayChange
+object DefaultStreamInstrumentation {
+
+  /**
+   * Scala API: Instrumentation for the streams of the given actor system.
+   */
+  def apply(system: ClassicActorSystemProvider): DefaultStreamInstrumentation =
+    new DefaultStreamInstrumentation(system)
+
+  /**
+   * Java API: Instrumentation for the streams of the given actor system.
+   */
+  def create(system: ClassicActorSystemProvider): DefaultStreamInstrumentation =
+    new DefaultStreamInstrumentation(system)
+
+  /**
+   * The metrics of the operators with one name.
+   */
+  final class OperatorMetrics private[stream] (val operator: String) {
+    private[stream] val _pushes = new LongAdder
+    private[stream] val _pulls = new LongAdder
+    private[stream] val _backpressuredNanos = new LongAdder
+
+    /** The latency of the `onPush` handler */
+    val pushLatency: LatencyHistogram = new LatencyHistogram
+
+    /** The latency of the `onPull` handler */
+    val pullLatency: LatencyHistogram = new LatencyHistogram
+
+    /** The number of elements that were pushed to the operator */
+    def pushes: Long = _pushes.sum()
+
+    /** The number of times that the operator was pulled */
+    def pulls: Long = _pulls.sum()
+
+    /**
+     * The total time in nanoseconds from handing an element to the downstream operator until the next demand
+     * arrived from it, i.e. the time that the operator was back-pressured.
+     */
+    def backpressuredNanos: Long = _backpressuredNanos.sum()
+
+    override def toString: String =
+      s"OperatorMetrics($operator, pushes=$pushes, pulls=$pulls, backpressured=${backpressuredNanos}ns, " +
+      s"push=$pushLatency, pull=$pullLatency)"
+  }
+
+  /**
+   * A histogram of durations in nanoseconds, with a bucket for each power of two. Percentiles are reported as
+   * the upper bound of their bucket, so they are at most twice the real value.
+   */
+  final class LatencyHistogram private[stream] () {
+    private[this] val buckets = new AtomicLongArray(64)
+
+    /**
+     * Records a duration in nanoseconds.
+     */
+    private[stream] def record(nanos: Long): Unit =
+      buckets.incrementAndGet(64 - java.lang.Long.numberOfLeadingZeros(math.max(nanos, 0L)))
+
+    /**
+     * The number of recorded durations.
+     */
+    def count: Long = {
+      var total = 0L
+      var i = 0
+      while (i < 64) {
+        total += buckets.get(i)
+        i += 1
+      }
+      total
+    }
+
+    /**
+     * The duration in nanoseconds below which the fraction `p` of the recorded durations are, `0` if nothing was
+     * recorded.
+     */
+    def percentile(p: Double): Long = {
+      require(p >= 0.0 && p <= 1.0, s"percentile must be between 0.0 and 1.0, was [$p]")
+      val total = count
+      if (total == 0L) 0L
+      else {
+        val rank = math.max(1L, math.ceil(p * total).toLong)
+        var seen = 0L
+        var i = 0
+        while (i < 63 && seen + buckets.get(i) < rank) {
+          seen += buckets.get(i)
+          i += 1
+        }
+        if (i == 0) 0L else (1L << i) - 1
+      }
+    }
+
+    override def toString: String =
+      s"LatencyHistogram(count=$count, p50=${percentile(0.5)}ns, p99=${percentile(0.99)}ns)"
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import scala.concurrent.duration.{ Duration, FiniteDuration }
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.util.JavaDurationConverters._
+
+/**
+ * The windows of `aggregateWithEventTimeWindow`, in the time of the events rather than the time that they are
+ * processed at.
+ *
+ * A window is emitted when the watermark passes its end. The watermark is the largest event time seen so far minus
+ * the `maxOutOfOrderness`, so elements may arrive that much out of order and still be part of their window.
+ * Elements that arrive later than that update their window and emit it again, as long as they are within the
+ * `allowedLateness`. Windows are dropped once the watermark has passed their end by the `allowedLateness`, and
+ * elements for them are dropped as well.
+ */
+@ApiMayChange
+final class EventTimeWindows private (
+    /** INTERNAL API */
+    private[stream] val sizeMillis: Long,
+    /** INTERNAL API, 0 for session windows */
+    private[stream] val slideMillis: Long,
+    val maxOutOfOrderness: FiniteDuration,
+    val allowedLateness: FiniteDuration) {
+
+  /** INTERNAL API */
+  private[stream] def isSession: Boolean = slideMillis == 0L
+
+  /**
+   * Scala API: How much older than the largest event time seen so far the event time of elements may be and still
+   * be part of their window before it is emitted. Defaults to 0.
+   */
+  def withMaxOutOfOrderness(value: FiniteDuration): EventTimeWindows = {
+    require(value >= Duration.Zero, "maxOutOfOrderness must be >= 0")
+    new EventTimeWindows(sizeMillis, slideMillis, value, allowedLateness)
+  }
+
+  /**
+   * Java API: How much older than the largest event time seen so far the event time of elements may be and still
+   * be part of their window before it is emitted. Defaults to 0.
+   */
+  def withMaxOutOfOrderness(value: java.time.Duration): EventTimeWindows = withMaxOutOfOrderness(value.asScala)
+
+  /**
+   * Scala API: How long windows are kept after they have been emitted, so that late elements update them and emit
+   * them again. Defaults to 0, which drops late elements.
+   */
+  def withAllowedLateness(value: FiniteDuration): EventTimeWindows = {
+    require(value >= Duration.Zero, "allowedLateness must be >= 0")
+    new EventTimeWindows(sizeMillis, slideMillis, maxOutOfOrderness, value)
+  }
+
+  /**
+   * Java API: How long windows are kept after they have been emitted, so that late elements update them and emit
+   * them again. Defaults to 0, which drops late elements.
+   */
+  def withAllowedLateness(value: java.time.Duration): EventTimeWindows = withAllowedLateness(value.asScala)
+
+  /** Java API */
+  def getMaxOutOfOrderness: java.time.Duration = maxOutOfOrderness.asJava
+
+  /** Java API */
+  def getAllowedLateness: java.time.Duration = allowedLateness.asJava
+
+  override def toString: String =
+    if (isSession)
+      s"EventTimeWindows(session gap=${sizeMillis}ms, maxOutOfOrderness=$maxOutOfOrderness, " +
+      s"allowedLateness=$allowedLateness)"
+    else
+      s"EventTimeWindows(size=${sizeMillis}ms, slide=${slideMillis}ms, maxOutOfOrderness=$maxOutOfOrderness, " +
+      s"allowedLateness=$allowedLateness)"
+}
+
+@ApiMayChange
+object EventTimeWindows {
+
+  /**
+   * Scala API: Windows of the given size that follow each other without overlapping, so every element is part of
+   * one window. Windows start at multiples of their size.
+   */
+  def tumbling(size: FiniteDuration): EventTimeWindows = sliding(size, size)
+
+  /**
+   * Java API: Windows of the given size that follow each other without overlapping, so every element is part of
+   * one window. Windows start at multiples of their size.
+   */
+  def tumbling(size: java.time.Duration): EventTimeWindows = tumbling(size.asScala)
+
+  /**
+   * Scala API: Windows of the given size that start every `slide`, so every element is part of `size / slide`
+   * windows. Windows start at multiples of `slide`.
+   */
+  def sliding(size: FiniteDuration, slide: FiniteDuration): EventTimeWindows = {
+    require(size.toMillis > 0, "size must be at least 1 millisecond")
+    require(slide.toMillis > 0 && slide <= size, "slide must be at least 1 millisecond and not larger than size")
+    new EventTimeWindows(size.toMillis, slide.toMillis, Duration.Zero, Duration.Zero)
+  }
+
+  /**
+   * Java API: Windows of the given size that start every `slide`, so every element is part of `size / slide`
+   * windows. Windows start at multiples of `slide`.
+   */
+  def sliding(size: java.time.Duration, slide: java.time.Duration): EventTimeWindows =
+    sliding(size.asScala, slide.asScala)
+
+  /**
+   * Scala API: Windows of elements that are less than `gap` apart. A window ends `gap` after its last element, and
+   * windows that an element connects are merged.
+   */
+  def session(gap: FiniteDuration): EventTimeWindows = {
+    require(gap.toMillis > 0, "gap must be at least 1 millisecond")
+    new EventTimeWindows(gap.toMillis, 0L, Duration.Zero, Duration.Zero)
+  }
+
+  /**
+   * Java API: Windows of elements that are less than `gap` apart. A window ends `gap` after its last element, and
+   * windows that an element connects are merged.
+   */
+  def session(gap: java.time.Duration): EventTimeWindows = session(gap.asScala)
+}
+
+/**
+ * A window of `aggregateWithEventTimeWindow`, from `start` inclusive to `end` exclusive, in milliseconds of the
+ * event time.
+ */
+@ApiMayChange
+final class TimeWindow(val start: Long, val end: Long) {
+
+  /** Java API */
+  def getStart: Long = start
+
+  /** Java API */
+  def getEnd: Long = end
+
+  override def equals(other: Any): Boolean = other match {
+    case that: TimeWindow => start == that.start && end == that.end
+    case _                => false
+  }
+
+  override def hashCode(): Int = java.lang.Long.hashCode(start) * 31 + java.lang.Long.hashCode(end)
+
+  override def toString: String = s"TimeWindow($start, $end)"
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import java.nio.file.Path
+
+/**
+ * A region of a file, `count` bytes starting at `position`, that is sent without reading it into memory
+ * when it is passed to a TCP connection, see `Tcp.fileTransfer`.
+ *
+ * @param path the file
+ * @param position the offset of the region in the file
+ * @param count the size of the region in bytes
+ */
+final case class FileRegion(path: Path, position: Long, count: Long) {
+  require(position >= 0, "position must not be negative")
+  require(count >= 0, "count must not be negative")
+
+  /** Java API */
+  def getPath: Path = path
+
+  /** Java API */
+  def getPosition: Long = position
+
+  /** Java API */
+  def getCount: Long = count
+}
+
+object FileRegion {
+
+  /** Java API */
+  def create(path: Path, position: Long, count: Long): FileRegion = FileRegion(path, position, count)
+}
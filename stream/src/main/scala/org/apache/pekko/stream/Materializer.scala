@@ -247,6 +247,22 @@ object Materializer {
   def createMaterializer(systemProvider: ClassicActorSystemProvider): Materializer =
     apply(systemProvider)
 
+  /**
+   * Scala API: Create a new materializer that will stay alive as long as the system does or until it is explicitly
+   * stopped, and that adds `defaultAttributes` to the attributes of the streams that it runs, for example
+   * [[ActorAttributes.instrumentation]] to measure all of them. Attributes of the streams take precedence.
+   */
+  def apply(systemProvider: ClassicActorSystemProvider, defaultAttributes: Attributes): Materializer =
+    SystemMaterializer(systemProvider.classicSystem).createAdditionalSystemMaterializer(defaultAttributes)
+
+  /**
+   * Java API: Create a new materializer that will stay alive as long as the system does or until it is explicitly
+   * stopped, and that adds `defaultAttributes` to the attributes of the streams that it runs, for example
+   * [[ActorAttributes.instrumentation]] to measure all of them. Attributes of the streams take precedence.
+   */
+  def createMaterializer(systemProvider: ClassicActorSystemProvider, defaultAttributes: Attributes): Materializer =
+    apply(systemProvider, defaultAttributes)
+
 }
 
 /**
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import scala.collection.immutable
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.util.ccompat.JavaConverters._
+
+/**
+ * SPI for measuring the operators of a stream from within the interpreter that runs them, without adding
+ * operators such as `wireTap` to the stream.
+ *
+ * Instrumentation is enabled with the [[ActorAttributes.Instrumentation]] attribute, either for a whole
+ * materializer by passing it to `Materializer(system, attributes)` or for a single stream or part of a stream
+ * with `withAttributes`. Without the attribute the interpreter only checks for a missing probe on each event.
+ *
+ * [[DefaultStreamInstrumentation]] collects counters and latency histograms per operator and emits
+ * Java Flight Recorder events.
+ */
+@ApiMayChange
+abstract class StreamInstrumentation {
+
+  /**
+   * Called when a fused island of operators starts running. The returned probe is then invoked by the actor that
+   * runs the island, i.e. by one thread at a time, and needs no synchronization of its own state.
+   *
+   * May return `null` to not measure the island.
+   */
+  def islandStarted(island: StreamInstrumentation.Island): StreamInstrumentation.IslandProbe
+}
+
+@ApiMayChange
+object StreamInstrumentation {
+
+  /**
+   * A fused island of operators that is run by one actor.
+   *
+   * @param name the name of the actor that runs the island
+   * @param operators the names of the operators of the island, indexed by the `operator` passed to the probe
+   * @param connections the number of connections between the operators, the `connection` passed to the probe
+   *                    is less than this
+   */
+  final class Island(val name: String, val operators: immutable.IndexedSeq[String], val connections: Int) {
+
+    /** Java API */
+    def getOperators: java.util.List[String] = operators.asJava
+
+    override def toString: String = s"Island($name, ${operators.mkString("[", ", ", "]")}, $connections)"
+  }
+
+  /**
+   * Measures the events of one island. All times are values of `System.nanoTime`.
+   *
+   * `connection` identifies the connection between two operators of the island, and `operator` is the index
+   * of the operator in [[Island.operators]] whose handler was run.
+   */
+  abstract class IslandProbe {
+
+    /**
+     * The `onPush` handler of `operator` was run for an element that arrived through `connection`.
+     */
+    def onPush(connection: Int, operator: Int, startNanos: Long, endNanos: Long): Unit
+
+    /**
+     * The `onPull` handler of `operator` was run for demand that arrived through `connection`.
+     */
+    def onPull(connection: Int, operator: Int, startNanos: Long, endNanos: Long): Unit
+
+    /**
+     * The actor ran `events` events of the island in one batch.
+     */
+    def onBatch(events: Int, startNanos: Long, endNanos: Long): Unit
+
+    /**
+     * The island completed or was aborted, the probe will not be called anymore.
+     */
+    def islandStopped(): Unit
+  }
+}
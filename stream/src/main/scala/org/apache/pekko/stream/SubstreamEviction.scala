@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import java.util.Optional
+
+import scala.concurrent.duration.{ Duration, FiniteDuration }
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.util.JavaDurationConverters._
+import pekko.util.OptionConverters._
+
+/**
+ * Configures `groupBy` to close substreams instead of failing when the maximum number of substreams is reached.
+ * The substream of the key that has not seen an element for the longest time is completed to make room for the
+ * substream of a new key. A closed substream is opened again when another element with its key arrives.
+ */
+@ApiMayChange
+final class SubstreamEviction private (
+    val idleTimeout: Option[FiniteDuration],
+    val metrics: Option[SubstreamMetrics]) {
+
+  /**
+   * Scala API: Also complete substreams that have not seen an element within the given timeout.
+   */
+  def withIdleTimeout(timeout: FiniteDuration): SubstreamEviction = {
+    require(timeout > Duration.Zero, "idleTimeout must be > 0")
+    new SubstreamEviction(Some(timeout), metrics)
+  }
+
+  /**
+   * Java API: Also complete substreams that have not seen an element within the given timeout.
+   */
+  def withIdleTimeout(timeout: java.time.Duration): SubstreamEviction = withIdleTimeout(timeout.asScala)
+
+  /**
+   * Java API: The timeout after which substreams without elements are completed, if any.
+   */
+  def getIdleTimeout: Optional[java.time.Duration] = idleTimeout.map(_.asJava).toJava
+
+  /**
+   * Count the opened and evicted substreams in the given metrics.
+   */
+  def withMetrics(metrics: SubstreamMetrics): SubstreamEviction = new SubstreamEviction(idleTimeout, Some(metrics))
+
+  /**
+   * Java API: The metrics that count the opened and evicted substreams, if any.
+   */
+  def getMetrics: Optional[SubstreamMetrics] = metrics.toJava
+
+  override def toString: String = s"SubstreamEviction(idleTimeout=$idleTimeout)"
+}
+
+@ApiMayChange
+object SubstreamEviction {
+
+  /**
+   * Complete the least recently active substream when the maximum number of substreams is reached.
+   */
+  val leastRecentlyActive: SubstreamEviction = new SubstreamEviction(None, None)
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.LongAdder
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+
+/**
+ * Counts the substreams of a `groupBy` with [[SubstreamEviction]]. The counts can be read from any thread.
+ *
+ * The counts of all streams that the metrics are used for are combined, so they are usually created for
+ * each `groupBy` that should be observed on its own.
+ */
+@ApiMayChange
+final class SubstreamMetrics {
+  private val _open = new AtomicInteger
+  private val _opened = new LongAdder
+  private val _evicted = new LongAdder
+  private val _idle = new LongAdder
+
+  /** The number of substreams that are currently open */
+  def openSubstreams: Int = _open.get()
+
+  /** The number of substreams that have been opened, including the ones that were opened again after eviction */
+  def openedSubstreams: Long = _opened.sum()
+
+  /** The number of substreams that were completed to make room for the substream of a new key */
+  def evictedSubstreams: Long = _evicted.sum()
+
+  /** The number of substreams that were completed because they did not see elements within the idle timeout */
+  def idleSubstreams: Long = _idle.sum()
+
+  /** INTERNAL API */
+  private[stream] def substreamOpened(): Unit = {
+    _open.incrementAndGet()
+    _opened.increment()
+  }
+
+  /** INTERNAL API */
+  private[stream] def substreamClosed(): Unit = _open.decrementAndGet()
+
+  /** INTERNAL API */
+  private[stream] def substreamEvicted(): Unit = _evicted.increment()
+
+  /** INTERNAL API */
+  private[stream] def substreamIdle(): Unit = _idle.increment()
+
+  override def toString: String =
+    s"SubstreamMetrics(open=$openSubstreams, opened=$openedSubstreams, evicted=$evictedSubstreams, " +
+    s"idle=$idleSubstreams)"
+}
+
+@ApiMayChange
+object SubstreamMetrics {
+
+  /** Java API */
+  def create(): SubstreamMetrics = new SubstreamMetrics
+}
@@ -80,6 +80,17 @@ final class SystemMaterializer(system: ExtendedActorSystem) extends Extension {
     Await.result(started, materializerTimeout.duration).materializer
   }
 
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[pekko] def createAdditionalSystemMaterializer(attributes: Attributes): Materializer = {
+    val started =
+      (materializerGuardian ? MaterializerGuardian.StartMaterializerWithAttributes(attributes))
+        .mapTo[MaterializerGuardian.MaterializerStarted]
+    Await.result(started, materializerTimeout.duration).materializer
+  }
+
   /**
    * INTERNAL API
    */
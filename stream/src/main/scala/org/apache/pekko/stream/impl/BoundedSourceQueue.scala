@@ -13,15 +13,21 @@
 
 package org.apache.pekko.stream.impl
 
+import java.util.concurrent.CompletionStage
 import java.util.concurrent.atomic.AtomicReference
 
 import scala.annotation.tailrec
+import scala.collection.immutable
+import scala.concurrent.{ Future, Promise }
 
 import org.apache.pekko
+import pekko.{ Done => PekkoDone }
 import pekko.annotation.InternalApi
 import pekko.dispatch.AbstractBoundedNodeQueue
 import pekko.stream._
 import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, OutHandler, StageLogging }
+import pekko.util.FutureConverters._
+import pekko.util.ccompat.JavaConverters._
 
 /**
  * INTERNAL API
@@ -50,6 +56,9 @@ import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, Ou
 
     val state = new AtomicReference[State](Running)
     val queue = new AbstractBoundedNodeQueue[T](bufferSize) {}
+    // completed when enough of the buffer is free again for producers waiting in `whenCapacityAvailable`
+    val capacityAvailable = new AtomicReference[Promise[PekkoDone]](null)
+    val capacityLowWatermark = math.max(1, bufferSize / 2)
 
     object Logic extends GraphStageLogic(shape) with OutHandler with StageLogging {
 
@@ -96,8 +105,10 @@ import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, Ou
                   clearNeedsActivation()
                   run()
                 } // else Queue.isEmpty && setNeedsActivation was true: waiting for next offer
-              } else
+              } else {
                 push(out, next) // and then: wait for pull
+                if (capacityAvailable.get() ne null) notifyCapacityAvailable(force = false)
+              }
             } // else: wait for pull
 
           case Done(QueueOfferResult.QueueClosed) =>
@@ -114,6 +125,8 @@ import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, Ou
     }
 
     object Mat extends BoundedSourceQueue[T] {
+      private val Available = Future.successful(PekkoDone)
+
       override def offer(elem: T): QueueOfferResult = state.get() match {
         case Running | NeedsActivation =>
           if (queue.add(elem)) {
@@ -130,6 +143,40 @@ import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, Ou
         case Done(result) => result
       }
 
+      override def offerAll(elems: immutable.Iterable[T]): Int = offerAll(elems.iterator)
+
+      override def offerAll(elems: java.lang.Iterable[T]): Int = offerAll(elems.iterator.asScala)
+
+      private def offerAll(elems: Iterator[T]): Int = state.get() match {
+        case Running | NeedsActivation =>
+          var enqueued = 0
+          while (elems.hasNext && queue.add(elems.next())) enqueued += 1
+          // one wake up for all of the elements, see `offer`
+          if (enqueued > 0 && state.get() == NeedsActivation && clearNeedsActivation())
+            Logic.callback.invoke(())
+          enqueued
+        case _: Done => 0
+      }
+
+      override def remainingCapacity(): Int = math.max(0, bufferSize - queue.size())
+
+      @tailrec
+      override def whenCapacityAvailable: Future[PekkoDone] =
+        if (hasCapacity || state.get().isInstanceOf[Done]) Available
+        else
+          capacityAvailable.get() match {
+            case null =>
+              val promise = Promise[PekkoDone]()
+              if (capacityAvailable.compareAndSet(null, promise)) {
+                // the stage may have drained the buffer before it could see the promise
+                if (hasCapacity || state.get().isInstanceOf[Done]) notifyCapacityAvailable(force = true)
+                promise.future
+              } else whenCapacityAvailable
+            case promise => promise.future
+          }
+
+      override def getWhenCapacityAvailable: CompletionStage[PekkoDone] = whenCapacityAvailable.asJava
+
       override def complete(): Unit = {
         if (state.get().isInstanceOf[Done])
           throw new IllegalStateException("The queue has already been completed.")
@@ -147,6 +194,14 @@ import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, Ou
       override def size(): Int = queue.size()
     }
 
+    def hasCapacity: Boolean = bufferSize - queue.size() >= capacityLowWatermark
+
+    def notifyCapacityAvailable(force: Boolean): Unit =
+      if (force || hasCapacity) {
+        val promise = capacityAvailable.getAndSet(null)
+        if (promise ne null) promise.trySuccess(PekkoDone)
+      }
+
     // some state transition helpers
     @tailrec
     def setDone(done: Done): Boolean =
@@ -154,7 +209,10 @@ import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, Ou
         case _: Done => false
         case x =>
           if (!state.compareAndSet(x, done)) setDone(done)
-          else true
+          else {
+            notifyCapacityAvailable(force = true) // the next offer will see the completion
+            true
+          }
       }
 
     @tailrec
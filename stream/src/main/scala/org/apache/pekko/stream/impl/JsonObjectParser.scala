@@ -19,6 +19,7 @@ import org.apache.pekko
 import pekko.annotation.InternalApi
 import pekko.stream.scaladsl.Framing.FramingException
 import pekko.util.ByteString
+import pekko.util.SWARUtil
 
 /**
  * INTERNAL API: Use [[pekko.stream.scaladsl.JsonFraming]] instead.
@@ -119,11 +120,19 @@ import pekko.util.ByteString
     if (bufSize > 0) {
       skipToNextObject(bufSize)
       val maxObjectLengthIndex = if (pos + maximumObjectLength < 0) Int.MaxValue else pos + maximumObjectLength
-
-      while (pos < bufSize && pos < maxObjectLengthIndex && !completedObject) {
-        val input = buffer(pos)
-        proceed(input)
-        pos += 1
+      val until = math.min(bufSize, maxObjectLengthIndex)
+
+      while (pos < until && !completedObject) {
+        // skip to the next byte that can change the state, the byte after a backslash in a string always does
+        val next =
+          if (!inStringExpression) SWARUtil.indexOfAny(buffer, DoubleQuote, CurlyBraceStart, CurlyBraceEnd, pos, until)
+          else if (inBackslashEscape) pos
+          else SWARUtil.indexOfAny(buffer, DoubleQuote, Backslash, Backslash, pos, until)
+        if (next == -1) pos = until
+        else {
+          proceed(buffer(next))
+          pos = next + 1
+        }
       }
 
       if (pos >= maxObjectLengthIndex)
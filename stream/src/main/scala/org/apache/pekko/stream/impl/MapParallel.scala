@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.annotation.InternalApi
+import pekko.stream.ActorAttributes
+import pekko.stream.FlowShape
+import pekko.stream.Graph
+import pekko.stream.Supervision
+import pekko.stream.scaladsl.Balance
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.GraphDSL
+import pekko.stream.scaladsl.Merge
+import pekko.stream.scaladsl.MergeSequence
+import pekko.stream.scaladsl.Partition
+
+/**
+ * INTERNAL API
+ *
+ * Graphs for `mapParallel` and `mapParallelPartitioned`, which run the function in `parallelism` sub-pipelines
+ * that are each separated by async boundaries, so that they run in separate actors. The buffers of the async
+ * boundaries are given by the [[pekko.stream.Attributes.InputBuffer]] attribute.
+ */
+@InternalApi private[pekko] object MapParallel {
+
+  // a dropped element would stall the MergeSequence, so failures of f always fail the stream
+  private val stopping = ActorAttributes.supervisionStrategy(Supervision.stoppingDecider)
+
+  /**
+   * Elements are distributed to the sub-pipelines as they have demand, and the results are emitted in the
+   * order of the elements from upstream.
+   */
+  def ordered[In, Out](parallelism: Int, f: In => Out): Graph[FlowShape[In, Out], NotUsed] = {
+    require(parallelism >= 1, "parallelism must be at least 1")
+    if (parallelism == 1) Flow[In].map(f).withAttributes(stopping).async
+    else
+      Flow.fromGraph(GraphDSL.create() { implicit b =>
+        import GraphDSL.Implicits._
+
+        val sequence = b.add(Flow[In].zipWithIndex)
+        val balance = b.add(Balance[(In, Long)](parallelism))
+        val merge = b.add(MergeSequence[(Out, Long)](parallelism)(_._2))
+        val unwrap = b.add(Flow[(Out, Long)].map(_._1))
+
+        sequence ~> balance
+        for (i <- 0 until parallelism) {
+          balance.out(i) ~> Flow[(In, Long)]
+            .map { case (elem, seqNr) => (f(elem), seqNr) }
+            .withAttributes(stopping)
+            .async ~> merge.in(i)
+        }
+        merge.out ~> unwrap
+
+        FlowShape(sequence.in, unwrap.out)
+      })
+  }
+
+  /**
+   * Elements are assigned to the sub-pipelines by the hash of their partition key, so the results for the same
+   * key are emitted in the order of the elements from upstream, while different keys don't wait for each other.
+   */
+  def partitioned[In, Out](parallelism: Int, partitioner: In => Any, f: In => Out): Graph[FlowShape[In, Out], NotUsed] = {
+    require(parallelism >= 1, "parallelism must be at least 1")
+    if (parallelism == 1) Flow[In].map(f).async
+    else
+      Flow.fromGraph(GraphDSL.create() { implicit b =>
+        import GraphDSL.Implicits._
+
+        val partition = b.add(Partition[In](parallelism, elem => math.abs(partitioner(elem).## % parallelism)))
+        val merge = b.add(Merge[Out](parallelism))
+
+        for (i <- 0 until parallelism) {
+          partition.out(i) ~> Flow[In].map(f).async ~> merge.in(i)
+        }
+
+        FlowShape(partition.in, merge.out)
+      })
+  }
+}
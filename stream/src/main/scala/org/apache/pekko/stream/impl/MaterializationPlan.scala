@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.stream.Attributes
+
+/**
+ * INTERNAL API
+ */
+@InternalApi private[pekko] object MaterializationPlan {
+
+  private final class EffectiveAttributes(val base: Attributes, val attributes: Array[Attributes])
+
+  /**
+   * Traverse `traversal` once and record its steps in the order they must be materialized.
+   */
+  def apply(traversal: Traversal): MaterializationPlan = {
+    val steps = Vector.newBuilder[Traversal]
+    val attributes = Vector.newBuilder[Attributes]
+
+    val attributesStack = new java.util.ArrayDeque[Attributes](8)
+    attributesStack.addLast(Attributes.none)
+    val traversalStack = new java.util.ArrayDeque[Traversal](16)
+    traversalStack.addLast(traversal)
+
+    while (!traversalStack.isEmpty) {
+      var current = traversalStack.removeLast()
+      while (current ne EmptyTraversal) {
+        var nextStep: Traversal = EmptyTraversal
+        current match {
+          case Concat(first, next) =>
+            if (next ne EmptyTraversal) traversalStack.add(next)
+            nextStep = first
+          case PushAttributes(attr) =>
+            attributesStack.addLast(attributesStack.getLast and attr)
+          case PopAttributes =>
+            attributesStack.removeLast()
+          case Prepared(plan) =>
+            var i = 0
+            while (i < plan.steps.length) {
+              steps += plan.steps(i)
+              attributes += (attributesStack.getLast and plan.relativeAttributes(i))
+              i += 1
+            }
+          case step =>
+            steps += step
+            attributes += attributesStack.getLast
+        }
+        current = nextStep
+      }
+    }
+
+    new MaterializationPlan(steps.result().toArray, attributes.result().toArray)
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * The steps of a [[Traversal]] in the order they are materialized, with the nesting of the traversal already
+ * resolved. The attributes of each step are relative to the attributes at the start of the plan. A plan is
+ * used for a [[Prepared]] traversal, which is materialized without traversing the whole tree again.
+ */
+@InternalApi private[pekko] final class MaterializationPlan private (
+    val steps: Array[Traversal],
+    val relativeAttributes: Array[Attributes]) {
+  import MaterializationPlan.EffectiveAttributes
+
+  // benign race, at worst the attributes are combined again
+  @volatile private var effective: EffectiveAttributes = _
+
+  /**
+   * The attributes of each step when the plan is materialized with the given `base` attributes.
+   * The result for the latest `base` is cached, since a plan is typically materialized with the same
+   * defaults of the materializer.
+   */
+  def attributes(base: Attributes): Array[Attributes] = {
+    val e = effective
+    if ((e ne null) && ((e.base eq base) || e.base == base)) e.attributes
+    else {
+      val result = new Array[Attributes](relativeAttributes.length)
+      var i = 0
+      while (i < result.length) {
+        result(i) = base and relativeAttributes(i)
+        i += 1
+      }
+      effective = new EffectiveAttributes(base, result)
+      result
+    }
+  }
+
+  override def toString: String = s"MaterializationPlan(${steps.length} steps)"
+}
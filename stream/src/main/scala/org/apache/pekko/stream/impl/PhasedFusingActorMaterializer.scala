@@ -553,6 +553,8 @@ private final case class SavedIslandData(
             islandTracking.enterIsland(tag, attributesStack.getLast)
           case ExitIsland =>
             islandTracking.exitIsland()
+          case Prepared(plan) =>
+            materializePlan(plan, islandTracking, attributesStack.getLast, matValueStack)
           case _ =>
         }
         current = nextStep
@@ -574,6 +576,47 @@ private final case class SavedIslandData(
 
   }
 
+  // same as the traversal in materialize, but the steps and attributes have been resolved up front
+  private def materializePlan(
+      plan: MaterializationPlan,
+      islandTracking: IslandTracking,
+      baseAttributes: Attributes,
+      matValueStack: java.util.ArrayDeque[Any]): Unit = {
+    val steps = plan.steps
+    val attributes = plan.attributes(baseAttributes)
+    var i = 0
+    while (i < steps.length) {
+      steps(i) match {
+        case MaterializeAtomic(mod, outToSlot) =>
+          if (Debug) println(s"materializing module: $mod")
+          val matAndStage = islandTracking.getCurrentPhase.materializeAtomic(mod, attributes(i))
+          val logic = matAndStage._1
+          matValueStack.addLast(matAndStage._2)
+
+          val stageGlobalOffset = islandTracking.getCurrentOffset
+
+          wireInlets(islandTracking, mod, logic)
+          wireOutlets(islandTracking, mod, logic, stageGlobalOffset, outToSlot)
+        case Pop =>
+          matValueStack.removeLast()
+        case PushNotUsed =>
+          matValueStack.addLast(NotUsed)
+        case transform: Transform =>
+          matValueStack.addLast(transform(matValueStack.removeLast()))
+        case compose: Compose =>
+          val second = matValueStack.removeLast()
+          val first = matValueStack.removeLast()
+          matValueStack.addLast(compose(first, second))
+        case EnterIsland(tag) =>
+          islandTracking.enterIsland(tag, attributes(i))
+        case ExitIsland =>
+          islandTracking.exitIsland()
+        case _ =>
+      }
+      i += 1
+    }
+  }
+
   private def wireInlets(
       islandTracking: IslandTracking,
       mod: StreamLayout.AtomicModule[Shape, Any],
@@ -798,6 +841,8 @@ private final case class SavedIslandData(
   }
 
   override def onIslandReady(): Unit = {
+    OperatorFusion.rewire(logics, connections)
+    ChunkedTransport.rewire(logics, connections, maxConnections)
 
     val totalConnections = maxConnections + outConnections.size + 1
     val finalConnections = java.util.Arrays.copyOf(connections, totalConnections)
@@ -134,6 +134,8 @@ import pekko.stream.Attributes._
     val inputStreamSource = name("inputStreamSource") and IODispatcher
     val outputStreamSource = name("outputStreamSource")
     val fileSource = name("fileSource") and IODispatcher
+    val mappedFileSource = name("mappedFileSource") and IODispatcher
+    val fileRegionSource = name("fileRegionSource") and IODispatcher
     val unfoldResourceSource = name("unfoldResourceSource") and IODispatcher
     val unfoldResourceSourceAsync = name("unfoldResourceSourceAsync") and IODispatcher
     val asJavaStream = name("asJavaStream") and IODispatcher
@@ -162,6 +164,7 @@ import pekko.stream.Attributes._
     val outputStreamSink = name("outputStreamSink") and IODispatcher
     val inputStreamSink = name("inputStreamSink")
     val fileSink = name("fileSink") and IODispatcher
+    val mappedFileSink = name("mappedFileSink") and IODispatcher
     val fromJavaStream = name("fromJavaStream")
 
     val inputBoundary = name("input-boundary")
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl
+
+import org.apache.pekko
+import pekko.actor.{ ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import pekko.annotation.InternalApi
+import pekko.util.FlightRecorderLoader
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+object StreamFlightRecorder extends ExtensionId[StreamFlightRecorder] with ExtensionIdProvider {
+
+  override def lookup: ExtensionId[_ <: Extension] = this
+
+  override def createExtension(system: ExtendedActorSystem): StreamFlightRecorder =
+    FlightRecorderLoader.load[StreamFlightRecorder](
+      system,
+      "org.apache.pekko.stream.impl.jfr.JFRStreamFlightRecorder",
+      NoOpStreamFlightRecorder)
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi private[pekko] trait StreamFlightRecorder extends Extension {
+  def islandStarted(island: String, operators: Int): Unit
+  def islandStopped(island: String): Unit
+  def operatorPush(island: String, operator: String, durationNanos: Long): Unit
+  def operatorPull(island: String, operator: String, durationNanos: Long): Unit
+  def islandBatch(island: String, events: Int, durationNanos: Long): Unit
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[pekko] case object NoOpStreamFlightRecorder extends StreamFlightRecorder {
+  override def islandStarted(island: String, operators: Int): Unit = ()
+  override def islandStopped(island: String): Unit = ()
+  override def operatorPush(island: String, operator: String, durationNanos: Long): Unit = ()
+  override def operatorPull(island: String, operator: String, durationNanos: Long): Unit = ()
+  override def islandBatch(island: String, events: Int, durationNanos: Long): Unit = ()
+}
@@ -201,6 +201,13 @@ import pekko.util.unused
  */
 @InternalApi private[pekko] case object ExitIsland extends Traversal
 
+/**
+ * INTERNAL API
+ *
+ * A traversal that has been resolved into a [[MaterializationPlan]] up front, see `RunnableGraph.prepared`.
+ */
+@InternalApi private[pekko] final case class Prepared(plan: MaterializationPlan) extends Traversal
+
 /**
  * INTERNAL API
  */
@@ -305,6 +312,7 @@ import pekko.util.unused
         case PopAttributes        => prindent("pop attr")
         case EnterIsland(tag)     => prindent("enter island " + tag)
         case ExitIsland           => prindent("exit island")
+        case Prepared(plan)       => prindent("prepared " + plan)
         case MaterializeAtomic(mod, outToSlots) =>
           prindent("materialize " + mod + " " + outToSlots.mkString("[", ", ", "]"))
         case Concat(first, next) =>
@@ -389,6 +397,24 @@ import pekko.util.unused
     case _                                                                => false
   }
 
+  /**
+   * Resolve the traversal of a completed builder into a [[MaterializationPlan]] that is reused
+   * for each materialization. The attributes of the builder are part of its traversal and thereby
+   * of the plan, so they must not be added again.
+   */
+  def prepared(builder: TraversalBuilder): TraversalBuilder = {
+    require(builder.isTraversalComplete, "Only a completed graph can be prepared")
+    builder match {
+      case CompletedTraversalBuilder(_: Prepared, _, _, _, OptionVal.None) => builder
+      case _ =>
+        CompletedTraversalBuilder(
+          Prepared(MaterializationPlan(builder.traversal)),
+          inSlots = 0,
+          inToOffset = Map.empty,
+          attributes = Attributes.none)
+    }
+  }
+
 }
 
 /**
@@ -15,6 +15,7 @@ package org.apache.pekko.stream.impl.fusing
 
 import java.util
 import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicReference
 
 import scala.annotation.tailrec
@@ -79,6 +80,59 @@ import org.reactivestreams.Subscription
   def props(shell: GraphInterpreterShell): Props =
     Props(new ActorGraphInterpreter(shell)).withDeploy(Deploy.local)
 
+  /**
+   * The Subscriber of a [[BatchingActorInputBoundary]]. When it is subscribed to the [[ActorOutputBoundary]] of
+   * another interpreter, the output boundary passes the elements with [[#offer]] through a single producer, single
+   * consumer ring instead of calling `onNext`. The consumer is only sent a wakeup message when it has drained the
+   * ring, so that elements which arrive while the consumer is busy are processed in one batch with one message.
+   * The ring never overflows since it has the capacity of the input buffer, which bounds the requested elements.
+   *
+   * Completion and failure are still signalled with the Reactive Streams methods, the consumer must drain the
+   * ring before processing the completion.
+   */
+  abstract class LocalBoundarySubscriber(capacity: Int) extends Subscriber[Any] {
+    private val ring = new Array[AnyRef](capacity)
+    private val mask = capacity - 1
+    // written by the producer only, the volatile write publishes the element
+    @volatile private var writeIndex = 0L
+    // read and written by the consumer only
+    private var readIndex = 0L
+    private val needWakeup = new AtomicBoolean(true)
+
+    /**
+     * Called from the producer when it offered an element to a drained ring, must make the consumer call [[#drain]].
+     */
+    protected def wakeup(): Unit
+
+    /**
+     * Called from the producer instead of `onNext`.
+     */
+    def offer(elem: Any): Unit = {
+      val index = writeIndex
+      ring((index & mask).toInt) = elem.asInstanceOf[AnyRef]
+      writeIndex = index + 1
+      // only one wakeup message until the consumer has drained the ring, see MergeHub for the reasoning
+      if (needWakeup.get() && needWakeup.compareAndSet(true, false)) wakeup()
+    }
+
+    /**
+     * Called from the consumer to pass all elements in the ring to `onElement`.
+     */
+    @tailrec final def drain(onElement: Any => Unit): Unit = {
+      val available = writeIndex
+      while (readIndex != available) {
+        val slot = (readIndex & mask).toInt
+        val elem = ring(slot)
+        ring(slot) = null
+        readIndex += 1
+        onElement(elem)
+      }
+      needWakeup.set(true)
+      // an element offered after the last read but before needWakeup was set did not send a wakeup
+      if (readIndex != writeIndex && needWakeup.compareAndSet(true, false)) drain(onElement)
+    }
+  }
+
   @InternalStableApi
   class BatchingActorInputBoundary(
       size: Int,
@@ -122,6 +176,17 @@ import org.reactivestreams.Subscription
       override def cancel(): Unit = ()
     }
     // can't be final because of SI-4440
+    case class OnNextAvailable(shell: GraphInterpreterShell) extends SimpleBoundaryEvent {
+      override def execute(): Unit = {
+        if (GraphInterpreter.Debug) println(s"${interpreter.Name} onNextAvailable port=$internalPortName")
+        drainSubscriber()
+      }
+
+      override def logic: GraphStageLogic = BatchingActorInputBoundary.this
+
+      override def cancel(): Unit = ()
+    }
+    // can't be final because of SI-4440
     case class OnSubscribe(shell: GraphInterpreterShell, subscription: Subscription) extends SimpleBoundaryEvent {
       override def execute(): Unit = {
         if (GraphInterpreter.Debug) println(s"${interpreter.Name}  onSubscribe port=$internalPortName")
@@ -154,29 +219,39 @@ import org.reactivestreams.Subscription
 
     def setActor(actor: ActorRef): Unit = this.actor = actor
 
-    override def preStart(): Unit = {
-      publisher.subscribe(new Subscriber[Any] {
-        override def onError(t: Throwable): Unit = {
-          ReactiveStreamsCompliance.requireNonNullException(t)
-          actor ! OnError(shell, t)
-        }
+    private val subscriber: LocalBoundarySubscriber = new LocalBoundarySubscriber(size) {
+      private val onNextAvailable = OnNextAvailable(shell)
 
-        override def onSubscribe(s: Subscription): Unit = {
-          ReactiveStreamsCompliance.requireNonNullSubscription(s)
-          actor ! OnSubscribe(shell, s)
-        }
+      override protected def wakeup(): Unit = actor ! onNextAvailable
 
-        override def onComplete(): Unit = {
-          actor ! OnComplete(shell)
-        }
+      override def onError(t: Throwable): Unit = {
+        ReactiveStreamsCompliance.requireNonNullException(t)
+        actor ! OnError(shell, t)
+      }
 
-        override def onNext(t: Any): Unit = {
-          ReactiveStreamsCompliance.requireNonNullElement(t)
-          actor ! OnNext(shell, t)
-        }
-      })
+      override def onSubscribe(s: Subscription): Unit = {
+        ReactiveStreamsCompliance.requireNonNullSubscription(s)
+        actor ! OnSubscribe(shell, s)
+      }
+
+      override def onComplete(): Unit = {
+        actor ! OnComplete(shell)
+      }
+
+      override def onNext(t: Any): Unit = {
+        ReactiveStreamsCompliance.requireNonNullElement(t)
+        actor ! OnNext(shell, t)
+      }
     }
 
+    override def preStart(): Unit =
+      publisher.subscribe(subscriber)
+
+    private val onNextCallback: Any => Unit = onNext
+
+    private def drainSubscriber(): Unit =
+      subscriber.drain(onNextCallback)
+
     @InternalStableApi
     private def dequeue(): Any = {
       val elem = inputBuffer(nextInputElementCursor)
@@ -237,6 +312,8 @@ import org.reactivestreams.Subscription
 
     def onComplete(): Unit =
       if (!upstreamCompleted) {
+        // elements passed through the ring before the completion
+        drainSubscriber()
         upstreamCompleted = true
         if (inputBufferElements == 0) complete(out)
       }
@@ -396,6 +473,8 @@ import org.reactivestreams.Subscription
     def getActor: ActorRef = this.actor
 
     private var subscriber: Subscriber[Any] = _
+    // set when the subscriber is the input boundary of another interpreter, the elements are passed through its ring
+    private var localSubscriber: LocalBoundarySubscriber = _
     private var downstreamDemand: Long = 0L
     // This flag is only used if complete/fail is called externally since this op turns into a Finished one inside the
     // interpreter (i.e. inside this op this flag has no effects since if it is completed the op will not be invoked)
@@ -407,7 +486,8 @@ import org.reactivestreams.Subscription
 
     private def onNext(elem: Any): Unit = {
       downstreamDemand -= 1
-      tryOnNext(subscriber, elem)
+      if (localSubscriber ne null) localSubscriber.offer(elem)
+      else tryOnNext(subscriber, elem)
     }
 
     private def complete(): Unit = {
@@ -456,6 +536,10 @@ import org.reactivestreams.Subscription
       publisher.takePendingSubscribers().foreach { sub =>
         if (subscriber eq null) {
           subscriber = sub
+          localSubscriber = sub match {
+            case local: LocalBoundarySubscriber => local
+            case _                              => null
+          }
           val subscription = new Subscription with SubscriptionWithCancelException {
             override def request(elements: Long): Unit = actor ! RequestMore(ActorOutputBoundary.this, elements)
             override def cancel(cause: Throwable): Unit = actor ! Cancel(ActorOutputBoundary.this, cause)
@@ -485,6 +569,7 @@ import org.reactivestreams.Subscription
     def cancel(cause: Throwable): Unit = {
       downstreamCompletionCause = Some(cause)
       subscriber = null
+      localSubscriber = null
       publisher.shutdown(Some(new ActorPublisher.NormalShutdownException))
       cancel(in, cause)
     }
@@ -568,6 +653,9 @@ import org.reactivestreams.Subscription
 
   private var enqueueToShortCircuit: (Any) => Unit = _
 
+  // measures the island when instrumentation is enabled, null otherwise
+  private var probe: StreamInstrumentation.IslandProbe = _
+
   lazy val interpreter: GraphInterpreter =
     new GraphInterpreter(mat, log, logics, connections,
       (logic, event, promise, handler) => {
@@ -628,6 +716,15 @@ import org.reactivestreams.Subscription
       i += 1
     }
 
+    attributes.get[ActorAttributes.Instrumentation] match {
+      case Some(ActorAttributes.Instrumentation(instrumentation)) =>
+        val operators = logics.iterator.map(operatorName).toVector
+        val island = new StreamInstrumentation.Island(self.path.toString, operators, connections.length)
+        probe = instrumentation.islandStarted(island)
+        interpreter.probe = probe
+      case _ =>
+    }
+
     interpreter.init(subMat)
     runBatch(eventLimit)
   }
@@ -659,11 +756,21 @@ import org.reactivestreams.Subscription
   def runBatch(actorEventLimit: Int): Int = {
     try {
       val usingShellLimit = shellEventLimit < actorEventLimit
-      val remainingQuota = interpreter.execute(Math.min(actorEventLimit, shellEventLimit))
+      val batchLimit = Math.min(actorEventLimit, shellEventLimit)
+      val remainingQuota =
+        if (probe eq null) interpreter.execute(batchLimit)
+        else {
+          val start = System.nanoTime()
+          val remaining = interpreter.execute(batchLimit)
+          probe.onBatch(batchLimit - remaining, start, System.nanoTime())
+          remaining
+        }
       if (interpreter.isCompleted) {
         // Cannot stop right away if not completely subscribed
-        if (canShutDown) interpreterCompleted = true
-        else {
+        if (canShutDown) {
+          interpreterCompleted = true
+          stopInstrumentation()
+        } else {
           waitingForShutdown = true
           val subscriptionTimeout = attributes.mandatoryAttribute[ActorAttributes.StreamSubscriptionTimeout].timeout
           mat.scheduleOnce(subscriptionTimeout,
@@ -710,9 +817,23 @@ import org.reactivestreams.Subscription
       // otherwise this will have no effect
       outputs.foreach(_.fail(reason))
       inputs.foreach(_.cancel(reason))
+      stopInstrumentation()
     }
   }
 
+  private def operatorName(logic: GraphStageLogic): String =
+    logic.attributes.nameOrDefault(logic.originalStage match {
+      case OptionVal.Some(stage) => Logging.simpleName(stage)
+      case _                     => Logging.simpleName(logic)
+    })
+
+  private def stopInstrumentation(): Unit =
+    if (probe ne null) {
+      probe.islandStopped()
+      probe = null
+      interpreter.probe = null
+    }
+
   def toSnapshot: InterpreterSnapshot = {
     if (!isInitialized)
       UninitializedInterpreterImpl(logics.zipWithIndex.map {
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.fusing
+
+import java.{ lang => jl, util => ju }
+
+import scala.collection.immutable
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.stream.{ Attributes, EventTimeWindows, FlowShape, Inlet, Outlet, TimeWindow }
+import pekko.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+
+/**
+ * INTERNAL API
+ *
+ * Like [[AggregateWithBoundary]], but with any number of aggregates at a time, one for each open window, and with
+ * the windows emitted as the watermark of the event time passes their end rather than on a timer.
+ */
+@InternalApi
+private[pekko] final case class AggregateWithEventTimeWindow[In, Agg, Out](
+    windows: EventTimeWindows,
+    eventTime: In => Long,
+    allocate: () => Agg,
+    aggregate: (Agg, In) => Agg,
+    merge: (Agg, Agg) => Agg,
+    harvest: (TimeWindow, Agg) => Out)
+    extends GraphStage[FlowShape[In, Out]] {
+
+  val in: Inlet[In] = Inlet[In](s"${this.getClass.getName}.in")
+  val out: Outlet[Out] = Outlet[Out](s"${this.getClass.getName}.out")
+  override val shape: FlowShape[In, Out] = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new GraphStageLogic(shape) with InHandler with OutHandler {
+
+      private final class Window(var start: Long, var end: Long, var agg: Agg)
+
+      private[this] val size = windows.sizeMillis
+      private[this] val slide = windows.slideMillis
+      private[this] val outOfOrderness = windows.maxOutOfOrderness.toMillis
+      private[this] val lateness = windows.allowedLateness.toMillis
+
+      // windows by start, the pending ones have not been emitted yet and the fired ones are kept for late elements,
+      // session windows do not overlap across both maps
+      private[this] val pending = new ju.TreeMap[jl.Long, Window]()
+      private[this] val fired = new ju.TreeMap[jl.Long, Window]()
+      private[this] var watermark = Long.MinValue
+
+      private def isExpired(end: Long): Boolean = end + lateness <= watermark
+
+      // at onPush, isAvailable(out) could be false while the windows of the previous element are being emitted
+      override def onPush(): Unit = {
+        val elem = grab(in)
+        val time = eventTime(elem)
+        if (windows.isSession) addToSession(elem, time) else addToWindows(elem, time)
+        val results = advanceWatermark(time - outOfOrderness)
+        if (results.nonEmpty) emitMultiple(out, results)
+        // cannot pull while emitting or it could emit indefinitely bypassing back pressure
+        if (isAvailable(out)) pull(in)
+      }
+
+      override def onUpstreamFinish(): Unit = {
+        // emit is asynchronous, the remaining windows are emitted before the stage completes
+        val results = harvestAll(pending.values().iterator())
+        pending.clear()
+        fired.clear()
+        if (results.nonEmpty) emitMultiple(out, results)
+        completeStage()
+      }
+
+      override def onPull(): Unit = if (!hasBeenPulled(in)) pull(in)
+
+      setHandlers(in, out, this)
+
+      private def addToWindows(elem: In, time: Long): Unit = {
+        var start = time - Math.floorMod(time, slide)
+        while (start > time - size) {
+          val end = start + size
+          if (!isExpired(end)) {
+            val key = jl.Long.valueOf(start)
+            var window = pending.get(key)
+            if (window eq null) {
+              // a late element for an emitted window emits it again
+              window = fired.remove(key)
+              if (window eq null) window = new Window(start, end, allocate())
+              pending.put(key, window)
+            }
+            window.agg = aggregate(window.agg, elem)
+          }
+          start -= slide
+        }
+      }
+
+      private def addToSession(elem: In, time: Long): Unit =
+        if (!isExpired(time + size)) {
+          val session = new Window(time, time + size, aggregate(allocate(), elem))
+          var merging = true
+          while (merging) merging = mergeOverlapping(session, pending) || mergeOverlapping(session, fired)
+          pending.put(jl.Long.valueOf(session.start), session)
+        }
+
+      // the sessions in one map do not overlap, so only the one starting last before the end can overlap
+      private def mergeOverlapping(session: Window, sessions: ju.TreeMap[jl.Long, Window]): Boolean = {
+        val entry = sessions.lowerEntry(jl.Long.valueOf(session.end))
+        if ((entry ne null) && entry.getValue.end > session.start) {
+          val other = entry.getValue
+          sessions.remove(entry.getKey)
+          session.agg =
+            if (other.start <= session.start) merge(other.agg, session.agg) else merge(session.agg, other.agg)
+          session.start = math.min(session.start, other.start)
+          session.end = math.max(session.end, other.end)
+          true
+        } else false
+      }
+
+      private def advanceWatermark(candidate: Long): immutable.Seq[Out] =
+        if (candidate < watermark) harvestDue()
+        else {
+          watermark = candidate
+          val results = harvestDue()
+          // the windows in one map have the same size or do not overlap, so they end in start order
+          var first = fired.firstEntry()
+          while ((first ne null) && isExpired(first.getValue.end)) {
+            fired.pollFirstEntry()
+            first = fired.firstEntry()
+          }
+          results
+        }
+
+      // harvests the pending windows that the watermark has passed
+      private def harvestDue(): immutable.Seq[Out] = {
+        var results = Vector.empty[Out]
+        var first = pending.firstEntry()
+        while ((first ne null) && first.getValue.end <= watermark) {
+          pending.pollFirstEntry()
+          val window = first.getValue
+          results :+= harvest(new TimeWindow(window.start, window.end), window.agg)
+          if (!isExpired(window.end)) fired.put(first.getKey, window)
+          first = pending.firstEntry()
+        }
+        results
+      }
+
+      private def harvestAll(it: ju.Iterator[Window]): immutable.Seq[Out] = {
+        var results = Vector.empty[Out]
+        while (it.hasNext) {
+          val window = it.next()
+          results :+= harvest(new TimeWindow(window.start, window.end), window.agg)
+        }
+        results
+      }
+    }
+
+  override def toString: String = s"AggregateWithEventTimeWindow($windows)"
+}
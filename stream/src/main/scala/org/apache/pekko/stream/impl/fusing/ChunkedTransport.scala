@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.fusing
+
+import java.util
+
+import scala.collection.immutable
+import scala.util.control.NonFatal
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.stream.ActorAttributes
+import pekko.stream.Attributes
+import pekko.stream.FlowShape
+import pekko.stream.Supervision
+import pekko.stream.Supervision.Decider
+import pekko.stream.impl.fusing.GraphInterpreter.Connection
+import pekko.stream.stage.GraphStage
+import pekko.stream.stage.GraphStageLogic
+import pekko.stream.stage.InHandler
+import pekko.stream.stage.OutHandler
+import pekko.util.OptionVal
+
+/**
+ * INTERNAL API
+ *
+ * Chunked element transport between fused operators. Operators that are [[ChunkedTransport.ChunkAwareStage]]
+ * can exchange a [[ChunkedTransport.Chunk]] of several elements in one push, instead of one element per push,
+ * when they are connected to each other in the same island and have the
+ * [[pekko.stream.ActorAttributes.ChunkedTransport]] attribute enabled. At the boundaries to other
+ * operators single elements are exchanged as usual.
+ *
+ * The logics of such operators are replaced when the island is ready, see [[ChunkedTransport.rewire]].
+ */
+@InternalApi
+private[pekko] object ChunkedTransport {
+
+  /**
+   * Elements exchanged in one push between chunk-aware logics. It's reused by the logic that
+   * produced it when the downstream logic has pulled again.
+   */
+  final class Chunk(initialCapacity: Int) {
+    private var elements = new Array[AnyRef](initialCapacity)
+    private var _size = 0
+
+    def size: Int = _size
+
+    def apply(i: Int): Any = elements(i)
+
+    def add(elem: Any): Unit = {
+      if (_size == elements.length) elements = util.Arrays.copyOf(elements, elements.length * 2)
+      elements(_size) = elem.asInstanceOf[AnyRef]
+      _size += 1
+    }
+
+    def clear(): Unit = {
+      util.Arrays.fill(elements, 0, _size, null)
+      _size = 0
+    }
+
+    override def toString: String = s"Chunk(${elements.iterator.take(_size).mkString(", ")})"
+  }
+
+  /**
+   * The transformation of a chunk-aware operator, created for each materialization.
+   */
+  abstract class ChunkOp {
+
+    /**
+     * Transform the elements of `in` and add the results to `out`. Exceptions from user functions must be
+     * handled per element according to the supervision strategy, and only thrown when the stage should fail.
+     */
+    def apply(in: Chunk, out: Chunk): Unit
+
+    /**
+     * Add remaining elements to `out` when upstream has completed.
+     */
+    def onUpstreamFinish(out: Chunk): Unit = ()
+  }
+
+  /**
+   * Operator that supports chunked transport.
+   */
+  trait ChunkAwareStage { this: GraphStage[_] =>
+    def createChunkOp(inheritedAttributes: Attributes): ChunkOp
+  }
+
+  private def decider(attributes: Attributes): Decider =
+    attributes.mandatoryAttribute[ActorAttributes.SupervisionStrategy].decider
+
+  private def handle(decider: Decider, ex: Throwable): Unit =
+    decider(ex) match {
+      case Supervision.Stop => throw ex
+      case _                => // drop the element
+    }
+
+  final class MapOp(f: Any => Any, decider: Decider) extends ChunkOp {
+    def this(f: Any => Any, attributes: Attributes) = this(f, ChunkedTransport.decider(attributes))
+
+    override def apply(in: Chunk, out: Chunk): Unit = {
+      var i = 0
+      while (i < in.size) {
+        try out.add(f(in(i)))
+        catch { case NonFatal(ex) => handle(decider, ex) }
+        i += 1
+      }
+    }
+  }
+
+  final class FilterOp(p: Any => Boolean, decider: Decider) extends ChunkOp {
+    def this(p: Any => Boolean, attributes: Attributes) = this(p, ChunkedTransport.decider(attributes))
+
+    override def apply(in: Chunk, out: Chunk): Unit = {
+      var i = 0
+      while (i < in.size) {
+        val elem = in(i)
+        try if (p(elem)) out.add(elem)
+        catch { case NonFatal(ex) => handle(decider, ex) }
+        i += 1
+      }
+    }
+  }
+
+  final class CollectOp(pf: PartialFunction[Any, Any], decider: Decider) extends ChunkOp {
+    import Collect.NotApplied
+
+    def this(pf: PartialFunction[Any, Any], attributes: Attributes) = this(pf, ChunkedTransport.decider(attributes))
+
+    override def apply(in: Chunk, out: Chunk): Unit = {
+      var i = 0
+      while (i < in.size) {
+        try {
+          val result = pf.applyOrElse(in(i), NotApplied)
+          if (result.asInstanceOf[AnyRef] ne NotApplied) out.add(result)
+        } catch { case NonFatal(ex) => handle(decider, ex) }
+        i += 1
+      }
+    }
+  }
+
+  final class GroupedWeightedOp(minWeight: Long, costFn: Any => Long) extends ChunkOp {
+    private val buf = Vector.newBuilder[Any]
+    private var left: Long = minWeight
+
+    override def apply(in: Chunk, out: Chunk): Unit = {
+      var i = 0
+      while (i < in.size) {
+        val elem = in(i)
+        val cost = costFn(elem)
+        if (cost < 0L)
+          throw new IllegalArgumentException(s"Negative weight [$cost] for element [$elem] is not allowed")
+        buf += elem
+        left -= cost
+        if (left <= 0) {
+          out.add(buf.result())
+          buf.clear()
+          left = minWeight
+        }
+        i += 1
+      }
+    }
+
+    override def onUpstreamFinish(out: Chunk): Unit = {
+      val elements: immutable.Seq[Any] = buf.result()
+      if (elements.nonEmpty) {
+        buf.clear()
+        out.add(elements)
+      }
+    }
+  }
+
+  /**
+   * Applies several operations after each other, such as for fused operators.
+   */
+  final class ComposedOp(ops: Array[ChunkOp]) extends ChunkOp {
+    private val intermediate = Array.fill(ops.length - 1)(new Chunk(16))
+
+    override def apply(in: Chunk, out: Chunk): Unit = {
+      var current = in
+      var i = 0
+      while (i < ops.length) {
+        val next = if (i == ops.length - 1) out else intermediate(i)
+        next.clear()
+        ops(i)(current, next)
+        current = next
+        i += 1
+      }
+    }
+  }
+
+  // the most elements that the first chunk-aware operator of a chain collects into one chunk
+  private val MaxChunkSize = 16
+
+  /**
+   * Logic that replaces the logic of a chunk-aware operator. It receives a [[Chunk]] if `chunkedIn`,
+   * otherwise single elements, and pushes its output as a [[Chunk]] if `chunkedOut`, otherwise as
+   * single elements.
+   *
+   * When receiving single elements it pulls again after each element, until it has collected
+   * `MaxChunkSize` elements or the event queue of the interpreter has been drained, which means
+   * that upstream has no more elements available right now. Only then it transforms and pushes them.
+   */
+  final class ChunkedLogic(shape: FlowShape[Any, Any], op: ChunkOp, chunkedIn: Boolean, chunkedOut: Boolean)
+      extends GraphStageLogic(shape)
+      with InHandler
+      with OutHandler {
+    private val in = shape.in
+    private val out = shape.out
+
+    // single elements that have been received but not transformed yet
+    private val pending = new Chunk(MaxChunkSize)
+    private val output = new Chunk(16)
+    // next element of output to push
+    private var index = 0
+    private var flushed = false
+    private var awaitingDrain = false
+
+    override def onPush(): Unit =
+      try {
+        if (chunkedIn) {
+          transform(grab(in).asInstanceOf[Chunk])
+          pushOutput()
+        } else {
+          pending.add(grab(in))
+          if (pending.size < MaxChunkSize) {
+            pull(in)
+            if (!awaitingDrain) {
+              awaitingDrain = true
+              interpreter.notifyWhenDrained(this)
+            }
+          } else if (isAvailable(out) && index == output.size) pushOutput()
+        }
+      } catch {
+        case NonFatal(ex) => failStage(ex)
+      }
+
+    override def onPull(): Unit =
+      try pushOutput()
+      catch {
+        case NonFatal(ex) => failStage(ex)
+      }
+
+    override def onUpstreamFinish(): Unit =
+      // otherwise onPull will continue
+      if (isAvailable(out)) onPull()
+
+    /**
+     * Called by the interpreter after [[GraphInterpreter.notifyWhenDrained]].
+     */
+    def onEventQueueDrained(): Unit = {
+      awaitingDrain = false
+      if (pending.size > 0 && isAvailable(out) && index == output.size) pushOutput()
+    }
+
+    private def transform(input: Chunk): Unit = {
+      output.clear()
+      index = 0
+      op(input, output)
+    }
+
+    // must only be called when out is available
+    private def pushOutput(): Unit =
+      if (index < output.size) {
+        if (chunkedOut) {
+          index = output.size
+          push(out, output)
+        } else {
+          val elem = output(index)
+          index += 1
+          push(out, elem)
+        }
+      } else if (pending.size > 0) {
+        transform(pending)
+        pending.clear()
+        pushOutput()
+      } else if (isClosed(in)) {
+        if (flushed) completeStage()
+        else {
+          flushed = true
+          output.clear()
+          index = 0
+          op.onUpstreamFinish(output)
+          if (output.size > 0) pushOutput()
+          else completeStage()
+        }
+      } else if (!hasBeenPulled(in)) pull(in)
+
+    setHandlers(in, out, this)
+
+    override def toString: String = s"ChunkedLogic($op, chunkedIn = $chunkedIn, chunkedOut = $chunkedOut)"
+  }
+
+  private def isChunkAware(logic: GraphStageLogic): Boolean =
+    (logic ne null) && (logic.originalStage match {
+      case OptionVal.Some(_: ChunkAwareStage) =>
+        logic.attributes.get[ActorAttributes.ChunkedTransport].exists(_.enabled)
+      case _ => false
+    })
+
+  // whether a chunk-aware logic is connected to another one, checked before anything is allocated so that
+  // islands without chunked transport only pay for one scan of the logics
+  private def hasChunkedConnection(logics: util.ArrayList[GraphStageLogic]): Boolean = {
+    var i = 0
+    while (i < logics.size) {
+      val logic = logics.get(i)
+      if (isChunkAware(logic)) {
+        val outConn = logic.portToConn(1)
+        if ((outConn ne null) && isChunkAware(outConn.inOwner)) return true
+      }
+      i += 1
+    }
+    false
+  }
+
+  /**
+   * Replace the logics of chunk-aware operators that are connected to other chunk-aware operators with
+   * [[ChunkedLogic]]. Must be called before the logics and connections are handed to the interpreter.
+   */
+  def rewire(logics: util.ArrayList[GraphStageLogic], connections: Array[Connection], maxConnection: Int): Unit =
+    if (hasChunkedConnection(logics)) {
+      val chunked = new util.HashSet[Connection]
+      var i = 0
+      while (i <= maxConnection) {
+        val conn = connections(i)
+        if ((conn ne null) && isChunkAware(conn.outOwner) && isChunkAware(conn.inOwner))
+          chunked.add(conn)
+        i += 1
+      }
+
+      if (!chunked.isEmpty) {
+        var j = 0
+        while (j < logics.size) {
+          val logic = logics.get(j)
+          if (isChunkAware(logic)) {
+            val inConn = logic.portToConn(0)
+            val outConn = logic.portToConn(1)
+            val chunkedIn = chunked.contains(inConn)
+            val chunkedOut = chunked.contains(outConn)
+            if (chunkedIn || chunkedOut) {
+              val stage = logic.originalStage.get
+              val shape = stage.shape.asInstanceOf[FlowShape[Any, Any]]
+              val op = stage.asInstanceOf[ChunkAwareStage].createChunkOp(logic.attributes)
+              val newLogic = new ChunkedLogic(shape, op, chunkedIn, chunkedOut)
+              newLogic.originalStage = logic.originalStage
+              newLogic.attributes = logic.attributes
+              newLogic.stageId = logic.stageId
+              newLogic.portToConn(0) = inConn
+              newLogic.portToConn(1) = outConn
+              inConn.inOwner = newLogic
+              inConn.inHandler = newLogic
+              outConn.outOwner = newLogic
+              outConn.outHandler = newLogic
+              logics.set(j, newLogic)
+            }
+          }
+          j += 1
+        }
+      }
+    }
+}
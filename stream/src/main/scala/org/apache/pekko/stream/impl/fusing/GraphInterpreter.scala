@@ -231,6 +231,13 @@ import pekko.stream.stage._
    */
   @InternalApi private[stream] var activeStage: GraphStageLogic = _
 
+  /**
+   * INTERNAL API
+   *
+   * Measures the onPush and onPull handler calls when instrumentation is enabled, `null` otherwise.
+   */
+  @InternalApi private[stream] var probe: StreamInstrumentation.IslandProbe = _
+
   // The number of currently running stages. Once this counter reaches zero, the interpreter is considered to be
   // completed
   private[this] var runningStages = logics.length
@@ -254,6 +261,9 @@ import pekko.stream.stage._
   private[this] var chasedPush: Connection = NoEvent
   private[this] var chasedPull: Connection = NoEvent
 
+  // logics that hold back elements until the event queue has been drained, see ChunkedTransport
+  private[this] var drainedListeners: List[ChunkedTransport.ChunkedLogic] = Nil
+
   private def queueStatus: String = {
     val contents = (queueHead until queueTail).map(idx => {
       val conn = eventQueue(idx & mask)
@@ -364,7 +374,7 @@ import pekko.stream.stage._
     currentInterpreterHolder(0) = this
     var eventsRemaining = eventLimit
     try {
-      while (eventsRemaining > 0 && queueTail != queueHead) {
+      while (eventsRemaining > 0 && (queueTail != queueHead || notifyDrained())) {
         val connection = dequeue()
         eventsRemaining -= 1
         chaseCounter = math.min(ChaseLimit, eventsRemaining)
@@ -455,6 +465,8 @@ import pekko.stream.stage._
         }
 
       }
+      // the events of the listeners are then processed in the next batch
+      if (queueTail == queueHead) notifyDrained()
       // Event *must* be enqueued while not in the execute loop (events enqueued from external, possibly async events)
       chaseCounter = 0
     } finally {
@@ -465,6 +477,38 @@ import pekko.stream.stage._
     eventsRemaining
   }
 
+  /**
+   * INTERNAL API
+   *
+   * Calls `onEventQueueDrained` of the logic once, when all events that are currently in the event
+   * queue, and all events that they cause, have been processed.
+   */
+  @InternalApi private[fusing] def notifyWhenDrained(logic: ChunkedTransport.ChunkedLogic): Unit =
+    drainedListeners = logic :: drainedListeners
+
+  // returns true if the listeners enqueued events
+  private def notifyDrained(): Boolean =
+    if (drainedListeners.isEmpty) false
+    else {
+      // events must be enqueued, since they are not caused by the current event
+      chaseCounter = 0
+      var listeners = drainedListeners
+      drainedListeners = Nil
+      while (listeners.nonEmpty) {
+        val logic = listeners.head
+        listeners = listeners.tail
+        if (!isStageCompleted(logic)) {
+          activeStage = logic
+          try logic.onEventQueueDrained()
+          catch {
+            case NonFatal(e) => logic.failStage(e)
+          }
+          afterStageHasRun(logic)
+        }
+      }
+      queueTail != queueHead
+    }
+
   @InternalStableApi
   def runAsyncInput(logic: GraphStageLogic, evt: Any, promise: Promise[Done], handler: (Any) => Unit): Unit =
     if (!isStageCompleted(logic)) {
@@ -553,7 +597,12 @@ import pekko.stream.stage._
             connection)}, ${connection.slot} (${connection.inHandler}) [${inLogicName(connection)}]")
     activeStage = connection.inOwner
     connection.portState ^= PushEndFlip
-    connection.inHandler.onPush()
+    if (probe eq null) connection.inHandler.onPush()
+    else {
+      val start = System.nanoTime()
+      connection.inHandler.onPush()
+      probe.onPush(connection.id, connection.inOwner.stageId, start, System.nanoTime())
+    }
   }
 
   @InternalStableApi
@@ -564,7 +613,12 @@ import pekko.stream.stage._
             connection)} (${connection.outHandler}) [${outLogicName(connection)}]")
     activeStage = connection.outOwner
     connection.portState ^= PullEndFlip
-    connection.outHandler.onPull()
+    if (probe eq null) connection.outHandler.onPull()
+    else {
+      val start = System.nanoTime()
+      connection.outHandler.onPull()
+      probe.onPull(connection.id, connection.outOwner.stageId, start, System.nanoTime())
+    }
   }
 
   private def dequeue(): Connection = {
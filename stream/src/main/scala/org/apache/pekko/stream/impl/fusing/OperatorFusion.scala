@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.fusing
+
+import java.util
+
+import scala.util.control.NonFatal
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.stream.ActorAttributes
+import pekko.stream.Attributes
+import pekko.stream.FlowShape
+import pekko.stream.Inlet
+import pekko.stream.Outlet
+import pekko.stream.Supervision
+import pekko.stream.Supervision.Decider
+import pekko.stream.impl.fusing.ChunkedTransport.{ ChunkAwareStage, ChunkOp }
+import pekko.stream.impl.fusing.GraphInterpreter.Connection
+import pekko.stream.stage.GraphStage
+import pekko.stream.stage.GraphStageLogic
+import pekko.stream.stage.InHandler
+import pekko.stream.stage.OutHandler
+import pekko.util.OptionVal
+
+/**
+ * INTERNAL API
+ *
+ * Fusion of adjacent stateless operators (`map`, `filter` and `collect`) into one operator when the
+ * island is ready, so that an element passes all of them in one push instead of one push per operator.
+ * Enabled with the [[pekko.stream.ActorAttributes.OperatorFusion]] attribute.
+ *
+ * The supervision strategy of each of the original operators is still used for failures of its function.
+ */
+@InternalApi private[pekko] object OperatorFusion {
+
+  // returned by a step when the element was filtered out or dropped by the supervision strategy
+  private object Dropped
+
+  private abstract class Step {
+    def apply(elem: Any): Any
+  }
+
+  private final class MapStep(f: Any => Any, decider: Decider) extends Step {
+    override def apply(elem: Any): Any =
+      try f(elem)
+      catch { case NonFatal(ex) => handle(decider, ex) }
+  }
+
+  private final class FilterStep(p: Any => Boolean, decider: Decider) extends Step {
+    override def apply(elem: Any): Any =
+      try if (p(elem)) elem else Dropped
+      catch { case NonFatal(ex) => handle(decider, ex) }
+  }
+
+  private final class CollectStep(pf: PartialFunction[Any, Any], decider: Decider) extends Step {
+    import Collect.NotApplied
+
+    override def apply(elem: Any): Any =
+      try {
+        val result = pf.applyOrElse(elem, NotApplied)
+        if (result.asInstanceOf[AnyRef] eq NotApplied) Dropped else result
+      } catch { case NonFatal(ex) => handle(decider, ex) }
+  }
+
+  private def handle(decider: Decider, ex: Throwable): Any =
+    decider(ex) match {
+      case Supervision.Stop => throw ex
+      case _                => Dropped
+    }
+
+  /**
+   * The composite of several fused operators, `stages` with their respective inherited `attributes`.
+   */
+  final class FusedLinearStage(
+      val stages: Array[GraphStage[FlowShape[Any, Any]]],
+      val stageAttributes: Array[Attributes])
+      extends GraphStage[FlowShape[Any, Any]]
+      with ChunkAwareStage {
+    val in = Inlet[Any]("FusedLinear.in")
+    val out = Outlet[Any]("FusedLinear.out")
+    override val shape: FlowShape[Any, Any] = FlowShape(in, out)
+
+    private def decider(i: Int): Decider =
+      stageAttributes(i).mandatoryAttribute[ActorAttributes.SupervisionStrategy].decider
+
+    private def step(i: Int): Step =
+      stages(i) match {
+        case Map(f)      => new MapStep(f, decider(i))
+        case Filter(p)   => new FilterStep(p, decider(i))
+        case Collect(pf) => new CollectStep(pf, decider(i))
+        case other       => throw new IllegalStateException(s"Unexpected operator [$other] to fuse")
+      }
+
+    override def createChunkOp(inheritedAttributes: Attributes): ChunkOp =
+      new ChunkedTransport.ComposedOp(stages.indices.iterator.map { i =>
+        stages(i).asInstanceOf[ChunkAwareStage].createChunkOp(stageAttributes(i))
+      }.toArray)
+
+    override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+      new GraphStageLogic(shape) with InHandler with OutHandler {
+        private val steps: Array[Step] = Array.tabulate(stages.length)(step)
+
+        override def onPush(): Unit =
+          try {
+            var elem = grab(in)
+            var i = 0
+            while (i < steps.length && (elem.asInstanceOf[AnyRef] ne Dropped)) {
+              elem = steps(i)(elem)
+              i += 1
+            }
+            if (elem.asInstanceOf[AnyRef] eq Dropped) pull(in)
+            else push(out, elem)
+          } catch {
+            case NonFatal(ex) => failStage(ex)
+          }
+
+        override def onPull(): Unit = pull(in)
+
+        setHandlers(in, out, this)
+      }
+
+    override def toString: String = stages.mkString("FusedLinear(", ", ", ")")
+  }
+
+  private def isFusible(logic: GraphStageLogic): Boolean =
+    (logic ne null) && (logic.originalStage match {
+      case OptionVal.Some(_: Map[_, _] | _: Filter[_] | _: Collect[_, _]) =>
+        logic.attributes.get[ActorAttributes.OperatorFusion].exists(_.enabled)
+      case _ => false
+    })
+
+  // whether a fusible logic is connected to another one, checked before anything is allocated so that
+  // islands without operator fusion only pay for one scan of the logics
+  private def hasFusibleRun(logics: util.ArrayList[GraphStageLogic]): Boolean = {
+    var i = 0
+    while (i < logics.size) {
+      val logic = logics.get(i)
+      if (isFusible(logic)) {
+        val outConn = logic.portToConn(1)
+        if ((outConn ne null) && isFusible(outConn.inOwner)) return true
+      }
+      i += 1
+    }
+    false
+  }
+
+  /**
+   * Replace runs of connected fusible operators with one logic of a [[FusedLinearStage]]. The inner connections
+   * are removed from `connections` and the `stageId` of all logics is updated. Must be called before the logics
+   * and connections are handed to the interpreter.
+   */
+  def rewire(logics: util.ArrayList[GraphStageLogic], connections: Array[Connection]): Unit =
+    if (hasFusibleRun(logics)) {
+      var fused = false
+      val removed = new util.HashSet[GraphStageLogic]
+      var i = 0
+      while (i < logics.size) {
+        val head = logics.get(i)
+        // start of a run is a fusible logic that is not downstream of another fusible logic
+        if (isFusible(head) && !isFusible(head.portToConn(0).outOwner) && isFusible(head.portToConn(1).inOwner)) {
+          val run = new util.ArrayList[GraphStageLogic]
+          var logic = head
+          while (isFusible(logic)) {
+            run.add(logic)
+            logic = logic.portToConn(1).inOwner
+          }
+
+          val stages = new Array[GraphStage[FlowShape[Any, Any]]](run.size)
+          val attributes = new Array[Attributes](run.size)
+          var j = 0
+          while (j < run.size) {
+            val l = run.get(j)
+            stages(j) = l.originalStage.get.asInstanceOf[GraphStage[FlowShape[Any, Any]]]
+            attributes(j) = l.attributes
+            if (j > 0) removed.add(l)
+            if (j < run.size - 1) connections(l.portToConn(1).id) = null
+            j += 1
+          }
+
+          val last = run.get(run.size - 1)
+          val stage = new FusedLinearStage(stages, attributes)
+          val fusedLogic = stage.createLogic(head.attributes)
+          fusedLogic.originalStage = OptionVal.Some(stage)
+          fusedLogic.attributes = head.attributes
+
+          val inConn = head.portToConn(0)
+          val outConn = last.portToConn(1)
+          fusedLogic.portToConn(0) = inConn
+          fusedLogic.portToConn(1) = outConn
+          inConn.inOwner = fusedLogic
+          inConn.inHandler = fusedLogic.handlers(0).asInstanceOf[InHandler]
+          outConn.outOwner = fusedLogic
+          outConn.outHandler = fusedLogic.handlers(1).asInstanceOf[OutHandler]
+          logics.set(i, fusedLogic)
+          fused = true
+        }
+        i += 1
+      }
+
+      if (fused) {
+        val iter = logics.iterator
+        while (iter.hasNext) if (removed.contains(iter.next())) iter.remove()
+        var k = 0
+        while (k < logics.size) {
+          logics.get(k).stageId = k
+          k += 1
+        }
+      }
+    }
+}
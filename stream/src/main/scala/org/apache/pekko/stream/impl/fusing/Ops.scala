@@ -38,6 +38,7 @@ import pekko.stream.OverflowStrategies._
 import pekko.stream.Supervision.Decider
 import pekko.stream.impl.{ Buffer => BufferImpl, ContextPropagation, ReactiveStreamsCompliance, TraversalBuilder }
 import pekko.stream.impl.Stages.DefaultAttributes
+import pekko.stream.impl.fusing.ChunkedTransport.{ ChunkAwareStage, ChunkOp }
 import pekko.stream.impl.fusing.GraphStages.SimpleLinearGraphStage
 import pekko.stream.scaladsl.{ DelayStrategy, Source }
 import pekko.stream.stage._
@@ -47,13 +48,18 @@ import pekko.util.ccompat._
 /**
  * INTERNAL API
  */
-@InternalApi private[pekko] final case class Map[In, Out](f: In => Out) extends GraphStage[FlowShape[In, Out]] {
+@InternalApi private[pekko] final case class Map[In, Out](f: In => Out)
+    extends GraphStage[FlowShape[In, Out]]
+    with ChunkAwareStage {
   val in = Inlet[In]("Map.in")
   val out = Outlet[Out]("Map.out")
   override val shape = FlowShape(in, out)
 
   override def initialAttributes: Attributes = DefaultAttributes.map and SourceLocation.forLambda(f)
 
+  override def createChunkOp(inheritedAttributes: Attributes): ChunkOp =
+    new ChunkedTransport.MapOp(f.asInstanceOf[Any => Any], inheritedAttributes)
+
   override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
     new GraphStageLogic(shape) with InHandler with OutHandler {
       private def decider =
@@ -80,9 +86,14 @@ import pekko.util.ccompat._
 /**
  * INTERNAL API
  */
-@InternalApi private[pekko] final case class Filter[T](p: T => Boolean) extends SimpleLinearGraphStage[T] {
+@InternalApi private[pekko] final case class Filter[T](p: T => Boolean)
+    extends SimpleLinearGraphStage[T]
+    with ChunkAwareStage {
   override def initialAttributes: Attributes = DefaultAttributes.filter and SourceLocation.forLambda(p)
 
+  override def createChunkOp(inheritedAttributes: Attributes): ChunkOp =
+    new ChunkedTransport.FilterOp(p.asInstanceOf[Any => Boolean], inheritedAttributes)
+
   override def toString: String = "Filter"
 
   override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
@@ -246,13 +257,17 @@ private[stream] object Collect {
  * INTERNAL API
  */
 @InternalApi private[pekko] final case class Collect[In, Out](pf: PartialFunction[In, Out])
-    extends GraphStage[FlowShape[In, Out]] {
+    extends GraphStage[FlowShape[In, Out]]
+    with ChunkAwareStage {
   val in = Inlet[In]("Collect.in")
   val out = Outlet[Out]("Collect.out")
   override val shape = FlowShape(in, out)
 
   override def initialAttributes: Attributes = DefaultAttributes.collect and SourceLocation.forLambda(pf)
 
+  override def createChunkOp(inheritedAttributes: Attributes): ChunkOp =
+    new ChunkedTransport.CollectOp(pf.asInstanceOf[PartialFunction[Any, Any]], inheritedAttributes)
+
   def createLogic(inheritedAttributes: Attributes) =
     new GraphStageLogic(shape) with InHandler with OutHandler {
       private lazy val decider = inheritedAttributes.mandatoryAttribute[SupervisionStrategy].decider
@@ -812,7 +827,8 @@ private[stream] object Collect {
  * INTERNAL API
  */
 @InternalApi private[pekko] final case class GroupedWeighted[T](minWeight: Long, costFn: T => Long)
-    extends GraphStage[FlowShape[T, immutable.Seq[T]]] {
+    extends GraphStage[FlowShape[T, immutable.Seq[T]]]
+    with ChunkAwareStage {
   require(minWeight > 0, "minWeight must be greater than 0")
 
   val in = Inlet[T]("GroupedWeighted.in")
@@ -821,6 +837,9 @@ private[stream] object Collect {
 
   override def initialAttributes: Attributes = DefaultAttributes.groupedWeighted
 
+  override def createChunkOp(inheritedAttributes: Attributes): ChunkOp =
+    new ChunkedTransport.GroupedWeightedOp(minWeight, costFn.asInstanceOf[Any => Long])
+
   override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
     new GraphStageLogic(shape) with InHandler with OutHandler {
       private val buf = Vector.newBuilder[T]
@@ -1487,6 +1506,165 @@ private[stream] object Collect {
     }
 }
 
+/**
+ * INTERNAL API
+ */
+@InternalApi private[pekko] object PartitionedMapAsync {
+
+  private final class Holder[In, Out, P](val elem: In, val partition: Partition[In, Out, P]) {
+    // null until the future has completed
+    var out: Try[Out] = _
+  }
+
+  private final class Partition[In, Out, P](val key: P) {
+    // elements of the partition in upstream order, the first `started` have been passed to the function
+    val elements = new java.util.ArrayDeque[Holder[In, Out, P]]
+    var started = 0
+    var ready = false
+
+    def isHeadCompleted: Boolean = !elements.isEmpty && (elements.peekFirst().out ne null)
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Like [[MapAsyncUnordered]] but the results for elements with the same partition key are emitted in the order
+ * the elements were received, and at most `perPartition` futures are in flight for each partition key.
+ * Partitions are independent, so a slow future only holds back the results of its own partition.
+ * At most `parallelism` elements are buffered in total.
+ */
+@InternalApi private[pekko] final case class PartitionedMapAsync[In, Out, P](
+    parallelism: Int,
+    perPartition: Int,
+    partitioner: In => P,
+    f: (In, P) => Future[Out])
+    extends GraphStage[FlowShape[In, Out]] {
+  require(parallelism >= 1, "parallelism must be at least 1")
+  require(perPartition >= 1, "perPartition must be at least 1")
+  import PartitionedMapAsync._
+
+  private val in = Inlet[In]("PartitionedMapAsync.in")
+  private val out = Outlet[Out]("PartitionedMapAsync.out")
+
+  override def initialAttributes = DefaultAttributes.mapAsyncPartition and SourceLocation.forLambda(f)
+
+  override val shape = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new GraphStageLogic(shape) with InHandler with OutHandler {
+      override def toString = s"PartitionedMapAsync.Logic(buffered=$buffered, partitions=${partitions.size})"
+
+      private lazy val decider = inheritedAttributes.mandatoryAttribute[SupervisionStrategy].decider
+
+      private type H = Holder[In, Out, P]
+
+      private var buffered = 0
+      private val partitions = new java.util.HashMap[P, Partition[In, Out, P]]
+      // partitions with a completed first element, in the order they became ready
+      private val readyPartitions = new java.util.ArrayDeque[Partition[In, Out, P]]
+
+      private val futureCB = getAsyncCallback[(H, Try[Out])] {
+        case (holder, result) =>
+          futureCompleted(holder, result)
+          if (isAvailable(out)) pushNext()
+      }
+
+      private def futureCompleted(holder: H, result: Try[Out]): Unit = {
+        holder.out = result
+        result match {
+          case Failure(ex) if decider(ex) == Supervision.Stop => failStage(ex)
+          case _ =>
+            val partition = holder.partition
+            if (!partition.ready && partition.isHeadCompleted) {
+              partition.ready = true
+              readyPartitions.addLast(partition)
+            }
+        }
+      }
+
+      override def onPush(): Unit = {
+        val elem = grab(in)
+        try {
+          val key = partitioner(elem)
+          var partition = partitions.get(key)
+          if (partition eq null) {
+            partition = new Partition[In, Out, P](key)
+            partitions.put(key, partition)
+          }
+          partition.elements.addLast(new Holder(elem, partition))
+          buffered += 1
+          startElements(partition)
+        } catch {
+          case NonFatal(ex) => if (decider(ex) == Supervision.Stop) failStage(ex)
+        }
+        if (isAvailable(out)) pushNext()
+        else pullIfNeeded()
+      }
+
+      override def onUpstreamFinish(): Unit =
+        if (buffered == 0) completeStage()
+
+      override def onPull(): Unit = pushNext()
+
+      // push the first completed result of a ready partition, dropping failed and null results
+      private def pushNext(): Unit = {
+        var pushed = false
+        while (!pushed && !readyPartitions.isEmpty && !isClosed(out)) {
+          val partition = readyPartitions.pollFirst()
+          val holder = partition.elements.pollFirst()
+          partition.started -= 1
+          buffered -= 1
+          if (partition.elements.isEmpty) partitions.remove(partition.key)
+          else startElements(partition)
+          // round robin between the ready partitions
+          if (partition.isHeadCompleted) readyPartitions.addLast(partition)
+          else partition.ready = false
+
+          holder.out match {
+            case Success(elem) if elem != null =>
+              push(out, elem)
+              pushed = true
+            case _ => // null or failure that is not stopping, element is dropped
+          }
+        }
+        if (isClosed(in) && buffered == 0) completeStage()
+        else pullIfNeeded()
+      }
+
+      // futures that are already completed are only recorded, the caller pushes
+      private def startElements(partition: Partition[In, Out, P]): Unit =
+        while (partition.started < perPartition && partition.started < partition.elements.size) {
+          val holder = nth(partition.elements, partition.started)
+          partition.started += 1
+          val future =
+            try f(holder.elem, partition.key)
+            catch { case NonFatal(ex) => Future.failed(ex) }
+          future.value match {
+            case None =>
+              future.onComplete(result => futureCB.invoke((holder, result)))(pekko.dispatch.ExecutionContexts.parasitic)
+            case Some(v) => futureCompleted(holder, v)
+          }
+        }
+
+      // perPartition is expected to be small, so a linear scan from the head is fine
+      private def nth(elements: java.util.ArrayDeque[H], n: Int): H = {
+        val iter = elements.iterator()
+        var i = 0
+        while (i < n) {
+          iter.next()
+          i += 1
+        }
+        iter.next()
+      }
+
+      private def pullIfNeeded(): Unit =
+        if (buffered < parallelism && !hasBeenPulled(in) && !isClosed(in)) pull(in)
+
+      setHandlers(in, out, this)
+    }
+}
+
 @InternalApi private[pekko] final case class Watch[T](targetRef: ActorRef) extends SimpleLinearGraphStage[T] {
 
   override def initialAttributes = DefaultAttributes.watch
@@ -39,6 +39,7 @@ import pekko.stream.impl.fusing.GraphStages.SingleSource
 import pekko.stream.scaladsl._
 import pekko.stream.stage._
 import pekko.util.OptionVal
+import pekko.util.RecencyList
 import pekko.util.ccompat.JavaConverters._
 
 /**
@@ -268,11 +269,24 @@ import pekko.util.ccompat.JavaConverters._
 /**
  * INTERNAL API
  */
+@InternalApi private[pekko] object GroupBy {
+  private case object IdleTimeoutCheckTimerKey
+}
+
+/**
+ * INTERNAL API
+ *
+ * With `eviction` closed substreams are always recreated, and the least recently active substream is completed
+ * instead of failing when `maxSubstreams` is reached.
+ */
 @InternalApi private[pekko] final class GroupBy[T, K](
     val maxSubstreams: Int,
     val keyFor: T => K,
-    val allowClosedSubstreamRecreation: Boolean = false)
+    val allowClosedSubstreamRecreation: Boolean = false,
+    val eviction: Option[SubstreamEviction] = None)
     extends GraphStage[FlowShape[T, Source[T, NotUsed]]] {
+  import GroupBy._
+
   val in: Inlet[T] = Inlet("GroupBy.in")
   val out: Outlet[Source[T, NotUsed]] = Outlet("GroupBy.out")
   override val shape: FlowShape[T, Source[T, NotUsed]] = FlowShape(in, out)
@@ -284,8 +298,12 @@ import pekko.util.ccompat.JavaConverters._
       lazy val decider = inheritedAttributes.mandatoryAttribute[SupervisionStrategy].decider
       private val activeSubstreamsMap = new java.util.HashMap[Any, SubstreamSource]()
       private val closedSubstreams =
-        if (allowClosedSubstreamRecreation) Collections.unmodifiableSet(Collections.emptySet[Any])
+        if (allowClosedSubstreamRecreation || eviction.isDefined)
+          Collections.unmodifiableSet(Collections.emptySet[Any])
         else new java.util.HashSet[Any]()
+      // the keys of the active substreams from the least to the most recently active, only with eviction
+      private val recency: RecencyList[K] = if (eviction.isDefined) RecencyList.empty[K] else null
+      private val metrics: SubstreamMetrics = eviction.flatMap(_.metrics).orNull
       private val timeout: FiniteDuration =
         inheritedAttributes.mandatoryAttribute[ActorAttributes.StreamSubscriptionTimeout].timeout
       private var substreamWaitingToBePushed: Option[SubstreamSource] = None
@@ -299,6 +317,15 @@ import pekko.util.ccompat.JavaConverters._
 
       private def nextId(): Long = { _nextId += 1; _nextId }
 
+      override def preStart(): Unit =
+        eviction.flatMap(_.idleTimeout).foreach { idleTimeout =>
+          val interval = idleTimeout / 2
+          scheduleWithFixedDelay(IdleTimeoutCheckTimerKey, interval, interval)
+        }
+
+      override def postStop(): Unit =
+        if (metrics ne null) activeSubstreamsMap.values().asScala.foreach(_ => metrics.substreamClosed())
+
       private def hasNextElement = nextElementKey != null
 
       private def clearNextElement(): Unit = {
@@ -337,7 +364,8 @@ import pekko.util.ccompat.JavaConverters._
           case None =>
             if (hasNextElement) {
               val subSubstreamSource = activeSubstreamsMap.get(nextElementKey)
-              if (subSubstreamSource.isAvailable) {
+              // with eviction the substream of the next element may not have been opened yet
+              if ((subSubstreamSource ne null) && subSubstreamSource.isAvailable) {
                 subSubstreamSource.push(nextElementValue)
                 clearNextElement()
               }
@@ -358,11 +386,19 @@ import pekko.util.ccompat.JavaConverters._
           require(key != null, "Key cannot be null")
           val substreamSource = activeSubstreamsMap.get(key)
           if (substreamSource != null) {
+            if (recency ne null) recency.update(key)
             if (substreamSource.isAvailable) substreamSource.push(elem)
             else {
               nextElementKey = key
               nextElementValue = elem
             }
+          } else if (recency ne null) {
+            if (activeSubstreamsMap.size < maxSubstreams || evictLeastRecentlyActive()) runSubstream(key, elem)
+            else {
+              // every substream still waits for its first element to be taken, wait until one can be evicted
+              nextElementKey = key
+              nextElementValue = elem
+            }
           } else {
             if (activeSubstreamsMap.size + closedSubstreams.size == maxSubstreams)
               throw tooManySubstreamsOpenException
@@ -381,6 +417,8 @@ import pekko.util.ccompat.JavaConverters._
       private def runSubstream(key: K, value: T): Unit = {
         val substreamSource = new SubstreamSource("GroupBySource " + nextId(), key, value)
         activeSubstreamsMap.put(key, substreamSource)
+        if (recency ne null) recency.update(key)
+        if (metrics ne null) metrics.substreamOpened()
         firstPushCounter += 1
         if (isAvailable(out)) {
           push(out, Source.fromGraph(substreamSource.source))
@@ -393,15 +431,66 @@ import pekko.util.ccompat.JavaConverters._
         }
       }
 
-      override protected def onTimer(timerKey: Any): Unit = {
-        val substreamSource = activeSubstreamsMap.get(timerKey)
-        if (substreamSource != null) {
-          if (!allowClosedSubstreamRecreation) {
-            closedSubstreams.add(timerKey)
+      /**
+       * Completes the least recently active substream that has already taken its first element.
+       *
+       * @return false if there is no such substream
+       */
+      private def evictLeastRecentlyActive(): Boolean = {
+        val candidates = recency.leastToMostRecent
+        var evicted = false
+        while (!evicted && candidates.hasNext) {
+          val substreamSource = activeSubstreamsMap.get(candidates.next())
+          if (substreamSource.evictable) {
+            substreamSource.evict()
+            if (metrics ne null) metrics.substreamEvicted()
+            evicted = true
           }
-          activeSubstreamsMap.remove(timerKey)
-          if (isClosed(in)) tryCompleteAll()
         }
+        evicted
+      }
+
+      /**
+       * Opens the substream for the pending element once there is room for it.
+       */
+      private def tryRunPendingSubstream(): Unit =
+        if (hasNextElement && !activeSubstreamsMap.containsKey(nextElementKey) &&
+          (activeSubstreamsMap.size < maxSubstreams || evictLeastRecentlyActive())) {
+          val key = nextElementKey
+          val value = nextElementValue
+          clearNextElement()
+          runSubstream(key, value)
+        }
+
+      private def evictIdleSubstreams(idleTimeout: FiniteDuration): Unit = {
+        recency.removeLeastRecentOutside(idleTimeout).foreach { key =>
+          val substreamSource = activeSubstreamsMap.get(key)
+          if (substreamSource.evictable) {
+            substreamSource.evict()
+            if (metrics ne null) metrics.substreamIdle()
+          } else recency.update(key) // not idle, it has an element waiting to be taken
+        }
+        tryRunPendingSubstream()
+        if (isClosed(in)) tryCompleteAll()
+      }
+
+      override protected def onTimer(timerKey: Any): Unit = timerKey match {
+        case IdleTimeoutCheckTimerKey =>
+          eviction.flatMap(_.idleTimeout).foreach(evictIdleSubstreams)
+        case _ =>
+          val substreamSource = activeSubstreamsMap.get(timerKey)
+          if (substreamSource != null) {
+            if (!allowClosedSubstreamRecreation && recency == null) {
+              closedSubstreams.add(timerKey)
+            }
+            activeSubstreamsMap.remove(timerKey)
+            if (recency ne null) {
+              recency.remove(timerKey.asInstanceOf[K])
+              tryRunPendingSubstream()
+            }
+            if (metrics ne null) metrics.substreamClosed()
+            if (isClosed(in)) tryCompleteAll()
+          }
       }
 
       setHandlers(in, out, this)
@@ -411,12 +500,20 @@ import pekko.util.ccompat.JavaConverters._
           with OutHandler {
         def firstPush(): Boolean = firstElement != null
         def hasNextForSubSource = hasNextElement && nextElementKey == key
+        def evictable: Boolean = !firstPush() && !hasNextForSubSource
         private def completeSubStream(): Unit = {
           complete()
           activeSubstreamsMap.remove(key)
-          if (!allowClosedSubstreamRecreation) {
+          if (recency ne null) recency.remove(key)
+          else if (!allowClosedSubstreamRecreation) {
             closedSubstreams.add(key)
           }
+          if (metrics ne null) metrics.substreamClosed()
+        }
+
+        def evict(): Unit = {
+          cancelTimer(key)
+          completeSubStream()
         }
 
         private def tryCompleteHandler(): Unit = {
@@ -434,6 +531,7 @@ import pekko.util.ccompat.JavaConverters._
             firstElement = null.asInstanceOf[T]
             substreamsJustStared.remove(this)
             if (substreamsJustStared.isEmpty) setKeepGoing(false)
+            if (recency ne null) tryRunPendingSubstream()
           } else if (hasNextForSubSource) {
             push(nextElementValue)
             clearNextElement()
@@ -446,6 +544,7 @@ import pekko.util.ccompat.JavaConverters._
           if (hasNextElement && nextElementKey == key) clearNextElement()
           if (firstPush()) firstPushCounter -= 1
           completeSubStream()
+          if (recency ne null) tryRunPendingSubstream()
           if (parent.isClosed(out)) tryCancel(cause)
           if (parent.isClosed(in)) tryCompleteAll() else if (needToPull) pull(in)
         }
@@ -13,8 +13,9 @@
 
 package org.apache.pekko.stream.impl.io
 
+import java.nio.MappedByteBuffer
 import java.nio.channels.FileChannel
-import java.nio.file.{ OpenOption, Path }
+import java.nio.file.{ OpenOption, Path, StandardOpenOption }
 
 import scala.collection.immutable
 import scala.concurrent.{ Future, Promise }
@@ -23,6 +24,7 @@ import scala.util.control.NonFatal
 
 import org.apache.pekko
 import pekko.annotation.InternalApi
+import pekko.io.DirectByteBufferPool
 import pekko.stream.{
   AbruptStageTerminationException,
   Attributes,
@@ -115,3 +117,115 @@ private[pekko] final class FileOutputStage(path: Path, startPosition: Long, open
     (logic, mat.future)
   }
 }
+
+/**
+ * INTERNAL API
+ *
+ * Sink that writes to consecutive memory mapped windows of the file, which are mapped as the file grows. The bytes
+ * are copied once, from the `ByteString` into the mapped window, without a system call per element. The file is
+ * truncated to the written bytes when the stream completes or fails.
+ *
+ * A window is unmapped as soon as the next one is mapped, and the last one before the file is truncated, since
+ * Windows doesn't allow truncating a file that is mapped. Unmapping explicitly is best effort, on JVMs that don't
+ * allow it the windows stay mapped until they are garbage collected, and on Windows the truncation fails then.
+ */
+@InternalApi
+private[pekko] final class MappedFileOutputStage(path: Path, windowSize: Int)
+    extends GraphStageWithMaterializedValue[SinkShape[ByteString], Future[IOResult]] {
+  require(windowSize > 0, "windowSize must be greater than 0")
+
+  val in: Inlet[ByteString] = Inlet("MappedFileSink")
+  override def shape: SinkShape[ByteString] = SinkShape(in)
+  override def initialAttributes: Attributes = DefaultAttributes.mappedFileSink
+
+  override def createLogicAndMaterializedValue(inheritedAttributes: Attributes): (GraphStageLogic, Future[IOResult]) = {
+    val mat = Promise[IOResult]()
+    val logic = new GraphStageLogic(shape) with InHandler {
+      private var chan: FileChannel = _
+      private var window: MappedByteBuffer = _
+      private var bytesWritten: Long = 0
+
+      override def preStart(): Unit = {
+        try {
+          // mapping a window for writing requires the channel to be readable as well
+          chan = FileChannel.open(
+            path,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING)
+          pull(in)
+        } catch {
+          case NonFatal(t) =>
+            closeFile(Some(new IOOperationIncompleteException(bytesWritten, t)))
+            failStage(t)
+        }
+      }
+
+      override def onPush(): Unit = {
+        var remaining = grab(in)
+        try {
+          while (remaining.nonEmpty) {
+            if ((window eq null) || !window.hasRemaining) {
+              unmapWindow()
+              window = chan.map(FileChannel.MapMode.READ_WRITE, bytesWritten, windowSize)
+            }
+            val copied = remaining.copyToBuffer(window)
+            bytesWritten += copied
+            remaining = remaining.drop(copied)
+          }
+          pull(in)
+        } catch {
+          case NonFatal(t) =>
+            closeFile(Some(new IOOperationIncompleteException(bytesWritten, t)))
+            failStage(t)
+        }
+      }
+
+      override def onUpstreamFailure(t: Throwable): Unit = {
+        closeFile(Some(new IOOperationIncompleteException(bytesWritten, t)))
+        failStage(t)
+      }
+
+      override def onUpstreamFinish(): Unit = {
+        closeFile(None)
+        completeStage()
+      }
+
+      override def postStop(): Unit = {
+        if (!mat.isCompleted) {
+          val failure = new AbruptStageTerminationException(this)
+          closeFile(Some(failure))
+          mat.tryFailure(failure)
+        }
+      }
+
+      private def closeFile(failed: Option[Throwable]): Unit = {
+        try {
+          unmapWindow()
+          if (chan ne null) {
+            // the last window extended the file beyond the written bytes
+            chan.truncate(bytesWritten)
+            chan.close()
+          }
+          failed match {
+            case Some(t) => mat.tryFailure(t)
+            case None    => mat.tryComplete(Success(IOResult(bytesWritten)))
+          }
+        } catch {
+          case NonFatal(t) =>
+            mat.tryFailure(failed.getOrElse(t))
+        }
+      }
+
+      private def unmapWindow(): Unit =
+        if (window ne null) {
+          DirectByteBufferPool.tryCleanDirectByteBuffer(window)
+          window = null
+        }
+
+      setHandler(in, this)
+    }
+    (logic, mat.future)
+  }
+}
@@ -24,8 +24,10 @@ import scala.util.control.NonFatal
 
 import org.apache.pekko
 import pekko.Done
+import pekko.annotation.InternalApi
 import pekko.stream.{ IOResult, _ }
 import pekko.stream.Attributes.InputBuffer
+import pekko.stream.impl.Stages.DefaultAttributes
 import pekko.stream.stage._
 import pekko.util.ByteString
 
@@ -154,3 +156,172 @@ private[pekko] final class FileSource(path: Path, chunkSize: Int, startPosition:
 
   override def toString = s"FileSource($path, $chunkSize)"
 }
+
+/**
+ * INTERNAL API
+ * Source backed by the given file that maps consecutive windows of the file into memory and emits slices
+ * of them as [[ByteString.DirectByteString]]s, without copying. A window is unmapped by the garbage collector
+ * when neither the stage nor any emitted chunk refers to it anymore.
+ */
+@InternalApi
+private[pekko] final class MappedFileSource(path: Path, chunkSize: Int, windowSize: Int)
+    extends GraphStageWithMaterializedValue[SourceShape[ByteString], Future[IOResult]] {
+  require(chunkSize > 0, "chunkSize must be greater than 0")
+  require(windowSize >= chunkSize, "windowSize must not be less than chunkSize")
+  val out = Outlet[ByteString]("MappedFileSource.out")
+
+  override val shape = SourceShape(out)
+
+  override def initialAttributes: Attributes = DefaultAttributes.mappedFileSource
+
+  override def createLogicAndMaterializedValue(inheritedAttributes: Attributes): (GraphStageLogic, Future[IOResult]) = {
+    val ioResultPromise = Promise[IOResult]()
+
+    val logic = new GraphStageLogic(shape) with OutHandler {
+      private var channel: FileChannel = _
+      private var size = 0L
+      private var position = 0L
+      // the part of the current mapped window that has not been emitted yet
+      private var window: ByteString = ByteString.empty
+
+      setHandler(out, this)
+
+      override def preStart(): Unit = {
+        try {
+          if (!Files.exists(path)) throw new NoSuchFileException(path.toString)
+
+          require(!Files.isDirectory(path), s"Path '$path' is a directory")
+          require(Files.isReadable(path), s"Missing read permission for '$path'")
+
+          channel = FileChannel.open(path, StandardOpenOption.READ)
+          // bytes appended after the start are not read, as the mapping must not go beyond the end of the file
+          size = channel.size()
+        } catch {
+          case ex: Exception =>
+            ioResultPromise.trySuccess(IOResult(position, Failure(ex)))
+            throw ex
+        }
+      }
+
+      override def onPull(): Unit =
+        if (position == size) success()
+        else {
+          if (window.isEmpty) {
+            try {
+              window = ByteString.fromDirectBuffer(
+                channel.map(FileChannel.MapMode.READ_ONLY, position, math.min(windowSize.toLong, size - position)))
+            } catch {
+              case NonFatal(ex) =>
+                ioResultPromise.trySuccess(IOResult(position, Failure(ex)))
+                throw ex
+            }
+          }
+          // the pages of the window are read when the bytes of a chunk are first accessed
+          val chunk = window.take(chunkSize)
+          window = window.drop(chunkSize)
+          position += chunk.length
+          push(out, chunk)
+          if (position == size) success()
+        }
+
+      private def success(): Unit = {
+        completeStage()
+        ioResultPromise.trySuccess(IOResult(position, Success(Done)))
+      }
+
+      override def onDownstreamFinish(cause: Throwable): Unit = {
+        cause match {
+          case _: SubscriptionWithCancelException.NonFailureCancellation =>
+            success()
+          case ex =>
+            ioResultPromise.tryFailure(
+              new IOOperationIncompleteException("Downstream failed before reaching file end", position, ex))
+            completeStage()
+        }
+      }
+
+      override def postStop(): Unit = {
+        ioResultPromise.trySuccess(IOResult(position, Success(Done)))
+        window = ByteString.empty
+        if ((channel ne null) && channel.isOpen) channel.close()
+      }
+    }
+
+    (logic, ioResultPromise.future)
+  }
+
+  override def toString = s"MappedFileSource($path, $chunkSize, $windowSize)"
+}
+
+/**
+ * INTERNAL API
+ * Emits the regions of a file of up to `regionSize` bytes, the contents are not read. The size of the file
+ * is taken when the stage starts.
+ */
+@InternalApi
+private[pekko] final class FileRegionSource(path: Path, regionSize: Long)
+    extends GraphStageWithMaterializedValue[SourceShape[FileRegion], Future[IOResult]] {
+  require(regionSize > 0, "regionSize must be greater than 0")
+  val out = Outlet[FileRegion]("FileRegionSource.out")
+
+  override val shape = SourceShape(out)
+
+  override def initialAttributes: Attributes = DefaultAttributes.fileRegionSource
+
+  override def createLogicAndMaterializedValue(inheritedAttributes: Attributes): (GraphStageLogic, Future[IOResult]) = {
+    val ioResultPromise = Promise[IOResult]()
+
+    val logic = new GraphStageLogic(shape) with OutHandler {
+      private var size = 0L
+      private var position = 0L
+
+      setHandler(out, this)
+
+      override def preStart(): Unit = {
+        try {
+          if (!Files.exists(path)) throw new NoSuchFileException(path.toString)
+
+          require(!Files.isDirectory(path), s"Path '$path' is a directory")
+          require(Files.isReadable(path), s"Missing read permission for '$path'")
+
+          size = Files.size(path)
+        } catch {
+          case ex: Exception =>
+            ioResultPromise.trySuccess(IOResult(position, Failure(ex)))
+            throw ex
+        }
+        if (size == 0) success()
+      }
+
+      override def onPull(): Unit = {
+        val count = math.min(regionSize, size - position)
+        push(out, FileRegion(path, position, count))
+        position += count
+        if (position == size) success()
+      }
+
+      private def success(): Unit = {
+        completeStage()
+        ioResultPromise.trySuccess(IOResult(position, Success(Done)))
+      }
+
+      override def onDownstreamFinish(cause: Throwable): Unit = {
+        cause match {
+          case _: SubscriptionWithCancelException.NonFailureCancellation =>
+            success()
+          case ex =>
+            ioResultPromise.tryFailure(
+              new IOOperationIncompleteException("Downstream failed before reaching file end", position, ex))
+            completeStage()
+        }
+      }
+
+      override def postStop(): Unit =
+        ioResultPromise.trySuccess(IOResult(position, Success(Done)))
+    }
+
+    (logic, ioResultPromise.future)
+  }
+
+  override def toString = s"FileRegionSource($path, $regionSize)"
+}
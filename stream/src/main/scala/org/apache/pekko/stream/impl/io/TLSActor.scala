@@ -85,46 +85,76 @@ import pekko.util.ByteString
    * a ByteString by filling the respective ByteBuffer and taking care to dequeue
    * a new element when data are demanded and none are left lying on the chopping
    * block.
+   *
+   * Chunks that are already queued are gathered into the ByteBuffer until it holds
+   * `gatherLimit` bytes, so that many small chunks are wrapped into one TLS record,
+   * or unwrapped in one go, instead of one at a time.
    */
-  class ChoppingBlock(idx: Int, name: String) extends TransferState {
-    override def isReady: Boolean = buffer.nonEmpty || inputBunch.isPending(idx) || inputBunch.isDepleted(idx)
+  class ChoppingBlock(idx: Int, name: String, gatherLimit: Int) extends TransferState {
+    override def isReady: Boolean =
+      buffer.nonEmpty || (pendingSession ne null) || inputBunch.isPending(idx) || inputBunch.isDepleted(idx)
     override def isCompleted: Boolean = inputBunch.isCancelled(idx)
 
     private var buffer = ByteString.empty
 
+    // new session parameters that were dequeued while gathering, applied once the bytes before them are wrapped
+    private var pendingSession: NegotiateNewSession = null
+
     /**
      * Whether there are no bytes lying on this chopping block.
      */
-    def isEmpty: Boolean = buffer.isEmpty
+    def isEmpty: Boolean = buffer.isEmpty && (pendingSession eq null)
 
     /**
      * Pour as many bytes as are available either on the chopping block or in
-     * the inputBunch’s next ByteString into the supplied ByteBuffer, which is
+     * the inputBunch’s next ByteStrings into the supplied ByteBuffer, which is
      * expected to be in “read left-overs” mode, i.e. everything between its
      * position and limit is retained. In order to allocate a fresh ByteBuffer
      * with these characteristics, use `prepare()`.
      */
     def chopInto(b: ByteBuffer): Unit = {
       b.compact()
-      if (buffer.isEmpty) {
+      if (buffer.nonEmpty) {
+        if (tracing) log.debug(s"chopping from old chunk of ${buffer.size} into $name (${b.position()})")
+      } else if (pendingSession ne null) {
+        setNewSessionParameters(pendingSession)
+        pendingSession = null
+      } else {
         buffer = inputBunch.dequeue(idx) match {
-          // this class handles both UserIn and TransportIn
-          case bs: ByteString => bs
-          case SendBytes(bs)  => bs
           case n: NegotiateNewSession =>
             setNewSessionParameters(n)
             ByteString.empty
-          case _ => throw new RuntimeException() // won't happen, compiler exhaustiveness check pleaser
+          case elem => bytesOf(elem)
         }
         if (tracing) log.debug(s"chopping from new chunk of ${buffer.size} into $name (${b.position()})")
-      } else {
-        if (tracing) log.debug(s"chopping from old chunk of ${buffer.size} into $name (${b.position()})")
       }
       val copied = buffer.copyToBuffer(b)
       buffer = buffer.drop(copied)
+      gather(b)
       b.flip()
     }
 
+    @tailrec private def gather(b: ByteBuffer): Unit =
+      if (buffer.isEmpty && (pendingSession eq null) && b.position() < gatherLimit && b.hasRemaining &&
+        inputBunch.isPending(idx)) {
+        inputBunch.dequeue(idx) match {
+          case n: NegotiateNewSession => pendingSession = n
+          case elem =>
+            buffer = bytesOf(elem)
+            if (tracing) log.debug(s"gathering new chunk of ${buffer.size} into $name (${b.position()})")
+            val copied = buffer.copyToBuffer(b)
+            buffer = buffer.drop(copied)
+            gather(b)
+        }
+      }
+
+    private def bytesOf(elem: Any): ByteString = elem match {
+      // this class handles both UserIn and TransportIn
+      case bs: ByteString => bs
+      case SendBytes(bs)  => bs
+      case _              => throw new RuntimeException() // won't happen, compiler exhaustiveness check pleaser
+    }
+
     /**
      * When potentially complete packet data are left after unwrap() we must
      * put them back onto the chopping block because otherwise the pump will
@@ -159,9 +189,11 @@ import pekko.util.ByteString
   private val transportInBuffer = ByteBuffer.allocate(16665 + 2048)
   private val userInBuffer = ByteBuffer.allocate(16665 + 2048)
 
-  private val userInChoppingBlock = new ChoppingBlock(UserIn, "UserIn")
+  // gathering user data up to the maximum plaintext size of a TLS record fills one record
+  private val userInChoppingBlock = new ChoppingBlock(UserIn, "UserIn", gatherLimit = 16384)
   userInChoppingBlock.prepare(userInBuffer)
-  private val transportInChoppingBlock = new ChoppingBlock(TransportIn, "TransportIn")
+  private val transportInChoppingBlock =
+    new ChoppingBlock(TransportIn, "TransportIn", gatherLimit = transportInBuffer.capacity)
   transportInChoppingBlock.prepare(transportInBuffer)
 
   var lastHandshakeStatus: HandshakeStatus = null
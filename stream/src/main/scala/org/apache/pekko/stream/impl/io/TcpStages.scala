@@ -13,6 +13,7 @@
 
 package org.apache.pekko.stream.impl.io
 
+import java.io.EOFException
 import java.net.InetSocketAddress
 import java.util.concurrent.TimeoutException
 import java.util.concurrent.atomic.{ AtomicBoolean, AtomicLong }
@@ -33,7 +34,7 @@ import pekko.io.Tcp._
 import pekko.stream._
 import pekko.stream.impl.ReactiveStreamsCompliance
 import pekko.stream.impl.fusing.GraphStages.detacher
-import pekko.stream.scaladsl.{ BidiFlow, Flow, Tcp => StreamTcp, TcpIdleTimeoutException }
+import pekko.stream.scaladsl.{ BidiFlow, FileIO, Flow, Tcp => StreamTcp, TcpIdleTimeoutException }
 import pekko.stream.scaladsl.Tcp.{ OutgoingConnection, ServerBinding }
 import pekko.stream.scaladsl.TcpAttributes
 import pekko.stream.stage._
@@ -276,6 +277,8 @@ private[stream] object ConnectionSourceStage {
     private var writeInProgress = false
     // upstream already finished but are still writing the last data to the connection
     private var connectionClosePending = false
+    // a file region passed by FileRegionTransferStage that is written once the write buffer has been written
+    private var pendingRegion: FileRegion = null
 
     @nowarn("msg=deprecated")
     private val coalesceWrites = eagerMaterializer.settings.ioSettings.coalesceWrites
@@ -332,6 +335,13 @@ private[stream] object ConnectionSourceStage {
       writeBuffer = ByteString.empty
     }
 
+    // the connection actor sends the region with FileChannel.transferTo
+    private def sendPendingRegion(): Unit = {
+      connection ! WritePath(pendingRegion.path, pendingRegion.position, pendingRegion.count, WriteAck)
+      writeInProgress = true
+      pendingRegion = null
+    }
+
     /*
      * Coalesce more frames by collecting more frames while waiting for round trip to the
      * connection actor. WriteDelayMessage is an empty Write message and WriteDelayAck will
@@ -357,15 +367,17 @@ private[stream] object ConnectionSourceStage {
           // round trip to the connection actor, or if reaching the configured maximum number of round trips, or
           // if writeBuffer capacity has been exceeded.
           writeDelayCountDown -= 1
-          if (writeDelayCountDown == 0 || previousWriteBufferSize == writeBuffer.length || writeBuffer.length >= writeBufferSize)
+          if (writeDelayCountDown == 0 || previousWriteBufferSize == writeBuffer.length || writeBuffer.length >= writeBufferSize ||
+            (pendingRegion ne null))
             sendWriteBuffer()
           else
             sendWriteDelay()
 
         case WriteAck =>
-          if (writeBuffer.isEmpty)
-            writeInProgress = false
-          else if (coalesceWritesDisabled || writeBuffer.length >= writeBufferSize)
+          if (writeBuffer.isEmpty) {
+            if (pendingRegion ne null) sendPendingRegion()
+            else writeInProgress = false
+          } else if (coalesceWritesDisabled || writeBuffer.length >= writeBufferSize || (pendingRegion ne null))
             sendWriteBuffer()
           else {
             writeDelayCountDown = coalesceWrites
@@ -376,7 +388,7 @@ private[stream] object ConnectionSourceStage {
             closeConnectionUpstreamFinished()
           }
 
-          if (!isClosed(bytesIn) && !hasBeenPulled(bytesIn))
+          if (!isClosed(bytesIn) && !hasBeenPulled(bytesIn) && (pendingRegion eq null))
             pull(bytesIn)
 
         case Terminated(_) => fail(new StreamTcpException("The connection actor has terminated. Stopping now."))
@@ -457,8 +469,22 @@ private[stream] object ConnectionSourceStage {
     setHandler(
       bytesIn,
       new InHandler {
-        override def onPush(): Unit = {
-          val elem = grab(bytesIn)
+        override def onPush(): Unit =
+          grab(bytesIn.asInstanceOf[Inlet[Any]]) match {
+            case region: FileRegion => onRegion(region)
+            case elem               => onBytes(elem.asInstanceOf[ByteString])
+          }
+
+        // only one region is in flight, the next element is pulled when it has been written
+        private def onRegion(region: FileRegion): Unit = {
+          pendingRegion = region
+          if (!writeInProgress) {
+            if (writeBuffer.isEmpty) sendPendingRegion()
+            else sendWriteBuffer()
+          }
+        }
+
+        private def onBytes(elem: ByteString): Unit = {
           ReactiveStreamsCompliance.requireNonNullElement(elem)
           if (writeInProgress) {
             writeBuffer = writeBuffer ++ elem
@@ -596,6 +622,83 @@ private[stream] object ConnectionSourceStage {
   override def toString = s"TCP-to($remoteAddress)"
 }
 
+/**
+ * INTERNAL API
+ *
+ * Passes file regions as they are to a [[TcpConnectionStage.TcpStreamLogic]] that is fused directly downstream
+ * of it, which sends them with `Tcp.WritePath`, so that the file is copied to the socket by the kernel.
+ * With any other downstream the regions are read in chunks of `chunkSize` bytes by a file source, which
+ * runs on the blocking IO dispatcher like the one of `FileIO.fromPath`.
+ */
+@InternalApi private[stream] final class FileRegionTransferStage(chunkSize: Int)
+    extends GraphStage[FlowShape[FileRegion, ByteString]] {
+  require(chunkSize > 0, "chunkSize must be greater than 0")
+
+  val in: Inlet[FileRegion] = Inlet("FileRegionTransfer.in")
+  val out: Outlet[ByteString] = Outlet("FileRegionTransfer.out")
+  override def initialAttributes = Attributes.name("fileRegionTransfer")
+  val shape: FlowShape[FileRegion, ByteString] = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new GraphStageLogic(shape) with InHandler with OutHandler with StageLogging {
+      private var passRegions = false
+      // the file source of the region that is being read, when the regions are not passed to a TCP connection
+      private var chunks: SubSinkInlet[ByteString] = _
+      private var remaining = 0L
+
+      override def preStart(): Unit = {
+        passRegions = portToConn(inCount + out.id).inOwner.isInstanceOf[TcpConnectionStage.TcpStreamLogic]
+        if (passRegions) log.debug("Passing file regions to the TCP connection, which sends them with transferTo")
+        else log.debug("Reading file regions in chunks, as the downstream is not a TCP connection")
+      }
+
+      override def onPush(): Unit = {
+        val region = grab(in)
+        if (region.count == 0) pull(in)
+        else if (passRegions) push(out.asInstanceOf[Outlet[Any]], region)
+        else readChunks(region)
+      }
+
+      override def onPull(): Unit =
+        if (chunks ne null) chunks.pull()
+        else pull(in)
+
+      override def onUpstreamFinish(): Unit =
+        if (chunks eq null) completeStage()
+
+      private def readChunks(region: FileRegion): Unit = {
+        remaining = region.count
+        chunks = new SubSinkInlet[ByteString]("FileRegionTransfer.chunks")
+        chunks.setHandler(new InHandler {
+          override def onPush(): Unit = {
+            val chunk = chunks.grab()
+            if (chunk.length < remaining) {
+              remaining -= chunk.length
+              push(out, chunk)
+            } else {
+              push(out, chunk.take(remaining.toInt))
+              remaining = 0
+              chunks.cancel()
+              chunks = null
+              if (isClosed(in)) completeStage()
+            }
+          }
+
+          override def onUpstreamFinish(): Unit =
+            failStage(new EOFException(s"Region $region is beyond the end of the file"))
+
+          override def onUpstreamFailure(ex: Throwable): Unit = failStage(ex)
+        })
+        FileIO.fromPath(region.path, chunkSize, region.position).runWith(chunks.sink)(subFusingMaterializer)
+        chunks.pull()
+      }
+
+      setHandlers(in, out, this)
+    }
+
+  override def toString = "FileRegionTransfer"
+}
+
 /** INTERNAL API */
 @InternalApi private[pekko] object TcpIdleTimeout {
   def apply(
@@ -13,6 +13,8 @@
 
 package org.apache.pekko.stream.impl.io.compression
 
+import java.util.zip.ZipException
+
 import org.apache.pekko
 import pekko.NotUsed
 import pekko.annotation.InternalApi
@@ -55,4 +57,66 @@ import pekko.util.ByteString
           }
       }
     }
+
+  /**
+   * Creates a flow from a constructor of a pluggable compressor.
+   */
+  def codecCompressorFlow(newCompressor: () => pekko.stream.Compressor): Flow[ByteString, ByteString, NotUsed] =
+    compressorFlow(() => new CodecCompressor(newCompressor())).named("compress")
+
+  /**
+   * Adapts a pluggable compressor to the internal one, so that it runs in the stage of [[compressorFlow]],
+   * which only calls `compressAndFlush`, `finish` and `close`.
+   */
+  private final class CodecCompressor(compressor: pekko.stream.Compressor) extends Compressor {
+    override def compress(input: ByteString): ByteString = compressor.compressAndFlush(input)
+    override def flush(): ByteString = ByteString.empty
+    override def finish(): ByteString = compressor.finish()
+    override def compressAndFlush(input: ByteString): ByteString = compressor.compressAndFlush(input)
+    override def compressAndFinish(input: ByteString): ByteString = compressor.compressAndFlush(input) ++ finish()
+    override def close(): Unit = compressor.close()
+  }
+
+  /**
+   * Creates a flow from a constructor of a pluggable decompressor, which emits chunks of up to `maxBytesPerChunk`.
+   */
+  def codecDecompressorFlow(
+      newDecompressor: () => pekko.stream.Decompressor,
+      maxBytesPerChunk: Int): Flow[ByteString, ByteString, NotUsed] = {
+    require(maxBytesPerChunk > 0, "maxBytesPerChunk must be greater than 0")
+    Flow.fromGraph {
+      new SimpleLinearGraphStage[ByteString] {
+        override def initialAttributes: Attributes = Attributes.name("decompress")
+
+        override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+          new GraphStageLogic(shape) with InHandler with OutHandler {
+            private val decompressor = newDecompressor()
+
+            override def onPush(): Unit = {
+              decompressor.setInput(grab(in))
+              onPull()
+            }
+
+            override def onPull(): Unit = {
+              val data = decompressor.decompress(maxBytesPerChunk)
+              if (data.nonEmpty) push(out, data)
+              else if (isClosed(in)) finish()
+              else pull(in)
+            }
+
+            // the input has been decompressed completely when it was pulled, otherwise onPull finishes
+            override def onUpstreamFinish(): Unit =
+              if (hasBeenPulled(in)) finish()
+
+            private def finish(): Unit =
+              if (decompressor.isFinished) completeStage()
+              else failStage(new ZipException("Truncated compressed input"))
+
+            override def postStop(): Unit = decompressor.close()
+
+            setHandlers(in, out, this)
+          }
+      }
+    }
+  }
 }
@@ -26,7 +26,13 @@ import pekko.util.{ ByteString, ByteStringBuilder }
     extends Compressor {
   import DeflateCompressor._
 
-  protected lazy val deflater = new Deflater(level, nowrap)
+  private var pooledDeflater: Deflater = _
+  private var released = false
+
+  protected lazy val deflater: Deflater = {
+    pooledDeflater = DeflaterPool.acquire(level, nowrap)
+    pooledDeflater
+  }
 
   override final def compressAndFlush(input: ByteString): ByteString = {
     val buffer = newTempBuffer(input.length)
@@ -54,11 +60,19 @@ import pekko.util.{ ByteString, ByteStringBuilder }
   protected def finishWithBuffer(buffer: Array[Byte]): ByteString = {
     deflater.finish()
     val res = drainDeflater(deflater, buffer)
-    deflater.end()
+    releaseDeflater()
     res
   }
 
-  def close(): Unit = deflater.end()
+  def close(): Unit = releaseDeflater()
+
+  // a deflater of a subclass that overrides `deflater` is not pooled, as its settings are unknown
+  private def releaseDeflater(): Unit =
+    if (!released) {
+      released = true
+      if (deflater eq pooledDeflater) DeflaterPool.release(deflater, level, nowrap)
+      else deflater.end()
+    }
 
   private def newTempBuffer(size: Int = 65536): Array[Byte] = {
     // The default size is somewhat arbitrary, we'd like to guess a better value but Deflater/zlib
@@ -26,7 +26,8 @@ import pekko.stream.Attributes
   def this(maxBytesPerChunk: Int) = this(maxBytesPerChunk, false) // for binary compatibility
 
   override def createLogic(attr: Attributes) = new DecompressorParsingLogic {
-    override val inflater: Inflater = new Inflater(nowrap)
+    override val inflater: Inflater = InflaterPool.acquire(nowrap)
+    override def releaseInflater(): Unit = InflaterPool.release(inflater, nowrap)
 
     override case object inflating extends Inflate(noPostProcessing = true) {
       override def onTruncation(): Unit = completeStage()
@@ -59,7 +59,9 @@ import pekko.util.ByteString
       }
     }
 
-    override def postStop(): Unit = inflater.end()
+    def releaseInflater(): Unit = inflater.end()
+
+    override def postStop(): Unit = releaseInflater()
   }
 }
 
@@ -22,7 +22,6 @@ import pekko.util.ByteString
 /** INTERNAL API */
 @InternalApi private[pekko] class GzipCompressor(compressionLevel: Int = Deflater.BEST_COMPRESSION)
     extends DeflateCompressor(compressionLevel, true) {
-  override protected lazy val deflater = new Deflater(compressionLevel, true)
   private val checkSum = new CRC32 // CRC32 of uncompressed data
   private var headerSent = false
   private var bytesRead = 0L
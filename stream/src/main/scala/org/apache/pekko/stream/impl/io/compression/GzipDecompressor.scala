@@ -27,7 +27,8 @@ import pekko.util.ByteString
     extends DeflateDecompressorBase(maxBytesPerChunk) {
 
   override def createLogic(attr: Attributes) = new DecompressorParsingLogic {
-    override val inflater: Inflater = new Inflater(true)
+    override val inflater: Inflater = InflaterPool.acquire(nowrap = true)
+    override def releaseInflater(): Unit = InflaterPool.release(inflater, nowrap = true)
     private val crc32: CRC32 = new CRC32
 
     override def afterInflate: ParseStep[ByteString] = ReadTrailer
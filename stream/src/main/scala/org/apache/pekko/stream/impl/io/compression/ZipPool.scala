@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, which was derived from Akka.
+ */
+
+package org.apache.pekko.stream.impl.io.compression
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.zip.{ Deflater, Inflater }
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Reusable `Deflater` instances. Creating a `Deflater` allocates the native zlib state, which is much more
+ * expensive than resetting an existing one, and matters for streams that compress only a few chunks.
+ * A released instance must not be used any more by the releasing side.
+ *
+ * The pools are global and keep their instances for the life of the JVM, so only a few are kept per kind, which
+ * covers the streams that are materialized one after another. Concurrent streams beyond that create their own.
+ */
+@InternalApi private[pekko] object DeflaterPool {
+  private final val PooledPerKind = 4
+
+  // one pool per level (-1 to 9) and nowrap
+  private val pools = Array.fill(22)(new ArrayBlockingQueue[Deflater](PooledPerKind))
+
+  private def pool(level: Int, nowrap: Boolean): ArrayBlockingQueue[Deflater] =
+    if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) null
+    else pools((level + 1) * 2 + (if (nowrap) 1 else 0))
+
+  def acquire(level: Int, nowrap: Boolean): Deflater = {
+    val p = pool(level, nowrap)
+    val deflater = if (p eq null) null else p.poll()
+    if (deflater eq null) new Deflater(level, nowrap) else deflater
+  }
+
+  def release(deflater: Deflater, level: Int, nowrap: Boolean): Unit = {
+    val p = pool(level, nowrap)
+    if (p eq null) deflater.end()
+    else {
+      deflater.reset()
+      if (!p.offer(deflater)) deflater.end()
+    }
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Reusable `Inflater` instances, see [[DeflaterPool]].
+ */
+@InternalApi private[pekko] object InflaterPool {
+  private final val PooledPerKind = 4
+
+  private val wrapped = new ArrayBlockingQueue[Inflater](PooledPerKind)
+  private val nowrapped = new ArrayBlockingQueue[Inflater](PooledPerKind)
+
+  def acquire(nowrap: Boolean): Inflater = {
+    val inflater = (if (nowrap) nowrapped else wrapped).poll()
+    if (inflater eq null) new Inflater(nowrap) else inflater
+  }
+
+  def release(inflater: Inflater, nowrap: Boolean): Unit = {
+    inflater.reset()
+    if (!(if (nowrap) nowrapped else wrapped).offer(inflater)) inflater.end()
+  }
+}
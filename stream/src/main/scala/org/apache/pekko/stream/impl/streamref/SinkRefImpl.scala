@@ -14,6 +14,7 @@
 package org.apache.pekko.stream.impl.streamref
 
 import scala.annotation.nowarn
+import scala.collection.immutable
 import scala.util.{ Failure, Success, Try }
 
 import org.apache.pekko
@@ -81,6 +82,12 @@ private[stream] final class SinkRefStageImpl[In] private[pekko] (val initialPart
         inheritedAttributes.get[StreamRefAttributes.SubscriptionTimeout](
           SubscriptionTimeout(settings.subscriptionTimeout))
       }
+      private[this] val maxBatchSize = inheritedAttributes
+        .get[StreamRefAttributes.MaxBatchSize](StreamRefAttributes.MaxBatchSize(streamRefsMaster.maxBatchSize))
+        .size
+      private[this] val batchLinger = inheritedAttributes
+        .get[StreamRefAttributes.BatchLinger](StreamRefAttributes.BatchLinger(streamRefsMaster.batchLinger))
+        .timeout
       // end of settings ---
 
       override protected val stageActorName: String = streamRefsMaster.nextSinkRefStageName()
@@ -97,12 +104,19 @@ private[stream] final class SinkRefStageImpl[In] private[pekko] (val initialPart
         }
 
       val SubscriptionTimeoutTimerKey = "SubscriptionTimeoutKey"
+      val BatchLingerTimerKey = "BatchLingerKey"
 
       // demand management ---
       private var remoteCumulativeDemandReceived: Long = 0L
       private var remoteCumulativeDemandConsumed: Long = 0L
       // end of demand management ---
 
+      // batching, only used if maxBatchSize > 1 ---
+      private[this] val batch = new immutable.VectorBuilder[In]
+      private[this] var batchSize = 0
+      private[this] var batchSeqNr = 0L
+      // end of batching ---
+
       private var completedBeforeRemoteConnected: OptionVal[Try[Done]] = OptionVal.None
 
       // When this side of the stream has completed/failed, and we await the Terminated() signal back from the partner
@@ -198,12 +212,43 @@ private[stream] final class SinkRefStageImpl[In] private[pekko] (val initialPart
       }
 
       override def onPush(): Unit = {
-        val elem = grabSequenced(in)
-        getPartnerRef ! elem
-        log.debug("[{}] Sending sequenced: {} to {}", stageActorName, elem, getPartnerRef)
+        if (maxBatchSize == 1) {
+          val elem = grabSequenced(in)
+          getPartnerRef ! elem
+          log.debug("[{}] Sending sequenced: {} to {}", stageActorName, elem, getPartnerRef)
+        } else {
+          if (batchSize == 0) batchSeqNr = remoteCumulativeDemandConsumed
+          batch += grab(in)
+          batchSize += 1
+          remoteCumulativeDemandConsumed += 1
+          // the remote side only signals more demand once it has received the elements, so don't hold them back
+          // when the demand is used up
+          if (batchSize == maxBatchSize || remoteCumulativeDemandConsumed == remoteCumulativeDemandReceived)
+            sendBatch()
+          else if (batchSize == 1)
+            scheduleOnce(BatchLingerTimerKey, batchLinger)
+        }
         tryPull()
       }
 
+      private def sendBatch(): Unit =
+        if (batchSize > 0) {
+          cancelTimer(BatchLingerTimerKey)
+          val elems = batch.result()
+          val msg =
+            if (batchSize == 1) StreamRefsProtocol.SequencedOnNext(batchSeqNr, elems.head)
+            else StreamRefsProtocol.SequencedOnNextBatch(batchSeqNr, elems)
+          batch.clear()
+          batchSize = 0
+          getPartnerRef ! msg
+          log.debug(
+            "[{}] Sending sequenced batch of {} elements from {} to {}",
+            stageActorName,
+            elems.size,
+            batchSeqNr,
+            getPartnerRef)
+        }
+
       private def tryPull(): Unit =
         if (remoteCumulativeDemandConsumed < remoteCumulativeDemandReceived && !hasBeenPulled(in) && !isClosed(in)) {
           pull(in)
@@ -219,6 +264,9 @@ private[stream] final class SinkRefStageImpl[In] private[pekko] (val initialPart
 
           throw ex
 
+        case BatchLingerTimerKey =>
+          sendBatch()
+
         case other => throw new IllegalArgumentException(s"Unknown timer key: $other")
       }
 
@@ -232,6 +280,7 @@ private[stream] final class SinkRefStageImpl[In] private[pekko] (val initialPart
         log.debug("[{}] Upstream failure, partnerRef [{}]", stageActorName, partnerRef)
         partnerRef match {
           case OptionVal.Some(ref) =>
+            sendBatch()
             ref ! StreamRefsProtocol.RemoteStreamFailure(ex.getMessage)
             finishedWithAwaitingPartnerTermination = OptionVal(Failure(ex))
             setKeepGoing(true) // we will terminate once partner ref has Terminated (to avoid racing Terminated with completion message)
@@ -248,6 +297,7 @@ private[stream] final class SinkRefStageImpl[In] private[pekko] (val initialPart
         log.debug("[{}] Upstream finish, partnerRef [{}]", stageActorName, partnerRef)
         partnerRef match {
           case OptionVal.Some(ref) =>
+            sendBatch()
             ref ! StreamRefsProtocol.RemoteStreamCompleted(remoteCumulativeDemandConsumed)
             finishedWithAwaitingPartnerTermination = OptionVal(Success(Done))
             setKeepGoing(true) // we will terminate once partner ref has Terminated (to avoid racing Terminated with completion message)
@@ -14,6 +14,7 @@
 package org.apache.pekko.stream.impl.streamref
 
 import scala.annotation.nowarn
+import scala.collection.immutable
 
 import org.apache.pekko
 import pekko.NotUsed
@@ -234,41 +235,17 @@ private[stream] final class SourceRefStageImpl[Out](val initialPartnerRef: Optio
 
         case (sender, msg @ StreamRefsProtocol.SequencedOnNext(seqNr, payload: Out @unchecked)) =>
           observeAndValidateSequenceNr(seqNr, "Illegal sequence nr in SequencedOnNext")
-          state match {
-            case AwaitingSubscription(partner) =>
-              verifyPartner(sender, partner)
-
-              log.debug("[{}] Received seq {} from {}", stageActorName, msg, sender)
-              state = Running(partner)
-              onReceiveElement(payload)
-              triggerCumulativeDemand()
-
-            case Running(partner) =>
-              verifyPartner(sender, partner)
-              onReceiveElement(payload)
-              triggerCumulativeDemand()
-
-            case AwaitingPartner =>
-              throw new IllegalStateException(s"[$stageActorName] Got $msg from $sender while AwaitingPartner")
-
-            case WaitingForCancelAck(partner, _) =>
-              // awaiting cancellation ack from remote
-              verifyPartner(sender, partner)
-              log.warning(
-                "[{}] Got element from remote but downstream cancelled, dropping element of type {}",
-                stageActorName,
-                payload.getClass)
-
-            case UpstreamCompleted(partner) =>
-              verifyPartner(sender, partner)
-              throw new IllegalStateException(
-                s"[$stageActorName] Got completion and then received more elements from $sender, this is not supposed to happen.")
-
-            case UpstreamTerminated(partner) =>
-              verifyPartner(sender, partner)
-              log.debug("[{}] Received element after partner terminated")
-              onReceiveElement(payload)
+          if (acceptElements(sender, msg)) {
+            onReceiveElement(payload)
+            if (state.isInstanceOf[Running]) triggerCumulativeDemand()
+          }
 
+        case (sender, msg @ StreamRefsProtocol.SequencedOnNextBatch(seqNr, payloads: immutable.Seq[Out @unchecked])) =>
+          observeAndValidateSequenceNr(seqNr, "Illegal sequence nr in SequencedOnNextBatch", payloads.size)
+          if (acceptElements(sender, msg)) {
+            payloads.foreach(onReceiveElement)
+            // one demand signal for the whole batch
+            if (state.isInstanceOf[Running]) triggerCumulativeDemand()
           }
 
         case (sender, StreamRefsProtocol.RemoteStreamCompleted(seqNr)) =>
@@ -527,6 +504,46 @@ private[stream] final class SourceRefStageImpl[Out](val initialPartnerRef: Optio
         }
       }
 
+      /**
+       * Verifies the sender of elements and updates the state for them.
+       *
+       * @return true if the elements should be received, false if they should be dropped
+       */
+      private def acceptElements(sender: ActorRef, msg: StreamRefsProtocol): Boolean =
+        state match {
+          case AwaitingSubscription(partner) =>
+            verifyPartner(sender, partner)
+            log.debug("[{}] Received seq {} from {}", stageActorName, msg, sender)
+            state = Running(partner)
+            true
+
+          case Running(partner) =>
+            verifyPartner(sender, partner)
+            true
+
+          case AwaitingPartner =>
+            throw new IllegalStateException(s"[$stageActorName] Got $msg from $sender while AwaitingPartner")
+
+          case WaitingForCancelAck(partner, _) =>
+            // awaiting cancellation ack from remote
+            verifyPartner(sender, partner)
+            log.warning(
+              "[{}] Got element from remote but downstream cancelled, dropping {}",
+              stageActorName,
+              Logging.simpleName(msg))
+            false
+
+          case UpstreamCompleted(partner) =>
+            verifyPartner(sender, partner)
+            throw new IllegalStateException(
+              s"[$stageActorName] Got completion and then received more elements from $sender, this is not supposed to happen.")
+
+          case UpstreamTerminated(partner) =>
+            verifyPartner(sender, partner)
+            log.debug("[{}] Received element after partner terminated", stageActorName)
+            true
+        }
+
       private def verifyPartner(sender: ActorRef, partner: ActorRef): Unit = {
         if (sender != partner)
           throw InvalidPartnerActorException(
@@ -537,12 +554,12 @@ private[stream] final class SourceRefStageImpl[Out](val initialPartnerRef: Optio
       }
 
       /** @throws InvalidSequenceNumberException when sequence number is invalid */
-      private def observeAndValidateSequenceNr(seqNr: Long, msg: String): Unit =
+      private def observeAndValidateSequenceNr(seqNr: Long, msg: String, elements: Int = 1): Unit =
         if (isInvalidSequenceNr(seqNr)) {
           log.warning("[{}] {}, expected {} but was {}", stageActorName, msg, expectingSeqNr, seqNr)
           throw InvalidSequenceNumberException(expectingSeqNr, seqNr, msg)
         } else {
-          expectingSeqNr += 1
+          expectingSeqNr += elements
         }
 
       private def isInvalidSequenceNr(seqNr: Long): Boolean =
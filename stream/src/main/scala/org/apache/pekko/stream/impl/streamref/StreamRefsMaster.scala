@@ -13,6 +13,10 @@
 
 package org.apache.pekko.stream.impl.streamref
 
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.duration._
+
 import org.apache.pekko
 import pekko.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
 import pekko.actor.ClassicActorSystemProvider
@@ -24,7 +28,7 @@ import pekko.stream.impl.SeqActorName
 private[stream] object StreamRefsMaster extends ExtensionId[StreamRefsMaster] with ExtensionIdProvider {
 
   override def createExtension(system: ExtendedActorSystem): StreamRefsMaster =
-    new StreamRefsMaster
+    new StreamRefsMaster(system)
 
   override def lookup: StreamRefsMaster.type = this
 
@@ -34,7 +38,13 @@ private[stream] object StreamRefsMaster extends ExtensionId[StreamRefsMaster] wi
 
 /** INTERNAL API */
 @InternalApi
-private[stream] final class StreamRefsMaster extends Extension {
+private[stream] final class StreamRefsMaster(system: ExtendedActorSystem) extends Extension {
+
+  private[this] val settings = system.settings.config.getConfig("pekko.stream.materializer.stream-ref")
+
+  // defaults for the attributes that are not part of StreamRefSettings
+  val maxBatchSize: Int = settings.getInt("max-batch-size")
+  val batchLinger: FiniteDuration = settings.getDuration("batch-linger", TimeUnit.MILLISECONDS).millis
 
   private[this] val sourceRefStageNames = SeqActorName("SourceRef") // "local target"
   private[this] val sinkRefStageNames = SeqActorName("SinkRef") // "remote sender"
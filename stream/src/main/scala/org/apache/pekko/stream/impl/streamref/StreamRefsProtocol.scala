@@ -13,6 +13,8 @@
 
 package org.apache.pekko.stream.impl.streamref
 
+import scala.collection.immutable
+
 import org.apache.pekko
 import pekko.actor.{ ActorRef, DeadLetterSuppression }
 import pekko.annotation.InternalApi
@@ -40,6 +42,17 @@ private[pekko] object StreamRefsProtocol {
     if (payload == null) throw ReactiveStreamsCompliance.elementMustNotBeNullException
   }
 
+  /**
+   * Several elements in one message, equivalent to a [[SequencedOnNext]] for each of the `payloads` with the
+   * sequence numbers starting from `seqNr`. Sent when batching is enabled for the stream ref.
+   */
+  @InternalApi
+  private[pekko] final case class SequencedOnNextBatch[T](seqNr: Long, payloads: immutable.Seq[T])
+      extends StreamRefsProtocol
+      with DeadLetterSuppression {
+    if (payloads.isEmpty) throw new IllegalArgumentException("SequencedOnNextBatch must contain elements")
+  }
+
   /**
    * INTERNAL API: Initial message sent to remote side to establish partnership between origin and remote stream refs.
    */
@@ -15,7 +15,9 @@ package org.apache.pekko.stream.javadsl
 
 import org.apache.pekko
 import pekko.NotUsed
-import pekko.stream.scaladsl
+import pekko.annotation.ApiMayChange
+import pekko.japi.function
+import pekko.stream.{ scaladsl, Compressor, Decompressor }
 import pekko.util.ByteString
 
 object Compression {
@@ -80,4 +82,27 @@ object Compression {
   def deflate(level: Int, nowrap: Boolean): Flow[ByteString, ByteString, NotUsed] =
     scaladsl.Compression.deflate(level, nowrap).asJava
 
+  /**
+   * Creates a flow that compresses a stream of ByteStrings with a [[pekko.stream.Compressor]], for formats that
+   * are not built in. A new compressor is created with `create` for each materialization. Like [[gzip]] and
+   * [[deflate]], the compressed bytes of every [[pekko.util.ByteString]] are flushed, so that they can be
+   * decompressed without waiting for additional data.
+   *
+   * @param create creates the compressor of a materialization
+   */
+  @ApiMayChange
+  def compress(create: function.Creator[Compressor]): Flow[ByteString, ByteString, NotUsed] =
+    scaladsl.Compression.compress(() => create.create()).asJava
+
+  /**
+   * Creates a flow that decompresses a stream of data with a [[pekko.stream.Decompressor]], for formats that
+   * are not built in. A new decompressor is created with `create` for each materialization.
+   *
+   * @param create creates the decompressor of a materialization
+   * @param maxBytesPerChunk Maximum length of the output [[pekko.util.ByteString]] chunk.
+   */
+  @ApiMayChange
+  def decompress(create: function.Creator[Decompressor], maxBytesPerChunk: Int): Flow[ByteString, ByteString, NotUsed] =
+    scaladsl.Compression.decompress(() => create.create(), maxBytesPerChunk).asJava
+
 }
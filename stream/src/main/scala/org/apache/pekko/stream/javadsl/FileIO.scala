@@ -19,7 +19,7 @@ import java.util
 import java.util.concurrent.CompletionStage
 
 import org.apache.pekko
-import pekko.stream.{ javadsl, scaladsl, IOResult }
+import pekko.stream.{ javadsl, scaladsl, FileRegion, IOResult }
 import pekko.stream.scaladsl.SinkToCompletionStage
 import pekko.stream.scaladsl.SourceToCompletionStage
 import pekko.util.ByteString
@@ -218,4 +218,64 @@ object FileIO {
    */
   def fromPath(f: Path, chunkSize: Int, startPosition: Long): javadsl.Source[ByteString, CompletionStage[IOResult]] =
     new Source(scaladsl.FileIO.fromPath(f, chunkSize, startPosition).toCompletionStage())
+
+  /**
+   * Creates a Source from a files contents, which is read through memory mapped windows of the file.
+   * Emitted elements are `chunkSize` sized [[ByteString]] elements,
+   * except the last element, which will be up to `chunkSize` in size.
+   *
+   * Compared to [[#fromPath]] the contents are not copied: each chunk is a `ByteString` backed by a slice of the mapped
+   * window, whose pages are read when the chunk is first accessed. This pays off for large files that are read
+   * sequentially. Bytes appended to the file after the stream started are not read, and the file must not be truncated
+   * while chunks of it are in use. The mapped windows are released by the garbage collector when no chunk of them is
+   * referenced anymore, so the address space in use can be larger than `windowSize`.
+   *
+   * You can configure the default dispatcher for this Source by changing the `pekko.stream.materializer.blocking-io-dispatcher` or
+   * set it for a given Source by using [[pekko.stream.ActorAttributes]].
+   *
+   * It materializes a [[java.util.concurrent.CompletionStage]] of [[IOResult]] containing the number of bytes read from the source file upon completion,
+   * and a possible exception if IO operation was not completed successfully.
+   *
+   * @param f          the file path to read from
+   * @param chunkSize  the size of the emitted elements
+   * @param windowSize the size of the memory mapped windows
+   */
+  def fromPathMapped(f: Path, chunkSize: Int, windowSize: Int): javadsl.Source[ByteString, CompletionStage[IOResult]] =
+    new Source(scaladsl.FileIO.fromPathMapped(f, chunkSize, windowSize).toCompletionStage())
+
+  /**
+   * Creates a Source of the regions of a file of up to `regionSize` bytes, which cover the whole file.
+   * The contents of the file are not read, the regions are meant to be sent over TCP with [[Tcp.fileTransfer]],
+   * which copies them to the socket with `FileChannel.transferTo`.
+   *
+   * The size of the file is taken when the stream starts, bytes appended after that are not included.
+   *
+   * It materializes a [[java.util.concurrent.CompletionStage]] of [[IOResult]] containing the number of bytes in the emitted regions upon completion,
+   * and a possible exception if the file could not be accessed.
+   *
+   * @param f          the file path to read from
+   * @param regionSize the maximum size of the emitted regions
+   */
+  def fromPathRegions(f: Path, regionSize: Long): javadsl.Source[FileRegion, CompletionStage[IOResult]] =
+    new Source(scaladsl.FileIO.fromPathRegions(f, regionSize).toCompletionStage())
+
+  /**
+   * Creates a Sink that writes incoming [[ByteString]] elements to the given file path through memory mapped windows
+   * of the file. Overwrites existing files by truncating their contents.
+   *
+   * Compared to [[#toPath]] the bytes are copied once, directly into the mapped window, without a system call per
+   * element. The file is extended by `windowSize` bytes at a time while writing and truncated to the written size when
+   * the stream completes or fails.
+   *
+   * Materializes a [[java.util.concurrent.CompletionStage]] of [[IOResult]] that will be completed with the size of the file (in bytes) at the streams completion,
+   * and a possible exception if IO operation was not completed successfully.
+   *
+   * You can configure the default dispatcher for this Source by changing the `pekko.stream.materializer.blocking-io-dispatcher` or
+   * set it for a given Source by using [[pekko.stream.ActorAttributes]].
+   *
+   * @param f          the file path to write to
+   * @param windowSize the size of the memory mapped windows
+   */
+  def toPathMapped(f: Path, windowSize: Int): javadsl.Sink[ByteString, CompletionStage[IOResult]] =
+    new Sink(scaladsl.FileIO.toPathMapped(f, windowSize).toCompletionStage())
 }
@@ -209,6 +209,19 @@ final class FlowWithContext[In, CtxIn, Out, CtxOut, +Mat](
     viaScala(_.mapAsyncPartitionedUnordered(parallelism)(partitioner(_))(f(_, _).asScala))
   }
 
+  /**
+   * Context-preserving variant of [[pekko.stream.javadsl.Flow.mapAsyncPartitionedUnordered]] with parallelism per partition.
+   *
+   * @see [[pekko.stream.javadsl.Flow.mapAsyncPartitionedUnordered]]
+   */
+  def mapAsyncPartitionedUnordered[Out2, P](
+      parallelism: Int,
+      perPartition: Int,
+      partitioner: function.Function[Out, P],
+      f: function.Function2[Out, P, CompletionStage[Out2]]): FlowWithContext[In, CtxIn, Out2, CtxOut, Mat] = {
+    viaScala(_.mapAsyncPartitionedUnordered(parallelism, perPartition)(partitioner(_))(f(_, _).asScala))
+  }
+
   /**
    * Context-preserving variant of [[pekko.stream.javadsl.Flow.mapConcat]].
    *
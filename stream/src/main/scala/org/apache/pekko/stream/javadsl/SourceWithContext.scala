@@ -204,6 +204,19 @@ final class SourceWithContext[+Out, +Ctx, +Mat](delegate: scaladsl.SourceWithCon
       f: function.Function2[Out, P, CompletionStage[Out2]]): SourceWithContext[Out2, Ctx, Mat] =
     viaScala(_.mapAsyncPartitionedUnordered(parallelism)(partitioner(_))(f(_, _).asScala))
 
+  /**
+   * Context-preserving variant of [[pekko.stream.javadsl.Source.mapAsyncPartitionedUnordered]] with parallelism per partition.
+   *
+   * @see [[pekko.stream.javadsl.Source.mapAsyncPartitionedUnordered]]
+   */
+  def mapAsyncPartitionedUnordered[Out2, P](
+      parallelism: Int,
+      perPartition: Int,
+      partitioner: function.Function[Out, P],
+      f: function.Function2[Out, P, CompletionStage[Out2]]): SourceWithContext[Out2, Ctx, Mat] = {
+    viaScala(_.mapAsyncPartitionedUnordered(parallelism, perPartition)(partitioner(_))(f(_, _).asScala))
+  }
+
   /**
    * Context-preserving variant of [[pekko.stream.javadsl.Source.mapConcat]].
    *
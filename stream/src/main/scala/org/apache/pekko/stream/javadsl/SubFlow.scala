@@ -430,6 +430,59 @@ class SubFlow[In, Out, Mat](
   def mapAsyncUnordered[T](parallelism: Int, f: function.Function[Out, CompletionStage[T]]): SubFlow[In, T, Mat] =
     new SubFlow(delegate.mapAsyncUnordered(parallelism)(x => f(x).asScala))
 
+  /**
+   * Transform each element in the stream by calling a mapping function with it and passing the returned value
+   * downstream, like [[#map]], but with the function running in `parallelism` sub-pipelines that are separated
+   * by async boundaries. This is useful for CPU intensive functions, which can then use several cores.
+   *
+   * Elements are distributed to the sub-pipelines that have demand, and the results are emitted in the same
+   * order as the elements were received from upstream. The number of elements in flight in each sub-pipeline
+   * is bounded by the [[Attributes.InputBuffer]] attribute.
+   *
+   * If the function `f` throws an exception the stream is completed with failure, regardless of the
+   * supervision strategy, since a dropped element would break the ordering.
+   *
+   * '''Emits when''' the result for the next element in upstream order is available
+   *
+   * '''Backpressures when''' all sub-pipelines and their buffers are full and downstream backpressures
+   *
+   * '''Completes when''' upstream completes and all elements have been emitted
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @see [[#mapParallelPartitioned]]
+   */
+  def mapParallel[T](parallelism: Int, f: function.Function[Out, T]): SubFlow[In, T, Mat] =
+    new SubFlow(delegate.mapParallel(parallelism)(f.apply))
+
+  /**
+   * Transform each element in the stream by calling a mapping function with it and passing the returned value
+   * downstream, like [[#map]], but with the function running in `parallelism` sub-pipelines that are separated
+   * by async boundaries. This is useful for CPU intensive functions, which can then use several cores.
+   *
+   * Elements are assigned to a sub-pipeline by the hash of the partition key returned by `partitioner`.
+   * The results for elements with the same partition key are emitted in the order the elements were
+   * received from upstream, while results for different keys may be emitted in a different order.
+   * The number of elements in flight in each sub-pipeline is bounded by the [[Attributes.InputBuffer]] attribute.
+   *
+   * Adheres to the [[ActorAttributes.SupervisionStrategy]] attribute.
+   *
+   * '''Emits when''' the result of any of the sub-pipelines is available
+   *
+   * '''Backpressures when''' the sub-pipeline of the next element and its buffer is full
+   *
+   * '''Completes when''' upstream completes and all elements have been emitted
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @see [[#mapParallel]]
+   */
+  def mapParallelPartitioned[T, P](
+      parallelism: Int,
+      partitioner: function.Function[Out, P],
+      f: function.Function[Out, T]): SubFlow[In, T, Mat] =
+    new SubFlow(delegate.mapParallelPartitioned(parallelism)(partitioner.apply)(f.apply))
+
   /**
    * Transforms this stream. Works very similarly to [[#mapAsync]] but with an additional
    * partition step before the transform step. The transform function receives the an individual
@@ -496,6 +549,36 @@ class SubFlow[In, Out, Mat](
       f: function.Function2[Out, P, CompletionStage[T]]): SubFlow[In, T, Mat] =
     new SubFlow(delegate.mapAsyncPartitionedUnordered(parallelism)(partitioner(_))(f(_, _).asScala))
 
+  /**
+   * Transforms this stream. Works very similarly to [[#mapAsyncPartitionedUnordered]] but runs up to
+   * `perPartition` futures in parallel for each partition. The results for elements with the same
+   * partition value are emitted in the order the elements arrived, while the results for different
+   * partitions are emitted as they are ready, so a slow future only holds back its own partition.
+   *
+   * If the function `partitioner` or `f` throws an exception or if the [[CompletionStage]] is completed
+   * with failure and the supervision decision is [[pekko.stream.Supervision#stop]]
+   * the stream will be completed with failure, otherwise the stream continues and the current element is dropped.
+   *
+   * Adheres to the [[ActorAttributes.SupervisionStrategy]] attribute.
+   *
+   * '''Emits when''' the CompletionStage returned by the provided function finishes for the next element of any partition
+   *
+   * '''Backpressures when''' the number of buffered elements reaches the configured parallelism and the downstream
+   * backpressures
+   *
+   * '''Completes when''' upstream completes and all futures have been completed and all elements have been emitted
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @see [[#mapAsyncPartitioned]]
+   */
+  def mapAsyncPartitionedUnordered[T, P](
+      parallelism: Int,
+      perPartition: Int,
+      partitioner: function.Function[Out, P],
+      f: function.Function2[Out, P, CompletionStage[T]]): SubFlow[In, T, Mat] =
+    new SubFlow(delegate.mapAsyncPartitionedUnordered(parallelism, perPartition)(partitioner(_))(f(_, _).asScala))
+
   /**
    * Only pass on those elements that satisfy the given predicate.
    *
@@ -3042,4 +3125,46 @@ class SubFlow[In, Out, Mat](
           case Pair(predicate, duration) => (agg => predicate.test(agg), duration.asScala)
         }))
 
+  /**
+   * Aggregate input elements into windows of their event time, and emit each window downstream when the
+   * watermark passes its end. The watermark is the largest event time seen so far minus the `maxOutOfOrderness` of
+   * the `windows`, so it does not depend on when elements arrive. Windows can be tumbling, sliding or sessions, see
+   * [[pekko.stream.EventTimeWindows]].
+   *
+   * Elements are aggregated into their windows as they arrive. Elements that arrive after the watermark has passed
+   * their window update it and emit it again if they are within the `allowedLateness` of the `windows`, and are
+   * dropped otherwise. Windows are kept until the watermark has passed their end by the `allowedLateness`, so
+   * `harvest` must not modify the aggregate when the `allowedLateness` is larger than 0. The remaining windows are
+   * emitted when upstream completes.
+   *
+   * '''Emits when''' the watermark passes the end of a window, or a late element updates an emitted window
+   *
+   * '''Backpressures when''' downstream backpressures and windows are waiting to be emitted
+   *
+   * '''Completes when''' upstream completes and the remaining windows have been emitted downstream
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @param windows   the kind of windows and how late elements may arrive
+   * @param eventTime the event time of an element in milliseconds
+   * @param allocate  allocate the initial aggregate of a window
+   * @param aggregate add an element to the aggregate of a window
+   * @param merge     merge the aggregates of two session windows that an element connects, the earlier one first,
+   *                  not used for tumbling and sliding windows
+   * @param harvest   create the element to emit for a window, invoked within the current stage/operator
+   */
+  @ApiMayChange
+  def aggregateWithEventTimeWindow[Agg, Emit](
+      windows: EventTimeWindows,
+      eventTime: function.Function[Out, java.lang.Long],
+      allocate: java.util.function.Supplier[Agg],
+      aggregate: function.Function2[Agg, Out, Agg],
+      merge: function.Function2[Agg, Agg, Agg],
+      harvest: function.Function2[TimeWindow, Agg, Emit]): javadsl.SubFlow[In, Emit, Mat] =
+    new SubFlow(
+      asScala.aggregateWithEventTimeWindow(windows, (out: Out) => eventTime.apply(out).longValue)(() => allocate.get())(
+        aggregate = (agg, out) => aggregate.apply(agg, out),
+        merge = (agg1, agg2) => merge.apply(agg1, agg2),
+        harvest = (window, agg) => harvest.apply(window, agg)))
+
 }
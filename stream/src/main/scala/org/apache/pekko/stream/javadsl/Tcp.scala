@@ -38,6 +38,7 @@ import pekko.actor.ExtensionIdProvider
 import pekko.annotation.InternalApi
 import pekko.io.Inet.SocketOption
 import pekko.japi.Util.immutableSeq
+import pekko.stream.FileRegion
 import pekko.stream.Materializer
 import pekko.stream.SystemMaterializer
 import pekko.stream.TLSClosing
@@ -143,6 +144,23 @@ object Tcp extends ExtensionId[Tcp] with ExtensionIdProvider {
   def lookup = Tcp
 
   def createExtension(system: ExtendedActorSystem): Tcp = new Tcp(system)
+
+  /**
+   * Adapts the flow of a TCP connection to send regions of files, for example those emitted by
+   * [[FileIO.fromPathRegions]].
+   *
+   * When `connection` is a flow returned by [[Tcp.outgoingConnection]] or [[Tcp.IncomingConnection.flow]] without an
+   * idle timeout, and no asynchronous boundary is added in between, the regions are passed to the connection as they
+   * are, which sends them with `FileChannel.transferTo`, so that the file contents are not read into memory.
+   * The next region is requested when the previous one has been written, so back-pressure is kept.
+   * Otherwise the regions are read in chunks of `chunkSize` bytes on the blocking IO dispatcher,
+   * as by `FileIO.fromPath`.
+   *
+   * @param connection the flow of a TCP connection
+   * @param chunkSize the size of the chunks when the regions are read
+   */
+  def fileTransfer[Mat](connection: Flow[ByteString, ByteString, Mat], chunkSize: Int): Flow[FileRegion, ByteString, Mat] =
+    scaladsl.Tcp.fileTransfer(connection.asScala, chunkSize).asJava
 }
 
 class Tcp(system: ExtendedActorSystem) extends pekko.actor.Extension {
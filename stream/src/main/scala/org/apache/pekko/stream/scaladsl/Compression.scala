@@ -17,7 +17,15 @@ import java.util.zip.Deflater
 
 import org.apache.pekko
 import pekko.NotUsed
-import pekko.stream.impl.io.compression._
+import pekko.annotation.ApiMayChange
+import pekko.stream.{ Compressor, Decompressor }
+import pekko.stream.impl.io.compression.{
+  CompressionUtils,
+  DeflateCompressor,
+  DeflateDecompressor,
+  GzipCompressor,
+  GzipDecompressor
+}
 import pekko.util.ByteString
 
 object Compression {
@@ -84,4 +92,29 @@ object Compression {
    */
   def inflate(maxBytesPerChunk: Int, nowrap: Boolean): Flow[ByteString, ByteString, NotUsed] =
     Flow[ByteString].via(new DeflateDecompressor(maxBytesPerChunk, nowrap)).named("inflate")
+
+  /**
+   * Creates a flow that compresses a stream of ByteStrings with a [[pekko.stream.Compressor]], for formats that
+   * are not built in. A new compressor is created with `create` for each materialization. Like [[gzip]] and
+   * [[deflate]], the compressed bytes of every [[pekko.util.ByteString]] are flushed, so that they can be
+   * decompressed without waiting for additional data.
+   *
+   * @param create creates the compressor of a materialization
+   */
+  @ApiMayChange
+  def compress(create: () => Compressor): Flow[ByteString, ByteString, NotUsed] =
+    CompressionUtils.codecCompressorFlow(create)
+
+  /**
+   * Creates a flow that decompresses a stream of data with a [[pekko.stream.Decompressor]], for formats that
+   * are not built in. A new decompressor is created with `create` for each materialization.
+   *
+   * @param create creates the decompressor of a materialization
+   * @param maxBytesPerChunk Maximum length of an output [[pekko.util.ByteString]] chunk.
+   */
+  @ApiMayChange
+  def decompress(
+      create: () => Decompressor,
+      maxBytesPerChunk: Int = MaxBytesPerChunkDefault): Flow[ByteString, ByteString, NotUsed] =
+    CompressionUtils.codecDecompressorFlow(create, maxBytesPerChunk)
 }
@@ -20,6 +20,7 @@ import java.nio.file.StandardOpenOption._
 import scala.concurrent.Future
 
 import org.apache.pekko
+import pekko.stream.FileRegion
 import pekko.stream.IOResult
 import pekko.stream.impl.Stages.DefaultAttributes
 import pekko.stream.impl.io._
@@ -86,6 +87,33 @@ object FileIO {
   def fromPath(f: Path, chunkSize: Int, startPosition: Long): Source[ByteString, Future[IOResult]] =
     Source.fromGraph(new FileSource(f, chunkSize, startPosition)).withAttributes(DefaultAttributes.fileSource)
 
+  /**
+   * Creates a Source from a files contents, which is read through memory mapped windows of the file.
+   * Emitted elements are `chunkSize` sized [[pekko.util.ByteString]] elements,
+   * except the final element, which will be up to `chunkSize` in size.
+   *
+   * Compared to [[#fromPath]] the contents are not copied: each chunk is a `ByteString` backed by a slice of the mapped
+   * window, whose pages are read when the chunk is first accessed. This pays off for large files that are read
+   * sequentially. Bytes appended to the file after the stream started are not read, and the file must not be truncated
+   * while chunks of it are in use. The mapped windows are released by the garbage collector when no chunk of them is
+   * referenced anymore, so the address space in use can be larger than `windowSize`.
+   *
+   * You can configure the default dispatcher for this Source by changing the `pekko.stream.materializer.blocking-io-dispatcher` or
+   * set it for a given Source by using [[pekko.stream.ActorAttributes]].
+   *
+   * It materializes a [[Future]] of [[IOResult]] containing the number of bytes read from the source file upon completion,
+   * and a possible exception if IO operation was not completed successfully.
+   *
+   * @param f          the file path to read from
+   * @param chunkSize  the size of the emitted elements, defaults to 8192
+   * @param windowSize the size of the memory mapped windows, defaults to 64 MiB
+   */
+  def fromPathMapped(
+      f: Path,
+      chunkSize: Int = 8192,
+      windowSize: Int = DefaultMappedWindowSize): Source[ByteString, Future[IOResult]] =
+    Source.fromGraph(new MappedFileSource(f, chunkSize, windowSize))
+
   /**
    * Creates a Sink which writes incoming [[pekko.util.ByteString]] elements to the given file. Overwrites existing files
    * by truncating their contents as default.
@@ -151,4 +179,44 @@ object FileIO {
    */
   def toPath(f: Path, options: Set[OpenOption], startPosition: Long): Sink[ByteString, Future[IOResult]] =
     Sink.fromGraph(new FileOutputStage(f, startPosition, options))
+
+  /**
+   * Creates a Sink which writes incoming [[pekko.util.ByteString]] elements to the given file path through memory
+   * mapped windows of the file. Overwrites existing files by truncating their contents.
+   *
+   * Compared to [[#toPath]] the bytes are copied once, directly into the mapped window, without a system call per
+   * element. The file is extended by `windowSize` bytes at a time while writing and truncated to the written size when
+   * the stream completes or fails. As the operating system writes the mapped pages asynchronously, the bytes may not be
+   * stored durably at the time the stream completes.
+   *
+   * Materializes a [[Future]] of [[IOResult]] that will be completed with the size of the file (in bytes) at the streams completion,
+   * and a possible exception if IO operation was not completed successfully.
+   *
+   * This sink is backed by an Actor which will use the dedicated `pekko.stream.blocking-io-dispatcher`,
+   * unless configured otherwise by using [[pekko.stream.ActorAttributes]].
+   *
+   * @param f          the file path to write to
+   * @param windowSize the size of the memory mapped windows, defaults to 64 MiB
+   */
+  def toPathMapped(f: Path, windowSize: Int = DefaultMappedWindowSize): Sink[ByteString, Future[IOResult]] =
+    Sink.fromGraph(new MappedFileOutputStage(f, windowSize))
+
+  /**
+   * Creates a Source of the regions of a file of up to `regionSize` bytes, which cover the whole file.
+   * The contents of the file are not read, the regions are meant to be sent over TCP with [[Tcp.fileTransfer]],
+   * which copies them to the socket with `FileChannel.transferTo`.
+   *
+   * The size of the file is taken when the stream starts, bytes appended after that are not included.
+   *
+   * It materializes a [[Future]] of [[IOResult]] containing the number of bytes in the emitted regions upon completion,
+   * and a possible exception if the file could not be accessed.
+   *
+   * @param f          the file path to read from
+   * @param regionSize the maximum size of the emitted regions, defaults to 1 MiB
+   */
+  def fromPathRegions(f: Path, regionSize: Long = DefaultRegionSize): Source[FileRegion, Future[IOResult]] =
+    Source.fromGraph(new FileRegionSource(f, regionSize))
+
+  private final val DefaultMappedWindowSize = 64 * 1024 * 1024
+  private final val DefaultRegionSize = 1024 * 1024L
 }
@@ -33,6 +33,7 @@ import pekko.event.MarkerLoggingAdapter
 import pekko.stream._
 import pekko.stream.Attributes.SourceLocation
 import pekko.stream.impl.LinearTraversalBuilder
+import pekko.stream.impl.MapParallel
 import pekko.stream.impl.ProcessorModule
 import pekko.stream.impl.SetupFlowStage
 import pekko.stream.impl.SingleConcat
@@ -793,6 +794,19 @@ final case class RunnableGraph[+Mat](override val traversalBuilder: TraversalBui
   def mapMaterializedValue[Mat2](f: Mat => Mat2): RunnableGraph[Mat2] =
     copy(traversalBuilder.transformMat(f.asInstanceOf[Any => Any]))
 
+  /**
+   * Prepare this graph for being materialized many times. The layout of the graph is resolved once, and
+   * each materialization of the returned graph then only creates and wires the operators, which reduces
+   * the materialization overhead for graphs that are run frequently, such as per request.
+   *
+   * The returned graph can still be modified, e.g. with `addAttributes` or `mapMaterializedValue`.
+   */
+  def prepared: RunnableGraph[Mat] = {
+    val preparedBuilder = TraversalBuilder.prepared(traversalBuilder)
+    if (preparedBuilder eq traversalBuilder) this
+    else new RunnableGraph(preparedBuilder)
+  }
+
   /**
    * Run this flow and return the materialized instance from the flow.
    *
@@ -1280,6 +1294,56 @@ trait FlowOps[+Out, +Mat] {
    */
   def mapAsyncUnordered[T](parallelism: Int)(f: Out => Future[T]): Repr[T] = via(MapAsyncUnordered(parallelism, f))
 
+  /**
+   * Transform each element in the stream by calling a mapping function with it and passing the returned value
+   * downstream, like [[#map]], but with the function running in `parallelism` sub-pipelines that are separated
+   * by async boundaries. This is useful for CPU intensive functions, which can then use several cores.
+   *
+   * Elements are distributed to the sub-pipelines that have demand, and the results are emitted in the same
+   * order as the elements were received from upstream. The number of elements in flight in each sub-pipeline
+   * is bounded by the [[Attributes.InputBuffer]] attribute.
+   *
+   * If the function `f` throws an exception the stream is completed with failure, regardless of the
+   * supervision strategy, since a dropped element would break the ordering.
+   *
+   * '''Emits when''' the result for the next element in upstream order is available
+   *
+   * '''Backpressures when''' all sub-pipelines and their buffers are full and downstream backpressures
+   *
+   * '''Completes when''' upstream completes and all elements have been emitted
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @see [[#mapParallelPartitioned]]
+   */
+  def mapParallel[T](parallelism: Int)(f: Out => T): Repr[T] =
+    via(MapParallel.ordered(parallelism, f))
+
+  /**
+   * Transform each element in the stream by calling a mapping function with it and passing the returned value
+   * downstream, like [[#map]], but with the function running in `parallelism` sub-pipelines that are separated
+   * by async boundaries. This is useful for CPU intensive functions, which can then use several cores.
+   *
+   * Elements are assigned to a sub-pipeline by the hash of the partition key returned by `partitioner`.
+   * The results for elements with the same partition key are emitted in the order the elements were
+   * received from upstream, while results for different keys may be emitted in a different order.
+   * The number of elements in flight in each sub-pipeline is bounded by the [[Attributes.InputBuffer]] attribute.
+   *
+   * Adheres to the [[ActorAttributes.SupervisionStrategy]] attribute.
+   *
+   * '''Emits when''' the result of any of the sub-pipelines is available
+   *
+   * '''Backpressures when''' the sub-pipeline of the next element and its buffer is full
+   *
+   * '''Completes when''' upstream completes and all elements have been emitted
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @see [[#mapParallel]]
+   */
+  def mapParallelPartitioned[T](parallelism: Int)(partitioner: Out => Any)(f: Out => T): Repr[T] =
+    via(MapParallel.partitioned(parallelism, partitioner, f))
+
   /**
    * Transforms this stream. Works very similarly to [[#mapAsync]] but with an additional
    * partition step before the transform step. The transform function receives the an individual
@@ -1355,6 +1419,42 @@ trait FlowOps[+Out, +Mat] {
      }).withAttributes(DefaultAttributes.mapAsyncPartitionUnordered and SourceLocation.forLambda(f))
   }
 
+  /**
+   * Transforms this stream. Works very similarly to [[#mapAsyncUnordered]] but with an additional
+   * partition step before the transform step. The transform function receives an individual
+   * stream entry and the calculated partition value for that entry.
+   *
+   * The results for elements with the same partition value are emitted in the order the elements arrived,
+   * while the results for different partitions are emitted as they are ready, so a slow future only holds back
+   * the elements of its own partition. At most `perPartition` futures run in parallel for each partition,
+   * and at most `parallelism` elements are buffered in total.
+   *
+   * The function `partitioner` is always invoked on the elements in the order they arrive.
+   * The function `f` is always invoked on the elements which in the same partition in the order they arrive.
+   *
+   * If the function `partitioner` or `f` throws an exception or if the [[Future]] is completed
+   * with failure and the supervision decision is [[pekko.stream.Supervision.Stop]]
+   * the stream will be completed with failure, otherwise the stream continues and the current element is dropped.
+   *
+   * Adheres to the [[ActorAttributes.SupervisionStrategy]] attribute.
+   *
+   * '''Emits when''' the Future returned by the provided function finishes for the next element of any partition
+   *
+   * '''Backpressures when''' the number of buffered elements reaches the configured parallelism and the downstream
+   * backpressures
+   *
+   * '''Completes when''' upstream completes and all futures have been completed and all elements have been emitted
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @see [[#mapAsyncUnordered]]
+   * @see [[#mapAsyncPartitioned]]
+   */
+  def mapAsyncPartitionedUnordered[T, P](parallelism: Int, perPartition: Int)(
+      partitioner: Out => P)(
+      f: (Out, P) => Future[T]): Repr[T] =
+    via(PartitionedMapAsync(parallelism, perPartition, partitioner, f))
+
   /**
    * Use the `ask` pattern to send a request-reply message to the target `ref` actor.
    * If any of the asks times out it will fail the stream with a [[pekko.pattern.AskTimeoutException]].
@@ -2496,6 +2596,47 @@ trait FlowOps[+Out, +Mat] {
    */
   def groupBy[K](maxSubstreams: Int, f: Out => K): SubFlow[Out, Mat, Repr, Closed] = groupBy(maxSubstreams, f, false)
 
+  /**
+   * This operation demultiplexes the incoming stream into separate output
+   * streams, one for each element key, like [[#groupBy]], but keeps at most `maxSubstreams`
+   * substreams open instead of failing when more keys are encountered.
+   *
+   * When an element with a new key arrives and `maxSubstreams` substreams are open, the substream of the
+   * key that has not seen an element for the longest time is completed to make room for the new one. With
+   * [[SubstreamEviction.withIdleTimeout]] substreams that have not seen an element within the timeout are also
+   * completed. If another element with the key of a completed substream arrives, a new substream is opened for it,
+   * so the substreams of a key must be able to handle that they may be completed and opened again.
+   *
+   * Closed substreams are not tracked, so this is suitable for an unbounded number of keys, such as user ids.
+   *
+   * '''Emits when''' an element for which the grouping function returns a group that has not yet been created,
+   * or whose substream has been completed. Emits the new group
+   *
+   * '''Backpressures when''' there is an element pending for a group whose substream backpressures, or for a new
+   * group while every open substream is still waiting for its first element to be taken
+   *
+   * '''Completes when''' upstream completes
+   *
+   * '''Cancels when''' downstream cancels and all substreams cancel
+   *
+   * @param maxSubstreams configures the maximum number of open substreams
+   * @param f computes the key for each element
+   * @param eviction configures the idle timeout and the metrics of the substreams
+   */
+  @ApiMayChange
+  def groupBy[K](maxSubstreams: Int, f: Out => K, eviction: SubstreamEviction): SubFlow[Out, Mat, Repr, Closed] = {
+    val merge = new SubFlowImpl.MergeBack[Out, Repr] {
+      override def apply[T](flow: Flow[Out, T, NotUsed], breadth: Int): Repr[T] =
+        via(new GroupBy(maxSubstreams, f, allowClosedSubstreamRecreation = true, Some(eviction)))
+          .map(_.via(flow))
+          .via(new FlattenMerge(breadth))
+    }
+    val finish: (Sink[Out, NotUsed]) => Closed = s =>
+      via(new GroupBy(maxSubstreams, f, allowClosedSubstreamRecreation = true, Some(eviction)))
+        .to(Sink.foreach(_.runWith(s)(GraphInterpreter.currentInterpreter.materializer)))
+    new SubFlowImpl(Flow[Out], merge, finish)
+  }
+
   /**
    * This operation applies the given predicate to all incoming elements and
    * emits them to a stream of output streams, always beginning a new one with
@@ -3881,6 +4022,41 @@ trait FlowOps[+Out, +Mat] {
       emitOnTimer: Option[(Agg => Boolean, FiniteDuration)]): Repr[Emit] =
     via(AggregateWithBoundary(allocate, aggregate, harvest, emitOnTimer))
 
+  /**
+   * Aggregate input elements into windows of their event time, and emit each window downstream when the
+   * watermark passes its end. The watermark is the largest event time seen so far minus the `maxOutOfOrderness` of
+   * the `windows`, so it does not depend on when elements arrive. Windows can be tumbling, sliding or sessions, see
+   * [[pekko.stream.EventTimeWindows]].
+   *
+   * Elements are aggregated into their windows as they arrive. Elements that arrive after the watermark has passed
+   * their window update it and emit it again if they are within the `allowedLateness` of the `windows`, and are
+   * dropped otherwise. Windows are kept until the watermark has passed their end by the `allowedLateness`, so
+   * `harvest` must not modify the aggregate when the `allowedLateness` is larger than 0. The remaining windows are
+   * emitted when upstream completes.
+   *
+   * '''Emits when''' the watermark passes the end of a window, or a late element updates an emitted window
+   *
+   * '''Backpressures when''' downstream backpressures and windows are waiting to be emitted
+   *
+   * '''Completes when''' upstream completes and the remaining windows have been emitted downstream
+   *
+   * '''Cancels when''' downstream cancels
+   *
+   * @param windows   the kind of windows and how late elements may arrive
+   * @param eventTime the event time of an element in milliseconds
+   * @param allocate  allocate the initial aggregate of a window
+   * @param aggregate add an element to the aggregate of a window
+   * @param merge     merge the aggregates of two session windows that an element connects, the earlier one first,
+   *                  not used for tumbling and sliding windows
+   * @param harvest   create the element to emit for a window, invoked within the current stage/operator
+   */
+  @ApiMayChange
+  def aggregateWithEventTimeWindow[Agg, Emit](windows: EventTimeWindows, eventTime: Out => Long)(allocate: () => Agg)(
+      aggregate: (Agg, Out) => Agg,
+      merge: (Agg, Agg) => Agg,
+      harvest: (TimeWindow, Agg) => Emit): Repr[Emit] =
+    via(AggregateWithEventTimeWindow(windows, eventTime, allocate, aggregate, merge, harvest))
+
 }
 
 /**
@@ -144,6 +144,21 @@ trait FlowWithContextOps[+Out, +Ctx, +Mat] {
     })
   }
 
+  /**
+   * Context-preserving variant of [[pekko.stream.scaladsl.FlowOps.mapAsyncPartitionedUnordered]] with
+   * parallelism per partition.
+   *
+   * @see [[pekko.stream.scaladsl.FlowOps.mapAsyncPartitionedUnordered]]
+   */
+  def mapAsyncPartitionedUnordered[Out2, P](parallelism: Int, perPartition: Int)(
+      partitioner: Out => P)(
+      f: (Out, P) => Future[Out2]): Repr[Out2, Ctx] = {
+    via(flow[Out, Ctx].mapAsyncPartitionedUnordered(parallelism, perPartition)(pair => partitioner(pair._1)) {
+      (pair, partition) =>
+        f(pair._1, partition).map((_, pair._2))(ExecutionContexts.parasitic)
+    })
+  }
+
   /**
    * Context-preserving variant of [[pekko.stream.scaladsl.FlowOps.collect]].
    *
@@ -221,7 +221,6 @@ object Framing {
 
     override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
       new GraphStageLogic(shape) with InHandler with OutHandler {
-        private val firstSeparatorByte = separatorBytes.head
         private var buffer = ByteString.empty
         private var nextPossibleMatch = 0
 
@@ -259,8 +258,8 @@ object Framing {
 
         @tailrec
         private def searchIndices(): Unit = {
-          // Next possible position for the delimiter
-          val possibleMatchPos = buffer.indexOf(firstSeparatorByte, from = nextPossibleMatch)
+          // Position of the next delimiter
+          val matchPos = buffer.indexOfSlice(separatorBytes, nextPossibleMatch)
 
           // Retrive previous position
           val previous = indices.lastOption match {
@@ -268,41 +267,32 @@ object Framing {
             case _                      => 0
           }
 
-          if (possibleMatchPos - previous > maximumLineBytes) {
+          if (matchPos - previous > maximumLineBytes) {
             failStage(
               new FramingException(
-                s"Read ${possibleMatchPos - previous} bytes " +
+                s"Read ${matchPos - previous} bytes " +
                 s"which is more than $maximumLineBytes without seeing a line terminator"))
-          } else if (possibleMatchPos == -1) {
+          } else if (matchPos == -1) {
             if (buffer.length - previous > maximumLineBytes)
               failStage(
                 new FramingException(
                   s"Read ${buffer.length - previous} bytes " +
                   s"which is more than $maximumLineBytes without seeing a line terminator"))
             else {
-              // No matching character, we need to accumulate more bytes into the buffer
-              nextPossibleMatch = buffer.length
+              // No match, we need to accumulate more bytes into the buffer. A delimiter may already
+              // have started within the last bytes, so the next search starts from there.
+              nextPossibleMatch = math.max(nextPossibleMatch, buffer.length - separatorBytes.length + 1)
               doParse()
             }
-          } else if (possibleMatchPos + separatorBytes.length > buffer.length) {
-            // We have found a possible match (we found the first character of the terminator
-            // sequence) but we don't have yet enough bytes. We remember the position to
-            // retry from next time.
-            nextPossibleMatch = possibleMatchPos
-            doParse()
-          } else if (buffer.slice(possibleMatchPos, possibleMatchPos + separatorBytes.length) == separatorBytes) {
+          } else {
             // Found a match, mark start and end position and iterate if possible
-            indices += (previous -> possibleMatchPos)
-            nextPossibleMatch = possibleMatchPos + separatorBytes.length
+            indices += (previous -> matchPos)
+            nextPossibleMatch = matchPos + separatorBytes.length
             if (nextPossibleMatch == buffer.length || indices.isFull) {
               doParse()
             } else {
               searchIndices()
             }
-          } else {
-            // possibleMatchPos was not actually a match
-            nextPossibleMatch += 1
-            searchIndices()
           }
         }
 
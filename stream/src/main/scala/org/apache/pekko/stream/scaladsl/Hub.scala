@@ -15,7 +15,7 @@ package org.apache.pekko.stream.scaladsl
 
 import java.util
 import java.util.concurrent.ConcurrentHashMap
-import java.util.concurrent.atomic.{ AtomicLong, AtomicReference }
+import java.util.concurrent.atomic.{ AtomicBoolean, AtomicLong, AtomicReference }
 import java.util.concurrent.atomic.AtomicInteger
 import java.util.concurrent.atomic.AtomicReferenceArray
 
@@ -178,7 +178,7 @@ private[pekko] class MergeHub[T](perProducerBufferSize: Int, drainingEnabled: Bo
      * processing of control messages. This causes no issues though, see the explanation in 'tryProcessNext'.
      */
     private val queue = new AbstractNodeQueue[Event] {}
-    @volatile private[this] var needWakeup = false
+    private[this] val needWakeup = new AtomicBoolean(false)
     @volatile private[this] var shuttingDown = false
     @volatile private[this] var draining = false
 
@@ -232,10 +232,10 @@ private[pekko] class MergeHub[T](perProducerBufferSize: Int, drainingEnabled: Bo
       // timely. In fact, the only way the map could keep growing would mean that we dequeue Registers from the
       // queue, but then we will eventually reach the Deregister message, too.
       if (nextElem ne null) {
-        needWakeup = false
+        needWakeup.set(false)
         if (onEvent(nextElem)) tryProcessNext(firstAttempt = true)
       } else {
-        needWakeup = true
+        needWakeup.set(true)
         // additional poll() to grab any elements that might missed the needWakeup
         // and have been enqueued just after it
         if (firstAttempt)
@@ -252,9 +252,10 @@ private[pekko] class MergeHub[T](perProducerBufferSize: Int, drainingEnabled: Bo
     private[MergeHub] def enqueue(ev: Event): Unit = {
       queue.add(ev)
       /*
-       * Simple volatile var is enough, there is no need for a CAS here. The first important thing to note
-       * that we don't care about double-wakeups. Since the "wakeup" is actually handled by an actor message
-       * (AsyncCallback) we don't need to handle this case, a double-wakeup will be idempotent (only wasting some cycles).
+       * A double-wakeup would be harmless, since the "wakeup" is actually handled by an actor message (AsyncCallback)
+       * and is idempotent. Only one of the producers that observe needWakeup = true wins the CAS though, so that
+       * many producers enqueueing at the same time don't flood the consumer with wakeup messages. The plain read
+       * before the CAS keeps the common case, the consumer running, free of contended writes.
        *
        * The only case that we care about is a missed wakeup. The characteristics of a missed wakeup are the following:
        *  (1) there is at least one message in the queue
@@ -279,8 +280,7 @@ private[pekko] class MergeHub[T](perProducerBufferSize: Int, drainingEnabled: Bo
        *      contradiction. QED.
        *
        */
-      if (needWakeup) {
-        needWakeup = false
+      if (needWakeup.get() && needWakeup.compareAndSet(true, false)) {
         wakeupCallback.invoke(NotUsed)
       }
     }
@@ -497,9 +497,14 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
   // these 4 next classes can't be final because of SI-4440
   private case class UnRegister(id: Long, previousOffset: Int, finalOffset: Int) extends HubEvent
   private case class Advance(id: Long, previousOffset: Int) extends HubEvent
-  private case class NeedWakeup(id: Long, previousOffset: Int, currentOffset: Int) extends HubEvent
   private case class Consumer(id: Long, callback: AsyncCallback[ConsumerEvent])
 
+  /*
+   * A Consumer that found no element to read. It is set while the Waiter is in the waiters queue of the hub, so
+   * that a Consumer is queued at most once.
+   */
+  private final class Waiter(val callback: AsyncCallback[ConsumerEvent]) extends AtomicBoolean(false)
+
   private object Completed
 
   private sealed trait HubState
@@ -521,10 +526,12 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
     private[this] var head = Int.MaxValue
     /*
      * An Array with a published tail ("latest message") and a privately maintained head ("earliest buffered message").
-     * Elements are published by simply putting them into the array and bumping the tail. If necessary, certain
-     * consumers are sent a wakeup message through an AsyncCallback.
+     * Elements are published by simply putting them into the array and bumping the tail. Consumers that caught up
+     * with the tail put themselves into the waiters queue without a message to the hub, and only those are sent
+     * a wakeup message through an AsyncCallback when the next element is published.
      */
     private[this] val queue = new Array[AnyRef](bufferSize)
+    private[this] val waiters = new AbstractNodeQueue[Waiter] {}
     /* This is basically a classic Bucket Queue: https://en.wikipedia.org/wiki/Bucket_queue
      * (in fact, this is the variant described in the Optimizations section, where the given set
      * of priorities always fall to a range
@@ -532,8 +539,7 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
      * This wheel tracks the position of Consumers relative to the slowest ones. Every slot
      * contains a list of Consumers being known at that location (this might be out of date!).
      * Consumers from time to time send Advance messages to indicate that they have progressed
-     * by reading from the broadcast queue. Consumers that are blocked (due to reaching tail) request
-     * a wakeup and update their position at the same time.
+     * by reading from the broadcast queue.
      *
      */
     private[this] val consumerWheel = Array.fill[List[Consumer]](bufferSize * 2)(Nil)
@@ -569,15 +575,6 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
           val consumer = findAndRemoveConsumer(id, previousOffset)
           addConsumer(consumer, newOffset)
           checkUnblock(previousOffset)
-        case NeedWakeup(id, previousOffset, currentOffset) =>
-          // Move the consumer from its last known offset to its new one. Check if we are unblocked.
-          val consumer = findAndRemoveConsumer(id, previousOffset)
-          addConsumer(consumer, currentOffset)
-
-          // Also check if the consumer is now unblocked since we published an element since it went asleep.
-          if (currentOffset != tail) consumer.callback.invoke(Wakeup)
-          checkUnblock(previousOffset)
-
         case RegistrationPending =>
           state.getAndSet(noRegistrationsState).asInstanceOf[Open].registrations.foreach { consumer =>
             val startFrom = head
@@ -692,20 +689,23 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
     }
 
     /*
-     * Send a wakeup signal to all the Consumers at a certain wheel index. Note, this needs the actual index,
-     * which is offset modulo (bufferSize + 1).
+     * Send a wakeup signal to the Consumers that are waiting for the next element. Must be called after
+     * publishing the new tail, see awaitElement.
      */
-    private def wakeupIdx(idx: Int): Unit = {
-      val itr = consumerWheel(idx).iterator
-      while (itr.hasNext) itr.next().callback.invoke(Wakeup)
+    private def wakeupWaiters(): Unit = {
+      var waiter = waiters.poll()
+      while (waiter ne null) {
+        waiter.set(false)
+        waiter.callback.invoke(Wakeup)
+        waiter = waiters.poll()
+      }
     }
 
     private def complete(): Unit = {
       val idx = tail & Mask
-      val wheelSlot = tail & WheelMask
       queue(idx) = Completed
-      wakeupIdx(wheelSlot)
       tail = tail + 1
+      wakeupWaiters()
       if (activeConsumers == 0) {
         // Existing consumers have already consumed all elements and will see completion status in the queue
         completeStage()
@@ -731,11 +731,10 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
 
     private def publish(elem: T): Unit = {
       val idx = tail & Mask
-      val wheelSlot = tail & WheelMask
       queue(idx) = elem.asInstanceOf[AnyRef]
       // Publish the new tail before calling the wakeup
       tail = tail + 1
-      wakeupIdx(wheelSlot)
+      wakeupWaiters()
     }
 
     // Consumer API
@@ -744,6 +743,16 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
       else queue(offset & Mask)
     }
 
+    /*
+     * Register a Consumer that found no element to read to be woken up when the next element is published.
+     * The Consumer must poll once more after this call: an element published before the waiter was added
+     * does not wake it up. The waiters queue is written before the tail is read here, and the tail is written
+     * before the waiters queue is read by the hub, so either the Consumer sees the new element or the hub sees
+     * the Waiter.
+     */
+    def awaitElement(waiter: Waiter): Unit =
+      if (waiter.compareAndSet(false, true)) waiters.add(waiter)
+
     setHandler(in, this)
 
   }
@@ -770,6 +779,7 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
           private[this] val id = idCounter.getAndIncrement()
           private[this] var offsetInitialized = false
           private[this] var hubCallback: AsyncCallback[HubEvent] = _
+          private[this] var waiter: Waiter = _
 
           /*
            * We need to track our last offset that we published to the Hub. The reason is, that for efficiency reasons,
@@ -782,6 +792,7 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
 
           override def preStart(): Unit = {
             val callback = getAsyncCallback(onCommand)
+            waiter = new Waiter(callback)
 
             val onHubReady: Try[AsyncCallback[HubEvent]] => Unit = {
               case Success(callback) =>
@@ -817,13 +828,14 @@ private[pekko] class BroadcastHub[T](startAfterNrOfConsumers: Int, bufferSize: I
 
           override def onPull(): Unit = {
             if (offsetInitialized && (hubCallback ne null)) {
-              val elem = logic.poll(offset)
+              var elem = logic.poll(offset)
+              if (elem eq null) {
+                logic.awaitElement(waiter)
+                elem = logic.poll(offset)
+              }
 
               elem match {
-                case null =>
-                  hubCallback.invoke(NeedWakeup(id, previousPublishedOffset, offset))
-                  previousPublishedOffset = offset
-                  untilNextAdvanceSignal = DemandThreshold
+                case null => // the hub sends a Wakeup when the next element is published
                 case Completed =>
                   completeStage()
                 case _ =>
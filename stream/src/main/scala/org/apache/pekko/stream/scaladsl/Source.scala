@@ -851,6 +851,10 @@ object Source {
    * `QueueOfferResult.Failure`        the queue was failed with [[pekko.stream.BoundedSourceQueue.fail]] or if
    *                                   the stream failed
    *
+   * Producers that should be back-pressured rather than have elements dropped can offer many elements at once with
+   * [[pekko.stream.BoundedSourceQueue.offerAll]] and wait for
+   * [[pekko.stream.BoundedSourceQueue.whenCapacityAvailable]] only when the buffer is full.
+   *
    * @param bufferSize size of the buffer in number of elements
    */
   def queue[T](bufferSize: Int): Source[T, BoundedSourceQueue[T]] =
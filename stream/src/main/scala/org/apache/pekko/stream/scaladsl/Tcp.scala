@@ -41,6 +41,7 @@ import pekko.stream.Attributes.Attribute
 import pekko.stream.TLSProtocol.NegotiateNewSession
 import pekko.stream.impl.fusing.GraphStages.detacher
 import pekko.stream.impl.io.ConnectionSourceStage
+import pekko.stream.impl.io.FileRegionTransferStage
 import pekko.stream.impl.io.OutgoingConnectionStage
 import pekko.stream.impl.io.TcpIdleTimeout
 import pekko.util.ByteString
@@ -97,6 +98,25 @@ object Tcp extends ExtensionId[Tcp] with ExtensionIdProvider {
 
   def createExtension(system: ExtendedActorSystem): Tcp = new Tcp(system)
 
+  /**
+   * Adapts the flow of a TCP connection to send regions of files, for example those emitted by
+   * [[FileIO.fromPathRegions]].
+   *
+   * When `connection` is a flow returned by [[Tcp.outgoingConnection]] or [[Tcp.IncomingConnection.flow]] without an
+   * idle timeout, and no asynchronous boundary is added in between, the regions are passed to the connection as they
+   * are, which sends them with `FileChannel.transferTo`, so that the file contents are not read into memory.
+   * The next region is requested when the previous one has been written, so back-pressure is kept.
+   * Otherwise the regions are read in chunks of `chunkSize` bytes on the blocking IO dispatcher,
+   * as by `FileIO.fromPath`.
+   *
+   * @param connection the flow of a TCP connection
+   * @param chunkSize the size of the chunks when the regions are read, defaults to 8192
+   */
+  def fileTransfer[Mat](
+      connection: Flow[ByteString, ByteString, Mat],
+      chunkSize: Int = 8192): Flow[FileRegion, ByteString, Mat] =
+    Flow.fromGraph(new FileRegionTransferStage(chunkSize)).viaMat(connection)(Keep.right)
+
   // just wraps/unwraps the TLS byte events to provide ByteString, ByteString flows
   private val tlsWrapping: BidiFlow[ByteString, TLSProtocol.SendBytes, TLSProtocol.SslTlsInbound, ByteString, NotUsed] =
     BidiFlow.fromFlows(Flow[ByteString].map(TLSProtocol.SendBytes.apply),
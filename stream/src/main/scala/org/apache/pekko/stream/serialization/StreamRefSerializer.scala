@@ -13,8 +13,13 @@
 
 package org.apache.pekko.stream.serialization
 
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
 import java.nio.charset.StandardCharsets
 
+import scala.annotation.tailrec
+import scala.collection.immutable
+
 import org.apache.pekko
 import pekko.actor.ExtendedActorSystem
 import pekko.annotation.InternalApi
@@ -40,11 +45,13 @@ private[pekko] final class StreamRefSerializer(val system: ExtendedActorSystem)
   private[this] val SinkRefManifest = "F"
   private[this] val OnSubscribeHandshakeManifest = "G"
   private[this] val AckManifest = "H"
+  private[this] val SequencedOnNextBatchManifest = "I"
 
   override def manifest(o: AnyRef): String = o match {
     // protocol
-    case _: StreamRefsProtocol.SequencedOnNext[_] => SequencedOnNextManifest
-    case _: StreamRefsProtocol.CumulativeDemand   => CumulativeDemandManifest
+    case _: StreamRefsProtocol.SequencedOnNext[_]      => SequencedOnNextManifest
+    case _: StreamRefsProtocol.SequencedOnNextBatch[_] => SequencedOnNextBatchManifest
+    case _: StreamRefsProtocol.CumulativeDemand        => CumulativeDemandManifest
     // handshake
     case _: StreamRefsProtocol.OnSubscribeHandshake => OnSubscribeHandshakeManifest
     // completion
@@ -61,8 +68,9 @@ private[pekko] final class StreamRefSerializer(val system: ExtendedActorSystem)
 
   override def toBinary(o: AnyRef): Array[Byte] = o match {
     // protocol
-    case o: StreamRefsProtocol.SequencedOnNext[_] => serializeSequencedOnNext(o).toByteArray
-    case d: StreamRefsProtocol.CumulativeDemand   => serializeCumulativeDemand(d).toByteArray
+    case o: StreamRefsProtocol.SequencedOnNext[_]      => serializeSequencedOnNext(o).toByteArray
+    case b: StreamRefsProtocol.SequencedOnNextBatch[_] => serializeSequencedOnNextBatch(b)
+    case d: StreamRefsProtocol.CumulativeDemand        => serializeCumulativeDemand(d).toByteArray
     // handshake
     case h: StreamRefsProtocol.OnSubscribeHandshake => serializeOnSubscribeHandshake(h).toByteArray
     // termination
@@ -81,6 +89,7 @@ private[pekko] final class StreamRefSerializer(val system: ExtendedActorSystem)
     // protocol
     case OnSubscribeHandshakeManifest => deserializeOnSubscribeHandshake(bytes)
     case SequencedOnNextManifest      => deserializeSequencedOnNext(bytes)
+    case SequencedOnNextBatchManifest => deserializeSequencedOnNextBatch(bytes)
     case CumulativeDemandManifest     => deserializeCumulativeDemand(bytes)
     case RemoteSinkCompletedManifest  => deserializeRemoteStreamCompleted(bytes)
     case RemoteSinkFailureManifest    => deserializeRemoteStreamFailure(bytes)
@@ -121,8 +130,11 @@ private[pekko] final class StreamRefSerializer(val system: ExtendedActorSystem)
       .build()
   }
 
-  private def serializeSequencedOnNext(o: StreamRefsProtocol.SequencedOnNext[_]) = {
-    val p = o.payload.asInstanceOf[AnyRef]
+  private def serializeSequencedOnNext(o: StreamRefsProtocol.SequencedOnNext[_]) =
+    serializeSequencedOnNext(o.seqNr, o.payload)
+
+  private def serializeSequencedOnNext(seqNr: Long, payload: Any): StreamRefMessages.SequencedOnNext = {
+    val p = payload.asInstanceOf[AnyRef]
     val msgSerializer = serialization.findSerializerFor(p)
 
     val payloadBuilder = StreamRefMessages.Payload
@@ -133,7 +145,21 @@ private[pekko] final class StreamRefSerializer(val system: ExtendedActorSystem)
     val ms = Serializers.manifestFor(msgSerializer, p)
     if (ms.nonEmpty) payloadBuilder.setMessageManifest(ByteString.copyFromUtf8(ms))
 
-    StreamRefMessages.SequencedOnNext.newBuilder().setSeqNr(o.seqNr).setPayload(payloadBuilder.build()).build()
+    StreamRefMessages.SequencedOnNext.newBuilder().setSeqNr(seqNr).setPayload(payloadBuilder.build()).build()
+  }
+
+  /**
+   * A batch is written as the length delimited `SequencedOnNext` messages of its elements, so that it does not
+   * need a message type of its own.
+   */
+  private def serializeSequencedOnNextBatch(b: StreamRefsProtocol.SequencedOnNextBatch[_]): Array[Byte] = {
+    val out = new ByteArrayOutputStream
+    var seqNr = b.seqNr
+    b.payloads.foreach { payload =>
+      serializeSequencedOnNext(seqNr, payload).writeDelimitedTo(out)
+      seqNr += 1
+    }
+    out.toByteArray
   }
 
   private def serializeSinkRef(sink: SinkRefImpl[_]): StreamRefMessages.SinkRef = {
@@ -176,12 +202,27 @@ private[pekko] final class StreamRefSerializer(val system: ExtendedActorSystem)
 
   private def deserializeSequencedOnNext(bytes: Array[Byte]): StreamRefsProtocol.SequencedOnNext[AnyRef] = {
     val o = StreamRefMessages.SequencedOnNext.parseFrom(bytes)
-    val p = o.getPayload
-    val payload =
-      serialization.deserialize(p.getEnclosedMessage.toByteArray, p.getSerializerId, p.getMessageManifest.toStringUtf8)
-    StreamRefsProtocol.SequencedOnNext(o.getSeqNr, payload.get)
+    StreamRefsProtocol.SequencedOnNext(o.getSeqNr, deserializePayload(o.getPayload))
   }
 
+  private def deserializeSequencedOnNextBatch(bytes: Array[Byte]): StreamRefsProtocol.SequencedOnNextBatch[AnyRef] = {
+    val in = new ByteArrayInputStream(bytes)
+    val first = StreamRefMessages.SequencedOnNext.parseDelimitedFrom(in)
+    @tailrec def payloads(acc: immutable.VectorBuilder[AnyRef]): immutable.Seq[AnyRef] =
+      StreamRefMessages.SequencedOnNext.parseDelimitedFrom(in) match {
+        case null => acc.result()
+        case o    => payloads(acc += deserializePayload(o.getPayload))
+      }
+    StreamRefsProtocol.SequencedOnNextBatch(
+      first.getSeqNr,
+      payloads(new immutable.VectorBuilder[AnyRef] += deserializePayload(first.getPayload)))
+  }
+
+  private def deserializePayload(p: StreamRefMessages.Payload): AnyRef =
+    serialization
+      .deserialize(p.getEnclosedMessage.toByteArray, p.getSerializerId, p.getMessageManifest.toStringUtf8)
+      .get
+
   private def deserializeCumulativeDemand(bytes: Array[Byte]): StreamRefsProtocol.CumulativeDemand = {
     val d = StreamRefMessages.CumulativeDemand.parseFrom(bytes)
     StreamRefsProtocol.CumulativeDemand(d.getSeqNr)